@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks;
+
+import org.apache.streampipes.dataformat.SpDataFormatFactory;
+import org.apache.streampipes.dataformat.SpDataFormatManager;
+import org.apache.streampipes.dataformat.binary.BinaryDataFormatFactory;
+import org.apache.streampipes.dataformat.cbor.CborDataFormatFactory;
+import org.apache.streampipes.dataformat.fst.FstDataFormatFactory;
+import org.apache.streampipes.dataformat.json.JsonDataFormatFactory;
+import org.apache.streampipes.dataformat.smile.SmileDataFormatFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class DataFormats {
+
+  public static final String JSON = "json";
+  public static final String CBOR = "cbor";
+  public static final String SMILE = "smile";
+  public static final String FST = "fst";
+  public static final String BINARY = "binary";
+
+  private static boolean registered = false;
+
+  public static SpDataFormatFactory makeFactory(String format) {
+    switch (format) {
+      case JSON:
+        return new JsonDataFormatFactory();
+      case CBOR:
+        return new CborDataFormatFactory();
+      case SMILE:
+        return new SmileDataFormatFactory();
+      case FST:
+        return new FstDataFormatFactory();
+      case BINARY:
+        return new BinaryDataFormatFactory();
+      default:
+        throw new IllegalArgumentException("Unknown data format " + format);
+    }
+  }
+
+  /**
+   * Registers all data formats with the data format manager, as done by extensions services.
+   */
+  public static synchronized void registerAll() {
+    if (!registered) {
+      List<String> formats = Arrays.asList(JSON, CBOR, SMILE, FST, BINARY);
+      formats.forEach(format -> SpDataFormatManager.INSTANCE.register(makeFactory(format)));
+      registered = true;
+    }
+  }
+}
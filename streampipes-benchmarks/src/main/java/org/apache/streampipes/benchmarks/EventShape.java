@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks;
+
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyList;
+import org.apache.streampipes.model.schema.EventPropertyNested;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.vocabulary.XSD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event shapes used by the benchmarks: a flat sensor reading with primitive values only and a
+ * nested reading which additionally contains objects and a list.
+ */
+public enum EventShape {
+
+  FLAT {
+    @Override
+    public Map<String, Object> makeEvent() {
+      Map<String, Object> event = new HashMap<>();
+      event.put("timestamp", 1672531200000L);
+      event.put("sensorId", "flowrate01");
+      event.put("temperature", 41.25);
+      event.put("pressure", 1.0134);
+      event.put("humidity", 61.8);
+      event.put("mass_flow", 5.75);
+      event.put("density", 46.4);
+      event.put("volume_flow", 8.21);
+      event.put("level", 17);
+      event.put("sensor_fault_flags", false);
+      return event;
+    }
+
+    @Override
+    public EventSchema makeSchema() {
+      return new EventSchema(Arrays.asList(
+          primitive("timestamp", XSD.LONG.toString()),
+          primitive("sensorId", XSD.STRING.toString()),
+          primitive("temperature", XSD.DOUBLE.toString()),
+          primitive("pressure", XSD.DOUBLE.toString()),
+          primitive("humidity", XSD.DOUBLE.toString()),
+          primitive("mass_flow", XSD.DOUBLE.toString()),
+          primitive("density", XSD.DOUBLE.toString()),
+          primitive("volume_flow", XSD.DOUBLE.toString()),
+          primitive("level", XSD.INTEGER.toString()),
+          primitive("sensor_fault_flags", XSD.BOOLEAN.toString())));
+    }
+  },
+
+  NESTED {
+    @Override
+    public Map<String, Object> makeEvent() {
+      Map<String, Object> location = new HashMap<>();
+      location.put("latitude", 49.0069);
+      location.put("longitude", 8.4037);
+
+      Map<String, Object> measurements = new HashMap<>();
+      measurements.put("temperature", 41.25);
+      measurements.put("pressure", 1.0134);
+      measurements.put("humidity", 61.8);
+
+      Map<String, Object> event = new HashMap<>();
+      event.put("timestamp", 1672531200000L);
+      event.put("sensorId", "flowrate01");
+      event.put("location", location);
+      event.put("measurements", measurements);
+      event.put("tags", new ArrayList<>(Arrays.asList("plant-1", "line-3", "calibrated")));
+      return event;
+    }
+
+    @Override
+    public EventSchema makeSchema() {
+      return new EventSchema(Arrays.asList(
+          primitive("timestamp", XSD.LONG.toString()),
+          primitive("sensorId", XSD.STRING.toString()),
+          new EventPropertyNested("location", Arrays.asList(
+              primitive("latitude", XSD.DOUBLE.toString()),
+              primitive("longitude", XSD.DOUBLE.toString()))),
+          new EventPropertyNested("measurements", Arrays.asList(
+              primitive("temperature", XSD.DOUBLE.toString()),
+              primitive("pressure", XSD.DOUBLE.toString()),
+              primitive("humidity", XSD.DOUBLE.toString()))),
+          new EventPropertyList("tags", primitive("", XSD.STRING.toString()))));
+    }
+  };
+
+  /**
+   * Creates the runtime representation of an event of this shape, as read from a message.
+   */
+  public abstract Map<String, Object> makeEvent();
+
+  public abstract EventSchema makeSchema();
+
+  /**
+   * Returns the selector of a field which is accessed by the benchmarks, relative to the given
+   * stream prefix.
+   */
+  public String getAccessedSelector(String selectorPrefix) {
+    return this == FLAT
+        ? selectorPrefix + "::temperature"
+        : selectorPrefix + "::measurements::temperature";
+  }
+
+  private static EventProperty primitive(String runtimeName, String runtimeType) {
+    return new EventPropertyPrimitive(runtimeType, runtimeName, "", new ArrayList<>());
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks.connect;
+
+import org.apache.streampipes.extensions.api.connect.IAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.FusedTransformAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.TransformSchemaAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.TransformValueAdapterPipelineElement;
+import org.apache.streampipes.model.connect.rules.TransformationRuleDescription;
+import org.apache.streampipes.model.connect.rules.schema.CreateNestedRuleDescription;
+import org.apache.streampipes.model.connect.rules.schema.MoveRuleDescription;
+import org.apache.streampipes.model.connect.rules.schema.RenameRuleDescription;
+import org.apache.streampipes.model.connect.rules.value.CorrectionValueTransformationRuleDescription;
+import org.apache.streampipes.model.connect.rules.value.TimestampTranfsformationRuleDescription;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the preprocessing of adapter events by the chain of schema and value transformation
+ * elements with the fused transformation, for adapters with a growing number of rename and
+ * correction rules. Both variants transform a fresh copy of the same event per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdapterPipelineBenchmark {
+
+  @Param({"5", "30"})
+  public int ruleCount;
+
+  private Map<String, Object> rawEvent;
+  private List<IAdapterPipelineElement> chainedElements;
+  private IAdapterPipelineElement fusedElement;
+
+  @Setup
+  public void setup() {
+    this.rawEvent = makeEvent();
+
+    List<TransformationRuleDescription> schemaRules = new ArrayList<>();
+    List<TransformationRuleDescription> valueRules = new ArrayList<>();
+    for (int i = 0; i < ruleCount; i++) {
+      schemaRules.add(new RenameRuleDescription("value" + i, "renamed" + i));
+      valueRules.add(new CorrectionValueTransformationRuleDescription("renamed" + i, 1.8, "MULTIPLY"));
+    }
+    schemaRules.add(new CreateNestedRuleDescription("sensor"));
+    schemaRules.add(new MoveRuleDescription("location.sensorId", "sensor"));
+    valueRules.add(new TimestampTranfsformationRuleDescription("timestamp", "timeUnit", null, 1000L));
+
+    this.chainedElements = List.of(
+        new TransformSchemaAdapterPipelineElement(schemaRules),
+        new TransformValueAdapterPipelineElement(valueRules));
+    this.fusedElement = new FusedTransformAdapterPipelineElement(null, null, schemaRules, valueRules);
+  }
+
+  @Benchmark
+  public Map<String, Object> chained() {
+    Map<String, Object> event = copy(rawEvent);
+    for (IAdapterPipelineElement element : chainedElements) {
+      event = element.process(event);
+    }
+    return event;
+  }
+
+  @Benchmark
+  public Map<String, Object> fused() {
+    return fusedElement.process(copy(rawEvent));
+  }
+
+  private Map<String, Object> makeEvent() {
+    Map<String, Object> location = new HashMap<>();
+    location.put("sensorId", "flowrate01");
+    location.put("latitude", 49.0069);
+    location.put("longitude", 8.4037);
+
+    Map<String, Object> event = new HashMap<>();
+    event.put("timestamp", 1672531200L);
+    event.put("location", location);
+    for (int i = 0; i < ruleCount; i++) {
+      event.put("value" + i, 20.0 + i);
+    }
+    return event;
+  }
+
+  private Map<String, Object> copy(Map<String, Object> event) {
+    Map<String, Object> copy = new HashMap<>(event);
+    copy.put("location", new HashMap<>((Map<String, Object>) event.get("location")));
+    return copy;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks.connect;
+
+import org.apache.streampipes.extensions.management.connect.adapter.format.csv.CsvFormat;
+import org.apache.streampipes.extensions.management.connect.adapter.format.csv.CsvParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares replaying a CSV file through the line-based parser and {@link CsvFormat} with the
+ * parallel reader over memory-mapped chunks. Both variants count the events of a file with one
+ * million rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CsvReplayBenchmark {
+
+  private static final int ROWS = 1000000;
+
+  private Path file;
+  private CsvParser parser;
+  private CsvFormat format;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    this.file = Files.createTempFile("sp-benchmark", ".csv");
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      writer.write("timestamp,temperature,pressure,sensorId,active\n");
+      for (int i = 0; i < ROWS; i++) {
+        writer.write((1667904471000L + i) + "," + (20.0 + i % 100 * 0.01) + "," + (i % 1000) + ",sensor"
+            + (i % 10) + "," + (i % 2 == 0) + "\n");
+      }
+    }
+    this.parser = new CsvParser(",", true);
+    this.format = new CsvFormat(",", true);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.delete(file);
+  }
+
+  @Benchmark
+  public long lineBased() throws IOException {
+    long[] count = new long[1];
+    format.reset();
+    try (InputStream data = Files.newInputStream(file)) {
+      parser.parse(data, event -> {
+        if (format.parse(event) != null) {
+          count[0]++;
+        }
+        return true;
+      });
+    }
+    return count[0];
+  }
+
+  @Benchmark
+  public long parallel() throws IOException {
+    long[] count = new long[1];
+    parser.parseFile(file, event -> {
+      count[0]++;
+      return true;
+    });
+    return count[0];
+  }
+}
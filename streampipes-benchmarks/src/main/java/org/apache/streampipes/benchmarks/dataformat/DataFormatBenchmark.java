@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks.dataformat;
+
+import org.apache.streampipes.benchmarks.DataFormats;
+import org.apache.streampipes.benchmarks.EventShape;
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.schema.EventSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization and deserialization of events with all data formats, both via the
+ * runtime map and directly from and to the {@link Event} API.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataFormatBenchmark {
+
+  @Param({DataFormats.JSON, DataFormats.CBOR, DataFormats.SMILE, DataFormats.FST, DataFormats.BINARY})
+  public String format;
+
+  @Param({"FLAT", "NESTED"})
+  public EventShape shape;
+
+  private SpDataFormatDefinition dataFormatDefinition;
+  private Map<String, Object> rawEvent;
+  private byte[] message;
+  private SourceInfo sourceInfo;
+  private SchemaInfo schemaInfo;
+  private EventLayout eventLayout;
+  private Event event;
+
+  @Setup
+  public void setup() {
+    EventSchema eventSchema = shape.makeSchema();
+    this.dataFormatDefinition = DataFormats.makeFactory(format).createInstance().bindSchema(eventSchema);
+    this.rawEvent = shape.makeEvent();
+    this.message = dataFormatDefinition.fromMap(rawEvent);
+    this.sourceInfo = new SourceInfo("benchmark-topic", "s0");
+    this.schemaInfo = new SchemaInfo(eventSchema, new ArrayList<>());
+    this.eventLayout = EventLayout.compile(sourceInfo, schemaInfo);
+    this.event = dataFormatDefinition.toEvent(message, sourceInfo, schemaInfo, eventLayout);
+  }
+
+  @Benchmark
+  public Map<String, Object> toMap() {
+    return dataFormatDefinition.toMap(message);
+  }
+
+  @Benchmark
+  public byte[] fromMap() {
+    return dataFormatDefinition.fromMap(rawEvent);
+  }
+
+  @Benchmark
+  public Event toEvent() {
+    return dataFormatDefinition.toEvent(message, sourceInfo, schemaInfo, eventLayout);
+  }
+
+  @Benchmark
+  public byte[] fromEvent() {
+    return dataFormatDefinition.fromEvent(event);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks.event;
+
+import org.apache.streampipes.benchmarks.EventShape;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventConverter;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion between the runtime map of an event and the {@link Event} API as well
+ * as field access by selector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventFactoryBenchmark {
+
+  @Param({"FLAT", "NESTED"})
+  public EventShape shape;
+
+  private Map<String, Object> rawEvent;
+  private SourceInfo sourceInfo;
+  private SchemaInfo schemaInfo;
+  private EventLayout eventLayout;
+  private Event event;
+  private String accessedSelector;
+
+  @Setup
+  public void setup() {
+    this.rawEvent = shape.makeEvent();
+    this.sourceInfo = new SourceInfo("benchmark-topic", "s0");
+    this.schemaInfo = new SchemaInfo(shape.makeSchema(), new ArrayList<>());
+    this.eventLayout = EventLayout.compile(sourceInfo, schemaInfo);
+    this.event = EventFactory.fromMap(rawEvent, sourceInfo, schemaInfo, eventLayout);
+    this.accessedSelector = shape.getAccessedSelector(sourceInfo.getSelectorPrefix());
+  }
+
+  @Benchmark
+  public Event fromMap() {
+    return EventFactory.fromMap(rawEvent, sourceInfo, schemaInfo);
+  }
+
+  @Benchmark
+  public Event fromMapWithLayout() {
+    return EventFactory.fromMap(rawEvent, sourceInfo, schemaInfo, eventLayout);
+  }
+
+  @Benchmark
+  public Map<String, Object> toMap() {
+    return new EventConverter(event).toMap();
+  }
+
+  @Benchmark
+  public AbstractField<?> getFieldBySelector() {
+    return event.getFieldBySelector(accessedSelector);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks.runtime;
+
+import org.apache.streampipes.messaging.InternalEventProcessor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers published messages synchronously to the consumer of the topic, so that the complete
+ * path from the input collector to the output collector runs on the publishing thread.
+ */
+public enum InMemoryBroker {
+
+  INSTANCE;
+
+  private final Map<String, InternalEventProcessor<byte[]>> subscribers = new ConcurrentHashMap<>();
+  private final LongAdder publishedBytes = new LongAdder();
+
+  public void subscribe(String topic, InternalEventProcessor<byte[]> eventProcessor) {
+    subscribers.put(topic, eventProcessor);
+  }
+
+  public void unsubscribe(String topic) {
+    subscribers.remove(topic);
+  }
+
+  public void publish(String topic, byte[] event) {
+    InternalEventProcessor<byte[]> subscriber = subscribers.get(topic);
+    if (subscriber != null) {
+      subscriber.onEvent(event);
+    } else {
+      publishedBytes.add(event.length);
+    }
+  }
+
+  /**
+   * Returns the number of bytes published to topics without a subscriber, i.e., the output of the
+   * benchmarked pipeline element.
+   */
+  public long getPublishedBytes() {
+    return publishedBytes.sum();
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.benchmarks.runtime;
+
+import org.apache.streampipes.benchmarks.DataFormats;
+import org.apache.streampipes.benchmarks.EventShape;
+import org.apache.streampipes.messaging.SpProtocolManager;
+import org.apache.streampipes.model.SpDataStream;
+import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.grounding.EventGrounding;
+import org.apache.streampipes.model.grounding.NatsTransportProtocol;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
+import org.apache.streampipes.wrapper.standalone.runtime.StandaloneEventProcessorRuntime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the end-to-end throughput of a standalone data processor, from a message arriving at
+ * the input collector through the engine to the message published by the output collector. The
+ * messaging layer is replaced by the {@link InMemoryBroker}, so no broker is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StandaloneProcessorBenchmark {
+
+  private static final String INPUT_TOPIC = "org.apache.streampipes.benchmarks.input";
+  private static final String OUTPUT_TOPIC = "org.apache.streampipes.benchmarks.output";
+
+  @Param({DataFormats.JSON, DataFormats.CBOR, DataFormats.SMILE, DataFormats.FST, DataFormats.BINARY})
+  public String format;
+
+  @Param({"FLAT", "NESTED"})
+  public EventShape shape;
+
+  private StandaloneEventProcessorRuntime<?> runtime;
+  private byte[] message;
+
+  @Setup
+  public void setup() {
+    DataFormats.registerAll();
+    if (SpProtocolManager.INSTANCE.getAvailableProtocols().isEmpty()) {
+      SpProtocolManager.INSTANCE.register(new InMemoryProtocolFactory());
+    }
+
+    EventSchema eventSchema = shape.makeSchema();
+    DataProcessorInvocation graph = makeInvocation(eventSchema);
+    PassThroughProcessor processor = new PassThroughProcessor(shape);
+
+    this.runtime = processor.getRuntime(graph, ProcessingElementParameterExtractor.from(graph), null, null);
+    this.runtime.bindRuntime();
+    this.message = DataFormats.makeFactory(format)
+        .createInstance()
+        .bindSchema(eventSchema)
+        .fromMap(shape.makeEvent());
+  }
+
+  @TearDown
+  public void tearDown() {
+    runtime.discardRuntime();
+  }
+
+  @Benchmark
+  public void processEvent() {
+    InMemoryBroker.INSTANCE.publish(INPUT_TOPIC, message);
+  }
+
+  private DataProcessorInvocation makeInvocation(EventSchema eventSchema) {
+    DataProcessorInvocation graph = new DataProcessorInvocation();
+    graph.setElementId(PassThroughProcessor.ID + ":" + format + ":" + shape);
+    graph.setInputStreams(Collections.singletonList(makeStream(INPUT_TOPIC, eventSchema)));
+    graph.setOutputStream(makeStream(OUTPUT_TOPIC, eventSchema));
+    graph.setOutputStrategies(new ArrayList<>());
+    graph.setStaticProperties(new ArrayList<>());
+    return graph;
+  }
+
+  private SpDataStream makeStream(String topic, EventSchema eventSchema) {
+    SpDataStream stream = new SpDataStream();
+    stream.setEventSchema(eventSchema);
+    stream.setEventGrounding(new EventGrounding(new NatsTransportProtocol("localhost", 4222, topic),
+        DataFormats.makeFactory(format).getTransportFormat()));
+    return stream;
+  }
+}
@@ -18,11 +18,15 @@
 
 package org.apache.streampipes.client.api;
 
+import org.apache.streampipes.client.http.BinaryGetRequest;
 import org.apache.streampipes.client.model.StreamPipesClientConfig;
 import org.apache.streampipes.client.util.StreamPipesApiPath;
 import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DataLakeMeasureApi extends AbstractTypedClientApi<DataLakeMeasure>
     implements CRUDApi<String, DataLakeMeasure> {
@@ -55,6 +59,53 @@ public class DataLakeMeasureApi extends AbstractTypedClientApi<DataLakeMeasure>
     put(getBaseResourcePath().addToPath(measure.getElementId()), measure);
   }
 
+  /**
+   * Adds the statistics of newly written events to the statistics of a measurement.
+   *
+   * Reports are applied at most once per writer and sequence number, so a report can be resent
+   * with the same sequence number if the response got lost.
+   *
+   * @param measureName The name of the measurement
+   * @param writerId    The id of the writer sending the report
+   * @param sequence    The sequence number of the report, increasing with each report of the writer
+   * @param statistics  The statistics of the events written since the last report
+   */
+  public void updateStatistics(String measureName,
+                               String writerId,
+                               long sequence,
+                               DataLakeMeasureStatistics statistics) {
+    StreamPipesApiPath apiPath = getBaseResourcePath()
+        .addToPath("statistics")
+        .addToPath(measureName)
+        .withQueryParameters(Map.of("writerId", writerId, "sequence", String.valueOf(sequence)));
+    post(apiPath, statistics);
+  }
+
+  /**
+   * Downloads the events of a measurement and writes them to a file.
+   *
+   * @param measureName     The name of the measurement
+   * @param format          The output format (csv, json, parquet or arrow)
+   * @param queryParameters Additional query parameters, e.g., the time range of the download
+   * @param fileLocation    The location of the file to write
+   */
+  public void downloadData(String measureName,
+                           String format,
+                           Map<String, String> queryParameters,
+                           String fileLocation) {
+    Map<String, String> parameters = new HashMap<>(queryParameters);
+    parameters.put("format", format);
+    StreamPipesApiPath apiPath = StreamPipesApiPath.fromStreamPipesBasePath()
+        .addToPath("api")
+        .addToPath("v4")
+        .addToPath("datalake")
+        .addToPath("measurements")
+        .addToPath(measureName)
+        .addToPath("download")
+        .withQueryParameters(parameters);
+    new BinaryGetRequest(clientConfig, apiPath, null).writeToFile(fileLocation);
+  }
+
   @Override
   protected StreamPipesApiPath getBaseResourcePath() {
     return StreamPipesApiPath.fromStreamPipesBasePath()
@@ -33,6 +33,35 @@ public class DefaultEnvValues {
   public static final String DEFAULT_ENCRYPTION_PASSCODE = "eGgemyGBoILAu3xckoIp";
 
   public static final String SP_KAFKA_RETENTION_MS_DEFAULT = "600000";
+  public static final String SP_KAFKA_TOPIC_PARTITIONS_DEFAULT = "1";
+  public static final String SP_KAFKA_CONSUMER_THREADS_DEFAULT = "1";
+  public static final String SP_OUTPUT_BATCH_SIZE_DEFAULT = "1";
+  public static final String SP_OUTPUT_BATCH_LINGER_MS_DEFAULT = "10";
+  public static final String SP_PROCESSING_PARALLELISM_DEFAULT = "1";
+  public static final String SP_LOCAL_TRANSPORT_QUEUE_SIZE_DEFAULT = "1000";
+  public static final String SP_PROCESSING_QUEUE_SIZE_DEFAULT = "1000";
+  public static final String SP_INPUT_QUEUE_SIZE_DEFAULT = "0";
+  public static final String SP_INPUT_QUEUE_OVERFLOW_POLICY_DEFAULT = "block";
+  public static final String SP_INPUT_QUEUE_SAMPLING_RATE_DEFAULT = "10";
+  public static final String SP_CONNECT_DUPLICATE_FILTER_MAX_ENTRIES_DEFAULT = "100000";
+  public static final String SP_CONNECT_POLLING_THREADS_DEFAULT = "64";
+  public static final String SP_CONNECT_POLLING_QUEUE_SIZE_DEFAULT = "256";
+  public static final String SP_TS_STORAGE_ENGINE_DEFAULT = "influx";
+  public static final String SP_TS_STORAGE_EMBEDDED_DIR_DEFAULT = "/data/timeseries";
+  public static final String SP_TS_STORAGE_WRITE_BATCH_SIZE_DEFAULT = "2000";
+  public static final String SP_TS_STORAGE_WRITE_FLUSH_INTERVAL_MS_DEFAULT = "500";
+  public static final String SP_TS_STORAGE_WRITE_QUEUE_SIZE_DEFAULT = "20000";
+  public static final String SP_TS_STORAGE_WRITE_MAX_RETRIES_DEFAULT = "5";
+  public static final String SP_DATA_LAKE_QUERY_THREADS_DEFAULT = "8";
+  public static final String SP_DATA_LAKE_QUERY_QUEUE_SIZE_DEFAULT = "256";
+  public static final String SP_DATA_LAKE_CACHE_MAX_ROWS_DEFAULT = "500000";
+  public static final String SP_DATA_LAKE_CACHE_SETTLE_MS_DEFAULT = "30000";
+  public static final String SP_DATA_LAKE_CACHE_TTL_SECONDS_DEFAULT = "300";
+  public static final String SP_DATA_LAKE_ROLLUP_TIERS_DEFAULT = "";
+  public static final String SP_DATA_LAKE_IMAGE_STORE_DEFAULT = "couchdb";
+  public static final String SP_DATA_LAKE_IMAGE_DIR_DEFAULT = "/data/images";
+  public static final String SP_DATA_LAKE_IMAGE_WRITE_QUEUE_SIZE_DEFAULT = "100";
+  public static final String SP_DATA_LAKE_IMAGE_RETENTION_DAYS_DEFAULT = "0";
 
   public static final String LOCALHOST = "localhost";
 }
@@ -34,6 +34,25 @@ public enum Envs {
       DefaultEnvValues.LOCALHOST),
   SP_CONSUL_PORT("SP_CONSUL_PORT", DefaultEnvValues.CONSUL_PORT_DEFAULT),
   SP_KAFKA_RETENTION_MS("SP_KAFKA_RETENTION_MS", DefaultEnvValues.SP_KAFKA_RETENTION_MS_DEFAULT),
+  SP_KAFKA_TOPIC_PARTITIONS("SP_KAFKA_TOPIC_PARTITIONS", DefaultEnvValues.SP_KAFKA_TOPIC_PARTITIONS_DEFAULT),
+  SP_KAFKA_CONSUMER_THREADS("SP_KAFKA_CONSUMER_THREADS", DefaultEnvValues.SP_KAFKA_CONSUMER_THREADS_DEFAULT),
+  SP_OUTPUT_BATCH_SIZE("SP_OUTPUT_BATCH_SIZE", DefaultEnvValues.SP_OUTPUT_BATCH_SIZE_DEFAULT),
+  SP_OUTPUT_BATCH_LINGER_MS("SP_OUTPUT_BATCH_LINGER_MS", DefaultEnvValues.SP_OUTPUT_BATCH_LINGER_MS_DEFAULT),
+  SP_PROCESSING_PARALLELISM("SP_PROCESSING_PARALLELISM", DefaultEnvValues.SP_PROCESSING_PARALLELISM_DEFAULT),
+  SP_PROCESSING_QUEUE_SIZE("SP_PROCESSING_QUEUE_SIZE", DefaultEnvValues.SP_PROCESSING_QUEUE_SIZE_DEFAULT),
+  SP_EVENT_TRACING_ENABLED("SP_EVENT_TRACING_ENABLED", "false"),
+  SP_LOCAL_TRANSPORT_ENABLED("SP_LOCAL_TRANSPORT_ENABLED", "false"),
+  SP_LOCAL_TRANSPORT_QUEUE_SIZE("SP_LOCAL_TRANSPORT_QUEUE_SIZE",
+      DefaultEnvValues.SP_LOCAL_TRANSPORT_QUEUE_SIZE_DEFAULT),
+  SP_INPUT_QUEUE_SIZE("SP_INPUT_QUEUE_SIZE", DefaultEnvValues.SP_INPUT_QUEUE_SIZE_DEFAULT),
+  SP_INPUT_QUEUE_OVERFLOW_POLICY("SP_INPUT_QUEUE_OVERFLOW_POLICY",
+      DefaultEnvValues.SP_INPUT_QUEUE_OVERFLOW_POLICY_DEFAULT),
+  SP_INPUT_QUEUE_SAMPLING_RATE("SP_INPUT_QUEUE_SAMPLING_RATE", DefaultEnvValues.SP_INPUT_QUEUE_SAMPLING_RATE_DEFAULT),
+  SP_CONNECT_DUPLICATE_FILTER_MAX_ENTRIES("SP_CONNECT_DUPLICATE_FILTER_MAX_ENTRIES",
+      DefaultEnvValues.SP_CONNECT_DUPLICATE_FILTER_MAX_ENTRIES_DEFAULT),
+  SP_CONNECT_POLLING_THREADS("SP_CONNECT_POLLING_THREADS", DefaultEnvValues.SP_CONNECT_POLLING_THREADS_DEFAULT),
+  SP_CONNECT_POLLING_QUEUE_SIZE("SP_CONNECT_POLLING_QUEUE_SIZE",
+      DefaultEnvValues.SP_CONNECT_POLLING_QUEUE_SIZE_DEFAULT),
   SP_JWT_SECRET("JWT_SECRET"),
   SP_JWT_SIGNING_MODE("SP_JWT_SIGNING_MODE"),
   SP_JWT_PRIVATE_KEY_LOC("SP_JWT_PRIVATE_KEY_LOC"),
@@ -67,7 +86,33 @@ public enum Envs {
 
   SP_TS_STORAGE_ORG("SP_TS_STORAGE_ORG", "sp"),
 
-  SP_TS_STORAGE_BUCKET("SP_TS_STORAGE_BUCKET", "sp");
+  SP_TS_STORAGE_BUCKET("SP_TS_STORAGE_BUCKET", "sp"),
+
+  SP_TS_STORAGE_ENGINE("SP_TS_STORAGE_ENGINE", DefaultEnvValues.SP_TS_STORAGE_ENGINE_DEFAULT),
+  SP_TS_STORAGE_EMBEDDED_DIR("SP_TS_STORAGE_EMBEDDED_DIR", DefaultEnvValues.SP_TS_STORAGE_EMBEDDED_DIR_DEFAULT),
+
+  SP_TS_STORAGE_WRITE_BATCH_SIZE("SP_TS_STORAGE_WRITE_BATCH_SIZE",
+      DefaultEnvValues.SP_TS_STORAGE_WRITE_BATCH_SIZE_DEFAULT),
+  SP_TS_STORAGE_WRITE_FLUSH_INTERVAL_MS("SP_TS_STORAGE_WRITE_FLUSH_INTERVAL_MS",
+      DefaultEnvValues.SP_TS_STORAGE_WRITE_FLUSH_INTERVAL_MS_DEFAULT),
+  SP_TS_STORAGE_WRITE_QUEUE_SIZE("SP_TS_STORAGE_WRITE_QUEUE_SIZE",
+      DefaultEnvValues.SP_TS_STORAGE_WRITE_QUEUE_SIZE_DEFAULT),
+  SP_TS_STORAGE_WRITE_MAX_RETRIES("SP_TS_STORAGE_WRITE_MAX_RETRIES",
+      DefaultEnvValues.SP_TS_STORAGE_WRITE_MAX_RETRIES_DEFAULT),
+  SP_DATA_LAKE_QUERY_THREADS("SP_DATA_LAKE_QUERY_THREADS", DefaultEnvValues.SP_DATA_LAKE_QUERY_THREADS_DEFAULT),
+  SP_DATA_LAKE_QUERY_QUEUE_SIZE("SP_DATA_LAKE_QUERY_QUEUE_SIZE",
+      DefaultEnvValues.SP_DATA_LAKE_QUERY_QUEUE_SIZE_DEFAULT),
+  SP_DATA_LAKE_CACHE_MAX_ROWS("SP_DATA_LAKE_CACHE_MAX_ROWS", DefaultEnvValues.SP_DATA_LAKE_CACHE_MAX_ROWS_DEFAULT),
+  SP_DATA_LAKE_CACHE_SETTLE_MS("SP_DATA_LAKE_CACHE_SETTLE_MS", DefaultEnvValues.SP_DATA_LAKE_CACHE_SETTLE_MS_DEFAULT),
+  SP_DATA_LAKE_CACHE_TTL_SECONDS("SP_DATA_LAKE_CACHE_TTL_SECONDS",
+      DefaultEnvValues.SP_DATA_LAKE_CACHE_TTL_SECONDS_DEFAULT),
+  SP_DATA_LAKE_ROLLUP_TIERS("SP_DATA_LAKE_ROLLUP_TIERS", DefaultEnvValues.SP_DATA_LAKE_ROLLUP_TIERS_DEFAULT),
+  SP_DATA_LAKE_IMAGE_STORE("SP_DATA_LAKE_IMAGE_STORE", DefaultEnvValues.SP_DATA_LAKE_IMAGE_STORE_DEFAULT),
+  SP_DATA_LAKE_IMAGE_DIR("SP_DATA_LAKE_IMAGE_DIR", DefaultEnvValues.SP_DATA_LAKE_IMAGE_DIR_DEFAULT),
+  SP_DATA_LAKE_IMAGE_WRITE_QUEUE_SIZE("SP_DATA_LAKE_IMAGE_WRITE_QUEUE_SIZE",
+      DefaultEnvValues.SP_DATA_LAKE_IMAGE_WRITE_QUEUE_SIZE_DEFAULT),
+  SP_DATA_LAKE_IMAGE_RETENTION_DAYS("SP_DATA_LAKE_IMAGE_RETENTION_DAYS",
+      DefaultEnvValues.SP_DATA_LAKE_IMAGE_RETENTION_DAYS_DEFAULT);
 
   private final String envVariableName;
   private String defaultValue;
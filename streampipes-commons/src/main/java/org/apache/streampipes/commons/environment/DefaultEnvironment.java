@@ -80,6 +80,86 @@ public class DefaultEnvironment implements Environment {
     return new StringEnvironmentVariable(Envs.SP_TS_STORAGE_BUCKET);
   }
 
+  @Override
+  public StringEnvironmentVariable getTsStorageEngine() {
+    return new StringEnvironmentVariable(Envs.SP_TS_STORAGE_ENGINE);
+  }
+
+  @Override
+  public StringEnvironmentVariable getTsStorageEmbeddedDir() {
+    return new StringEnvironmentVariable(Envs.SP_TS_STORAGE_EMBEDDED_DIR);
+  }
+
+  @Override
+  public IntEnvironmentVariable getTsStorageWriteBatchSize() {
+    return new IntEnvironmentVariable(Envs.SP_TS_STORAGE_WRITE_BATCH_SIZE);
+  }
+
+  @Override
+  public IntEnvironmentVariable getTsStorageWriteFlushIntervalMs() {
+    return new IntEnvironmentVariable(Envs.SP_TS_STORAGE_WRITE_FLUSH_INTERVAL_MS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getTsStorageWriteQueueSize() {
+    return new IntEnvironmentVariable(Envs.SP_TS_STORAGE_WRITE_QUEUE_SIZE);
+  }
+
+  @Override
+  public IntEnvironmentVariable getTsStorageWriteMaxRetries() {
+    return new IntEnvironmentVariable(Envs.SP_TS_STORAGE_WRITE_MAX_RETRIES);
+  }
+
+  @Override
+  public IntEnvironmentVariable getDataLakeQueryThreads() {
+    return new IntEnvironmentVariable(Envs.SP_DATA_LAKE_QUERY_THREADS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getDataLakeQueryQueueSize() {
+    return new IntEnvironmentVariable(Envs.SP_DATA_LAKE_QUERY_QUEUE_SIZE);
+  }
+
+  @Override
+  public IntEnvironmentVariable getDataLakeCacheMaxRows() {
+    return new IntEnvironmentVariable(Envs.SP_DATA_LAKE_CACHE_MAX_ROWS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getDataLakeCacheSettleMs() {
+    return new IntEnvironmentVariable(Envs.SP_DATA_LAKE_CACHE_SETTLE_MS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getDataLakeCacheTtlSeconds() {
+    return new IntEnvironmentVariable(Envs.SP_DATA_LAKE_CACHE_TTL_SECONDS);
+  }
+
+  @Override
+  public StringEnvironmentVariable getDataLakeRollupTiers() {
+    return new StringEnvironmentVariable(Envs.SP_DATA_LAKE_ROLLUP_TIERS);
+  }
+
+  @Override
+  public StringEnvironmentVariable getDataLakeImageStore() {
+    return new StringEnvironmentVariable(Envs.SP_DATA_LAKE_IMAGE_STORE);
+  }
+
+  @Override
+  public StringEnvironmentVariable getDataLakeImageDir() {
+    return new StringEnvironmentVariable(Envs.SP_DATA_LAKE_IMAGE_DIR);
+  }
+
+  @Override
+  public IntEnvironmentVariable getDataLakeImageWriteQueueSize() {
+    return new IntEnvironmentVariable(Envs.SP_DATA_LAKE_IMAGE_WRITE_QUEUE_SIZE);
+  }
+
+  @Override
+  public IntEnvironmentVariable getDataLakeImageRetentionDays() {
+    return new IntEnvironmentVariable(Envs.SP_DATA_LAKE_IMAGE_RETENTION_DAYS);
+  }
+
   @Override
   public StringEnvironmentVariable getCouchDbProtocol() {
     return new StringEnvironmentVariable(Envs.SP_COUCHDB_PROTOCOL);
@@ -149,6 +229,81 @@ public class DefaultEnvironment implements Environment {
     return new StringEnvironmentVariable(Envs.SP_KAFKA_RETENTION_MS);
   }
 
+  @Override
+  public IntEnvironmentVariable getKafkaTopicPartitions() {
+    return new IntEnvironmentVariable(Envs.SP_KAFKA_TOPIC_PARTITIONS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getKafkaConsumerThreads() {
+    return new IntEnvironmentVariable(Envs.SP_KAFKA_CONSUMER_THREADS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getOutputBatchSize() {
+    return new IntEnvironmentVariable(Envs.SP_OUTPUT_BATCH_SIZE);
+  }
+
+  @Override
+  public IntEnvironmentVariable getOutputBatchLingerMs() {
+    return new IntEnvironmentVariable(Envs.SP_OUTPUT_BATCH_LINGER_MS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getProcessingParallelism() {
+    return new IntEnvironmentVariable(Envs.SP_PROCESSING_PARALLELISM);
+  }
+
+  @Override
+  public IntEnvironmentVariable getProcessingQueueSize() {
+    return new IntEnvironmentVariable(Envs.SP_PROCESSING_QUEUE_SIZE);
+  }
+
+  @Override
+  public BooleanEnvironmentVariable getEventTracingEnabled() {
+    return new BooleanEnvironmentVariable(Envs.SP_EVENT_TRACING_ENABLED);
+  }
+
+  @Override
+  public BooleanEnvironmentVariable getLocalTransportEnabled() {
+    return new BooleanEnvironmentVariable(Envs.SP_LOCAL_TRANSPORT_ENABLED);
+  }
+
+  @Override
+  public IntEnvironmentVariable getLocalTransportQueueSize() {
+    return new IntEnvironmentVariable(Envs.SP_LOCAL_TRANSPORT_QUEUE_SIZE);
+  }
+
+  @Override
+  public IntEnvironmentVariable getInputQueueSize() {
+    return new IntEnvironmentVariable(Envs.SP_INPUT_QUEUE_SIZE);
+  }
+
+  @Override
+  public StringEnvironmentVariable getInputQueueOverflowPolicy() {
+    return new StringEnvironmentVariable(Envs.SP_INPUT_QUEUE_OVERFLOW_POLICY);
+  }
+
+  @Override
+  public IntEnvironmentVariable getInputQueueSamplingRate() {
+    return new IntEnvironmentVariable(Envs.SP_INPUT_QUEUE_SAMPLING_RATE);
+  }
+
+  @Override
+  public IntEnvironmentVariable getConnectDuplicateFilterMaxEntries() {
+    return new IntEnvironmentVariable(Envs.SP_CONNECT_DUPLICATE_FILTER_MAX_ENTRIES);
+  }
+
+  @Override
+  public IntEnvironmentVariable getConnectPollingThreads() {
+    return new IntEnvironmentVariable(Envs.SP_CONNECT_POLLING_THREADS);
+  }
+
+  @Override
+  public IntEnvironmentVariable getConnectPollingQueueSize() {
+    return new IntEnvironmentVariable(Envs.SP_CONNECT_POLLING_QUEUE_SIZE);
+  }
+
   @Override
   public BooleanEnvironmentVariable getSetupInstallPipelineElements() {
     return new BooleanEnvironmentVariable(Envs.SP_SETUP_INSTALL_PIPELINE_ELEMENTS);
@@ -55,6 +55,38 @@ public interface Environment {
 
   StringEnvironmentVariable getTsStorageBucket();
 
+  StringEnvironmentVariable getTsStorageEngine();
+
+  StringEnvironmentVariable getTsStorageEmbeddedDir();
+
+  IntEnvironmentVariable getTsStorageWriteBatchSize();
+
+  IntEnvironmentVariable getTsStorageWriteFlushIntervalMs();
+
+  IntEnvironmentVariable getTsStorageWriteQueueSize();
+
+  IntEnvironmentVariable getTsStorageWriteMaxRetries();
+
+  IntEnvironmentVariable getDataLakeQueryThreads();
+
+  IntEnvironmentVariable getDataLakeQueryQueueSize();
+
+  IntEnvironmentVariable getDataLakeCacheMaxRows();
+
+  IntEnvironmentVariable getDataLakeCacheSettleMs();
+
+  IntEnvironmentVariable getDataLakeCacheTtlSeconds();
+
+  StringEnvironmentVariable getDataLakeRollupTiers();
+
+  StringEnvironmentVariable getDataLakeImageStore();
+
+  StringEnvironmentVariable getDataLakeImageDir();
+
+  IntEnvironmentVariable getDataLakeImageWriteQueueSize();
+
+  IntEnvironmentVariable getDataLakeImageRetentionDays();
+
   // CouchDB env variables
 
   StringEnvironmentVariable getCouchDbProtocol();
@@ -89,6 +121,37 @@ public interface Environment {
   // Messaging
   StringEnvironmentVariable getKafkaRetentionTimeMs();
 
+  IntEnvironmentVariable getKafkaTopicPartitions();
+
+  IntEnvironmentVariable getKafkaConsumerThreads();
+
+  IntEnvironmentVariable getOutputBatchSize();
+
+  IntEnvironmentVariable getOutputBatchLingerMs();
+
+  // Standalone processing
+  IntEnvironmentVariable getProcessingParallelism();
+
+  IntEnvironmentVariable getProcessingQueueSize();
+
+  BooleanEnvironmentVariable getEventTracingEnabled();
+
+  BooleanEnvironmentVariable getLocalTransportEnabled();
+
+  IntEnvironmentVariable getLocalTransportQueueSize();
+
+  IntEnvironmentVariable getInputQueueSize();
+
+  StringEnvironmentVariable getInputQueueOverflowPolicy();
+
+  IntEnvironmentVariable getInputQueueSamplingRate();
+
+  // Connect
+  IntEnvironmentVariable getConnectDuplicateFilterMaxEntries();
+
+  IntEnvironmentVariable getConnectPollingThreads();
+
+  IntEnvironmentVariable getConnectPollingQueueSize();
 
   // Setup
   BooleanEnvironmentVariable getSetupInstallPipelineElements();
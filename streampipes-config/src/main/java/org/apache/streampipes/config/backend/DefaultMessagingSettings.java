@@ -50,9 +50,12 @@ public class DefaultMessagingSettings {
       protocolList = Arrays.asList(SpProtocol.KAFKA, SpProtocol.MQTT, SpProtocol.JMS, SpProtocol.NATS);
     }
 
+    // the binary format is only selected between pipeline elements which all support it,
+    // streams of adapters use the first prioritized format other than binary
     return new MessagingSettings(
         1638400, 5000012, 20, 2,
-        Arrays.asList(SpDataFormat.JSON, SpDataFormat.CBOR, SpDataFormat.FST, SpDataFormat.SMILE),
+        Arrays.asList(SpDataFormat.BINARY, SpDataFormat.JSON, SpDataFormat.CBOR, SpDataFormat.FST,
+            SpDataFormat.SMILE),
         protocolList);
   }
 }
@@ -21,6 +21,7 @@ package org.apache.streampipes.connect.management.management;
 import org.apache.streampipes.commons.exceptions.NoServiceEndpointsAvailableException;
 import org.apache.streampipes.connect.management.util.WorkerPaths;
 import org.apache.streampipes.extensions.api.connect.exception.AdapterException;
+import org.apache.streampipes.extensions.management.connect.adapter.AdapterPipelineGenerator;
 import org.apache.streampipes.extensions.management.connect.adapter.util.TransportFormatGenerator;
 import org.apache.streampipes.model.SpDataSet;
 import org.apache.streampipes.model.SpDataStream;
@@ -58,14 +59,9 @@ public class SourcesManagement {
                                               SpDataStream oldDataStream) {
 
     oldDataStream.setName(adapterDescription.getName());
-//
-//    // Update event schema
-    EventSchema newEventSchema;
-    if (adapterDescription instanceof AdapterStreamDescription) {
-      newEventSchema = ((AdapterStreamDescription) adapterDescription).getDataStream().getEventSchema();
-    } else {
-      newEventSchema = ((AdapterSetDescription) adapterDescription).getDataSet().getEventSchema();
-    }
+
+    // Update event schema, aggregation rules of the adapter change the types of the published properties
+    EventSchema newEventSchema = new AdapterPipelineGenerator().makeResultingEventSchema(adapterDescription);
     oldDataStream.setEventSchema(newEventSchema);
 
     return oldDataStream;
@@ -121,6 +117,7 @@ public class SourcesManagement {
       ds.setEventGrounding(new EventGrounding(adapterDescription.getEventGrounding()));
     }
 
+    ds.setEventSchema(new AdapterPipelineGenerator().makeResultingEventSchema(adapterDescription));
     ds.setElementId(dataStreamElementId);
     ds.setName(adapterDescription.getName());
     ds.setDescription(adapterDescription.getDescription());
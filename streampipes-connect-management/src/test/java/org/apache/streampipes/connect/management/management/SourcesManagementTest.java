@@ -21,12 +21,17 @@ package org.apache.streampipes.connect.management.management;
 import org.apache.streampipes.model.SpDataStream;
 import org.apache.streampipes.model.connect.adapter.AdapterStreamDescription;
 import org.apache.streampipes.model.connect.adapter.SpecificAdapterStreamDescription;
+import org.apache.streampipes.model.connect.rules.stream.EventRateTransformationRuleDescription;
 import org.apache.streampipes.model.schema.EventPropertyPrimitive;
 import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.vocabulary.XSD;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -54,4 +59,26 @@ public class SourcesManagementTest {
     assertEquals(newAdapterName, result.getName());
     assertEquals(newEventSchema, result.getEventSchema());
   }
+
+  @Test
+  public void updateDataStreamWithAggregatedSchema() {
+    EventPropertyPrimitive value = new EventPropertyPrimitive(XSD.INTEGER.toString(), "value", "", new ArrayList<>());
+    EventSchema eventSchema = new EventSchema(new ArrayList<>(List.of(value)));
+
+    EventRateTransformationRuleDescription rule = new EventRateTransformationRuleDescription();
+    rule.setAggregationTimeWindow(1000);
+    rule.setAggregationType("mean");
+
+    AdapterStreamDescription adapterDescription = new SpecificAdapterStreamDescription();
+    SpDataStream dataStream = new SpDataStream();
+    dataStream.setEventSchema(eventSchema);
+    adapterDescription.setDataStream(dataStream);
+    adapterDescription.setRules(List.of(rule));
+
+    SpDataStream result = SourcesManagement.updateDataStream(adapterDescription, new SpDataStream());
+
+    EventPropertyPrimitive resultValue = (EventPropertyPrimitive) result.getEventSchema().getEventProperties().get(0);
+    assertEquals(XSD.DOUBLE.toString(), resultValue.getRuntimeType());
+    assertEquals(XSD.INTEGER.toString(), value.getRuntimeType());
+  }
 }
@@ -21,8 +21,12 @@ package org.apache.streampipes.dataexplorer.commons;
 import org.apache.streampipes.client.StreamPipesClient;
 import org.apache.streampipes.commons.environment.Environment;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataexplorer.commons.embedded.EmbeddedStore;
+import org.apache.streampipes.dataexplorer.commons.engine.TimeSeriesStorageEngine;
+import org.apache.streampipes.dataexplorer.commons.engine.TimeSeriesWriter;
 import org.apache.streampipes.dataexplorer.commons.image.ImageStore;
 import org.apache.streampipes.dataexplorer.commons.influx.InfluxStore;
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatisticsReporter;
 import org.apache.streampipes.model.datalake.DataLakeMeasure;
 import org.apache.streampipes.model.runtime.Event;
 
@@ -34,7 +38,8 @@ import java.io.IOException;
 public class TimeSeriesStore {
 
   private static final Logger LOG = LoggerFactory.getLogger(TimeSeriesStore.class);
-  private final InfluxStore influxStore;
+  private final TimeSeriesWriter timeSeriesWriter;
+  private final MeasureStatisticsReporter statisticsReporter;
   private ImageStore imageStore;
 
 
@@ -50,8 +55,19 @@ public class TimeSeriesStore {
       this.imageStore = new ImageStore(measure, environment);
     }
 
-    this.influxStore = new InfluxStore(measure, environment);
+    this.timeSeriesWriter = makeWriter(environment, measure);
+    this.statisticsReporter = new MeasureStatisticsReporter(client, measure.getMeasureName(),
+        timeSeriesWriter.getStatisticsRecorder());
+    this.statisticsReporter.start();
+  }
 
+  private TimeSeriesWriter makeWriter(Environment environment,
+                                      DataLakeMeasure measure) {
+    if (TimeSeriesStorageEngine.from(environment) == TimeSeriesStorageEngine.EMBEDDED) {
+      return new EmbeddedStore(measure, environment);
+    } else {
+      return new InfluxStore(measure, environment);
+    }
   }
 
   public boolean onEvent(Event event) throws SpRuntimeException {
@@ -61,7 +77,7 @@ public class TimeSeriesStore {
     }
 
     // Store event in time series database
-    this.influxStore.onEvent(event);
+    this.timeSeriesWriter.onEvent(event);
 
     return true;
   }
@@ -76,11 +92,12 @@ public class TimeSeriesStore {
       try {
         this.imageStore.close();
       } catch (IOException e) {
-        LOG.error("Could not close couchDB connection");
+        LOG.error("Could not close image store");
         throw new SpRuntimeException(e);
       }
     }
 
-    this.influxStore.close();
+    this.timeSeriesWriter.close();
+    this.statisticsReporter.close();
   }
 }
@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodings of the columns of a segment. Timestamps are stored as zigzag varints of their
+ * delta-of-delta, longs as varints of their delta, doubles with the XOR encoding of Gorilla,
+ * booleans as a bitmap and strings with a dictionary. Each column starts with a bitmap of the rows
+ * which have a value, only these values are encoded.
+ */
+final class EmbeddedCodecs {
+
+  private EmbeddedCodecs() {
+  }
+
+  static byte[] encodeTimestamps(long[] timestamps, int count) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(count * 2);
+    long previous = 0;
+    long previousDelta = 0;
+    for (int i = 0; i < count; i++) {
+      long delta = timestamps[i] - previous;
+      writeVarLong(out, delta - previousDelta);
+      previous = timestamps[i];
+      previousDelta = delta;
+    }
+    return out.toByteArray();
+  }
+
+  static long[] decodeTimestamps(ByteBuffer in, int count) {
+    long[] timestamps = new long[count];
+    long previous = 0;
+    long previousDelta = 0;
+    for (int i = 0; i < count; i++) {
+      long delta = previousDelta + readVarLong(in);
+      previous += delta;
+      timestamps[i] = previous;
+      previousDelta = delta;
+    }
+    return timestamps;
+  }
+
+  static byte[] encodeColumn(EmbeddedColumnType type, Object[] values, int count) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(count);
+    BitWriter presence = new BitWriter(out);
+    int present = 0;
+    for (int i = 0; i < count; i++) {
+      presence.writeBit(values[i] != null);
+      if (values[i] != null) {
+        present++;
+      }
+    }
+    presence.flush();
+
+    switch (type) {
+      case LONG:
+        encodeLongs(out, values, count);
+        break;
+      case DOUBLE:
+        encodeDoubles(out, values, count, present);
+        break;
+      case BOOLEAN:
+        encodeBooleans(out, values, count);
+        break;
+      default:
+        encodeStrings(out, values, count);
+    }
+    return out.toByteArray();
+  }
+
+  static Object[] decodeColumn(EmbeddedColumnType type, ByteBuffer in, int count) {
+    boolean[] presence = new boolean[count];
+    BitReader presenceReader = new BitReader(in);
+    int present = 0;
+    for (int i = 0; i < count; i++) {
+      presence[i] = presenceReader.readBit();
+      if (presence[i]) {
+        present++;
+      }
+    }
+
+    Object[] values = new Object[count];
+    switch (type) {
+      case LONG:
+        decodeLongs(in, presence, values);
+        break;
+      case DOUBLE:
+        decodeDoubles(in, presence, values, present);
+        break;
+      case BOOLEAN:
+        decodeBooleans(in, presence, values);
+        break;
+      default:
+        decodeStrings(in, presence, values);
+    }
+    return values;
+  }
+
+  private static void encodeLongs(ByteArrayOutputStream out, Object[] values, int count) {
+    long previous = 0;
+    for (int i = 0; i < count; i++) {
+      if (values[i] != null) {
+        long value = (Long) values[i];
+        writeVarLong(out, value - previous);
+        previous = value;
+      }
+    }
+  }
+
+  private static void decodeLongs(ByteBuffer in, boolean[] presence, Object[] values) {
+    long previous = 0;
+    for (int i = 0; i < presence.length; i++) {
+      if (presence[i]) {
+        previous += readVarLong(in);
+        values[i] = previous;
+      }
+    }
+  }
+
+  private static void encodeDoubles(ByteArrayOutputStream out, Object[] values, int count, int present) {
+    if (present == 0) {
+      return;
+    }
+    BitWriter writer = new BitWriter(out);
+    boolean first = true;
+    long previous = 0;
+    int previousLeading = -1;
+    int previousTrailing = 0;
+    for (int i = 0; i < count; i++) {
+      if (values[i] == null) {
+        continue;
+      }
+      long bits = Double.doubleToLongBits((Double) values[i]);
+      if (first) {
+        writer.writeBits(bits, 64);
+        first = false;
+      } else {
+        long xor = bits ^ previous;
+        if (xor == 0) {
+          writer.writeBit(false);
+        } else {
+          writer.writeBit(true);
+          int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+          int trailing = Long.numberOfTrailingZeros(xor);
+          if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            // the meaningful bits fit into the window of the previous value
+            writer.writeBit(false);
+            writer.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+          } else {
+            int significant = 64 - leading - trailing;
+            writer.writeBit(true);
+            writer.writeBits(leading, 5);
+            // 64 significant bits do not fit into six bits and are stored as 0
+            writer.writeBits(significant == 64 ? 0 : significant, 6);
+            writer.writeBits(xor >>> trailing, significant);
+            previousLeading = leading;
+            previousTrailing = trailing;
+          }
+        }
+      }
+      previous = bits;
+    }
+    writer.flush();
+  }
+
+  private static void decodeDoubles(ByteBuffer in, boolean[] presence, Object[] values, int present) {
+    if (present == 0) {
+      return;
+    }
+    BitReader reader = new BitReader(in);
+    boolean first = true;
+    long previous = 0;
+    int previousLeading = 0;
+    int previousTrailing = 0;
+    for (int i = 0; i < presence.length; i++) {
+      if (!presence[i]) {
+        continue;
+      }
+      if (first) {
+        previous = reader.readBits(64);
+        first = false;
+      } else if (reader.readBit()) {
+        if (reader.readBit()) {
+          previousLeading = (int) reader.readBits(5);
+          int significant = (int) reader.readBits(6);
+          if (significant == 0) {
+            significant = 64;
+          }
+          previousTrailing = 64 - previousLeading - significant;
+        }
+        long xor = reader.readBits(64 - previousLeading - previousTrailing) << previousTrailing;
+        previous ^= xor;
+      }
+      values[i] = Double.longBitsToDouble(previous);
+    }
+  }
+
+  private static void encodeBooleans(ByteArrayOutputStream out, Object[] values, int count) {
+    BitWriter writer = new BitWriter(out);
+    for (int i = 0; i < count; i++) {
+      if (values[i] != null) {
+        writer.writeBit((Boolean) values[i]);
+      }
+    }
+    writer.flush();
+  }
+
+  private static void decodeBooleans(ByteBuffer in, boolean[] presence, Object[] values) {
+    BitReader reader = new BitReader(in);
+    for (int i = 0; i < presence.length; i++) {
+      if (presence[i]) {
+        values[i] = reader.readBit();
+      }
+    }
+  }
+
+  private static void encodeStrings(ByteArrayOutputStream out, Object[] values, int count) {
+    Map<String, Integer> dictionary = new HashMap<>();
+    List<String> entries = new ArrayList<>();
+    ByteArrayOutputStream indices = new ByteArrayOutputStream(count);
+    for (int i = 0; i < count; i++) {
+      if (values[i] != null) {
+        Integer index = dictionary.get(values[i]);
+        if (index == null) {
+          index = entries.size();
+          dictionary.put((String) values[i], index);
+          entries.add((String) values[i]);
+        }
+        writeVarLong(indices, index);
+      }
+    }
+
+    writeVarLong(out, entries.size());
+    for (String entry : entries) {
+      byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(out, bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+    byte[] indexBytes = indices.toByteArray();
+    out.write(indexBytes, 0, indexBytes.length);
+  }
+
+  private static void decodeStrings(ByteBuffer in, boolean[] presence, Object[] values) {
+    int size = (int) readVarLong(in);
+    String[] entries = new String[size];
+    for (int i = 0; i < size; i++) {
+      byte[] bytes = new byte[(int) readVarLong(in)];
+      in.get(bytes);
+      entries[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    for (int i = 0; i < presence.length; i++) {
+      if (presence[i]) {
+        values[i] = entries[(int) readVarLong(in)];
+      }
+    }
+  }
+
+  static void writeVarLong(ByteArrayOutputStream out, long value) {
+    long zigzag = (value << 1) ^ (value >> 63);
+    while ((zigzag & ~0x7FL) != 0) {
+      out.write((int) ((zigzag & 0x7F) | 0x80));
+      zigzag >>>= 7;
+    }
+    out.write((int) zigzag);
+  }
+
+  static long readVarLong(ByteBuffer in) {
+    long zigzag = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.get();
+      zigzag |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (zigzag >>> 1) ^ -(zigzag & 1);
+  }
+
+  private static class BitWriter {
+
+    private final ByteArrayOutputStream out;
+    private int current;
+    private int bits;
+
+    BitWriter(ByteArrayOutputStream out) {
+      this.out = out;
+    }
+
+    void writeBit(boolean bit) {
+      current = (current << 1) | (bit ? 1 : 0);
+      bits++;
+      if (bits == 8) {
+        out.write(current);
+        current = 0;
+        bits = 0;
+      }
+    }
+
+    void writeBits(long value, int count) {
+      for (int i = count - 1; i >= 0; i--) {
+        writeBit(((value >>> i) & 1) != 0);
+      }
+    }
+
+    void flush() {
+      if (bits > 0) {
+        out.write(current << (8 - bits));
+        current = 0;
+        bits = 0;
+      }
+    }
+  }
+
+  private static class BitReader {
+
+    private final ByteBuffer in;
+    private int current;
+    private int bits;
+
+    BitReader(ByteBuffer in) {
+      this.in = in;
+    }
+
+    boolean readBit() {
+      if (bits == 0) {
+        current = in.get() & 0xFF;
+        bits = 8;
+      }
+      bits--;
+      return ((current >>> bits) & 1) != 0;
+    }
+
+    long readBits(int count) {
+      long value = 0;
+      for (int i = 0; i < count; i++) {
+        value = (value << 1) | (readBit() ? 1 : 0);
+      }
+      return value;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.SO;
+import org.apache.streampipes.vocabulary.XSD;
+
+/**
+ * Types of the columns of the embedded storage engine. Integer properties are stored as longs and
+ * float properties as doubles.
+ */
+public enum EmbeddedColumnType {
+
+  TAG((byte) 0),
+  STRING((byte) 1),
+  LONG((byte) 2),
+  DOUBLE((byte) 3),
+  BOOLEAN((byte) 4);
+
+  private final byte id;
+
+  EmbeddedColumnType(byte id) {
+    this.id = id;
+  }
+
+  public static EmbeddedColumnType of(EventPropertyPrimitive ep) {
+    // store property as tag when the field is a dimension property
+    if (PropertyScope.DIMENSION_PROPERTY.name().equals(ep.getPropertyScope())) {
+      return TAG;
+    }
+    String runtimeType = ep.getRuntimeType();
+    if (XSD.INTEGER.toString().equals(runtimeType) || XSD.LONG.toString().equals(runtimeType)) {
+      return LONG;
+    } else if (XSD.FLOAT.toString().equals(runtimeType)
+        || XSD.DOUBLE.toString().equals(runtimeType)
+        || SO.NUMBER.equals(runtimeType)) {
+      return DOUBLE;
+    } else if (XSD.BOOLEAN.toString().equals(runtimeType)) {
+      return BOOLEAN;
+    } else {
+      return STRING;
+    }
+  }
+
+  public static EmbeddedColumnType fromId(byte id) {
+    for (EmbeddedColumnType type : values()) {
+      if (type.id == id) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException("Unknown column type " + id);
+  }
+
+  public byte getId() {
+    return id;
+  }
+
+  public boolean isNumeric() {
+    return this == LONG || this == DOUBLE;
+  }
+}
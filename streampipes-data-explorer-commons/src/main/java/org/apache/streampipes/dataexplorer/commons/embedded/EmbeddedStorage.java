@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import org.apache.streampipes.commons.environment.Environment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * File layout of the embedded storage engine. Each measurement is stored in its own directory,
+ * with one append-only partition file per day which contains a sequence of {@link Segment}s.
+ * Partition files are memory-mapped for reading. Deleted time ranges are recorded as tombstones,
+ * partitions which are completely covered by a tombstone are removed.
+ *
+ * <p>Partition files are only modified while holding the lock of the partition, a {@link FileLock}
+ * on a separate lock file which is never removed. Writers open the partition file for each
+ * appended segment, so that they never write to a partition file which was removed in the
+ * meantime, e.g., by another process.</p>
+ */
+public class EmbeddedStorage {
+
+  public static final long PARTITION_WIDTH_MS = 24 * 60 * 60 * 1000L;
+
+  private static final Logger LOG = LoggerFactory.getLogger(EmbeddedStorage.class);
+  private static final String PARTITION_SUFFIX = ".seg";
+  private static final String LOCK_SUFFIX = ".lock";
+  private static final String TOMBSTONE_FILE = "tombstones";
+  private static final long NANOS_PER_MILLI = 1000000L;
+
+  // a single mapping cannot exceed 2 GB
+  private static final long MAX_MAPPING_SIZE = Integer.MAX_VALUE;
+
+  // file locks are held by the JVM, threads of this JVM are serialized by these monitors
+  private static final Map<Path, Object> PARTITION_MONITORS = new ConcurrentHashMap<>();
+
+  private final Path baseDir;
+  private final long mappingSize;
+
+  public EmbeddedStorage(Path baseDir) {
+    this(baseDir, MAX_MAPPING_SIZE);
+  }
+
+  EmbeddedStorage(Path baseDir,
+                  long mappingSize) {
+    this.baseDir = baseDir;
+    this.mappingSize = mappingSize;
+  }
+
+  public static EmbeddedStorage from(Environment environment) {
+    return new EmbeddedStorage(Paths.get(environment.getTsStorageEmbeddedDir().getValueOrDefault()));
+  }
+
+  public static long getPartition(long timestamp) {
+    return Math.floorDiv(timestamp, PARTITION_WIDTH_MS);
+  }
+
+  /**
+   * Returns the partitions of the measurement which may contain rows between the given
+   * timestamps, in ascending order.
+   */
+  public List<Long> getPartitions(String measureName,
+                                  long fromTimestamp,
+                                  long toTimestamp) throws IOException {
+    Path measureDir = getMeasureDir(measureName);
+    if (!Files.isDirectory(measureDir)) {
+      return Collections.emptyList();
+    }
+    long from = getPartition(fromTimestamp);
+    long to = getPartition(toTimestamp);
+    try (Stream<Path> files = Files.list(measureDir)) {
+      return files
+          .map(file -> file.getFileName().toString())
+          .filter(name -> name.endsWith(PARTITION_SUFFIX))
+          .map(name -> Long.parseLong(name.substring(0, name.length() - PARTITION_SUFFIX.length())))
+          .filter(partition -> partition >= from && partition <= to)
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Reads all complete segments of a partition. Reading stops at the first segment which was
+   * not completely written.
+   */
+  public List<Segment> readSegments(String measureName,
+                                    long partition) throws IOException {
+    try (FileChannel channel = FileChannel.open(getPartitionFile(measureName, partition), StandardOpenOption.READ)) {
+      List<Segment> segments = new ArrayList<>();
+      long size = channel.size();
+      if (readSegments(channel, 0, size, segments::add) < size) {
+        LOG.debug("Ignored incomplete segment in partition {} of measurement {}", partition, measureName);
+      }
+      return segments;
+    } catch (NoSuchFileException e) {
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Reads the complete segments between the given positions of a partition file. Files larger
+   * than a single mapping are mapped in consecutive windows, each starting at the first segment
+   * which did not fit into the previous window.
+   *
+   * @return The position after the last complete segment
+   */
+  private long readSegments(FileChannel channel,
+                            long position,
+                            long size,
+                            Consumer<Segment> consumer) throws IOException {
+    while (position < size) {
+      long windowEnd = Math.min(size, position + mappingSize);
+      // the mapping remains valid after the channel is closed
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+      Segment segment;
+      while ((segment = Segment.read(buffer)) != null) {
+        consumer.accept(segment);
+      }
+      position += buffer.position();
+      // an incomplete segment at the end of the file or a segment larger than a mapping
+      if (buffer.hasRemaining() && (windowEnd == size || buffer.position() == 0)) {
+        return position;
+      }
+    }
+    return position;
+  }
+
+  /**
+   * Opens a partition for appending segments.
+   */
+  PartitionAppender openForAppend(String measureName,
+                                  long partition) throws IOException {
+    Files.createDirectories(getMeasureDir(measureName));
+    return new PartitionAppender(measureName, partition);
+  }
+
+  /**
+   * Deletes all rows with a timestamp between the given bounds which were written before.
+   *
+   * @param startNanos exclusive lower bound in nanoseconds
+   * @param endNanos   exclusive upper bound in nanoseconds
+   */
+  public void addTombstone(String measureName,
+                           long startNanos,
+                           long endNanos) throws IOException {
+    Path measureDir = getMeasureDir(measureName);
+    if (!Files.isDirectory(measureDir)) {
+      return;
+    }
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(measureDir.resolve(TOMBSTONE_FILE),
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+      out.writeLong(startNanos);
+      out.writeLong(endNanos);
+      out.writeLong(System.currentTimeMillis());
+    }
+
+    for (long partition : getPartitions(measureName, Long.MIN_VALUE, Long.MAX_VALUE)) {
+      long first = partition * PARTITION_WIDTH_MS;
+      long last = first + PARTITION_WIDTH_MS - 1;
+      if (startNanos / NANOS_PER_MILLI < first && endNanos / NANOS_PER_MILLI > last) {
+        // segments appended afterwards go to a new file, as writers reopen the partition file
+        withPartitionLock(measureName, partition,
+            () -> Files.deleteIfExists(getPartitionFile(measureName, partition)));
+      }
+    }
+  }
+
+  public List<Tombstone> readTombstones(String measureName) throws IOException {
+    List<Tombstone> tombstones = new ArrayList<>();
+    try (InputStream in = Files.newInputStream(getMeasureDir(measureName).resolve(TOMBSTONE_FILE));
+         DataInputStream data = new DataInputStream(in)) {
+      while (true) {
+        tombstones.add(new Tombstone(data.readLong(), data.readLong(), data.readLong()));
+      }
+    } catch (NoSuchFileException | EOFException e) {
+      return tombstones;
+    }
+  }
+
+  /**
+   * Deletes all data of the measurement.
+   *
+   * @return true if the measurement existed
+   */
+  public boolean dropMeasure(String measureName) throws IOException {
+    Path measureDir = getMeasureDir(measureName);
+    if (!Files.isDirectory(measureDir)) {
+      return false;
+    }
+    try (Stream<Path> files = Files.walk(measureDir)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+    return true;
+  }
+
+  private Path getMeasureDir(String measureName) {
+    // dots are encoded as well, so that measure names cannot refer to other directories
+    return baseDir.resolve(URLEncoder.encode(measureName, StandardCharsets.UTF_8).replace(".", "%2E"));
+  }
+
+  private Path getPartitionFile(String measureName,
+                                long partition) {
+    return getMeasureDir(measureName).resolve(partition + PARTITION_SUFFIX);
+  }
+
+  /**
+   * Runs the action while holding the lock of the partition, which excludes all threads of this
+   * and all other processes which modify the partition.
+   */
+  private <T> T withPartitionLock(String measureName,
+                                  long partition,
+                                  PartitionAction<T> action) throws IOException {
+    Path lockFile = getMeasureDir(measureName).resolve(partition + LOCK_SUFFIX).toAbsolutePath().normalize();
+    synchronized (PARTITION_MONITORS.computeIfAbsent(lockFile, file -> new Object())) {
+      try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+           FileLock lock = channel.lock()) {
+        return action.run();
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface PartitionAction<T> {
+
+    T run() throws IOException;
+  }
+
+  /**
+   * Appends segments to a partition. Complete segments which were appended by other writers in
+   * the meantime are kept, an incomplete segment at the end of the partition, e.g., after a
+   * crash, is truncated.
+   */
+  class PartitionAppender {
+
+    private final String measureName;
+    private final long partition;
+
+    private Object fileKey;
+    private long verifiedSize;
+
+    private PartitionAppender(String measureName,
+                              long partition) {
+      this.measureName = measureName;
+      this.partition = partition;
+    }
+
+    public void append(ByteBuffer segment) throws IOException {
+      withPartitionLock(measureName, partition, () -> {
+        Path file = getPartitionFile(measureName, partition);
+        try (FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+          long size = channel.size();
+          Object currentFileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+          if (currentFileKey == null || !Objects.equals(currentFileKey, fileKey) || size < verifiedSize) {
+            // the partition file was replaced since the last append
+            fileKey = currentFileKey;
+            verifiedSize = 0;
+          }
+          if (size > verifiedSize) {
+            verifiedSize = readSegments(channel, verifiedSize, size, appended -> {});
+            if (verifiedSize < size) {
+              LOG.warn("Truncated incomplete segment in partition {} of measurement {}", partition, measureName);
+              channel.truncate(verifiedSize);
+            }
+          }
+          long position = verifiedSize;
+          while (segment.hasRemaining()) {
+            position += channel.write(segment, position);
+          }
+          verifiedSize = position;
+        }
+        return null;
+      });
+    }
+  }
+
+  /**
+   * A deleted time range of a measurement.
+   */
+  public static class Tombstone {
+
+    private final long startNanos;
+    private final long endNanos;
+    private final long deletedAt;
+
+    Tombstone(long startNanos,
+              long endNanos,
+              long deletedAt) {
+      this.startNanos = startNanos;
+      this.endNanos = endNanos;
+      this.deletedAt = deletedAt;
+    }
+
+    /**
+     * Checks whether the tombstone covers the segment at least partially.
+     */
+    public boolean overlaps(Segment segment) {
+      return segment.getWrittenAt() <= deletedAt
+          && segment.getMaxTime() * NANOS_PER_MILLI > startNanos
+          && segment.getMinTime() * NANOS_PER_MILLI < endNanos;
+    }
+
+    /**
+     * Checks whether a row of the given segment with the given timestamp is deleted.
+     */
+    public boolean hides(Segment segment,
+                         long timestamp) {
+      long nanos = timestamp * NANOS_PER_MILLI;
+      return segment.getWrittenAt() <= deletedAt && nanos > startNanos && nanos < endNanos;
+    }
+  }
+}
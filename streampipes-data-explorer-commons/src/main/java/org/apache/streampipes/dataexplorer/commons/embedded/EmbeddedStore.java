@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataexplorer.commons.engine.TimeSeriesWriter;
+import org.apache.streampipes.dataexplorer.commons.influx.InfluxNameSanitizer;
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatisticsRecorder;
+import org.apache.streampipes.model.constants.PropertySelectorConstants;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the events of a measurement to the embedded storage engine. Events are buffered in
+ * memory and appended to the partition of their day as a segment once the write batch size is
+ * reached, the flush interval has passed or an event belongs to another day.
+ */
+public class EmbeddedStore implements TimeSeriesWriter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EmbeddedStore.class);
+
+  private final String measureName;
+  private final EmbeddedStorage storage;
+  private final String timestampSelector;
+  private final List<String> runtimeNames;
+  private final List<String> selectors;
+  private final List<String> columnNames;
+  private final List<EmbeddedColumnType> columnTypes;
+  private final SegmentBuilder segmentBuilder;
+  private final MeasureStatisticsRecorder statisticsRecorder;
+  private final int batchSize;
+  private final long flushIntervalMs;
+  private final ScheduledExecutorService scheduler;
+
+  private long currentPartition = Long.MIN_VALUE;
+  private EmbeddedStorage.PartitionAppender currentAppender;
+  private long segmentStartedAt;
+  private boolean closed;
+
+  public EmbeddedStore(DataLakeMeasure measure,
+                       Environment environment) {
+    this(measure,
+        EmbeddedStorage.from(environment),
+        environment.getTsStorageWriteBatchSize().getValueOrDefault(),
+        environment.getTsStorageWriteFlushIntervalMs().getValueOrDefault());
+  }
+
+  public EmbeddedStore(DataLakeMeasure measure,
+                       EmbeddedStorage storage,
+                       int batchSize,
+                       long flushIntervalMs) {
+    this.measureName = measure.getMeasureName();
+    this.storage = storage;
+    this.timestampSelector = measure.getTimestampField();
+    this.runtimeNames = new ArrayList<>();
+    this.selectors = new ArrayList<>();
+    this.columnNames = new ArrayList<>();
+    this.columnTypes = new ArrayList<>();
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+
+    int delimiterIndex = timestampSelector.lastIndexOf(PropertySelectorConstants.PROPERTY_DELIMITER);
+    String selectorPrefix = delimiterIndex >= 0
+        ? timestampSelector.substring(0, delimiterIndex + PropertySelectorConstants.PROPERTY_DELIMITER.length())
+        : "";
+
+    for (EventProperty ep : measure.getEventSchema().getEventProperties()) {
+      // timestamp should not be added as a field
+      if (ep instanceof EventPropertyPrimitive && !timestampSelector.endsWith(ep.getRuntimeName())) {
+        String runtimeName = ep.getRuntimeName();
+        runtimeNames.add(runtimeName);
+        selectors.add(selectorPrefix + runtimeName);
+        columnNames.add(InfluxNameSanitizer.renameReservedKeywords(runtimeName));
+        columnTypes.add(EmbeddedColumnType.of((EventPropertyPrimitive) ep));
+      }
+    }
+
+    this.segmentBuilder = new SegmentBuilder(columnNames, columnTypes, batchSize);
+    this.statisticsRecorder = new MeasureStatisticsRecorder(columnNames);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "embedded-store-" + measureName);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.scheduleAtFixedRate(this::flushIfIntervalExpired, flushIntervalMs, flushIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void onEvent(Event event) throws SpRuntimeException {
+    if (event == null) {
+      throw new SpRuntimeException("event is null");
+    }
+
+    long timestamp = event.getFieldBySelector(timestampSelector).getAsPrimitive().getAsLong();
+    Object[] row = new Object[columnNames.size()];
+    double[] values = new double[columnNames.size()];
+    Arrays.fill(values, Double.NaN);
+    boolean hasValues = false;
+
+    for (int i = 0; i < row.length; i++) {
+      AbstractField field = getField(event, i);
+      if (field != null && field.getRawValue() != null) {
+        row[i] = toValue(i, field.getAsPrimitive());
+        if (row[i] != null) {
+          hasValues = true;
+          if (row[i] instanceof Number) {
+            values[i] = ((Number) row[i]).doubleValue();
+          }
+        }
+      }
+    }
+
+    if (!hasValues) {
+      LOG.debug("Ignored event without any field values");
+      return;
+    }
+    statisticsRecorder.record(timestamp, values);
+    append(timestamp, row);
+  }
+
+  private synchronized void append(long timestamp,
+                                   Object[] row) throws SpRuntimeException {
+    if (closed) {
+      throw new SpRuntimeException("Writer of measurement " + measureName + " has been closed");
+    }
+    long partition = EmbeddedStorage.getPartition(timestamp);
+    if (partition != currentPartition) {
+      flush();
+      switchPartition(partition);
+    }
+    if (segmentBuilder.size() == 0) {
+      segmentStartedAt = System.currentTimeMillis();
+    }
+    segmentBuilder.add(timestamp, row);
+    if (segmentBuilder.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  private void switchPartition(long partition) throws SpRuntimeException {
+    try {
+      currentAppender = storage.openForAppend(measureName, partition);
+      currentPartition = partition;
+    } catch (IOException e) {
+      currentPartition = Long.MIN_VALUE;
+      throw new SpRuntimeException("Could not open partition of measurement " + measureName, e);
+    }
+  }
+
+  /**
+   * Appends all buffered events to the current partition as a new segment.
+   */
+  public synchronized void flush() throws SpRuntimeException {
+    if (segmentBuilder.size() == 0) {
+      return;
+    }
+    ByteBuffer segment = ByteBuffer.wrap(segmentBuilder.build());
+    try {
+      currentAppender.append(segment);
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not write segment of measurement " + measureName, e);
+    }
+  }
+
+  private synchronized void flushIfIntervalExpired() {
+    try {
+      if (segmentBuilder.size() > 0 && System.currentTimeMillis() - segmentStartedAt >= flushIntervalMs) {
+        flush();
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Could not write segment of measurement {}", measureName, e);
+    }
+  }
+
+  private AbstractField getField(Event event, int index) {
+    AbstractField field = event.getFields().get(selectors.get(index));
+    if (field != null && runtimeNames.get(index).equals(field.getFieldNameIn())) {
+      return field;
+    }
+    return event.getOptionalFieldByRuntimeName(runtimeNames.get(index)).orElse(null);
+  }
+
+  private Object toValue(int index,
+                         PrimitiveField field) {
+    Object value = field.getRawValue();
+    try {
+      switch (columnTypes.get(index)) {
+        case TAG:
+          String tag = field.getAsString();
+          return tag.isEmpty() ? null : tag;
+        case LONG:
+          return value instanceof Integer || value instanceof Long || value instanceof Short
+              ? ((Number) value).longValue()
+              : field.getAsLong();
+        case DOUBLE:
+          double doubleValue = value instanceof Number ? ((Number) value).doubleValue() : field.getAsDouble();
+          return Double.isFinite(doubleValue) ? doubleValue : null;
+        case BOOLEAN:
+          return value instanceof Boolean ? value : field.getAsBoolean();
+        default:
+          return field.getAsString();
+      }
+    } catch (NumberFormatException e) {
+      LOG.warn("Wrong number format for field {}, ignoring.", columnNames.get(index));
+      return null;
+    }
+  }
+
+  @Override
+  public MeasureStatisticsRecorder getStatisticsRecorder() {
+    return statisticsRecorder;
+  }
+
+  /**
+   * Writes all buffered events and closes the current partition
+   */
+  @Override
+  public void close() throws SpRuntimeException {
+    scheduler.shutdownNow();
+    synchronized (this) {
+      try {
+        flush();
+      } finally {
+        closed = true;
+        currentAppender = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An immutable block of rows of a measurement, stored column by column. A segment is framed by a
+ * magic number and its length and is followed by the CRC32 of its payload, so that a segment
+ * which was only partially written can be detected.
+ */
+public class Segment {
+
+  static final int MAGIC = 0x53505453;
+  static final int FRAME_HEADER_SIZE = 8;
+  static final int FRAME_TRAILER_SIZE = 4;
+
+  private final int rowCount;
+  private final long writtenAt;
+  private final long minTime;
+  private final long maxTime;
+  private final ByteBuffer timeData;
+  private final Map<String, SegmentColumn> columns;
+
+  private long[] timestamps;
+
+  private Segment(int rowCount,
+                  long writtenAt,
+                  long minTime,
+                  long maxTime,
+                  ByteBuffer timeData,
+                  Map<String, SegmentColumn> columns) {
+    this.rowCount = rowCount;
+    this.writtenAt = writtenAt;
+    this.minTime = minTime;
+    this.maxTime = maxTime;
+    this.timeData = timeData;
+    this.columns = columns;
+  }
+
+  /**
+   * Reads the segment at the current position of the buffer and advances the buffer to the next
+   * segment. Only the header of the segment is parsed, column data is decoded on access.
+   *
+   * @return The segment, or null if the buffer does not contain a complete and valid segment
+   */
+  static Segment read(ByteBuffer buffer) {
+    if (buffer.remaining() < FRAME_HEADER_SIZE + FRAME_TRAILER_SIZE) {
+      return null;
+    }
+    int start = buffer.position();
+    if (buffer.getInt(start) != MAGIC) {
+      return null;
+    }
+    int payloadLength = buffer.getInt(start + 4);
+    if (payloadLength < 0 || buffer.remaining() < FRAME_HEADER_SIZE + payloadLength + FRAME_TRAILER_SIZE) {
+      return null;
+    }
+
+    ByteBuffer payload = buffer.slice(start + FRAME_HEADER_SIZE, payloadLength);
+    CRC32 crc = new CRC32();
+    crc.update(payload.duplicate());
+    if ((int) crc.getValue() != buffer.getInt(start + FRAME_HEADER_SIZE + payloadLength)) {
+      return null;
+    }
+    buffer.position(start + FRAME_HEADER_SIZE + payloadLength + FRAME_TRAILER_SIZE);
+
+    int rowCount = payload.getInt();
+    long writtenAt = payload.getLong();
+    long minTime = payload.getLong();
+    long maxTime = payload.getLong();
+    ByteBuffer timeData = slice(payload);
+    int columnCount = payload.getShort();
+    Map<String, SegmentColumn> columns = new LinkedHashMap<>(columnCount * 2);
+    for (int i = 0; i < columnCount; i++) {
+      byte[] name = new byte[payload.getShort()];
+      payload.get(name);
+      EmbeddedColumnType type = EmbeddedColumnType.fromId(payload.get());
+      double min = payload.getDouble();
+      double max = payload.getDouble();
+      String columnName = new String(name, StandardCharsets.UTF_8);
+      columns.put(columnName, new SegmentColumn(columnName, type, min, max, slice(payload)));
+    }
+    return new Segment(rowCount, writtenAt, minTime, maxTime, timeData, columns);
+  }
+
+  private static ByteBuffer slice(ByteBuffer payload) {
+    int length = payload.getInt();
+    ByteBuffer data = payload.slice(payload.position(), length);
+    payload.position(payload.position() + length);
+    return data;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Returns the wall clock time in milliseconds at which the segment was written
+   */
+  public long getWrittenAt() {
+    return writtenAt;
+  }
+
+  public long getMinTime() {
+    return minTime;
+  }
+
+  public long getMaxTime() {
+    return maxTime;
+  }
+
+  /**
+   * Returns the timestamps of all rows in milliseconds, in the order in which they were written
+   */
+  public synchronized long[] getTimestamps() {
+    if (timestamps == null) {
+      timestamps = EmbeddedCodecs.decodeTimestamps(timeData.duplicate(), rowCount);
+    }
+    return timestamps;
+  }
+
+  public Map<String, SegmentColumn> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Returns the column with the given name, or null if no row of the segment has a value for it
+   */
+  public SegmentColumn getColumn(String name) {
+    return columns.get(name);
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Collects rows of a measurement and encodes them as a {@link Segment}.
+ */
+class SegmentBuilder {
+
+  private final List<String> columnNames;
+  private final List<EmbeddedColumnType> columnTypes;
+
+  private long[] timestamps;
+  private Object[][] values;
+  private int size;
+
+  SegmentBuilder(List<String> columnNames,
+                 List<EmbeddedColumnType> columnTypes,
+                 int capacity) {
+    this.columnNames = columnNames;
+    this.columnTypes = columnTypes;
+    this.timestamps = new long[capacity];
+    this.values = new Object[columnNames.size()][capacity];
+  }
+
+  /**
+   * Adds a row.
+   *
+   * @param row The values in the order of the column names, null for columns without a value
+   */
+  void add(long timestamp, Object[] row) {
+    if (size == timestamps.length) {
+      int capacity = Math.max(16, size * 2);
+      timestamps = Arrays.copyOf(timestamps, capacity);
+      for (int i = 0; i < values.length; i++) {
+        values[i] = Arrays.copyOf(values[i], capacity);
+      }
+    }
+    timestamps[size] = timestamp;
+    for (int i = 0; i < values.length; i++) {
+      values[i][size] = row[i];
+    }
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  long getFirstTimestamp() {
+    return timestamps[0];
+  }
+
+  /**
+   * Encodes all rows added since the last call as a framed segment and clears the builder.
+   */
+  byte[] build() {
+    try {
+      ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+      DataOutputStream payload = new DataOutputStream(payloadBytes);
+      long minTime = Long.MAX_VALUE;
+      long maxTime = Long.MIN_VALUE;
+      for (int i = 0; i < size; i++) {
+        minTime = Math.min(minTime, timestamps[i]);
+        maxTime = Math.max(maxTime, timestamps[i]);
+      }
+
+      payload.writeInt(size);
+      payload.writeLong(System.currentTimeMillis());
+      payload.writeLong(minTime);
+      payload.writeLong(maxTime);
+      writeBlock(payload, EmbeddedCodecs.encodeTimestamps(timestamps, size));
+
+      int columnCount = 0;
+      for (Object[] column : values) {
+        if (hasValues(column)) {
+          columnCount++;
+        }
+      }
+      payload.writeShort(columnCount);
+      for (int c = 0; c < values.length; c++) {
+        if (hasValues(values[c])) {
+          writeColumn(payload, columnNames.get(c), columnTypes.get(c), values[c]);
+        }
+      }
+      payload.flush();
+
+      byte[] payloadArray = payloadBytes.toByteArray();
+      CRC32 crc = new CRC32();
+      crc.update(payloadArray);
+      ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(payloadArray.length + 12);
+      DataOutputStream frame = new DataOutputStream(frameBytes);
+      frame.writeInt(Segment.MAGIC);
+      frame.writeInt(payloadArray.length);
+      frame.write(payloadArray);
+      frame.writeInt((int) crc.getValue());
+      frame.flush();
+
+      clear();
+      return frameBytes.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeColumn(DataOutputStream payload,
+                           String name,
+                           EmbeddedColumnType type,
+                           Object[] column) throws IOException {
+    double min = Double.NaN;
+    double max = Double.NaN;
+    if (type.isNumeric()) {
+      min = Double.POSITIVE_INFINITY;
+      max = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < size; i++) {
+        if (column[i] != null) {
+          double value = ((Number) column[i]).doubleValue();
+          min = Math.min(min, value);
+          max = Math.max(max, value);
+        }
+      }
+    }
+
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    payload.writeShort(nameBytes.length);
+    payload.write(nameBytes);
+    payload.writeByte(type.getId());
+    payload.writeDouble(min);
+    payload.writeDouble(max);
+    writeBlock(payload, EmbeddedCodecs.encodeColumn(type, column, size));
+  }
+
+  private void writeBlock(DataOutputStream payload, byte[] block) throws IOException {
+    payload.writeInt(block.length);
+    payload.write(block);
+  }
+
+  private boolean hasValues(Object[] column) {
+    for (int i = 0; i < size; i++) {
+      if (column[i] != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void clear() {
+    for (Object[] column : values) {
+      Arrays.fill(column, 0, size, null);
+    }
+    size = 0;
+  }
+}
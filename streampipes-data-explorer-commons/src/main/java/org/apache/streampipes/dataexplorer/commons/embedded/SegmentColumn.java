@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A column of a {@link Segment}. The minimum and maximum of numeric columns are stored in the
+ * segment header, so that segments can be skipped without decoding their values.
+ */
+public class SegmentColumn {
+
+  private final String name;
+  private final EmbeddedColumnType type;
+  private final double min;
+  private final double max;
+  private final ByteBuffer data;
+
+  SegmentColumn(String name,
+                EmbeddedColumnType type,
+                double min,
+                double max,
+                ByteBuffer data) {
+    this.name = name;
+    this.type = type;
+    this.min = min;
+    this.max = max;
+    this.data = data;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public EmbeddedColumnType getType() {
+    return type;
+  }
+
+  /**
+   * Returns the smallest value of a numeric column, or NaN for other columns
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * Returns the largest value of a numeric column, or NaN for other columns
+   */
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * Decodes the values of the column.
+   *
+   * @return The values in the order of the timestamps of the segment, null for rows without a value
+   */
+  public Object[] decode(int rowCount) {
+    return EmbeddedCodecs.decodeColumn(type, data.duplicate(), rowCount);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.engine;
+
+import org.apache.streampipes.commons.environment.Environment;
+
+import java.util.Arrays;
+
+/**
+ * The storage engines in which data lake measurements can be stored.
+ */
+public enum TimeSeriesStorageEngine {
+
+  INFLUX("influx"),
+  EMBEDDED("embedded");
+
+  private final String name;
+
+  TimeSeriesStorageEngine(String name) {
+    this.name = name;
+  }
+
+  public static TimeSeriesStorageEngine from(Environment environment) {
+    String engine = environment.getTsStorageEngine().getValueOrDefault();
+    return Arrays.stream(values())
+        .filter(value -> value.name.equalsIgnoreCase(engine))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unsupported time series storage engine: " + engine));
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.engine;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatisticsRecorder;
+import org.apache.streampipes.model.runtime.Event;
+
+/**
+ * Write path of a time series storage engine. An instance writes the events of a single data
+ * lake measurement.
+ */
+public interface TimeSeriesWriter {
+
+  /**
+   * Writes an event to the measurement.
+   *
+   * @throws SpRuntimeException If the event is null or the writer has been closed
+   */
+  void onEvent(Event event) throws SpRuntimeException;
+
+  /**
+   * Returns the recorder which collects the statistics of all events written by this writer
+   */
+  MeasureStatisticsRecorder getStatisticsRecorder();
+
+  /**
+   * Closes the writer after all pending events are written
+   */
+  void close() throws SpRuntimeException;
+}
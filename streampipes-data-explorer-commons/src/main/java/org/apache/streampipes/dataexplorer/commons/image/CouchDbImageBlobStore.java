@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.image;
+
+import org.apache.streampipes.commons.environment.Environment;
+
+import org.apache.commons.codec.binary.Base64;
+import org.lightcouch.CouchDbClient;
+import org.lightcouch.CouchDbProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Stores each image as an attachment of its own CouchDB document.
+ */
+public class CouchDbImageBlobStore implements ImageBlobStore {
+
+  private static final String DB_NAME = "images";
+
+  private final CouchDbClient couchDbClient;
+
+  public CouchDbImageBlobStore(Environment environment) {
+    this.couchDbClient = new CouchDbClient(from(environment));
+  }
+
+  private static CouchDbProperties from(Environment env) {
+    String couchDbProtocol = env.getCouchDbProtocol().getValueOrDefault();
+    String couchDbHost = env.getCouchDbHost().getValueOrDefault();
+    int couchDbPort = env.getCouchDbPort().getValueOrDefault();
+    String username = env.getCouchDbUsername().getValueOrDefault();
+    String password = env.getCouchDbPassword().getValueOrDefault();
+
+    return new CouchDbProperties(DB_NAME, true, couchDbProtocol,
+        couchDbHost, couchDbPort, username, password);
+  }
+
+  @Override
+  public String store(String base64Image) {
+    String imageDocId = UUID.randomUUID().toString();
+    storeImage(Base64.decodeBase64(base64Image), imageDocId);
+    return imageDocId;
+  }
+
+  public void storeImage(byte[] imageBytes,
+                         String imageDocId) {
+    this.couchDbClient.saveAttachment(
+        new ByteArrayInputStream(imageBytes),
+        imageDocId,
+        "image/jpeg",
+        imageDocId,
+        null);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.couchDbClient.close();
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.image;
+
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Stores images as files in a local directory or volume, which is shared with the core service
+ * to serve the images. Images are addressed by the SHA-256 hash of their content, so that
+ * identical images are stored only once. The image is decoded and hashed in the calling thread,
+ * while files are written from a dedicated thread. Writing or referencing an image again updates
+ * its modification time, which is used to remove unused images, see
+ * {@link #removeUnusedImages(Path, Predicate, long)}.
+ */
+public class FileSystemImageBlobStore implements ImageBlobStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileSystemImageBlobStore.class);
+
+  private static final Pattern IMAGE_ID_PATTERN = Pattern.compile("[0-9a-f]{64}");
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+  private static final long SHUTDOWN_TIMEOUT_MS = 30000;
+
+  private final Path baseDir;
+  private final BlockingQueue<PendingImage> queue;
+  private final Set<String> pendingImageIds;
+  private final Thread writerThread;
+
+  private volatile boolean running;
+
+  public FileSystemImageBlobStore(Path baseDir,
+                                  int queueSize) {
+    this.baseDir = baseDir;
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+    this.pendingImageIds = ConcurrentHashMap.newKeySet();
+    this.writerThread = new Thread(this::run, "image-writer-" + baseDir.getFileName());
+    this.writerThread.setDaemon(true);
+  }
+
+  public static FileSystemImageBlobStore from(Environment environment) {
+    return new FileSystemImageBlobStore(
+        getBaseDir(environment),
+        environment.getDataLakeImageWriteQueueSize().getValueOrDefault());
+  }
+
+  public static Path getBaseDir(Environment environment) {
+    return Path.of(environment.getDataLakeImageDir().getValueOrDefault());
+  }
+
+  /**
+   * Resolves the file of a stored image.
+   *
+   * @param baseDir The directory of the image store
+   * @param imageId The id of the image
+   * @return The file of the image, or empty if the id is not a content hash or the image does not exist
+   */
+  public static Optional<Path> findImage(Path baseDir,
+                                         String imageId) {
+    if (imageId == null || !IMAGE_ID_PATTERN.matcher(imageId).matches()) {
+      return Optional.empty();
+    }
+    Path file = getImagePath(baseDir, imageId);
+    return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+  }
+
+  /**
+   * Removes images which are not in use and which have not been written or referenced since the
+   * given time. Leftover temporary files older than that time are removed as well.
+   *
+   * @param baseDir     The directory of the image store
+   * @param isUnused    Tests whether an image id is no longer referenced by any stored event
+   * @param unusedSince Only images which have not been modified since this time are removed
+   * @return The number of removed images
+   */
+  public static int removeUnusedImages(Path baseDir,
+                                       Predicate<String> isUnused,
+                                       long unusedSince) throws IOException {
+    int removedImages = 0;
+    try (DirectoryStream<Path> dirs = Files.newDirectoryStream(baseDir, Files::isDirectory)) {
+      for (Path dir : dirs) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+          for (Path file : files) {
+            if (removeIfUnused(file, isUnused, unusedSince)) {
+              removedImages++;
+            }
+          }
+        }
+      }
+    } catch (NoSuchFileException e) {
+      // nothing has been written yet
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return removedImages;
+  }
+
+  private static boolean removeIfUnused(Path file,
+                                        Predicate<String> isUnused,
+                                        long unusedSince) throws IOException {
+    String fileName = file.getFileName().toString();
+    boolean isImage = IMAGE_ID_PATTERN.matcher(fileName).matches();
+    boolean isTempFile = fileName.endsWith(TEMP_FILE_SUFFIX);
+    try {
+      if ((isImage || isTempFile) && Files.getLastModifiedTime(file).toMillis() < unusedSince) {
+        if (isTempFile) {
+          Files.deleteIfExists(file);
+        } else {
+          return isUnused.test(fileName) && Files.deleteIfExists(file);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      // the file has been moved or removed in the meantime
+    }
+    return false;
+  }
+
+  private static Path getImagePath(Path baseDir,
+                                   String imageId) {
+    // images are spread over subdirectories to keep directory sizes small
+    return baseDir.resolve(imageId.substring(0, 2)).resolve(imageId);
+  }
+
+  public void start() {
+    this.running = true;
+    this.writerThread.start();
+  }
+
+  @Override
+  public String store(String base64Image) throws SpRuntimeException {
+    if (!running) {
+      throw new SpRuntimeException("Image store is closed");
+    }
+    MessageDigest digest = makeDigest();
+    ByteArrayOutputStream imageBytes = new ByteArrayOutputStream(base64Image.length() * 3 / 4);
+    try (InputStream in = Base64.getMimeDecoder().wrap(new Base64CharInputStream(base64Image));
+         DigestOutputStream out = new DigestOutputStream(imageBytes, digest)) {
+      in.transferTo(out);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new SpRuntimeException("Could not decode image", e);
+    }
+
+    String imageId = toHex(digest.digest());
+    if (pendingImageIds.contains(imageId) || touch(imageId)) {
+      return imageId;
+    }
+
+    if (pendingImageIds.add(imageId)) {
+      try {
+        queue.put(new PendingImage(imageId, imageBytes.toByteArray()));
+      } catch (InterruptedException e) {
+        pendingImageIds.remove(imageId);
+        Thread.currentThread().interrupt();
+        throw new SpRuntimeException(e);
+      }
+    }
+    return imageId;
+  }
+
+  /**
+   * Stops accepting new images and waits until all queued images are written.
+   */
+  @Override
+  public void close() {
+    this.running = false;
+    try {
+      writerThread.join(SHUTDOWN_TIMEOUT_MS);
+      if (writerThread.isAlive()) {
+        LOG.warn("Image writer did not finish in time, {} images were not written", queue.size());
+        writerThread.interrupt();
+      }
+    } catch (InterruptedException e) {
+      writerThread.interrupt();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Marks an existing image as recently used, so that it is not removed while it is unreferenced.
+   *
+   * @return true if the image exists
+   */
+  private boolean touch(String imageId) {
+    try {
+      Files.setLastModifiedTime(getImagePath(baseDir, imageId), FileTime.fromMillis(System.currentTimeMillis()));
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    } catch (IOException e) {
+      LOG.warn("Could not update modification time of image {}", imageId, e);
+      return true;
+    }
+  }
+
+  private void run() {
+    List<PendingImage> batch = new ArrayList<>();
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingImage image = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (image != null) {
+          batch.add(image);
+          queue.drainTo(batch);
+          batch.forEach(this::write);
+          batch.clear();
+        }
+      } catch (InterruptedException e) {
+        LOG.warn("Image writer interrupted, {} images were not written", batch.size() + queue.size());
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void write(PendingImage image) {
+    Path file = getImagePath(baseDir, image.imageId);
+    try {
+      Files.createDirectories(file.getParent());
+      // written to a temporary file first, so that readers never see partially written images
+      Path tempFile = Files.createTempFile(file.getParent(), image.imageId, TEMP_FILE_SUFFIX);
+      try {
+        Files.write(tempFile, image.bytes);
+        Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      LOG.error("Could not write image {}", image.imageId, e);
+    } finally {
+      pendingImageIds.remove(image.imageId);
+    }
+  }
+
+  private static MessageDigest makeDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  private static class PendingImage {
+
+    private final String imageId;
+    private final byte[] bytes;
+
+    PendingImage(String imageId,
+                 byte[] bytes) {
+      this.imageId = imageId;
+      this.bytes = bytes;
+    }
+  }
+
+  /**
+   * Reads the characters of a Base64 string as bytes, without copying the string.
+   */
+  private static class Base64CharInputStream extends InputStream {
+
+    private final String value;
+    private int position;
+
+    Base64CharInputStream(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public int read() {
+      return position < value.length() ? value.charAt(position++) & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= value.length()) {
+        return -1;
+      }
+      int count = Math.min(len, value.length() - position);
+      for (int i = 0; i < count; i++) {
+        b[off + i] = (byte) value.charAt(position++);
+      }
+      return count;
+    }
+  }
+}
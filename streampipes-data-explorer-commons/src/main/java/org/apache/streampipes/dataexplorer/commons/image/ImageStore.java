@@ -24,65 +24,50 @@ import org.apache.streampipes.model.datalake.DataLakeMeasure;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.model.schema.EventProperty;
 
-import org.apache.commons.codec.binary.Base64;
-import org.lightcouch.CouchDbClient;
-import org.lightcouch.CouchDbProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.List;
-import java.util.UUID;
 
 public class ImageStore {
 
   private static final Logger LOG = LoggerFactory.getLogger(ImageStore.class);
-  private static final String DB_NAME = "images";
+  private static final String FILESYSTEM_STORE = "filesystem";
 
   private List<EventProperty> imageProperties;
-  private CouchDbClient couchDbClient;
+  private ImageBlobStore blobStore;
 
   public ImageStore(DataLakeMeasure measure,
                     Environment environment) {
-    this.couchDbClient = new CouchDbClient(from(environment));
+    this.blobStore = makeBlobStore(environment);
     this.imageProperties = ImageStoreUtils.getImageProperties(measure);
   }
 
-  private static CouchDbProperties from(Environment env) {
-    String couchDbProtocol = env.getCouchDbProtocol().getValueOrDefault();
-    String couchDbHost = env.getCouchDbHost().getValueOrDefault();
-    int couchDbPort = env.getCouchDbPort().getValueOrDefault();
-    String username = env.getCouchDbUsername().getValueOrDefault();
-    String password = env.getCouchDbPassword().getValueOrDefault();
+  public static boolean isFileSystemStore(Environment environment) {
+    return FILESYSTEM_STORE.equalsIgnoreCase(environment.getDataLakeImageStore().getValueOrDefault());
+  }
 
-    return new CouchDbProperties(DB_NAME, true, couchDbProtocol,
-        couchDbHost, couchDbPort, username, password);
+  private static ImageBlobStore makeBlobStore(Environment environment) {
+    if (isFileSystemStore(environment)) {
+      LOG.info("Storing images in directory {}", FileSystemImageBlobStore.getBaseDir(environment));
+      FileSystemImageBlobStore blobStore = FileSystemImageBlobStore.from(environment);
+      blobStore.start();
+      return blobStore;
+    } else {
+      return new CouchDbImageBlobStore(environment);
+    }
   }
 
   public void onEvent(Event event) throws SpRuntimeException {
     this.imageProperties.forEach(eventProperty -> {
-      String imageDocId = UUID.randomUUID().toString();
       String image = event.getFieldByRuntimeName(eventProperty.getRuntimeName()).getAsPrimitive().getAsString();
-
-      byte[] data = Base64.decodeBase64(image);
-      storeImage(data, imageDocId);
-      event.updateFieldBySelector("s0::" + eventProperty.getRuntimeName(), imageDocId);
+      String imageId = blobStore.store(image);
+      event.updateFieldBySelector("s0::" + eventProperty.getRuntimeName(), imageId);
     });
   }
 
-  public void storeImage(byte[] imageBytes,
-                         String imageDocId) {
-    this.couchDbClient.saveAttachment(
-        new ByteArrayInputStream(imageBytes),
-        imageDocId,
-        "image/jpeg",
-        imageDocId,
-        null);
-
-  }
-
   public void close() throws IOException {
-    this.couchDbClient.close();
+    this.blobStore.close();
   }
 }
@@ -26,6 +26,22 @@ import org.influxdb.InfluxDBFactory;
 
 public class InfluxClientProvider {
 
+  private static InfluxDB sharedClient;
+
+  /**
+   * Returns a client shared by all data lake queries of this service, created from environment
+   * variables on first use. The client keeps its HTTP connections pooled and must not be closed
+   * by callers.
+   *
+   * @return InfluxDB
+   */
+  public static synchronized InfluxDB getSharedInfluxDBClient() {
+    if (sharedClient == null) {
+      sharedClient = getInfluxDBClient();
+    }
+    return sharedClient;
+  }
+
   /**
    * Create a new InfluxDB client from environment variables
    *
@@ -19,60 +19,57 @@
 package org.apache.streampipes.dataexplorer.commons.influx;
 
 import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataexplorer.commons.engine.TimeSeriesWriter;
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatisticsRecorder;
 import org.apache.streampipes.model.datalake.DataLakeMeasure;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.model.runtime.field.PrimitiveField;
-import org.apache.streampipes.model.schema.EventProperty;
-import org.apache.streampipes.model.schema.EventPropertyPrimitive;
-import org.apache.streampipes.model.schema.PropertyScope;
-import org.apache.streampipes.vocabulary.SO;
-import org.apache.streampipes.vocabulary.XSD;
 
 import org.influxdb.InfluxDB;
-import org.influxdb.dto.Point;
 import org.influxdb.dto.Pong;
 import org.influxdb.dto.Query;
-import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
-
-public class InfluxStore {
+public class InfluxStore implements TimeSeriesWriter {
 
   private static final Logger LOG = LoggerFactory.getLogger(InfluxStore.class);
   DataLakeMeasure measure;
-  Map<String, String> sanitizedRuntimeNames = new HashMap<>();
+  private final InfluxWritePlan writePlan;
+  private final MeasureStatisticsRecorder statisticsRecorder;
   private InfluxDB influxDb = null;
+  private InfluxWriter writer;
 
   public InfluxStore(DataLakeMeasure measure,
-                     InfluxConnectionSettings settings) {
+                     InfluxConnectionSettings settings,
+                     InfluxWriteSettings writeSettings) {
     this.measure = measure;
-    // store sanitized target property runtime names in local variable
-    measure.getEventSchema()
-        .getEventProperties()
-        .forEach(ep -> sanitizedRuntimeNames.put(ep.getRuntimeName(),
-            InfluxNameSanitizer.renameReservedKeywords(ep.getRuntimeName())));
+    // compile the conversion of events to line protocol once for all events
+    this.writePlan = new InfluxWritePlan(measure);
+    this.statisticsRecorder = new MeasureStatisticsRecorder(writePlan.getFieldNames());
+
+    connect(settings, writeSettings);
+  }
 
-    connect(settings);
+  public InfluxStore(DataLakeMeasure measure,
+                     InfluxConnectionSettings settings) {
+    this(measure, settings, InfluxWriteSettings.from(Environments.getEnvironment()));
   }
 
   public InfluxStore(DataLakeMeasure measure,
                      Environment environment) throws SpRuntimeException {
-    this(measure, InfluxConnectionSettings.from(environment));
+    this(measure, InfluxConnectionSettings.from(environment), InfluxWriteSettings.from(environment));
   }
 
   /**
-   * Connects to the InfluxDB Server, sets the database and initializes the batch-behaviour
+   * Connects to the InfluxDB Server, sets the database and starts the writer
    *
    * @throws SpRuntimeException If not connection can be established or if the database could not
    *                            be found
    */
-  private void connect(InfluxConnectionSettings settings) throws SpRuntimeException {
+  private void connect(InfluxConnectionSettings settings,
+                       InfluxWriteSettings writeSettings) throws SpRuntimeException {
     influxDb = InfluxClientProvider.getInfluxDBClient(settings);
 
     // Checking, if server is available
@@ -90,9 +87,8 @@ public class InfluxStore {
 
     // setting up the database
     influxDb.setDatabase(databaseName);
-    int batchSize = 2000;
-    int flushDuration = 500;
-    influxDb.enableBatch(batchSize, flushDuration, TimeUnit.MILLISECONDS);
+    writer = new InfluxWriter(influxDb, databaseName, writeSettings, measure.getMeasureName());
+    writer.start();
   }
 
   /**
@@ -112,115 +108,40 @@ public class InfluxStore {
    * Saves an event to the connected InfluxDB database
    *
    * @param event The event which should be saved
-   * @throws SpRuntimeException If the column name (key-value of the event map) is not allowed
+   * @throws SpRuntimeException If the event is null or the writer has been closed
    */
+  @Override
   public void onEvent(Event event) throws SpRuntimeException {
-    var missingFields = new ArrayList<String>();
-    var nullFields = new ArrayList<String>();
     if (event == null) {
       throw new SpRuntimeException("event is null");
     }
 
-    Long timestampValue = event.getFieldBySelector(measure.getTimestampField()).getAsPrimitive().getAsLong();
-    Point.Builder point =
-        Point.measurement(measure.getMeasureName()).time((long) timestampValue, TimeUnit.MILLISECONDS);
-
-    for (EventProperty ep : measure.getEventSchema().getEventProperties()) {
-      if (ep instanceof EventPropertyPrimitive) {
-        String runtimeName = ep.getRuntimeName();
-
-        // timestamp should not be added as a field
-        if (!measure.getTimestampField().endsWith(runtimeName)) {
-          String sanitizedRuntimeName = sanitizedRuntimeNames.get(runtimeName);
-
-          try {
-            var field = event.getOptionalFieldByRuntimeName(runtimeName);
-            if (field.isPresent()) {
-              PrimitiveField eventPropertyPrimitiveField = field.get().getAsPrimitive();
-              if (eventPropertyPrimitiveField.getRawValue() == null) {
-                nullFields.add(sanitizedRuntimeName);
-              } else {
-
-                // store property as tag when the field is a dimension property
-                if (PropertyScope.DIMENSION_PROPERTY.name().equals(ep.getPropertyScope())) {
-                  point.tag(sanitizedRuntimeName, eventPropertyPrimitiveField.getAsString());
-                } else {
-                  handleMeasurementProperty(
-                      point,
-                      (EventPropertyPrimitive) ep,
-                      sanitizedRuntimeName,
-                      eventPropertyPrimitiveField);
-                }
-              }
-            } else {
-              missingFields.add(runtimeName);
-            }
-          } catch (SpRuntimeException iae) {
-            LOG.warn("Runtime exception while extracting field value of field {} - this field will be ignored",
-                runtimeName, iae);
-          }
-        }
-      }
-    }
-
-    if (missingFields.size() > 0) {
-      LOG.debug("Ignored {} fields which were present in the schema, but not in the provided event: {}",
-          missingFields.size(),
-          String.join(", ", missingFields));
-    }
-
-    if (nullFields.size() > 0) {
-      LOG.warn("Ignored {} fields which had a value 'null': {}", nullFields.size(), String.join(", ", nullFields));
+    String line = writePlan.toLineProtocol(event, statisticsRecorder);
+    if (line != null) {
+      writer.write(line);
+    } else {
+      LOG.debug("Ignored event without any field values");
     }
+  }
 
-    influxDb.write(point.build());
+  public InfluxWriter getWriter() {
+    return writer;
   }
 
-  private void handleMeasurementProperty(Point.Builder p,
-                                         @NotNull EventPropertyPrimitive ep,
-                                         String preparedRuntimeName,
-                                         PrimitiveField eventPropertyPrimitiveField) {
-    try {
-      // Store property according to property type
-      String runtimeType = ep.getRuntimeType();
-      if (XSD.INTEGER.toString().equals(runtimeType)) {
-        try {
-          p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsInt());
-        } catch (NumberFormatException ef) {
-          p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsFloat());
-        }
-      } else if (XSD.LONG.toString().equals(runtimeType)) {
-        try {
-          p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsLong());
-        } catch (NumberFormatException ef) {
-          p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsFloat());
-        }
-      } else if (XSD.FLOAT.toString().equals(runtimeType)) {
-        p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsFloat());
-      } else if (XSD.DOUBLE.toString().equals(runtimeType)) {
-        p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsDouble());
-      } else if (XSD.BOOLEAN.toString().equals(runtimeType)) {
-        p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsBoolean());
-      } else if (SO.NUMBER.equals(runtimeType)) {
-        p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsDouble());
-      } else {
-        p.addField(preparedRuntimeName, eventPropertyPrimitiveField.getAsString());
-      }
-    } catch (NumberFormatException e) {
-      LOG.warn("Wrong number format for field {}, ignoring.", preparedRuntimeName);
-    }
+  /**
+   * Returns the recorder which collects the statistics of all events written by this store
+   */
+  @Override
+  public MeasureStatisticsRecorder getStatisticsRecorder() {
+    return statisticsRecorder;
   }
 
   /**
-   * Shuts down the connection to the InfluxDB server
+   * Shuts down the connection to the InfluxDB server after all pending events are written
    */
+  @Override
   public void close() throws SpRuntimeException {
-    influxDb.flush();
-    try {
-      Thread.sleep(1000);
-    } catch (InterruptedException e) {
-      throw new SpRuntimeException(e);
-    }
+    writer.close();
     influxDb.close();
   }
 }
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.influx;
+
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatisticsRecorder;
+import org.apache.streampipes.model.constants.PropertySelectorConstants;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.SO;
+import org.apache.streampipes.vocabulary.XSD;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Write plan of a data lake measure, compiled once from its event schema. For each primitive
+ * property, the plan stores the selector used to look up the field, the escaped column name and
+ * how the value is written, so that events can be converted to InfluxDB line protocol without
+ * inspecting the schema again.
+ */
+public class InfluxWritePlan {
+
+  private static final Logger LOG = LoggerFactory.getLogger(InfluxWritePlan.class);
+
+  private enum ValueType {
+    TAG, INTEGER, LONG, FLOAT, DOUBLE, BOOLEAN, STRING
+  }
+
+  private final String timestampSelector;
+  private final String escapedMeasureName;
+  private final List<Column> columns;
+
+  public InfluxWritePlan(DataLakeMeasure measure) {
+    this.timestampSelector = measure.getTimestampField();
+    this.escapedMeasureName = escapeMeasurement(measure.getMeasureName());
+    this.columns = new ArrayList<>();
+
+    int delimiterIndex = timestampSelector.lastIndexOf(PropertySelectorConstants.PROPERTY_DELIMITER);
+    String selectorPrefix = delimiterIndex >= 0
+        ? timestampSelector.substring(0, delimiterIndex + PropertySelectorConstants.PROPERTY_DELIMITER.length())
+        : "";
+
+    for (EventProperty ep : measure.getEventSchema().getEventProperties()) {
+      // timestamp should not be added as a field
+      if (ep instanceof EventPropertyPrimitive && !timestampSelector.endsWith(ep.getRuntimeName())) {
+        String runtimeName = ep.getRuntimeName();
+        columns.add(new Column(
+            runtimeName,
+            selectorPrefix + runtimeName,
+            escapeKey(InfluxNameSanitizer.renameReservedKeywords(runtimeName)),
+            InfluxNameSanitizer.renameReservedKeywords(runtimeName),
+            toValueType((EventPropertyPrimitive) ep)));
+      }
+    }
+  }
+
+  /**
+   * The names of the columns written by this plan, in the order in which their values are passed
+   * to a {@link MeasureStatisticsRecorder}.
+   */
+  public List<String> getFieldNames() {
+    return columns.stream().map(c -> c.sanitizedName).collect(Collectors.toList());
+  }
+
+  /**
+   * Converts the event to a line of InfluxDB line protocol with millisecond precision.
+   *
+   * @return The line, or null if the event does not contain any value which can be written
+   */
+  public String toLineProtocol(Event event) {
+    return toLineProtocol(event, null);
+  }
+
+  /**
+   * Converts the event to a line of InfluxDB line protocol with millisecond precision and records
+   * its timestamp and numeric values in the given recorder.
+   *
+   * @param statistics The recorder, or null if no statistics should be recorded
+   * @return The line, or null if the event does not contain any value which can be written
+   */
+  public String toLineProtocol(Event event,
+                               MeasureStatisticsRecorder statistics) {
+    long timestamp = event.getFieldBySelector(timestampSelector).getAsPrimitive().getAsLong();
+    StringBuilder line = new StringBuilder(escapedMeasureName);
+    StringBuilder fields = new StringBuilder();
+    List<String> missingFields = null;
+    List<String> nullFields = null;
+    double[] values = null;
+    if (statistics != null) {
+      values = new double[columns.size()];
+      Arrays.fill(values, Double.NaN);
+    }
+
+    for (int i = 0; i < columns.size(); i++) {
+      Column column = columns.get(i);
+      AbstractField field = getField(event, column);
+      if (field == null) {
+        missingFields = add(missingFields, column.runtimeName);
+      } else if (field.getRawValue() == null) {
+        nullFields = add(nullFields, column.sanitizedName);
+      } else if (column.valueType == ValueType.TAG) {
+        String value = field.getAsPrimitive().getAsString();
+        if (!value.isEmpty()) {
+          line.append(',').append(column.escapedName).append('=').append(escapeKey(value));
+        }
+      } else {
+        double value = appendField(fields, column, field.getAsPrimitive());
+        if (values != null) {
+          values[i] = value;
+        }
+      }
+    }
+
+    if (missingFields != null) {
+      LOG.debug("Ignored {} fields which were present in the schema, but not in the provided event: {}",
+          missingFields.size(),
+          String.join(", ", missingFields));
+    }
+
+    if (nullFields != null) {
+      LOG.warn("Ignored {} fields which had a value 'null': {}", nullFields.size(), String.join(", ", nullFields));
+    }
+
+    if (fields.length() == 0) {
+      return null;
+    }
+    if (statistics != null) {
+      statistics.record(timestamp, values);
+    }
+    return line.append(' ').append(fields).append(' ').append(timestamp).toString();
+  }
+
+  private AbstractField getField(Event event, Column column) {
+    AbstractField field = event.getFields().get(column.selector);
+    if (field != null && column.runtimeName.equals(field.getFieldNameIn())) {
+      return field;
+    }
+    return event.getOptionalFieldByRuntimeName(column.runtimeName).orElse(null);
+  }
+
+  /**
+   * Appends the field to the field set of the line.
+   *
+   * @return The numeric value which was written, or NaN if the field is not numeric or was skipped
+   */
+  private double appendField(StringBuilder fields,
+                             Column column,
+                             PrimitiveField field) {
+    int start = fields.length();
+    if (start > 0) {
+      fields.append(',');
+    }
+    fields.append(column.escapedName).append('=');
+    int valueStart = fields.length();
+    double numericValue = Double.NaN;
+
+    try {
+      Object value = field.getRawValue();
+      switch (column.valueType) {
+        case INTEGER:
+        case LONG:
+          if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            long longValue = ((Number) value).longValue();
+            fields.append(longValue).append('i');
+            numericValue = longValue;
+          } else {
+            try {
+              long longValue = column.valueType == ValueType.INTEGER ? field.getAsInt() : field.getAsLong();
+              fields.append(longValue).append('i');
+              numericValue = longValue;
+            } catch (NumberFormatException ef) {
+              numericValue = appendFloatingPoint(fields, field.getAsFloat());
+            }
+          }
+          break;
+        case FLOAT:
+          numericValue = appendFloatingPoint(fields,
+              value instanceof Number ? ((Number) value).floatValue() : field.getAsFloat());
+          break;
+        case DOUBLE:
+          numericValue = appendFloatingPoint(fields,
+              value instanceof Number ? ((Number) value).doubleValue() : field.getAsDouble());
+          break;
+        case BOOLEAN:
+          fields.append(value instanceof Boolean ? (Boolean) value : field.getAsBoolean());
+          break;
+        default:
+          appendString(fields, field.getAsString());
+      }
+    } catch (NumberFormatException e) {
+      LOG.warn("Wrong number format for field {}, ignoring.", column.sanitizedName);
+      fields.setLength(start);
+      return Double.NaN;
+    }
+
+    if (fields.length() == valueStart) {
+      // non-finite values cannot be represented in line protocol
+      fields.setLength(start);
+    }
+    return numericValue;
+  }
+
+  private double appendFloatingPoint(StringBuilder fields, double value) {
+    if (Double.isFinite(value)) {
+      fields.append(value);
+      return value;
+    }
+    return Double.NaN;
+  }
+
+  private double appendFloatingPoint(StringBuilder fields, float value) {
+    if (Float.isFinite(value)) {
+      fields.append(value);
+      return value;
+    }
+    return Double.NaN;
+  }
+
+  private void appendString(StringBuilder fields, String value) {
+    fields.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        fields.append('\\');
+      }
+      fields.append(c);
+    }
+    fields.append('"');
+  }
+
+  private static ValueType toValueType(EventPropertyPrimitive ep) {
+    // store property as tag when the field is a dimension property
+    if (PropertyScope.DIMENSION_PROPERTY.name().equals(ep.getPropertyScope())) {
+      return ValueType.TAG;
+    }
+    String runtimeType = ep.getRuntimeType();
+    if (XSD.INTEGER.toString().equals(runtimeType)) {
+      return ValueType.INTEGER;
+    } else if (XSD.LONG.toString().equals(runtimeType)) {
+      return ValueType.LONG;
+    } else if (XSD.FLOAT.toString().equals(runtimeType)) {
+      return ValueType.FLOAT;
+    } else if (XSD.DOUBLE.toString().equals(runtimeType) || SO.NUMBER.equals(runtimeType)) {
+      return ValueType.DOUBLE;
+    } else if (XSD.BOOLEAN.toString().equals(runtimeType)) {
+      return ValueType.BOOLEAN;
+    } else {
+      return ValueType.STRING;
+    }
+  }
+
+  private static List<String> add(List<String> list, String value) {
+    List<String> result = list != null ? list : new ArrayList<>();
+    result.add(value);
+    return result;
+  }
+
+  private static String escapeMeasurement(String value) {
+    return escape(value, false);
+  }
+
+  private static String escapeKey(String value) {
+    return escape(value, true);
+  }
+
+  private static String escape(String value, boolean escapeEquals) {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == ' ' || (escapeEquals && c == '=')) {
+        escaped.append('\\');
+      }
+      escaped.append(c);
+    }
+    return escaped.toString();
+  }
+
+  private static class Column {
+
+    private final String runtimeName;
+    private final String selector;
+    private final String escapedName;
+    private final String sanitizedName;
+    private final ValueType valueType;
+
+    Column(String runtimeName,
+           String selector,
+           String escapedName,
+           String sanitizedName,
+           ValueType valueType) {
+      this.runtimeName = runtimeName;
+      this.selector = selector;
+      this.escapedName = escapedName;
+      this.sanitizedName = sanitizedName;
+      this.valueType = valueType;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.influx;
+
+import org.apache.streampipes.commons.environment.Environment;
+
+public class InfluxWriteSettings {
+
+  private final int batchSize;
+  private final int flushIntervalMs;
+  private final int queueSize;
+  private final int maxRetries;
+
+  private InfluxWriteSettings(int batchSize,
+                              int flushIntervalMs,
+                              int queueSize,
+                              int maxRetries) {
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+    this.queueSize = queueSize;
+    this.maxRetries = maxRetries;
+  }
+
+  public static InfluxWriteSettings from(int batchSize,
+                                         int flushIntervalMs,
+                                         int queueSize,
+                                         int maxRetries) {
+    return new InfluxWriteSettings(Math.max(1, batchSize), Math.max(1, flushIntervalMs),
+        Math.max(1, queueSize), Math.max(0, maxRetries));
+  }
+
+  public static InfluxWriteSettings from(Environment environment) {
+    return from(
+        environment.getTsStorageWriteBatchSize().getValueOrDefault(),
+        environment.getTsStorageWriteFlushIntervalMs().getValueOrDefault(),
+        environment.getTsStorageWriteQueueSize().getValueOrDefault(),
+        environment.getTsStorageWriteMaxRetries().getValueOrDefault());
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public int getFlushIntervalMs() {
+    return flushIntervalMs;
+  }
+
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+}
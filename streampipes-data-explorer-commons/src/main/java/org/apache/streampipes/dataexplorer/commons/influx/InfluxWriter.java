@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.influx;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+
+import org.influxdb.InfluxDB;
+import org.influxdb.InfluxDBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes lines of InfluxDB line protocol from a dedicated thread. Lines are buffered in a bounded
+ * queue, so that callers are blocked if InfluxDB cannot keep up, and are written in batches once
+ * the batch size or the flush interval is reached. Failed writes are retried with exponential
+ * backoff.
+ */
+public class InfluxWriter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(InfluxWriter.class);
+
+  private static final long INITIAL_BACKOFF_MS = 100;
+  private static final long MAX_BACKOFF_MS = 10000;
+  private static final long SHUTDOWN_TIMEOUT_MS = 30000;
+
+  private final InfluxDB influxDb;
+  private final String databaseName;
+  private final InfluxWriteSettings settings;
+  private final BlockingQueue<String> queue;
+  private final Thread writerThread;
+
+  private final LongAdder writtenLines = new LongAdder();
+  private final LongAdder failedLines = new LongAdder();
+  private final LongAdder writeCount = new LongAdder();
+  private final LongAdder totalWriteNanos = new LongAdder();
+  private final LongAccumulator maxWriteNanos = new LongAccumulator(Long::max, 0);
+
+  // held for reading while a line is enqueued and for writing while the writer is closed, so
+  // that no line is enqueued after the writer thread has seen that the writer is closed
+  private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+  private volatile boolean running;
+
+  public InfluxWriter(InfluxDB influxDb,
+                      String databaseName,
+                      InfluxWriteSettings settings,
+                      String name) {
+    this.influxDb = influxDb;
+    this.databaseName = databaseName;
+    this.settings = settings;
+    this.queue = new ArrayBlockingQueue<>(settings.getQueueSize());
+    this.writerThread = new Thread(this::run, "influx-writer-" + name);
+    this.writerThread.setDaemon(true);
+  }
+
+  public void start() {
+    this.running = true;
+    this.writerThread.start();
+  }
+
+  /**
+   * Adds a line to the write queue, waiting for free space if the queue is full.
+   */
+  public void write(String line) throws SpRuntimeException {
+    closeLock.readLock().lock();
+    try {
+      if (!running) {
+        throw new SpRuntimeException("Influx writer is closed");
+      }
+      queue.put(line);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SpRuntimeException(e);
+    } finally {
+      closeLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Stops accepting new lines and waits until all queued lines are written.
+   */
+  public void close() {
+    closeLock.writeLock().lock();
+    try {
+      this.running = false;
+    } finally {
+      closeLock.writeLock().unlock();
+    }
+
+    try {
+      writerThread.join(SHUTDOWN_TIMEOUT_MS);
+      if (writerThread.isAlive()) {
+        LOG.warn("Influx writer did not finish in time, {} lines were not written", queue.size());
+        writerThread.interrupt();
+      }
+    } catch (InterruptedException e) {
+      writerThread.interrupt();
+      Thread.currentThread().interrupt();
+    }
+    LOG.info("Closed influx writer (written lines: {}, failed lines: {}, mean write latency: {} ms)",
+        getWrittenLines(), getFailedLines(), getMeanWriteLatencyMs());
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  public long getWrittenLines() {
+    return writtenLines.sum();
+  }
+
+  public long getFailedLines() {
+    return failedLines.sum();
+  }
+
+  public double getMeanWriteLatencyMs() {
+    long count = writeCount.sum();
+    return count > 0 ? totalWriteNanos.sum() / (count * 1e6) : 0;
+  }
+
+  public double getMaxWriteLatencyMs() {
+    return maxWriteNanos.get() / 1e6;
+  }
+
+  private void run() {
+    List<String> batch = new ArrayList<>(settings.getBatchSize());
+    long batchStartedAt = 0;
+
+    while (running || !queue.isEmpty() || !batch.isEmpty()) {
+      try {
+        long waitMs = batch.isEmpty()
+            ? settings.getFlushIntervalMs()
+            : Math.max(0, batchStartedAt + settings.getFlushIntervalMs() - System.currentTimeMillis());
+        String line = queue.poll(waitMs, TimeUnit.MILLISECONDS);
+        if (line != null) {
+          if (batch.isEmpty()) {
+            batchStartedAt = System.currentTimeMillis();
+          }
+          batch.add(line);
+          queue.drainTo(batch, settings.getBatchSize() - batch.size());
+        }
+
+        boolean flushDue = System.currentTimeMillis() - batchStartedAt >= settings.getFlushIntervalMs();
+        if (!batch.isEmpty() && (batch.size() >= settings.getBatchSize() || flushDue || !running)) {
+          writeWithRetry(batch);
+          batch = new ArrayList<>(settings.getBatchSize());
+        }
+      } catch (InterruptedException e) {
+        LOG.warn("Influx writer interrupted, {} lines were not written", batch.size() + queue.size());
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void writeWithRetry(List<String> batch) throws InterruptedException {
+    long backoffMs = INITIAL_BACKOFF_MS;
+    for (int attempt = 0; ; attempt++) {
+      try {
+        long start = System.nanoTime();
+        influxDb.write(databaseName, null, InfluxDB.ConsistencyLevel.ONE, TimeUnit.MILLISECONDS, batch);
+        long duration = System.nanoTime() - start;
+        writeCount.increment();
+        totalWriteNanos.add(duration);
+        maxWriteNanos.accumulate(duration);
+        writtenLines.add(batch.size());
+        LOG.debug("Wrote {} lines in {} ms, queue depth {}", batch.size(), duration / 1000000, queue.size());
+        return;
+      } catch (RuntimeException e) {
+        boolean retryWorth = !(e instanceof InfluxDBException) || ((InfluxDBException) e).isRetryWorth();
+        if (!retryWorth || attempt >= settings.getMaxRetries()) {
+          failedLines.add(batch.size());
+          LOG.error("Could not write {} lines to InfluxDB after {} attempts", batch.size(), attempt + 1, e);
+          return;
+        }
+        LOG.warn("Could not write {} lines to InfluxDB, retrying in {} ms", batch.size(), backoffMs, e);
+        Thread.sleep(backoffMs);
+        backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+      }
+    }
+  }
+}
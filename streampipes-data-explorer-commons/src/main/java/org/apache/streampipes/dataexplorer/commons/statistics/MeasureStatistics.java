@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.statistics;
+
+import org.apache.streampipes.model.datalake.DataLakeFieldStatistics;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operations on {@link DataLakeMeasureStatistics}. Events are counted in time buckets whose width
+ * starts at one minute and is doubled whenever a measurement would exceed the maximum number of
+ * buckets, so that the statistics of a measurement stay small regardless of its time range.
+ */
+public class MeasureStatistics {
+
+  public static final long BASE_BUCKET_WIDTH_MS = 60 * 1000;
+  public static final int MAX_BUCKETS = 2048;
+
+  public static DataLakeMeasureStatistics empty(boolean complete) {
+    DataLakeMeasureStatistics statistics = new DataLakeMeasureStatistics();
+    statistics.setBucketWidthMs(BASE_BUCKET_WIDTH_MS);
+    statistics.setComplete(complete);
+    return statistics;
+  }
+
+  public static boolean hasData(DataLakeMeasureStatistics statistics) {
+    return statistics.getFirstTimestamp() != null && !statistics.getBucketCounts().isEmpty();
+  }
+
+  /**
+   * Adds the statistics of newly written events to the statistics of a measurement.
+   */
+  public static void merge(DataLakeMeasureStatistics target,
+                           DataLakeMeasureStatistics delta) {
+    long bucketWidth = Math.max(getBucketWidth(target), getBucketWidth(delta));
+    if (getBucketWidth(target) != bucketWidth || target.getBucketWidthMs() == 0) {
+      coarsen(target, bucketWidth);
+    }
+
+    delta.getBucketCounts().forEach((bucket, count) ->
+        target.getBucketCounts().merge(align(bucket, bucketWidth), count, Long::sum));
+    while (target.getBucketCounts().size() > MAX_BUCKETS) {
+      coarsen(target, target.getBucketWidthMs() * 2);
+    }
+
+    target.setFirstTimestamp(min(target.getFirstTimestamp(), delta.getFirstTimestamp()));
+    target.setLastTimestamp(max(target.getLastTimestamp(), delta.getLastTimestamp()));
+
+    delta.getFieldStatistics().forEach((field, statistics) -> {
+      DataLakeFieldStatistics current = target.getFieldStatistics().get(field);
+      if (current == null) {
+        target.getFieldStatistics().put(field, new DataLakeFieldStatistics(statistics));
+      } else {
+        current.setMin(Math.min(current.getMin(), statistics.getMin()));
+        current.setMax(Math.max(current.getMax(), statistics.getMax()));
+      }
+    });
+  }
+
+  /**
+   * Estimates the number of events in the given time range, assuming that events are evenly
+   * distributed within a bucket.
+   *
+   * @param startDate start of the time range, or null for an open range
+   * @param endDate   end of the time range, or null for an open range
+   */
+  public static long estimateCount(DataLakeMeasureStatistics statistics,
+                                   Long startDate,
+                                   Long endDate) {
+    long from = startDate != null ? startDate : Long.MIN_VALUE;
+    long to = endDate != null ? endDate : Long.MAX_VALUE;
+    long bucketWidth = getBucketWidth(statistics);
+    double count = 0;
+
+    for (Map.Entry<Long, Long> bucket : statistics.getBucketCounts().entrySet()) {
+      count += bucket.getValue() * getOverlap(bucket.getKey(), bucketWidth, from, to);
+    }
+    return Math.round(count);
+  }
+
+  /**
+   * Removes the events of the given time range, e.g., after data has been deleted. The value
+   * ranges of fields are kept, as they cannot be reduced without the deleted data.
+   */
+  public static void removeRange(DataLakeMeasureStatistics statistics,
+                                 Long startDate,
+                                 Long endDate) {
+    long from = startDate != null ? startDate : Long.MIN_VALUE;
+    long to = endDate != null ? endDate : Long.MAX_VALUE;
+    long bucketWidth = getBucketWidth(statistics);
+    Map<Long, Long> remainingCounts = new HashMap<>();
+
+    statistics.getBucketCounts().forEach((bucket, count) -> {
+      long remaining = Math.round(count * (1 - getOverlap(bucket, bucketWidth, from, to)));
+      if (remaining > 0) {
+        remainingCounts.put(bucket, remaining);
+      }
+    });
+    statistics.setBucketCounts(remainingCounts);
+
+    if (remainingCounts.isEmpty()) {
+      statistics.setFirstTimestamp(null);
+      statistics.setLastTimestamp(null);
+      statistics.getFieldStatistics().clear();
+      return;
+    }
+
+    long firstBucket = remainingCounts.keySet().stream().mapToLong(Long::longValue).min().getAsLong();
+    long lastBucket = remainingCounts.keySet().stream().mapToLong(Long::longValue).max().getAsLong();
+    if (isInRange(statistics.getFirstTimestamp(), from, to)) {
+      statistics.setFirstTimestamp(Math.max(firstBucket, endDate != null ? endDate : firstBucket));
+    }
+    if (isInRange(statistics.getLastTimestamp(), from, to)) {
+      statistics.setLastTimestamp(Math.min(lastBucket + bucketWidth, startDate != null ? startDate : lastBucket));
+    }
+  }
+
+  static long align(long timestamp,
+                    long bucketWidth) {
+    return Math.floorDiv(timestamp, bucketWidth) * bucketWidth;
+  }
+
+  static void coarsen(DataLakeMeasureStatistics statistics,
+                      long bucketWidth) {
+    Map<Long, Long> bucketCounts = new HashMap<>();
+    statistics.getBucketCounts().forEach((bucket, count) ->
+        bucketCounts.merge(align(bucket, bucketWidth), count, Long::sum));
+    statistics.setBucketCounts(bucketCounts);
+    statistics.setBucketWidthMs(bucketWidth);
+  }
+
+  private static long getBucketWidth(DataLakeMeasureStatistics statistics) {
+    return statistics.getBucketWidthMs() > 0 ? statistics.getBucketWidthMs() : BASE_BUCKET_WIDTH_MS;
+  }
+
+  private static double getOverlap(long bucket,
+                                   long bucketWidth,
+                                   long from,
+                                   long to) {
+    long overlap = Math.min(bucket + bucketWidth, to) - Math.max(bucket, from);
+    return overlap <= 0 ? 0 : Math.min(1.0, (double) overlap / bucketWidth);
+  }
+
+  private static boolean isInRange(Long timestamp,
+                                   long from,
+                                   long to) {
+    return timestamp != null && timestamp >= from && timestamp <= to;
+  }
+
+  private static Long min(Long a,
+                          Long b) {
+    return a == null ? b : (b == null ? a : Long.valueOf(Math.min(a, b)));
+  }
+
+  private static Long max(Long a,
+                          Long b) {
+    return a == null ? b : (b == null ? a : Long.valueOf(Math.max(a, b)));
+  }
+}
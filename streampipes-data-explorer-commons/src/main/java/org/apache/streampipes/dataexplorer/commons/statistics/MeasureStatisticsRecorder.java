@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.statistics;
+
+import org.apache.streampipes.model.datalake.DataLakeFieldStatistics;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the statistics of events written to a measurement until they are drained. Timestamps
+ * of consecutive events usually fall into the same bucket, so the count of the current bucket is
+ * kept outside of the bucket map.
+ */
+public class MeasureStatisticsRecorder {
+
+  private final List<String> fieldNames;
+  private final double[] min;
+  private final double[] max;
+  private final Map<Long, Long> bucketCounts;
+
+  private long events;
+  private long firstTimestamp;
+  private long lastTimestamp;
+  private long currentBucket;
+  private long currentBucketCount;
+
+  public MeasureStatisticsRecorder(List<String> fieldNames) {
+    this.fieldNames = fieldNames;
+    this.min = new double[fieldNames.size()];
+    this.max = new double[fieldNames.size()];
+    this.bucketCounts = new HashMap<>();
+    reset();
+  }
+
+  /**
+   * Records an event.
+   *
+   * @param values numeric values of the event in the order of the field names, NaN for fields
+   *               without a numeric value
+   */
+  public synchronized void record(long timestamp,
+                                  double[] values) {
+    events++;
+    firstTimestamp = Math.min(firstTimestamp, timestamp);
+    lastTimestamp = Math.max(lastTimestamp, timestamp);
+
+    long bucket = MeasureStatistics.align(timestamp, MeasureStatistics.BASE_BUCKET_WIDTH_MS);
+    if (bucket != currentBucket) {
+      flushCurrentBucket();
+      currentBucket = bucket;
+    }
+    currentBucketCount++;
+
+    for (int i = 0; i < values.length; i++) {
+      double value = values[i];
+      if (value < min[i]) {
+        min[i] = value;
+      }
+      if (value > max[i]) {
+        max[i] = value;
+      }
+    }
+  }
+
+  /**
+   * Returns the statistics recorded since the last call and starts recording anew.
+   *
+   * @return The recorded statistics, or null if no event has been recorded
+   */
+  public synchronized DataLakeMeasureStatistics drain() {
+    if (events == 0) {
+      return null;
+    }
+
+    flushCurrentBucket();
+    DataLakeMeasureStatistics statistics = MeasureStatistics.empty(false);
+    statistics.setFirstTimestamp(firstTimestamp);
+    statistics.setLastTimestamp(lastTimestamp);
+    statistics.getBucketCounts().putAll(bucketCounts);
+    for (int i = 0; i < fieldNames.size(); i++) {
+      if (min[i] <= max[i]) {
+        statistics.getFieldStatistics().put(fieldNames.get(i), new DataLakeFieldStatistics(min[i], max[i]));
+      }
+    }
+
+    reset();
+    return statistics;
+  }
+
+  private void flushCurrentBucket() {
+    if (currentBucketCount > 0) {
+      bucketCounts.merge(currentBucket, currentBucketCount, Long::sum);
+      currentBucketCount = 0;
+    }
+  }
+
+  private void reset() {
+    events = 0;
+    firstTimestamp = Long.MAX_VALUE;
+    lastTimestamp = Long.MIN_VALUE;
+    currentBucket = Long.MIN_VALUE;
+    currentBucketCount = 0;
+    bucketCounts.clear();
+    Arrays.fill(min, Double.POSITIVE_INFINITY);
+    Arrays.fill(max, Double.NEGATIVE_INFINITY);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.statistics;
+
+import org.apache.streampipes.client.StreamPipesClient;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically sends the statistics recorded for a measurement to the core, which merges them
+ * into the statistics stored with the measurement. Each report carries the id of the reporter and
+ * a sequence number, so that the core applies a report only once. A report which could not be
+ * sent is resent unchanged with the same sequence number, statistics recorded in the meantime are
+ * sent with the next report.
+ */
+public class MeasureStatisticsReporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MeasureStatisticsReporter.class);
+  private static final long REPORT_INTERVAL_SECONDS = 30;
+
+  private final StreamPipesClient client;
+  private final String measureName;
+  private final MeasureStatisticsRecorder recorder;
+  private final String writerId;
+
+  private long sequence;
+  private DataLakeMeasureStatistics pending;
+  private DataLakeMeasureStatistics unsent;
+  private ScheduledExecutorService scheduler;
+
+  public MeasureStatisticsReporter(StreamPipesClient client,
+                                   String measureName,
+                                   MeasureStatisticsRecorder recorder) {
+    this.client = client;
+    this.measureName = measureName;
+    this.recorder = recorder;
+    this.writerId = UUID.randomUUID().toString();
+  }
+
+  public void start() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "statistics-reporter-" + measureName);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.scheduleWithFixedDelay(this::report, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS,
+        TimeUnit.SECONDS);
+  }
+
+  public void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    report();
+  }
+
+  private synchronized void report() {
+    DataLakeMeasureStatistics recorded = recorder.drain();
+    if (recorded != null) {
+      if (unsent == null) {
+        unsent = recorded;
+      } else {
+        MeasureStatistics.merge(unsent, recorded);
+      }
+    }
+
+    while (pending != null || unsent != null) {
+      if (pending == null) {
+        // sequence numbers follow the current time, so that the core can forget stopped reporters
+        pending = unsent;
+        unsent = null;
+        sequence = Math.max(sequence + 1, System.currentTimeMillis());
+      }
+      try {
+        client.dataLakeMeasureApi().updateStatistics(measureName, writerId, sequence, pending);
+        pending = null;
+      } catch (RuntimeException e) {
+        LOG.warn("Could not report statistics of measurement {}, retrying with the next report", measureName, e);
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.embedded;
+
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.vocabulary.XSD;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class EmbeddedStorageTest {
+
+  private static final String MEASURE = "test";
+  private static final long START = 19000 * EmbeddedStorage.PARTITION_WIDTH_MS;
+  private static final long PARTITION = EmbeddedStorage.getPartition(START);
+
+  private Path baseDir;
+  private EmbeddedStorage storage;
+
+  @Before
+  public void setUp() throws IOException {
+    baseDir = Files.createTempDirectory("embedded");
+    storage = new EmbeddedStorage(baseDir);
+  }
+
+  @Test
+  public void testReadSegmentsInSeveralMappings() throws IOException {
+    write(makeStore(2), 0, 10);
+    long segmentSize = Files.size(getPartitionFile()) / 5;
+
+    List<Segment> segments = new EmbeddedStorage(baseDir, segmentSize * 3 / 2).readSegments(MEASURE, PARTITION);
+
+    assertEquals(5, segments.size());
+    assertEquals(START + 9000, segments.get(4).getMaxTime());
+  }
+
+  @Test
+  public void testSegmentLargerThanMappingIsNotRead() throws IOException {
+    write(makeStore(10), 0, 10);
+
+    assertEquals(0, new EmbeddedStorage(baseDir, 16).readSegments(MEASURE, PARTITION).size());
+  }
+
+  @Test
+  public void testIncompleteSegmentIsTruncated() throws IOException {
+    EmbeddedStore store = makeStore(1);
+    write(store, 0, 2);
+    Files.write(getPartitionFile(), new byte[] {0x53, 0x50, 0x54}, StandardOpenOption.APPEND);
+    write(store, 2, 3);
+
+    assertEquals(3, storage.readSegments(MEASURE, PARTITION).size());
+  }
+
+  @Test
+  public void testWritersKeepSegmentsOfEachOther() throws IOException {
+    EmbeddedStore first = makeStore(1);
+    EmbeddedStore second = makeStore(1);
+    for (int i = 0; i < 6; i += 2) {
+      write(first, i, i + 1);
+      write(second, i + 1, i + 2);
+    }
+
+    assertEquals(6, storage.readSegments(MEASURE, PARTITION).size());
+  }
+
+  @Test
+  public void testAppendAfterPartitionWasDeleted() throws IOException {
+    EmbeddedStore store = makeStore(1);
+    write(store, 0, 2);
+    storage.addTombstone(MEASURE, (START - 1) * 1000000L, (START + EmbeddedStorage.PARTITION_WIDTH_MS) * 1000000L);
+    assertEquals(0, storage.readSegments(MEASURE, PARTITION).size());
+
+    write(store, 2, 3);
+
+    List<Segment> segments = storage.readSegments(MEASURE, PARTITION);
+    assertEquals(1, segments.size());
+    assertEquals(START + 2000, segments.get(0).getMinTime());
+  }
+
+  private EmbeddedStore makeStore(int batchSize) {
+    DataLakeMeasure measure = new DataLakeMeasure(MEASURE, "s0::timestamp", makeSchema());
+    return new EmbeddedStore(measure, storage, batchSize, 60000);
+  }
+
+  private void write(EmbeddedStore store,
+                     int from,
+                     int to) {
+    for (int i = from; i < to; i++) {
+      Map<String, Object> event = new HashMap<>();
+      event.put("timestamp", START + i * 1000L);
+      event.put("value", i * 1.5);
+      store.onEvent(EventFactory.fromMap(event, new SourceInfo("topic", "s0"),
+          new SchemaInfo(makeSchema(), Collections.emptyList())));
+    }
+    store.flush();
+  }
+
+  private Path getPartitionFile() {
+    return baseDir.resolve(MEASURE).resolve(PARTITION + ".seg");
+  }
+
+  private EventSchema makeSchema() {
+    return new EventSchema(Arrays.asList(
+        new EventPropertyPrimitive(XSD.LONG.toString(), "timestamp", "", Collections.emptyList()),
+        new EventPropertyPrimitive(XSD.DOUBLE.toString(), "value", "", Collections.emptyList())));
+  }
+}
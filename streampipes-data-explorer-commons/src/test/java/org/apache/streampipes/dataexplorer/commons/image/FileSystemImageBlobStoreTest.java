@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.image;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileSystemImageBlobStoreTest {
+
+  private static final long OLD = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(10);
+
+  private Path baseDir;
+
+  @Before
+  public void setUp() throws IOException {
+    baseDir = Files.createTempDirectory("images");
+  }
+
+  @Test
+  public void testIdenticalImagesAreStoredOnce() throws IOException {
+    FileSystemImageBlobStore store = new FileSystemImageBlobStore(baseDir, 10);
+    store.start();
+
+    String firstId = store.store(encode("first"));
+    String secondId = store.store(encode("first"));
+    String otherId = store.store(encode("other"));
+    store.close();
+
+    assertEquals(firstId, secondId);
+    assertNotEquals(firstId, otherId);
+    assertArrayEquals(bytes("first"), Files.readAllBytes(FileSystemImageBlobStore.findImage(baseDir, firstId).get()));
+    assertArrayEquals(bytes("other"), Files.readAllBytes(FileSystemImageBlobStore.findImage(baseDir, otherId).get()));
+  }
+
+  @Test
+  public void testReferencingImageAgainUpdatesModificationTime() throws IOException {
+    String imageId = storeImage("image");
+    Path file = FileSystemImageBlobStore.findImage(baseDir, imageId).get();
+    Files.setLastModifiedTime(file, FileTime.fromMillis(OLD));
+
+    storeImage("image");
+
+    assertTrue(Files.getLastModifiedTime(file).toMillis() > OLD);
+  }
+
+  @Test
+  public void testOnlyOldUnreferencedImagesAreRemoved() throws IOException {
+    String referencedId = storeImage("referenced");
+    String unreferencedId = storeImage("unreferenced");
+    String recentId = storeImage("recent");
+    setModified(referencedId, OLD);
+    setModified(unreferencedId, OLD);
+    Set<String> referenced = Collections.singleton(referencedId);
+
+    int removed = FileSystemImageBlobStore.removeUnusedImages(baseDir, id -> !referenced.contains(id),
+        System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+
+    assertEquals(1, removed);
+    assertTrue(FileSystemImageBlobStore.findImage(baseDir, referencedId).isPresent());
+    assertFalse(FileSystemImageBlobStore.findImage(baseDir, unreferencedId).isPresent());
+    assertTrue(FileSystemImageBlobStore.findImage(baseDir, recentId).isPresent());
+  }
+
+  @Test
+  public void testLeftoverTemporaryFilesAreRemoved() throws IOException {
+    String imageId = storeImage("image");
+    Path dir = FileSystemImageBlobStore.findImage(baseDir, imageId).get().getParent();
+    Path tempFile = Files.createTempFile(dir, imageId, ".tmp");
+    Files.setLastModifiedTime(tempFile, FileTime.fromMillis(OLD));
+
+    int removed = FileSystemImageBlobStore.removeUnusedImages(baseDir, id -> false,
+        System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+
+    assertEquals(0, removed);
+    assertFalse(Files.exists(tempFile));
+    assertTrue(FileSystemImageBlobStore.findImage(baseDir, imageId).isPresent());
+  }
+
+  @Test
+  public void testMissingDirectoryIsIgnored() throws IOException {
+    assertEquals(0, FileSystemImageBlobStore.removeUnusedImages(baseDir.resolve("missing"), id -> true, OLD));
+  }
+
+  @Test
+  public void testUnknownImageIdsAreNotResolved() {
+    assertFalse(FileSystemImageBlobStore.findImage(baseDir, "../secret").isPresent());
+    assertFalse(FileSystemImageBlobStore.findImage(baseDir, null).isPresent());
+  }
+
+  @Test(expected = SpRuntimeException.class)
+  public void testInvalidImageIsRejected() {
+    FileSystemImageBlobStore store = new FileSystemImageBlobStore(baseDir, 10);
+    store.start();
+    try {
+      store.store("not base64!");
+    } finally {
+      store.close();
+    }
+  }
+
+  private String storeImage(String content) {
+    FileSystemImageBlobStore store = new FileSystemImageBlobStore(baseDir, 10);
+    store.start();
+    String imageId = store.store(encode(content));
+    store.close();
+    return imageId;
+  }
+
+  private void setModified(String imageId,
+                           long time) throws IOException {
+    Files.setLastModifiedTime(FileSystemImageBlobStore.findImage(baseDir, imageId).get(), FileTime.fromMillis(time));
+  }
+
+  private String encode(String content) {
+    return Base64.getEncoder().encodeToString(bytes(content));
+  }
+
+  private byte[] bytes(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.influx;
+
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatisticsRecorder;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.XSD;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class InfluxWritePlanTest {
+
+  private static final long TIMESTAMP = 1668578077051L;
+
+  @Test
+  public void testMeasurementTagAndFieldNamesAreEscaped() {
+    InfluxWritePlan plan = makePlan("my measure,1",
+        makeProperty("tag key=1", XSD.STRING.toString(), true),
+        makeProperty("field name,=", XSD.DOUBLE.toString(), false));
+
+    String line = plan.toLineProtocol(makeEvent(Map.of("tag key=1", "a b,c=d", "field name,=", 1.5)));
+
+    assertEquals("my\\ measure\\,1,tag\\ key\\=1=a\\ b\\,c\\=d field\\ name\\,\\==1.5 " + TIMESTAMP, line);
+  }
+
+  @Test
+  public void testValuesAreWrittenWithTypeSuffixes() {
+    InfluxWritePlan plan = makePlan("m",
+        makeProperty("int", XSD.INTEGER.toString(), false),
+        makeProperty("long", XSD.LONG.toString(), false),
+        makeProperty("float", XSD.FLOAT.toString(), false),
+        makeProperty("double", XSD.DOUBLE.toString(), false),
+        makeProperty("bool", XSD.BOOLEAN.toString(), false),
+        makeProperty("text", XSD.STRING.toString(), false));
+
+    Map<String, Object> event = new HashMap<>();
+    event.put("int", 5);
+    event.put("long", 7000000000L);
+    event.put("float", 1.5f);
+    event.put("double", 2.25);
+    event.put("bool", true);
+    event.put("text", "say \"hi\" \\o/");
+
+    assertEquals("m int=5i,long=7000000000i,float=1.5,double=2.25,bool=true,text=\"say \\\"hi\\\" \\\\o/\" "
+        + TIMESTAMP, plan.toLineProtocol(makeEvent(event)));
+  }
+
+  @Test
+  public void testIntegerFieldWithFractionalValueIsWrittenAsFloat() {
+    InfluxWritePlan plan = makePlan("m", makeProperty("count", XSD.INTEGER.toString(), false));
+
+    assertEquals("m count=2.5 " + TIMESTAMP, plan.toLineProtocol(makeEvent(Map.of("count", 2.5))));
+  }
+
+  @Test
+  public void testReservedKeywordsAreRenamed() {
+    InfluxWritePlan plan = makePlan("m", makeProperty("select", XSD.DOUBLE.toString(), false));
+
+    assertEquals(List.of("select_"), plan.getFieldNames());
+    assertEquals("m select_=1.0 " + TIMESTAMP, plan.toLineProtocol(makeEvent(Map.of("select", 1.0))));
+  }
+
+  @Test
+  public void testNonFiniteValuesAreSkipped() {
+    InfluxWritePlan plan = makePlan("m",
+        makeProperty("nan", XSD.DOUBLE.toString(), false),
+        makeProperty("value", XSD.DOUBLE.toString(), false),
+        makeProperty("infinity", XSD.FLOAT.toString(), false));
+
+    String line = plan.toLineProtocol(makeEvent(Map.of(
+        "nan", Double.NaN, "value", 3.0, "infinity", Float.POSITIVE_INFINITY)));
+
+    assertEquals("m value=3.0 " + TIMESTAMP, line);
+  }
+
+  @Test
+  public void testEventWithoutWritableValuesIsSkipped() {
+    InfluxWritePlan plan = makePlan("m",
+        makeProperty("tag", XSD.STRING.toString(), true),
+        makeProperty("value", XSD.DOUBLE.toString(), false));
+
+    assertNull(plan.toLineProtocol(makeEvent(Map.of("tag", "a", "value", Double.NEGATIVE_INFINITY))));
+    assertNull(plan.toLineProtocol(makeEvent(Map.of("tag", "a"))));
+  }
+
+  @Test
+  public void testNumericValuesAreRecorded() {
+    InfluxWritePlan plan = makePlan("m",
+        makeProperty("value", XSD.DOUBLE.toString(), false),
+        makeProperty("text", XSD.STRING.toString(), false));
+    var recorder = new MeasureStatisticsRecorder(plan.getFieldNames());
+
+    plan.toLineProtocol(makeEvent(Map.of("value", 4.0, "text", "a")), recorder);
+
+    var statistics = recorder.drain();
+    assertEquals(Long.valueOf(TIMESTAMP), statistics.getFirstTimestamp());
+    assertEquals(4.0, statistics.getFieldStatistics().get("value").getMax(), 0.0);
+    assertEquals(1, statistics.getFieldStatistics().size());
+  }
+
+  private InfluxWritePlan makePlan(String measureName,
+                                   EventProperty... properties) {
+    List<EventProperty> eventProperties = new ArrayList<>();
+    eventProperties.add(makeProperty("timestamp", XSD.LONG.toString(), false));
+    eventProperties.addAll(Arrays.asList(properties));
+    return new InfluxWritePlan(new DataLakeMeasure(measureName, "s0::timestamp", new EventSchema(eventProperties)));
+  }
+
+  private EventPropertyPrimitive makeProperty(String runtimeName,
+                                              String runtimeType,
+                                              boolean dimension) {
+    var property = new EventPropertyPrimitive(runtimeType, runtimeName, "", new ArrayList<>());
+    property.setPropertyScope(dimension
+        ? PropertyScope.DIMENSION_PROPERTY.name()
+        : PropertyScope.MEASUREMENT_PROPERTY.name());
+    return property;
+  }
+
+  private Event makeEvent(Map<String, Object> values) {
+    Map<String, Object> event = new HashMap<>(values);
+    event.put("timestamp", TIMESTAMP);
+    return EventFactory.fromMap(event, new SourceInfo("topic", "s0"), new SchemaInfo(null, new ArrayList<>()));
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.commons.statistics;
+
+import org.apache.streampipes.model.datalake.DataLakeFieldStatistics;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatistics.BASE_BUCKET_WIDTH_MS;
+import static org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatistics.MAX_BUCKETS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MeasureStatisticsTest {
+
+  private static final long WIDTH = BASE_BUCKET_WIDTH_MS;
+
+  @Test
+  public void testMergeIntoEmptyStatistics() {
+    DataLakeMeasureStatistics target = MeasureStatistics.empty(true);
+
+    MeasureStatistics.merge(target, makeStatistics(5L, 3 * WIDTH - 1000, 10, 10, 10));
+
+    assertTrue(MeasureStatistics.hasData(target));
+    assertTrue(target.isComplete());
+    assertEquals(Long.valueOf(5L), target.getFirstTimestamp());
+    assertEquals(Long.valueOf(3 * WIDTH - 1000), target.getLastTimestamp());
+    assertEquals(Map.of(0L, 10L, WIDTH, 10L, 2 * WIDTH, 10L), target.getBucketCounts());
+    assertEquals(1.0, target.getFieldStatistics().get("value").getMin(), 0.0);
+    assertEquals(2.0, target.getFieldStatistics().get("value").getMax(), 0.0);
+  }
+
+  @Test
+  public void testMergeAddsCountsAndExtendsRanges() {
+    DataLakeMeasureStatistics target = makeStatistics(WIDTH, 2 * WIDTH - 1, 0, 4);
+    DataLakeMeasureStatistics delta = makeStatistics(10L, 3 * WIDTH, 1, 6, 0, 2);
+    delta.getFieldStatistics().put("value", new DataLakeFieldStatistics(-1.0, 1.5));
+
+    MeasureStatistics.merge(target, delta);
+
+    assertEquals(Long.valueOf(10L), target.getFirstTimestamp());
+    assertEquals(Long.valueOf(3 * WIDTH), target.getLastTimestamp());
+    assertEquals(Map.of(0L, 1L, WIDTH, 10L, 3 * WIDTH, 2L), target.getBucketCounts());
+    assertEquals(-1.0, target.getFieldStatistics().get("value").getMin(), 0.0);
+    assertEquals(2.0, target.getFieldStatistics().get("value").getMax(), 0.0);
+  }
+
+  @Test
+  public void testMergeCoarserDeltaCoarsensTarget() {
+    DataLakeMeasureStatistics target = makeStatistics(0L, 4 * WIDTH - 1, 1, 2, 3, 4);
+    DataLakeMeasureStatistics delta = MeasureStatistics.empty(false);
+    delta.setBucketWidthMs(2 * WIDTH);
+    delta.getBucketCounts().put(2 * WIDTH, 5L);
+
+    MeasureStatistics.merge(target, delta);
+
+    assertEquals(2 * WIDTH, target.getBucketWidthMs());
+    assertEquals(Map.of(0L, 3L, 2 * WIDTH, 12L), target.getBucketCounts());
+  }
+
+  @Test
+  public void testMergeKeepsNumberOfBucketsBounded() {
+    DataLakeMeasureStatistics target = MeasureStatistics.empty(true);
+    DataLakeMeasureStatistics delta = MeasureStatistics.empty(false);
+    for (int i = 0; i <= MAX_BUCKETS; i++) {
+      delta.getBucketCounts().put(i * WIDTH, 1L);
+    }
+    delta.setFirstTimestamp(0L);
+    delta.setLastTimestamp(MAX_BUCKETS * WIDTH);
+
+    MeasureStatistics.merge(target, delta);
+
+    assertEquals(2 * WIDTH, target.getBucketWidthMs());
+    assertTrue(target.getBucketCounts().size() <= MAX_BUCKETS);
+    assertEquals(MAX_BUCKETS + 1, MeasureStatistics.estimateCount(target, null, null));
+  }
+
+  @Test
+  public void testEstimateCount() {
+    DataLakeMeasureStatistics statistics = makeStatistics(0L, 3 * WIDTH - 1, 10, 10, 10);
+
+    assertEquals(30, MeasureStatistics.estimateCount(statistics, null, null));
+    assertEquals(10, MeasureStatistics.estimateCount(statistics, 0L, WIDTH));
+    assertEquals(10, MeasureStatistics.estimateCount(statistics, WIDTH + WIDTH / 2, 2 * WIDTH + WIDTH / 2));
+    assertEquals(15, MeasureStatistics.estimateCount(statistics, null, WIDTH + WIDTH / 2));
+    assertEquals(5, MeasureStatistics.estimateCount(statistics, 2 * WIDTH + WIDTH / 2, null));
+    assertEquals(0, MeasureStatistics.estimateCount(statistics, 3 * WIDTH, null));
+  }
+
+  @Test
+  public void testRemoveRangeOfWholeBuckets() {
+    DataLakeMeasureStatistics statistics = makeStatistics(5L, 3 * WIDTH - 1000, 10, 10, 10);
+
+    MeasureStatistics.removeRange(statistics, WIDTH, 2 * WIDTH);
+
+    assertEquals(Map.of(0L, 10L, 2 * WIDTH, 10L), statistics.getBucketCounts());
+    assertEquals(Long.valueOf(5L), statistics.getFirstTimestamp());
+    assertEquals(Long.valueOf(3 * WIDTH - 1000), statistics.getLastTimestamp());
+  }
+
+  @Test
+  public void testRemoveOpenRangesAdjustsTimestamps() {
+    DataLakeMeasureStatistics statistics = makeStatistics(5L, 3 * WIDTH - 1000, 10, 10, 10);
+
+    MeasureStatistics.removeRange(statistics, null, WIDTH + WIDTH / 2);
+    assertEquals(Map.of(WIDTH, 5L, 2 * WIDTH, 10L), statistics.getBucketCounts());
+    assertEquals(Long.valueOf(WIDTH + WIDTH / 2), statistics.getFirstTimestamp());
+
+    MeasureStatistics.removeRange(statistics, 2 * WIDTH + WIDTH / 2, null);
+    assertEquals(Map.of(WIDTH, 5L, 2 * WIDTH, 5L), statistics.getBucketCounts());
+    assertEquals(Long.valueOf(2 * WIDTH + WIDTH / 2), statistics.getLastTimestamp());
+    assertFalse(statistics.getFieldStatistics().isEmpty());
+  }
+
+  @Test
+  public void testRemoveEverythingClearsStatistics() {
+    DataLakeMeasureStatistics statistics = makeStatistics(5L, 3 * WIDTH - 1000, 10, 10, 10);
+
+    MeasureStatistics.removeRange(statistics, null, null);
+
+    assertFalse(MeasureStatistics.hasData(statistics));
+    assertNull(statistics.getFirstTimestamp());
+    assertNull(statistics.getLastTimestamp());
+    assertTrue(statistics.getFieldStatistics().isEmpty());
+  }
+
+  @Test
+  public void testCoarsenSumsAlignedBuckets() {
+    DataLakeMeasureStatistics statistics = makeStatistics(0L, 5 * WIDTH - 1, 1, 2, 3, 4, 5);
+
+    MeasureStatistics.coarsen(statistics, 4 * WIDTH);
+
+    assertEquals(4 * WIDTH, statistics.getBucketWidthMs());
+    assertEquals(Map.of(0L, 10L, 4 * WIDTH, 5L), statistics.getBucketCounts());
+    assertEquals(15, MeasureStatistics.estimateCount(statistics, null, null));
+  }
+
+  @Test
+  public void testCoarsenAlignsNegativeTimestamps() {
+    DataLakeMeasureStatistics statistics = MeasureStatistics.empty(true);
+    statistics.getBucketCounts().put(-WIDTH, 3L);
+    statistics.getBucketCounts().put(0L, 4L);
+
+    MeasureStatistics.coarsen(statistics, 2 * WIDTH);
+
+    assertEquals(Map.of(-2 * WIDTH, 3L, 0L, 4L), statistics.getBucketCounts());
+  }
+
+  private DataLakeMeasureStatistics makeStatistics(long firstTimestamp,
+                                                   long lastTimestamp,
+                                                   long... counts) {
+    DataLakeMeasureStatistics statistics = MeasureStatistics.empty(true);
+    statistics.setFirstTimestamp(firstTimestamp);
+    statistics.setLastTimestamp(lastTimestamp);
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        statistics.getBucketCounts().put(i * WIDTH, counts[i]);
+      }
+    }
+    statistics.getFieldStatistics().put("value", new DataLakeFieldStatistics(1.0, 2.0));
+    return statistics;
+  }
+}
@@ -20,17 +20,23 @@ package org.apache.streampipes.dataexplorer;
 
 import org.apache.streampipes.commons.environment.Environment;
 import org.apache.streampipes.commons.environment.Environments;
-import org.apache.streampipes.dataexplorer.commons.influx.InfluxClientProvider;
-import org.apache.streampipes.dataexplorer.query.DeleteDataQuery;
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatistics;
 import org.apache.streampipes.dataexplorer.utils.DataExplorerUtils;
+import org.apache.streampipes.dataexplorer.v4.MeasureStatisticsRegistry;
 import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.engine.DataLakeQueryEngines;
 import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
 import org.apache.streampipes.dataexplorer.v4.query.DataExplorerQueryV4;
+import org.apache.streampipes.dataexplorer.v4.query.DataLakeQueryExecutor;
+import org.apache.streampipes.dataexplorer.v4.query.QueryCacheStatistics;
+import org.apache.streampipes.dataexplorer.v4.query.QueryResultCache;
 import org.apache.streampipes.dataexplorer.v4.query.QueryResultProvider;
 import org.apache.streampipes.dataexplorer.v4.query.StreamedQueryResultProvider;
 import org.apache.streampipes.dataexplorer.v4.query.writer.OutputFormat;
+import org.apache.streampipes.dataexplorer.v4.rollup.DataLakeRollupManager;
 import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
 import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
 import org.apache.streampipes.model.datalake.SpQueryResult;
 import org.apache.streampipes.model.schema.EventProperty;
 import org.apache.streampipes.model.schema.EventPropertyList;
@@ -41,9 +47,6 @@ import org.apache.streampipes.storage.couchdb.utils.Utils;
 import org.apache.streampipes.storage.management.StorageDispatcher;
 
 import com.google.gson.JsonObject;
-import org.influxdb.InfluxDB;
-import org.influxdb.dto.Query;
-import org.influxdb.dto.QueryResult;
 import org.lightcouch.CouchDbClient;
 
 import java.io.IOException;
@@ -71,6 +74,11 @@ public class DataLakeManagementV4 {
     return new QueryResultProvider(queryParams, ignoreMissingData).getData();
   }
 
+  public List<SpQueryResult> getData(List<ProvidedQueryParams> queryParams,
+                                     boolean ignoreMissingData) throws IllegalArgumentException {
+    return DataLakeQueryExecutor.INSTANCE.executeAll(queryParams, ignoreMissingData);
+  }
+
   public void getDataAsStream(ProvidedQueryParams params,
                               OutputFormat format,
                               boolean ignoreMissingValues,
@@ -79,12 +87,19 @@ public class DataLakeManagementV4 {
     new StreamedQueryResultProvider(params, format, ignoreMissingValues).getDataAsStream(outputStream);
   }
 
+  public QueryCacheStatistics getQueryCacheStatistics() {
+    return QueryResultCache.INSTANCE.getStatistics();
+  }
+
   public boolean removeAllMeasurements() {
     List<DataLakeMeasure> allMeasurements = getAllMeasurements();
 
     for (DataLakeMeasure measure : allMeasurements) {
-      QueryResult queryResult = new DeleteDataQuery(measure).executeQuery();
-      if (queryResult.hasError() || queryResult.getResults().get(0).getError() != null) {
+      boolean dropped = DataLakeQueryEngines.getEngine().dropMeasurement(measure.getMeasureName());
+      QueryResultCache.INSTANCE.invalidate(measure.getMeasureName());
+      MeasureStatisticsRegistry.INSTANCE.reset(measure.getMeasureName());
+      DataLakeRollupManager.INSTANCE.onDataDeleted(measure.getMeasureName(), null, null);
+      if (!dropped) {
         return false;
       }
     }
@@ -95,9 +110,12 @@ public class DataLakeManagementV4 {
     List<DataLakeMeasure> allMeasurements = getAllMeasurements();
     for (DataLakeMeasure measure : allMeasurements) {
       if (measure.getMeasureName().equals(measurementID)) {
-        QueryResult queryResult = new DeleteDataQuery(new DataLakeMeasure(measurementID, null)).executeQuery();
+        boolean dropped = DataLakeQueryEngines.getEngine().dropMeasurement(measurementID);
+        QueryResultCache.INSTANCE.invalidate(measurementID);
+        MeasureStatisticsRegistry.INSTANCE.reset(measurementID);
+        DataLakeRollupManager.INSTANCE.onDataDeleted(measurementID, null, null);
 
-        return !queryResult.hasError();
+        return dropped;
       }
     }
     return false;
@@ -106,7 +124,11 @@ public class DataLakeManagementV4 {
   public SpQueryResult deleteData(String measurementID, Long startDate, Long endDate) {
     Map<String, QueryParamsV4> queryParts =
         DataLakeManagementUtils.getDeleteQueryParams(measurementID, startDate, endDate);
-    return new DataExplorerQueryV4(queryParts).executeQuery(true);
+    SpQueryResult result = new DataExplorerQueryV4(queryParts).executeQuery(true);
+    QueryResultCache.INSTANCE.invalidate(measurementID);
+    MeasureStatisticsRegistry.INSTANCE.removeRange(measurementID, startDate, endDate);
+    DataLakeRollupManager.INSTANCE.onDataDeleted(measurementID, startDate, endDate);
+    return result;
   }
 
   public boolean removeEventProperty(String measurementID) {
@@ -133,46 +155,37 @@ public class DataLakeManagementV4 {
 
   public Map<String, Object> getTagValues(String measurementId,
                                           String fields) {
-    InfluxDB influxDB = InfluxClientProvider.getInfluxDBClient();
-    String databaseName = getEnvironment().getTsStorageBucket().getValueOrDefault();
-    Map<String, Object> tags = new HashMap<>();
     if (fields != null && !("".equals(fields))) {
-      List<String> fieldList = Arrays.asList(fields.split(","));
-      fieldList.forEach(f -> {
-        String q =
-            "SHOW TAG VALUES ON \"" + databaseName + "\" FROM \"" + measurementId
-                + "\" WITH KEY = \"" + f + "\"";
-        Query query = new Query(q);
-        QueryResult queryResult = influxDB.query(query);
-        queryResult.getResults().forEach(res -> {
-          res.getSeries().forEach(series -> {
-            if (series.getValues().size() > 0) {
-              String field = series.getValues().get(0).get(0).toString();
-              List<String> values =
-                  series.getValues().stream().map(v -> v.get(1).toString()).collect(Collectors.toList());
-              tags.put(field, values);
-            }
-          });
-        });
-      });
+      return DataLakeQueryEngines.getEngine().getTagValues(measurementId, Arrays.asList(fields.split(",")));
     }
-
-    return tags;
+    return new HashMap<>();
   }
 
   public void updateDataLake(DataLakeMeasure measure) throws IllegalArgumentException {
     var existingMeasure = getDataLakeStorage().findOne(measure.getElementId());
     if (existingMeasure != null) {
       measure.setRev(existingMeasure.getRev());
+      // statistics are maintained by the data lake and cannot be changed by clients
+      measure.setStatistics(existingMeasure.getStatistics());
       getDataLakeStorage().updateDataLakeMeasure(measure);
     } else {
       getDataLakeStorage().storeDataLakeMeasure(measure);
     }
   }
 
+  public void updateStatistics(String measureName,
+                               String writerId,
+                               long sequence,
+                               DataLakeMeasureStatistics statistics) throws IllegalArgumentException {
+    MeasureStatisticsRegistry.INSTANCE.merge(measureName, writerId, sequence, statistics);
+  }
+
   public void deleteDataLakeMeasure(String elementId) throws IllegalArgumentException {
-    if (getDataLakeStorage().findOne(elementId) != null) {
+    DataLakeMeasure measure = getDataLakeStorage().findOne(elementId);
+    if (measure != null) {
       getDataLakeStorage().deleteDataLakeMeasure(elementId);
+      MeasureStatisticsRegistry.INSTANCE.remove(measure.getMeasureName());
+      DataLakeRollupManager.INSTANCE.onDataDeleted(measure.getMeasureName(), null, null);
     } else {
       throw new IllegalArgumentException("Could not find measure with this ID");
     }
@@ -192,6 +205,10 @@ public class DataLakeManagementV4 {
       }
     } else {
       measure.setSchemaVersion(DataLakeMeasure.CURRENT_SCHEMA_VERSION);
+      measure.setStatistics(MeasureStatistics.empty(true));
+      if (measure.getRollupTiers() == null) {
+        measure.setRollupTiers(getDefaultRollupTiers());
+      }
       getDataLakeStorage().storeDataLakeMeasure(measure);
       return measure;
     }
@@ -235,6 +252,14 @@ public class DataLakeManagementV4 {
   }
 
 
+  private List<String> getDefaultRollupTiers() {
+    String tiers = getEnvironment().getDataLakeRollupTiers().getValueOrDefault();
+    return Arrays.stream(tiers.split(","))
+        .map(String::trim)
+        .filter(tier -> !tier.isEmpty())
+        .collect(Collectors.toList());
+  }
+
   private IDataLakeStorage getDataLakeStorage() {
     return StorageDispatcher.INSTANCE.getNoSqlStore().getDataLakeStorage();
   }
@@ -39,12 +39,11 @@ public class DeleteDataQuery {
   }
 
   public QueryResult executeQuery() throws RuntimeException {
-    try (final InfluxDB influxDB = InfluxClientProvider.getInfluxDBClient()) {
-      var databaseName = getEnvironment().getTsStorageBucket().getValueOrDefault();
+    final InfluxDB influxDB = InfluxClientProvider.getSharedInfluxDBClient();
+    var databaseName = getEnvironment().getTsStorageBucket().getValueOrDefault();
 
-      var query = new Query(getQuery(), databaseName);
-      return influxDB.query(query);
-    }
+    var query = new Query(getQuery(), databaseName);
+    return influxDB.query(query);
   }
 
   private Environment getEnvironment() {
@@ -18,26 +18,32 @@
 package org.apache.streampipes.dataexplorer.v4;
 
 import org.apache.streampipes.dataexplorer.DataLakeManagementV4;
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatistics;
 import org.apache.streampipes.dataexplorer.sdk.DataLakeQueryOrdering;
 import org.apache.streampipes.dataexplorer.v4.params.SelectColumn;
+import org.apache.streampipes.dataexplorer.v4.rollup.DataLakeRollupManager;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
 import org.apache.streampipes.model.datalake.SpQueryResult;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AUTO_AGGREGATE;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_FILTER;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_LIMIT;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_ORDER;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_START_DATE;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
 
 public class AutoAggregationHandler {
@@ -47,9 +53,6 @@ public class AutoAggregationHandler {
   private static final String TIMESTAMP_FIELD = "time";
   private static final String COMMA = ",";
 
-  private final SimpleDateFormat dateFormat1 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-  private final SimpleDateFormat dateFormat2 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-
   private final DataLakeManagementV4 dataLakeManagement;
   private final ProvidedQueryParams queryParams;
 
@@ -59,6 +62,11 @@ public class AutoAggregationHandler {
   }
 
   public ProvidedQueryParams makeAutoAggregationQueryParams() throws IllegalArgumentException {
+    Optional<DataLakeMeasureStatistics> statistics = getStatistics(queryParams);
+    if (statistics.isPresent()) {
+      return makeAutoAggregationQueryParams(statistics.get());
+    }
+
     try {
       SpQueryResult newest = getSingleRecord(DataLakeQueryOrdering.DESC);
       SpQueryResult oldest = getSingleRecord(DataLakeQueryOrdering.ASC);
@@ -71,7 +79,7 @@ public class AutoAggregationHandler {
         } else {
           LOG.debug("Performing auto-aggregation");
 
-          int aggValue = getAggregationValue(newest, oldest);
+          int aggValue = alignToRollupTier(getAggregationValue(newest, oldest));
           LOG.debug("Setting auto-aggregation value to {} ms", aggValue);
           queryParams.update(QP_TIME_INTERVAL, aggValue + "ms");
           return disableAutoAgg(queryParams);
@@ -79,12 +87,42 @@ public class AutoAggregationHandler {
       } else {
         return disableAutoAgg(this.queryParams);
       }
-    } catch (ParseException e) {
+    } catch (DateTimeParseException e) {
       e.printStackTrace();
     }
     return null;
   }
 
+  /**
+   * Returns the statistics of the queried measurement if the number of events in the queried
+   * time range can be estimated from them, i.e., if the query does not filter events by value.
+   */
+  public static Optional<DataLakeMeasureStatistics> getStatistics(ProvidedQueryParams params) {
+    if (params.has(QP_FILTER)) {
+      return Optional.empty();
+    }
+    return MeasureStatisticsRegistry.INSTANCE.getCompleteStatistics(params.getMeasurementId());
+  }
+
+  private ProvidedQueryParams makeAutoAggregationQueryParams(DataLakeMeasureStatistics statistics) {
+    Long startDate = queryParams.getAsLong(QP_START_DATE);
+    Long endDate = queryParams.getAsLong(QP_END_DATE);
+    long count = MeasureStatistics.estimateCount(statistics, startDate, endDate);
+
+    if (count <= MAX_RETURN_LIMIT) {
+      LOG.debug("Auto-Aggregation disabled as {} estimated results <= max return limit {}", count, MAX_RETURN_LIMIT);
+    } else {
+      long newest = endDate != null ? Math.min(endDate, statistics.getLastTimestamp()) : statistics.getLastTimestamp();
+      long oldest = startDate != null
+          ? Math.max(startDate, statistics.getFirstTimestamp())
+          : statistics.getFirstTimestamp();
+      int aggValue = alignToRollupTier(Math.max(1, Double.valueOf((newest - oldest) / MAX_RETURN_LIMIT).intValue()));
+      LOG.debug("Setting auto-aggregation value to {} ms based on measurement statistics", aggValue);
+      queryParams.update(QP_TIME_INTERVAL, aggValue + "ms");
+    }
+    return disableAutoAgg(queryParams);
+  }
+
   private ProvidedQueryParams disableAutoAgg(ProvidedQueryParams params) {
     params.remove(QP_AUTO_AGGREGATE);
     return params;
@@ -102,17 +140,27 @@ public class AutoAggregationHandler {
     return result.getTotal() > 0 ? ((Double) result.getAllDataSeries().get(0).getRows().get(0).get(1)).intValue() : 0;
   }
 
+  /**
+   * Rounds the aggregation interval up to a multiple of the coarsest rollup tier which is not wider
+   * than the interval, so that the query can be answered from rollups.
+   */
+  private int alignToRollupTier(int aggValue) {
+    return DataLakeRollupManager.INSTANCE.findCoarsestTierWithin(queryParams.getMeasurementId(), aggValue)
+        .map(tier -> (int) tier.alignUp(aggValue))
+        .orElse(aggValue);
+  }
+
   private SpQueryResult fireQuery(ProvidedQueryParams params) {
     return dataLakeManagement.getData(params, true);
   }
 
-  private int getAggregationValue(SpQueryResult newest, SpQueryResult oldest) throws ParseException {
+  private int getAggregationValue(SpQueryResult newest, SpQueryResult oldest) {
     long timerange = extractTimestamp(newest) - extractTimestamp(oldest);
     double v = timerange / MAX_RETURN_LIMIT;
     return Double.valueOf(v).intValue();
   }
 
-  private SpQueryResult getSingleRecord(DataLakeQueryOrdering order) throws ParseException {
+  private SpQueryResult getSingleRecord(DataLakeQueryOrdering order) {
     ProvidedQueryParams singleEvent = disableAutoAgg(new ProvidedQueryParams(queryParams));
     singleEvent.remove(QP_AGGREGATION_FUNCTION);
     singleEvent.update(QP_LIMIT, 1);
@@ -137,16 +185,9 @@ public class AutoAggregationHandler {
     throw new IllegalArgumentException("No columns present");
   }
 
-  private long extractTimestamp(SpQueryResult result) throws ParseException {
+  private long extractTimestamp(SpQueryResult result) throws DateTimeParseException {
     int timestampIndex = result.getHeaders().indexOf(TIMESTAMP_FIELD);
-    return tryParseDate(result.getAllDataSeries().get(0).getRows().get(0).get(timestampIndex).toString()).getTime();
-  }
-
-  private Date tryParseDate(String v) throws ParseException {
-    try {
-      return dateFormat1.parse(v);
-    } catch (ParseException e) {
-      return dateFormat2.parse(v);
-    }
+    return Instant.parse(result.getAllDataSeries().get(0).getRows().get(0).get(timestampIndex).toString())
+        .toEpochMilli();
   }
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4;
+
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatistics;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
+import org.apache.streampipes.storage.api.IDataLakeStorage;
+import org.apache.streampipes.storage.management.StorageDispatcher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the statistics of all measurements. Statistics reported by data lake sinks are merged
+ * into the statistics stored with the {@link DataLakeMeasure}, which are kept in memory so that
+ * queries can be planned without reading the measurement from the storage. Updates of a
+ * measurement are serialized by a lock per measurement, so that reading and writing the storage
+ * does not block updates of other measurements or the planning of queries.
+ */
+public enum MeasureStatisticsRegistry {
+
+  INSTANCE;
+
+  private static final Logger LOG = LoggerFactory.getLogger(MeasureStatisticsRegistry.class);
+
+  // sequence numbers of writers which did not report for this long are forgotten
+  static final long REPORT_SEQUENCE_RETENTION_MS = 24 * 60 * 60 * 1000;
+
+  private final Map<String, DataLakeMeasureStatistics> statistics = new ConcurrentHashMap<>();
+  private final Map<String, String> measureIds = new ConcurrentHashMap<>();
+  private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+  /**
+   * Adds the statistics of newly written events to the statistics of the measurement, unless a
+   * report of the writer with the same or a greater sequence number has already been applied.
+   *
+   * @param writerId the id of the writer sending the report
+   * @param sequence the sequence number of the report, the creation time of the report in
+   *                 milliseconds or greater and increasing with each report of the writer
+   * @throws IllegalArgumentException if no measurement with the given name exists
+   */
+  public void merge(String measureName,
+                    String writerId,
+                    long sequence,
+                    DataLakeMeasureStatistics delta) throws IllegalArgumentException {
+    update(measureName, current -> {
+      if (applyReport(current, writerId, sequence, System.currentTimeMillis())) {
+        MeasureStatistics.merge(current, delta);
+      } else {
+        LOG.debug("Ignoring report {} of writer {} for measurement {}, which has already been applied",
+            sequence, writerId, measureName);
+      }
+    });
+  }
+
+  /**
+   * Removes the events of the given time range from the statistics of the measurement.
+   */
+  public void removeRange(String measureName,
+                          Long startDate,
+                          Long endDate) {
+    updateIfPresent(measureName, current -> MeasureStatistics.removeRange(current, startDate, endDate));
+  }
+
+  /**
+   * Resets the statistics of the measurement after all of its data has been deleted.
+   */
+  public void reset(String measureName) {
+    updateIfPresent(measureName, current -> {
+      DataLakeMeasureStatistics empty = MeasureStatistics.empty(true);
+      current.setFirstTimestamp(null);
+      current.setLastTimestamp(null);
+      current.setBucketWidthMs(empty.getBucketWidthMs());
+      current.setBucketCounts(empty.getBucketCounts());
+      current.setFieldStatistics(empty.getFieldStatistics());
+      current.setComplete(true);
+    });
+  }
+
+  public void remove(String measureName) {
+    synchronized (getLock(measureName)) {
+      statistics.remove(measureName);
+      measureIds.remove(measureName);
+    }
+  }
+
+  /**
+   * Returns a copy of the statistics of the measurement if they cover all of its data.
+   */
+  public Optional<DataLakeMeasureStatistics> getCompleteStatistics(String measureName) {
+    DataLakeMeasureStatistics current = statistics.get(measureName);
+    if (current == null) {
+      synchronized (getLock(measureName)) {
+        current = statistics.get(measureName);
+        if (current == null) {
+          current = findMeasure(measureName)
+              .map(DataLakeMeasure::getStatistics)
+              .orElseGet(() -> MeasureStatistics.empty(false));
+          statistics.put(measureName, current);
+        }
+      }
+    }
+    return current.isComplete() && MeasureStatistics.hasData(current)
+        ? Optional.of(new DataLakeMeasureStatistics(current))
+        : Optional.empty();
+  }
+
+  /**
+   * Records the sequence number of a report and forgets the sequence numbers of writers which
+   * did not report for a day, e.g., because the sink has been stopped.
+   *
+   * @return false if the report has already been applied
+   */
+  static boolean applyReport(DataLakeMeasureStatistics statistics,
+                             String writerId,
+                             long sequence,
+                             long now) {
+    if (statistics.getReportSequences() == null) {
+      statistics.setReportSequences(new HashMap<>());
+    }
+    Map<String, Long> reportSequences = statistics.getReportSequences();
+    Long applied = reportSequences.get(writerId);
+    if (applied != null && sequence <= applied) {
+      return false;
+    }
+    reportSequences.put(writerId, sequence);
+    reportSequences.values().removeIf(s -> s < now - REPORT_SEQUENCE_RETENTION_MS);
+    return true;
+  }
+
+  private void updateIfPresent(String measureName,
+                               Consumer<DataLakeMeasureStatistics> modifier) {
+    try {
+      update(measureName, modifier);
+    } catch (IllegalArgumentException e) {
+      LOG.debug("Statistics of measurement {} not updated: {}", measureName, e.getMessage());
+    }
+  }
+
+  private void update(String measureName,
+                      Consumer<DataLakeMeasureStatistics> modifier) throws IllegalArgumentException {
+    synchronized (getLock(measureName)) {
+      DataLakeMeasure measure = findMeasure(measureName)
+          .orElseThrow(() -> new IllegalArgumentException("Could not find measure " + measureName));
+      DataLakeMeasureStatistics current = measure.getStatistics() != null
+          ? measure.getStatistics()
+          : MeasureStatistics.empty(false);
+
+      modifier.accept(current);
+      measure.setStatistics(current);
+      getDataLakeStorage().updateDataLakeMeasure(measure);
+      statistics.put(measureName, new DataLakeMeasureStatistics(current));
+    }
+  }
+
+  private Object getLock(String measureName) {
+    return locks.computeIfAbsent(measureName, name -> new Object());
+  }
+
+  /**
+   * Finds the measurement by its id once it is known, so that only the first lookup of a
+   * measurement reads all measurements from the storage.
+   */
+  private Optional<DataLakeMeasure> findMeasure(String measureName) {
+    String measureId = measureIds.get(measureName);
+    if (measureId != null) {
+      DataLakeMeasure measure = getDataLakeStorage().findOne(measureId);
+      if (measure != null && measureName.equals(measure.getMeasureName())) {
+        return Optional.of(measure);
+      }
+    }
+
+    Optional<DataLakeMeasure> measure = getDataLakeStorage()
+        .getAllDataLakeMeasures()
+        .stream()
+        .filter(m -> m.getMeasureName().equals(measureName))
+        .findFirst();
+    measure.ifPresent(m -> measureIds.put(measureName, m.getElementId()));
+    return measure;
+  }
+
+  private IDataLakeStorage getDataLakeStorage() {
+    return StorageDispatcher.INSTANCE.getNoSqlStore().getDataLakeStorage();
+  }
+}
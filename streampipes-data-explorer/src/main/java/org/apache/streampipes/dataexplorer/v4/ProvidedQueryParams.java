@@ -19,6 +19,7 @@ package org.apache.streampipes.dataexplorer.v4;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 public class ProvidedQueryParams {
 
@@ -80,4 +81,22 @@ public class ProvidedQueryParams {
   public Map<String, String> getProvidedParams() {
     return providedParams;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ProvidedQueryParams that = (ProvidedQueryParams) o;
+    return Objects.equals(measurementId, that.measurementId)
+        && Objects.equals(providedParams, that.providedParams);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(measurementId, providedParams);
+  }
 }
@@ -40,6 +40,8 @@ public class SupportedDataLakeQueryParameters {
   public static final String QP_AUTO_AGGREGATE = "autoAggregate";
   public static final String QP_FILTER = "filter";
   public static final String QP_MAXIMUM_AMOUNT_OF_EVENTS = "maximumAmountOfEvents";
+  public static final String QP_DOWNSAMPLING = "downsampling";
+  public static final String QP_DOWNSAMPLING_POINTS = "downsamplingPoints";
 
   public static final List<String> SUPPORTED_PARAMS = Arrays.asList(
       QP_COLUMNS,
@@ -58,7 +60,9 @@ public class SupportedDataLakeQueryParameters {
       QP_AUTO_AGGREGATE,
       QP_MISSING_VALUE_BEHAVIOUR,
       QP_FILTER,
-      QP_MAXIMUM_AMOUNT_OF_EVENTS
+      QP_MAXIMUM_AMOUNT_OF_EVENTS,
+      QP_DOWNSAMPLING,
+      QP_DOWNSAMPLING_POINTS
   );
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.downsampling;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+public enum DownsamplingMode {
+
+  LTTB("lttb", LttbDownsampler::new),
+  MIN_MAX("minmax", MinMaxDownsampler::new);
+
+  private final String name;
+  private final Supplier<SeriesDownsampler> downsamplerSupplier;
+
+  DownsamplingMode(String name,
+                   Supplier<SeriesDownsampler> downsamplerSupplier) {
+    this.name = name;
+    this.downsamplerSupplier = downsamplerSupplier;
+  }
+
+  public static DownsamplingMode fromName(String name) {
+    return Arrays.stream(values())
+        .filter(mode -> mode.name.equalsIgnoreCase(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unsupported downsampling mode: " + name));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public SeriesDownsampler makeDownsampler() {
+    return downsamplerSupplier.get();
+  }
+}
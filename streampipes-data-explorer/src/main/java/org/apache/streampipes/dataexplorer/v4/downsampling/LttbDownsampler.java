@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.downsampling;
+
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling: the first and last row are kept, the rows in
+ * between are split into equally sized buckets and from each bucket the row is selected which
+ * forms the largest triangle with the previously selected row and the average of the next bucket.
+ *
+ * <p>Series with several numeric columns are reduced to the same rows for all columns, the
+ * triangle areas of the columns are summed after scaling each column to its value range.
+ */
+public class LttbDownsampler extends SeriesDownsampler {
+
+  @Override
+  protected int[] select(double[] times,
+                         List<double[]> values,
+                         int maxPoints) {
+    int rowCount = times.length;
+    if (maxPoints < 3) {
+      return maxPoints == 2 ? new int[]{0, rowCount - 1} : new int[]{0};
+    }
+
+    double[] scales = values.stream().mapToDouble(this::getScale).toArray();
+    int[] selected = new int[maxPoints];
+    double bucketSize = (double) (rowCount - 2) / (maxPoints - 2);
+    int previous = 0;
+    selected[0] = previous;
+
+    for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+      int averageStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+      int averageEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, rowCount);
+      double averageTime = average(times, averageStart, averageEnd);
+      double[] averageValues = new double[values.size()];
+      for (int column = 0; column < values.size(); column++) {
+        averageValues[column] = average(values.get(column), averageStart, averageEnd);
+      }
+
+      int rangeStart = (int) Math.floor(bucket * bucketSize) + 1;
+      int rangeEnd = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+      double maxArea = -1;
+      int next = rangeStart;
+      for (int row = rangeStart; row < rangeEnd; row++) {
+        double area = 0;
+        for (int column = 0; column < values.size(); column++) {
+          double[] columnValues = values.get(column);
+          double columnArea = Math.abs((times[previous] - averageTime) * (columnValues[row] - columnValues[previous])
+              - (times[previous] - times[row]) * (averageValues[column] - columnValues[previous]));
+          // missing values do not contribute to the area
+          if (!Double.isNaN(columnArea)) {
+            area += columnArea * scales[column];
+          }
+        }
+        if (area > maxArea) {
+          maxArea = area;
+          next = row;
+        }
+      }
+
+      selected[bucket + 1] = next;
+      previous = next;
+    }
+
+    selected[maxPoints - 1] = rowCount - 1;
+    return selected;
+  }
+
+  private double getScale(double[] columnValues) {
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    for (double value : columnValues) {
+      if (!Double.isNaN(value)) {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    return max > min ? 1 / (max - min) : 0;
+  }
+
+  private double average(double[] values,
+                         int start,
+                         int end) {
+    double sum = 0;
+    int count = 0;
+    for (int i = start; i < end; i++) {
+      if (!Double.isNaN(values[i])) {
+        sum += values[i];
+        count++;
+      }
+    }
+    return count > 0 ? sum / count : Double.NaN;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.downsampling;
+
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Min/max downsampling: the rows are split into equally sized buckets and from each bucket the
+ * rows with the minimum and the maximum value of each numeric column are kept, so that no peak
+ * of the series is lost.
+ *
+ * <p>The number of buckets is chosen so that at most the maximum number of rows is returned,
+ * unless the series has more than half as many numeric columns as rows may be returned: in this
+ * case, a single bucket is used.
+ */
+public class MinMaxDownsampler extends SeriesDownsampler {
+
+  @Override
+  protected int[] select(double[] times,
+                         List<double[]> values,
+                         int maxPoints) {
+    int rowCount = times.length;
+    if (values.isEmpty()) {
+      return selectEvenly(rowCount, maxPoints);
+    }
+
+    int bucketCount = Math.max(1, maxPoints / (2 * values.size()));
+    double bucketSize = (double) rowCount / bucketCount;
+    TreeSet<Integer> selected = new TreeSet<>();
+
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      int start = (int) Math.floor(bucket * bucketSize);
+      int end = bucket == bucketCount - 1 ? rowCount : (int) Math.floor((bucket + 1) * bucketSize);
+      for (double[] columnValues : values) {
+        int min = -1;
+        int max = -1;
+        for (int row = start; row < end; row++) {
+          if (!Double.isNaN(columnValues[row])) {
+            if (min < 0 || columnValues[row] < columnValues[min]) {
+              min = row;
+            }
+            if (max < 0 || columnValues[row] > columnValues[max]) {
+              max = row;
+            }
+          }
+        }
+        if (min >= 0) {
+          selected.add(min);
+          selected.add(max);
+        }
+      }
+    }
+
+    return selected.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private int[] selectEvenly(int rowCount,
+                             int maxPoints) {
+    int[] selected = new int[maxPoints];
+    double step = (double) rowCount / maxPoints;
+    for (int i = 0; i < maxPoints; i++) {
+      selected[i] = (int) Math.floor(i * step);
+    }
+    return selected;
+  }
+}
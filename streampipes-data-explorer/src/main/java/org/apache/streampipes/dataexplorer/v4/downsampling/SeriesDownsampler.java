@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.downsampling;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reduces the rows of a single series to a bounded number of rows which preserve the visual shape
+ * of the series. Only rows of the original series are returned, in their original order.
+ */
+public abstract class SeriesDownsampler {
+
+  private static final String TIME_FIELD = "time";
+
+  /**
+   * @param columns   The columns of the series
+   * @param rows      The rows of the series, ordered by time
+   * @param maxPoints The maximum number of rows to return
+   * @return The selected rows, or the given rows if they do not exceed the maximum number of rows
+   */
+  public List<List<Object>> downsample(List<String> columns,
+                                       List<List<Object>> rows,
+                                       int maxPoints) {
+    if (rows.size() <= maxPoints) {
+      return rows;
+    }
+
+    int timeIndex = columns.indexOf(TIME_FIELD);
+    double[] times = new double[rows.size()];
+    for (int i = 0; i < rows.size(); i++) {
+      times[i] = timeIndex >= 0 ? toTime(rows.get(i).get(timeIndex), i) : i;
+    }
+
+    List<double[]> values = new ArrayList<>();
+    for (int column = 0; column < columns.size(); column++) {
+      if (column != timeIndex) {
+        toNumericValues(rows, column).ifPresent(values::add);
+      }
+    }
+
+    int[] selected = select(times, values, maxPoints);
+    List<List<Object>> result = new ArrayList<>(selected.length);
+    for (int index : selected) {
+      result.add(rows.get(index));
+    }
+    return result;
+  }
+
+  /**
+   * Selects the rows to keep.
+   *
+   * @param times     The timestamp of each row
+   * @param values    The values of each numeric column, {@link Double#NaN} for missing values
+   * @param maxPoints The maximum number of rows to select, always less than the number of rows
+   * @return The indices of the selected rows in ascending order
+   */
+  protected abstract int[] select(double[] times,
+                                  List<double[]> values,
+                                  int maxPoints);
+
+  private double toTime(Object time,
+                        int index) {
+    if (time instanceof Number) {
+      return ((Number) time).doubleValue();
+    } else if (time instanceof String) {
+      try {
+        return Instant.parse((String) time).toEpochMilli();
+      } catch (DateTimeParseException e) {
+        // handled below
+      }
+    }
+    return index;
+  }
+
+  private Optional<double[]> toNumericValues(List<List<Object>> rows,
+                                             int column) {
+    double[] values = new double[rows.size()];
+    boolean numeric = false;
+    for (int i = 0; i < rows.size(); i++) {
+      Object value = rows.get(i).get(column);
+      if (value instanceof Number) {
+        values[i] = ((Number) value).doubleValue();
+        numeric = true;
+      } else {
+        values[i] = Double.NaN;
+      }
+    }
+    return numeric ? Optional.of(values) : Optional.empty();
+  }
+}
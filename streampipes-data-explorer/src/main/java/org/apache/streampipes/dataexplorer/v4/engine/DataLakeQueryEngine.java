@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.engine;
+
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.query.QueryRowHandler;
+import org.apache.streampipes.model.datalake.DataSeries;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read path of a time series storage engine. Queries are described by the query parameters of
+ * the data lake API, each engine translates them to its own storage.
+ */
+public interface DataLakeQueryEngine {
+
+  /**
+   * Executes the query.
+   *
+   * @return One series per group of the query, with all rows including those with missing values
+   */
+  List<DataSeries> executeQuery(Map<String, QueryParamsV4> params);
+
+  /**
+   * Executes the query and passes each row to the handler, so that the result is never fully kept
+   * in memory.
+   *
+   * @return The number of rows returned by the query, including rows skipped due to missing values
+   */
+  long executeQuery(Map<String, QueryParamsV4> params,
+                    boolean ignoreMissingValues,
+                    int chunkSize,
+                    QueryRowHandler handler) throws IOException;
+
+  /**
+   * Returns the number of rows the query would return.
+   */
+  long countResults(Map<String, QueryParamsV4> params);
+
+  /**
+   * Deletes the data described by a delete query.
+   */
+  void deleteData(Map<String, QueryParamsV4> params);
+
+  /**
+   * Deletes all data of a measurement.
+   *
+   * @return true if the measurement could be deleted
+   */
+  boolean dropMeasurement(String measureName);
+
+  /**
+   * Returns the distinct values of the given tags of a measurement.
+   */
+  Map<String, Object> getTagValues(String measureName,
+                                   List<String> tags);
+}
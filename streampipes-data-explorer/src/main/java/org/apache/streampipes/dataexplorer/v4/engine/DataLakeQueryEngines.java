@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.engine;
+
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
+import org.apache.streampipes.dataexplorer.commons.embedded.EmbeddedStorage;
+import org.apache.streampipes.dataexplorer.commons.engine.TimeSeriesStorageEngine;
+
+public class DataLakeQueryEngines {
+
+  /**
+   * Returns the query engine of the storage engine configured in the environment.
+   */
+  public static DataLakeQueryEngine getEngine() {
+    Environment environment = Environments.getEnvironment();
+    if (TimeSeriesStorageEngine.from(environment) == TimeSeriesStorageEngine.EMBEDDED) {
+      return new EmbeddedQueryEngine(EmbeddedStorage.from(environment));
+    } else {
+      return new InfluxQueryEngine(environment);
+    }
+  }
+}
@@ -0,0 +1,738 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.engine;
+
+import org.apache.streampipes.dataexplorer.commons.embedded.EmbeddedStorage;
+import org.apache.streampipes.dataexplorer.commons.embedded.Segment;
+import org.apache.streampipes.dataexplorer.commons.embedded.SegmentColumn;
+import org.apache.streampipes.dataexplorer.v4.params.ColumnFunction;
+import org.apache.streampipes.dataexplorer.v4.params.GroupingByTagsParams;
+import org.apache.streampipes.dataexplorer.v4.params.GroupingByTimeParams;
+import org.apache.streampipes.dataexplorer.v4.params.ItemLimitationParams;
+import org.apache.streampipes.dataexplorer.v4.params.OffsetParams;
+import org.apache.streampipes.dataexplorer.v4.params.OrderingByTimeParams;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.params.SelectColumn;
+import org.apache.streampipes.dataexplorer.v4.params.SelectFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.params.TimeBoundaryParams;
+import org.apache.streampipes.dataexplorer.v4.params.WhereCondition;
+import org.apache.streampipes.dataexplorer.v4.params.WhereStatementParams;
+import org.apache.streampipes.dataexplorer.v4.query.QueryRowHandler;
+import org.apache.streampipes.dataexplorer.v4.rollup.RollupTier;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
+import org.apache.streampipes.model.datalake.DataSeries;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A data lake query interpreted against the embedded storage engine. Partitions are read one after
+ * another in the order of the query, segments which cannot contain matching rows are skipped based
+ * on their time range and the minimum and maximum of their columns. The semantics follow the
+ * InfluxQL queries built from the same parameters: time bounds are exclusive, aggregations ignore
+ * empty time buckets and limit and offset apply to each series.
+ */
+class EmbeddedQuery {
+
+  private static final String TIME = "time";
+  private static final long NANOS_PER_MILLI = 1000000L;
+  private static final Pattern TIME_GROUPING = Pattern.compile("time\\((.+)\\)");
+
+  private static final Comparator<List<String>> GROUP_ORDER = (a, b) -> {
+    for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+      int result = a.get(i).compareTo(b.get(i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(a.size(), b.size());
+  };
+
+  private final String measureName;
+  private final List<SelectColumn> selectedColumns;
+  private final List<Condition> conditions;
+  private final List<String> groupingTags;
+
+  private long startNanos = Long.MIN_VALUE;
+  private long endNanos = Long.MAX_VALUE;
+  private Long intervalMs;
+  private boolean descending;
+  private int limit = -1;
+  private int offset;
+
+  EmbeddedQuery(String measureName) {
+    this.measureName = measureName;
+    this.selectedColumns = null;
+    this.conditions = new ArrayList<>();
+    this.groupingTags = new ArrayList<>();
+  }
+
+  private EmbeddedQuery(String measureName,
+                        List<SelectColumn> selectedColumns) {
+    this.measureName = measureName;
+    this.selectedColumns = selectedColumns;
+    this.conditions = new ArrayList<>();
+    this.groupingTags = new ArrayList<>();
+  }
+
+  static EmbeddedQuery from(Map<String, QueryParamsV4> params) {
+    QueryParamsV4 select = params.get(DataLakeManagementUtils.SELECT_FROM);
+    EmbeddedQuery query;
+    if (select == null) {
+      query = new EmbeddedQuery(params.get(DataLakeManagementUtils.DELETE_FROM).getIndex());
+    } else if (select instanceof SelectFromStatementParams) {
+      SelectFromStatementParams selectParams = (SelectFromStatementParams) select;
+      query = new EmbeddedQuery(selectParams.getIndex(),
+          selectParams.isSelectWildcard() ? null : selectParams.getSelectedColumns());
+    } else {
+      throw new IllegalArgumentException("Rollup queries are not supported by the embedded storage engine");
+    }
+
+    QueryParamsV4 where = params.get(DataLakeManagementUtils.WHERE);
+    if (where instanceof WhereStatementParams) {
+      ((WhereStatementParams) where).getWhereConditions().forEach(query::addCondition);
+    } else if (where instanceof TimeBoundaryParams) {
+      TimeBoundaryParams timeBoundary = (TimeBoundaryParams) where;
+      if (timeBoundary.getStartDate() != null) {
+        query.startNanos = timeBoundary.getStartDate() * NANOS_PER_MILLI;
+      }
+      if (timeBoundary.getEndDate() != null) {
+        query.endNanos = timeBoundary.getEndDate() * NANOS_PER_MILLI;
+      }
+    }
+
+    if (params.containsKey(DataLakeManagementUtils.GROUP_BY_TIME)) {
+      query.intervalMs = parseInterval(
+          ((GroupingByTimeParams) params.get(DataLakeManagementUtils.GROUP_BY_TIME)).getTimeInterval());
+    } else if (params.containsKey(DataLakeManagementUtils.GROUP_BY_TAGS)) {
+      for (String tag : ((GroupingByTagsParams) params.get(DataLakeManagementUtils.GROUP_BY_TAGS)).getGroupingTags()) {
+        Matcher matcher = TIME_GROUPING.matcher(tag.trim());
+        if (matcher.matches()) {
+          query.intervalMs = parseInterval(matcher.group(1));
+        } else {
+          query.groupingTags.add(unquote(tag.trim()));
+        }
+      }
+    }
+
+    if (params.containsKey(DataLakeManagementUtils.ORDER_DESCENDING)) {
+      query.descending = "DESC".equalsIgnoreCase(
+          ((OrderingByTimeParams) params.get(DataLakeManagementUtils.ORDER_DESCENDING)).getOrdering());
+    }
+    if (params.containsKey(DataLakeManagementUtils.LIMIT)) {
+      query.limit = ((ItemLimitationParams) params.get(DataLakeManagementUtils.LIMIT)).getLimit();
+    }
+    if (params.containsKey(DataLakeManagementUtils.OFFSET)) {
+      query.offset = ((OffsetParams) params.get(DataLakeManagementUtils.OFFSET)).getOffset();
+    }
+
+    if (query.intervalMs != null && !query.isAggregation()) {
+      throw new IllegalArgumentException("Grouping by time requires an aggregation function");
+    }
+    return query;
+  }
+
+  private static long parseInterval(String interval) {
+    return RollupTier.parseDuration(interval)
+        .filter(intervalMs -> intervalMs > 0)
+        .orElseThrow(() -> new IllegalArgumentException("Unsupported time interval " + interval));
+  }
+
+  private void addCondition(WhereCondition condition) {
+    String field = unquote(condition.getField());
+    String operator = condition.getOperator();
+    if (TIME.equals(field)) {
+      long value = Long.parseLong(condition.getCondition());
+      switch (operator) {
+        case ">":
+          startNanos = Math.max(startNanos, value);
+          break;
+        case ">=":
+          startNanos = Math.max(startNanos, value - 1);
+          break;
+        case "<":
+          endNanos = Math.min(endNanos, value);
+          break;
+        case "<=":
+          endNanos = Math.min(endNanos, value + 1);
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported time condition " + condition);
+      }
+    } else {
+      conditions.add(new Condition(field, operator, parseLiteral(condition.getCondition())));
+    }
+  }
+
+  private static Object parseLiteral(String literal) {
+    if (literal.length() >= 2 && literal.startsWith("'") && literal.endsWith("'")) {
+      return literal.substring(1, literal.length() - 1);
+    } else if ("\"\"".equals(literal)) {
+      return "";
+    } else if ("true".equalsIgnoreCase(literal) || "false".equalsIgnoreCase(literal)) {
+      return Boolean.parseBoolean(literal);
+    }
+    try {
+      return Double.parseDouble(literal);
+    } catch (NumberFormatException e) {
+      return literal;
+    }
+  }
+
+  private static String unquote(String name) {
+    return name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")
+        ? name.substring(1, name.length() - 1)
+        : name;
+  }
+
+  String getMeasureName() {
+    return measureName;
+  }
+
+  long getStartNanos() {
+    return startNanos;
+  }
+
+  long getEndNanos() {
+    return endNanos;
+  }
+
+  boolean isAggregation() {
+    return selectedColumns != null && selectedColumns.stream().anyMatch(c -> c.getColumnFunction() != null);
+  }
+
+  /**
+   * Checks whether the rows of the query can be passed on while the storage is scanned, i.e.,
+   * whether the query neither aggregates nor groups rows.
+   */
+  boolean isStreamable() {
+    return !isAggregation() && groupingTags.isEmpty();
+  }
+
+  /**
+   * Executes the query.
+   *
+   * @return One series per group of the query
+   */
+  List<DataSeries> execute(EmbeddedStorage storage) throws IOException {
+    return isAggregation() ? executeAggregation(storage) : executeRaw(storage);
+  }
+
+  /**
+   * Executes a query which neither aggregates nor groups rows and passes each row to the consumer.
+   *
+   * @return The number of rows returned by the query
+   */
+  long stream(EmbeddedStorage storage,
+              QueryRowHandler handler) throws IOException {
+    List<String> columns = getRawColumns(storage);
+    List<String> headers = makeHeaders(columns);
+    long[] position = new long[1];
+    long[] returned = new long[1];
+    scan(storage, columns, descending, (timestamp, values) -> {
+      if (position[0]++ < offset) {
+        return true;
+      }
+      if (limit >= 0 && returned[0] >= limit) {
+        return false;
+      }
+      returned[0]++;
+      handler.onRow(headers, makeRow(timestamp, values));
+      return true;
+    });
+    return returned[0];
+  }
+
+  /**
+   * Counts the rows returned by the query.
+   */
+  long count(EmbeddedStorage storage) throws IOException {
+    if (!isStreamable()) {
+      return execute(storage).stream().mapToLong(series -> series.getRows().size()).sum();
+    }
+    long[] count = new long[1];
+    scan(storage, Collections.emptyList(), false, (timestamp, values) -> {
+      count[0]++;
+      return true;
+    });
+    long rows = Math.max(0, count[0] - offset);
+    return limit >= 0 ? Math.min(rows, limit) : rows;
+  }
+
+  /**
+   * Collects the distinct values of the given columns.
+   */
+  Map<String, Object> collectValues(EmbeddedStorage storage,
+                                    List<String> columns) throws IOException {
+    List<TreeSet<String>> values = new ArrayList<>();
+    columns.forEach(c -> values.add(new TreeSet<>()));
+    scan(storage, columns, false, (timestamp, row) -> {
+      for (int i = 0; i < row.length; i++) {
+        if (row[i] != null) {
+          values.get(i).add(row[i].toString());
+        }
+      }
+      return true;
+    });
+
+    Map<String, Object> result = new HashMap<>();
+    for (int i = 0; i < columns.size(); i++) {
+      if (!values.get(i).isEmpty()) {
+        result.put(columns.get(i), new ArrayList<>(values.get(i)));
+      }
+    }
+    return result;
+  }
+
+  private List<DataSeries> executeRaw(EmbeddedStorage storage) throws IOException {
+    List<String> columns = getRawColumns(storage);
+    List<String> scanColumns = new ArrayList<>(columns);
+    scanColumns.addAll(groupingTags);
+    Map<List<String>, List<List<Object>>> groups = new TreeMap<>(GROUP_ORDER);
+    scan(storage, scanColumns, descending, (timestamp, values) -> {
+      List<List<Object>> rows = groups.computeIfAbsent(getGroup(values, columns.size()), g -> new ArrayList<>());
+      rows.add(makeRow(timestamp, Arrays.copyOf(values, columns.size())));
+      return !groupingTags.isEmpty() || limit < 0 || rows.size() < offset + limit;
+    });
+
+    List<String> headers = makeHeaders(columns);
+    List<DataSeries> result = new ArrayList<>();
+    groups.forEach((group, rows) -> {
+      List<List<Object>> page = paginate(rows);
+      if (!page.isEmpty()) {
+        result.add(new DataSeries(page.size(), page, headers, makeTags(group)));
+      }
+    });
+    return result;
+  }
+
+  private List<DataSeries> executeAggregation(EmbeddedStorage storage) throws IOException {
+    List<String> columns = new ArrayList<>();
+    selectedColumns.forEach(c -> columns.add(c.getOriginalField()));
+    columns.addAll(groupingTags);
+    long defaultBucket = startNanos == Long.MIN_VALUE ? 0 : Math.floorDiv(startNanos, NANOS_PER_MILLI);
+
+    Map<List<String>, TreeMap<Long, Aggregate[]>> groups = new TreeMap<>(GROUP_ORDER);
+    // rows are scanned in ascending order, so that FIRST and LAST can be computed on the fly
+    scan(storage, columns, false, (timestamp, values) -> {
+      TreeMap<Long, Aggregate[]> buckets =
+          groups.computeIfAbsent(getGroup(values, selectedColumns.size()), g -> new TreeMap<>());
+      long bucket = intervalMs != null ? Math.floorDiv(timestamp, intervalMs) * intervalMs : defaultBucket;
+      Aggregate[] aggregates = buckets.computeIfAbsent(bucket, b -> makeAggregates());
+      for (int i = 0; i < aggregates.length; i++) {
+        aggregates[i].add(values[i]);
+      }
+      return true;
+    });
+
+    List<String> headers = new ArrayList<>();
+    headers.add(TIME);
+    selectedColumns.forEach(c -> headers.add(c.getTargetField() != null ? c.getTargetField() : c.getOriginalField()));
+    List<DataSeries> result = new ArrayList<>();
+    groups.forEach((group, buckets) -> {
+      List<List<Object>> rows = new ArrayList<>();
+      (descending ? buckets.descendingMap() : buckets).forEach((bucket, aggregates) -> {
+        List<Object> row = new ArrayList<>(aggregates.length + 1);
+        row.add(Instant.ofEpochMilli(bucket).toString());
+        for (Aggregate aggregate : aggregates) {
+          row.add(aggregate.getResult());
+        }
+        rows.add(row);
+      });
+      List<List<Object>> page = paginate(rows);
+      if (!page.isEmpty()) {
+        result.add(new DataSeries(page.size(), page, headers, makeTags(group)));
+      }
+    });
+    return result;
+  }
+
+  private Aggregate[] makeAggregates() {
+    Aggregate[] aggregates = new Aggregate[selectedColumns.size()];
+    for (int i = 0; i < aggregates.length; i++) {
+      ColumnFunction function = selectedColumns.get(i).getColumnFunction();
+      aggregates[i] = new Aggregate(function != null ? function : ColumnFunction.LAST);
+    }
+    return aggregates;
+  }
+
+  private List<String> getRawColumns(EmbeddedStorage storage) throws IOException {
+    if (selectedColumns != null) {
+      List<String> columns = new ArrayList<>();
+      selectedColumns.forEach(c -> columns.add(c.getOriginalField()));
+      return columns;
+    }
+    // columns of wildcard queries are sorted by name, as in InfluxDB
+    TreeSet<String> columns = new TreeSet<>();
+    for (long partition : storage.getPartitions(measureName, getStartMillis(), getEndMillis())) {
+      for (Segment segment : storage.readSegments(measureName, partition)) {
+        if (overlapsTimeRange(segment)) {
+          columns.addAll(segment.getColumns().keySet());
+        }
+      }
+    }
+    columns.removeAll(groupingTags);
+    return new ArrayList<>(columns);
+  }
+
+  private List<String> makeHeaders(List<String> columns) {
+    List<String> headers = new ArrayList<>(columns.size() + 1);
+    headers.add(TIME);
+    headers.addAll(columns);
+    return headers;
+  }
+
+  private List<Object> makeRow(long timestamp,
+                               Object[] values) {
+    List<Object> row = new ArrayList<>(values.length + 1);
+    row.add(Instant.ofEpochMilli(timestamp).toString());
+    for (Object value : values) {
+      row.add(toOutputValue(value));
+    }
+    return row;
+  }
+
+  private List<String> getGroup(Object[] values,
+                                int firstTagIndex) {
+    if (groupingTags.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> group = new ArrayList<>(groupingTags.size());
+    for (int i = 0; i < groupingTags.size(); i++) {
+      Object value = values[firstTagIndex + i];
+      group.add(value != null ? value.toString() : "");
+    }
+    return group;
+  }
+
+  private Map<String, String> makeTags(List<String> group) {
+    if (groupingTags.isEmpty()) {
+      return null;
+    }
+    Map<String, String> tags = new LinkedHashMap<>();
+    for (int i = 0; i < groupingTags.size(); i++) {
+      tags.put(groupingTags.get(i), group.get(i));
+    }
+    return tags;
+  }
+
+  private List<List<Object>> paginate(List<List<Object>> rows) {
+    int from = Math.min(offset, rows.size());
+    int to = limit >= 0 ? (int) Math.min(rows.size(), (long) from + limit) : rows.size();
+    return rows.subList(from, to);
+  }
+
+  /**
+   * Reads all rows matching the time range and conditions of the query.
+   *
+   * @param columns The columns whose values are passed to the consumer, in this order
+   */
+  private void scan(EmbeddedStorage storage,
+                    List<String> columns,
+                    boolean descendingOrder,
+                    RowConsumer consumer) throws IOException {
+    List<EmbeddedStorage.Tombstone> tombstones = storage.readTombstones(measureName);
+    List<Long> partitions = new ArrayList<>(storage.getPartitions(measureName, getStartMillis(), getEndMillis()));
+    if (descendingOrder) {
+      Collections.reverse(partitions);
+    }
+
+    Comparator<Row> order = Comparator.comparingLong(row -> row.timestamp);
+    for (long partition : partitions) {
+      List<Row> rows = new ArrayList<>();
+      for (Segment segment : storage.readSegments(measureName, partition)) {
+        if (overlapsTimeRange(segment) && mayMatch(segment)) {
+          readSegment(segment, columns, tombstones, rows);
+        }
+      }
+      // segments of a partition are not necessarily written in time order
+      rows.sort(descendingOrder ? order.reversed() : order);
+      for (Row row : rows) {
+        if (!consumer.accept(row.timestamp, row.values)) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void readSegment(Segment segment,
+                           List<String> columns,
+                           List<EmbeddedStorage.Tombstone> tombstones,
+                           List<Row> rows) {
+    int rowCount = segment.getRowCount();
+    long[] timestamps = segment.getTimestamps();
+    List<EmbeddedStorage.Tombstone> segmentTombstones = new ArrayList<>();
+    tombstones.stream().filter(t -> t.overlaps(segment)).forEach(segmentTombstones::add);
+
+    Map<String, Object[]> decoded = new HashMap<>();
+    Object[][] conditionValues = new Object[conditions.size()][];
+    for (int c = 0; c < conditions.size(); c++) {
+      conditionValues[c] = decode(segment, conditions.get(c).field, decoded);
+    }
+    Object[][] columnValues = new Object[columns.size()][];
+    for (int c = 0; c < columns.size(); c++) {
+      columnValues[c] = decode(segment, columns.get(c), decoded);
+    }
+
+    for (int i = 0; i < rowCount; i++) {
+      if (matches(segment, timestamps[i], i, conditionValues, segmentTombstones)) {
+        Object[] values = new Object[columns.size()];
+        for (int c = 0; c < values.length; c++) {
+          values[c] = columnValues[c] != null ? columnValues[c][i] : null;
+        }
+        rows.add(new Row(timestamps[i], values));
+      }
+    }
+  }
+
+  private Object[] decode(Segment segment,
+                          String column,
+                          Map<String, Object[]> decoded) {
+    SegmentColumn segmentColumn = segment.getColumn(column);
+    if (segmentColumn == null) {
+      return null;
+    }
+    return decoded.computeIfAbsent(column, c -> segmentColumn.decode(segment.getRowCount()));
+  }
+
+  private boolean matches(Segment segment,
+                          long timestamp,
+                          int index,
+                          Object[][] conditionValues,
+                          List<EmbeddedStorage.Tombstone> tombstones) {
+    long nanos = timestamp * NANOS_PER_MILLI;
+    if (nanos <= startNanos || nanos >= endNanos) {
+      return false;
+    }
+    for (int c = 0; c < conditionValues.length; c++) {
+      if (conditionValues[c] == null || !conditions.get(c).matches(conditionValues[c][index])) {
+        return false;
+      }
+    }
+    for (EmbeddedStorage.Tombstone tombstone : tombstones) {
+      if (tombstone.hides(segment, timestamp)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean overlapsTimeRange(Segment segment) {
+    return segment.getMaxTime() * NANOS_PER_MILLI > startNanos && segment.getMinTime() * NANOS_PER_MILLI < endNanos;
+  }
+
+  private boolean mayMatch(Segment segment) {
+    return conditions.stream().allMatch(c -> c.mayMatch(segment.getColumn(c.field)));
+  }
+
+  private long getStartMillis() {
+    return startNanos == Long.MIN_VALUE ? Long.MIN_VALUE : Math.floorDiv(startNanos, NANOS_PER_MILLI);
+  }
+
+  private long getEndMillis() {
+    return endNanos == Long.MAX_VALUE ? Long.MAX_VALUE : Math.floorDiv(endNanos, NANOS_PER_MILLI);
+  }
+
+  private static Object toOutputValue(Object value) {
+    // numbers are returned as doubles, as by the InfluxDB client
+    return value instanceof Number ? (Object) ((Number) value).doubleValue() : value;
+  }
+
+  private interface RowConsumer {
+
+    /**
+     * @return false if no further rows should be read
+     */
+    boolean accept(long timestamp,
+                   Object[] values) throws IOException;
+  }
+
+  private static class Row {
+
+    private final long timestamp;
+    private final Object[] values;
+
+    Row(long timestamp,
+        Object[] values) {
+      this.timestamp = timestamp;
+      this.values = values;
+    }
+  }
+
+  private static class Condition {
+
+    private final String field;
+    private final String operator;
+    private final Object literal;
+
+    Condition(String field,
+              String operator,
+              Object literal) {
+      this.field = field;
+      this.operator = operator;
+      this.literal = literal;
+    }
+
+    boolean matches(Object value) {
+      int comparison;
+      if (value instanceof Number && literal instanceof Double) {
+        comparison = Double.compare(((Number) value).doubleValue(), (Double) literal);
+      } else if (value instanceof String && literal instanceof String) {
+        comparison = ((String) value).compareTo((String) literal);
+      } else if (value instanceof Boolean && literal instanceof Boolean) {
+        comparison = value.equals(literal) ? 0 : 1;
+        if (!isEquality()) {
+          return false;
+        }
+      } else {
+        return false;
+      }
+
+      switch (operator) {
+        case "=":
+        case "==":
+          return comparison == 0;
+        case "!=":
+        case "<>":
+          return comparison != 0;
+        case "<":
+          return comparison < 0;
+        case "<=":
+          return comparison <= 0;
+        case ">":
+          return comparison > 0;
+        case ">=":
+          return comparison >= 0;
+        default:
+          throw new IllegalArgumentException("Unsupported operator " + operator);
+      }
+    }
+
+    /**
+     * Checks whether a segment may contain matching rows based on the range of its values.
+     */
+    boolean mayMatch(SegmentColumn column) {
+      if (column == null) {
+        return false;
+      }
+      if (!(literal instanceof Double) || Double.isNaN(column.getMin())) {
+        return true;
+      }
+      double value = (Double) literal;
+      switch (operator) {
+        case "=":
+        case "==":
+          return value >= column.getMin() && value <= column.getMax();
+        case "<":
+          return column.getMin() < value;
+        case "<=":
+          return column.getMin() <= value;
+        case ">":
+          return column.getMax() > value;
+        case ">=":
+          return column.getMax() >= value;
+        default:
+          return true;
+      }
+    }
+
+    private boolean isEquality() {
+      return "=".equals(operator) || "==".equals(operator) || "!=".equals(operator) || "<>".equals(operator);
+    }
+  }
+
+  private static class Aggregate {
+
+    private final ColumnFunction function;
+
+    private long count;
+    private long numericCount;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private Object first;
+    private Object last;
+    private Map<Object, Long> occurrences;
+
+    Aggregate(ColumnFunction function) {
+      this.function = function;
+    }
+
+    void add(Object value) {
+      if (value == null) {
+        return;
+      }
+      count++;
+      if (first == null) {
+        first = value;
+      }
+      last = value;
+      if (value instanceof Number) {
+        double number = ((Number) value).doubleValue();
+        numericCount++;
+        sum += number;
+        min = Math.min(min, number);
+        max = Math.max(max, number);
+      }
+      if (function == ColumnFunction.MODE) {
+        if (occurrences == null) {
+          occurrences = new LinkedHashMap<>();
+        }
+        occurrences.merge(value, 1L, Long::sum);
+      }
+    }
+
+    Object getResult() {
+      switch (function) {
+        case MEAN:
+          return numericCount > 0 ? sum / numericCount : null;
+        case MIN:
+          return numericCount > 0 ? min : null;
+        case MAX:
+          return numericCount > 0 ? max : null;
+        case SUM:
+          return numericCount > 0 ? sum : null;
+        case COUNT:
+          return (double) count;
+        case FIRST:
+          return toOutputValue(first);
+        case MODE:
+          return occurrences == null ? null : toOutputValue(occurrences.entrySet()
+              .stream()
+              .max(Map.Entry.comparingByValue())
+              .map(Map.Entry::getKey)
+              .orElse(null));
+        default:
+          return toOutputValue(last);
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.engine;
+
+import org.apache.streampipes.dataexplorer.commons.embedded.EmbeddedStorage;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.query.QueryRowHandler;
+import org.apache.streampipes.model.datalake.DataSeries;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query engine which reads data lake measurements from the embedded storage engine.
+ */
+public class EmbeddedQueryEngine implements DataLakeQueryEngine {
+
+  private final EmbeddedStorage storage;
+
+  public EmbeddedQueryEngine(EmbeddedStorage storage) {
+    this.storage = storage;
+  }
+
+  @Override
+  public List<DataSeries> executeQuery(Map<String, QueryParamsV4> params) {
+    try {
+      return EmbeddedQuery.from(params).execute(storage);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public long executeQuery(Map<String, QueryParamsV4> params,
+                           boolean ignoreMissingValues,
+                           int chunkSize,
+                           QueryRowHandler handler) throws IOException {
+    EmbeddedQuery query = EmbeddedQuery.from(params);
+    QueryRowHandler rowHandler = (columns, row) -> {
+      if (!ignoreMissingValues || !row.contains(null)) {
+        handler.onRow(columns, row);
+      }
+    };
+
+    if (query.isStreamable()) {
+      return query.stream(storage, rowHandler);
+    }
+    long rows = 0;
+    for (DataSeries series : query.execute(storage)) {
+      for (List<Object> row : series.getRows()) {
+        rows++;
+        rowHandler.onRow(series.getHeaders(), row);
+      }
+    }
+    return rows;
+  }
+
+  @Override
+  public long countResults(Map<String, QueryParamsV4> params) {
+    try {
+      return EmbeddedQuery.from(params).count(storage);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void deleteData(Map<String, QueryParamsV4> params) {
+    EmbeddedQuery query = EmbeddedQuery.from(params);
+    try {
+      storage.addTombstone(query.getMeasureName(), query.getStartNanos(), query.getEndNanos());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public boolean dropMeasurement(String measureName) {
+    try {
+      storage.dropMeasure(measureName);
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public Map<String, Object> getTagValues(String measureName,
+                                          List<String> tags) {
+    try {
+      return new EmbeddedQuery(measureName).collectValues(storage, tags);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.engine;
+
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.dataexplorer.commons.influx.InfluxClientProvider;
+import org.apache.streampipes.dataexplorer.query.DeleteDataQuery;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.query.DataExplorerQueryV4;
+import org.apache.streampipes.dataexplorer.v4.query.QueryBuilder;
+import org.apache.streampipes.dataexplorer.v4.query.QueryRowHandler;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.datalake.DataSeries;
+
+import org.influxdb.InfluxDB;
+import org.influxdb.dto.Query;
+import org.influxdb.dto.QueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Query engine which translates data lake queries to InfluxQL.
+ */
+public class InfluxQueryEngine implements DataLakeQueryEngine {
+
+  private static final Logger LOG = LoggerFactory.getLogger(InfluxQueryEngine.class);
+
+  private final Environment env;
+
+  public InfluxQueryEngine(Environment env) {
+    this.env = env;
+  }
+
+  @Override
+  public List<DataSeries> executeQuery(Map<String, QueryParamsV4> params) {
+    final InfluxDB influxDB = InfluxClientProvider.getSharedInfluxDBClient();
+    Query query = makeQuery(params, false);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Data Lake Query (database:" + query.getDatabase() + "): " + query.getCommand());
+    }
+
+    QueryResult result = influxDB.query(query);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Data Lake Query Result: " + result.toString());
+    }
+
+    List<DataSeries> series = new ArrayList<>();
+    if (hasResult(result)) {
+      result.getResults().get(0).getSeries().forEach(rs ->
+          series.add(new DataSeries(rs.getValues().size(), rs.getValues(), rs.getColumns(), rs.getTags())));
+    }
+    return series;
+  }
+
+  /**
+   * Executes the query with the chunked query API of InfluxDB and passes each row to the handler
+   * as soon as its chunk has been received.
+   */
+  @Override
+  public long executeQuery(Map<String, QueryParamsV4> params,
+                           boolean ignoreMissingValues,
+                           int chunkSize,
+                           QueryRowHandler handler) throws IOException {
+    final InfluxDB influxDB = InfluxClientProvider.getSharedInfluxDBClient();
+    Query query = makeQuery(params, false);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Chunked Data Lake Query (database:" + query.getDatabase() + "): " + query.getCommand());
+    }
+
+    CompletableFuture<Long> completed = new CompletableFuture<>();
+    long[] rowCount = new long[1];
+    // chunks are delivered one after another by the same thread, which blocks while rows are written
+    influxDB.query(query, chunkSize, (cancellable, chunk) -> {
+      if (completed.isDone()) {
+        cancellable.cancel();
+        return;
+      }
+      try {
+        if (chunk.getError() != null) {
+          throw new RuntimeException(chunk.getError());
+        }
+        rowCount[0] += handleChunk(chunk, ignoreMissingValues, handler);
+      } catch (IOException | RuntimeException e) {
+        cancellable.cancel();
+        completed.completeExceptionally(e);
+      }
+    }, () -> completed.complete(rowCount[0]), completed::completeExceptionally);
+
+    try {
+      return completed.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading query result", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private long handleChunk(QueryResult chunk,
+                           boolean ignoreMissingValues,
+                           QueryRowHandler handler) throws IOException {
+    long rows = 0;
+    if (chunk.getResults() == null) {
+      return rows;
+    }
+    for (QueryResult.Result result : chunk.getResults()) {
+      if (result.getError() != null) {
+        throw new RuntimeException(result.getError());
+      }
+      if (result.getSeries() != null) {
+        for (QueryResult.Series series : result.getSeries()) {
+          for (List<Object> row : series.getValues()) {
+            rows++;
+            if (!ignoreMissingValues || !row.contains(null)) {
+              handler.onRow(series.getColumns(), row);
+            }
+          }
+        }
+      }
+    }
+    return rows;
+  }
+
+  @Override
+  public long countResults(Map<String, QueryParamsV4> params) {
+    Query countQuery = makeQuery(params, true);
+    QueryResult countQueryResult = InfluxClientProvider.getSharedInfluxDBClient().query(countQuery);
+    QueryResult.Result result = countQueryResult.getResults().get(0);
+    if (result.getSeries() != null && result.getSeries().get(0).getValues() != null) {
+      return ((Number) result.getSeries().get(0).getValues().get(0).get(1)).longValue();
+    } else {
+      return 0;
+    }
+  }
+
+  @Override
+  public void deleteData(Map<String, QueryParamsV4> params) {
+    Query query = makeQuery(params, false);
+    QueryResult result = InfluxClientProvider.getSharedInfluxDBClient().query(query);
+    if (result.hasError()) {
+      LOG.error("Could not delete data: {}", result.getError());
+    }
+  }
+
+  @Override
+  public boolean dropMeasurement(String measureName) {
+    QueryResult queryResult = new DeleteDataQuery(new DataLakeMeasure(measureName, null)).executeQuery();
+    return !queryResult.hasError() && queryResult.getResults().get(0).getError() == null;
+  }
+
+  @Override
+  public Map<String, Object> getTagValues(String measureName,
+                                          List<String> tags) {
+    InfluxDB influxDB = InfluxClientProvider.getSharedInfluxDBClient();
+    String databaseName = getDatabaseName();
+    Map<String, Object> tagValues = new HashMap<>();
+    tags.forEach(f -> {
+      String q =
+          "SHOW TAG VALUES ON \"" + databaseName + "\" FROM \"" + measureName
+              + "\" WITH KEY = \"" + f + "\"";
+      Query query = new Query(q);
+      QueryResult queryResult = influxDB.query(query);
+      queryResult.getResults().forEach(res -> {
+        res.getSeries().forEach(series -> {
+          if (series.getValues().size() > 0) {
+            String field = series.getValues().get(0).get(0).toString();
+            List<String> values =
+                series.getValues().stream().map(v -> v.get(1).toString()).collect(Collectors.toList());
+            tagValues.put(field, values);
+          }
+        });
+      });
+    });
+    return tagValues;
+  }
+
+  private Query makeQuery(Map<String, QueryParamsV4> params,
+                          boolean countOnly) {
+    return QueryBuilder.create(getDatabaseName()).build(DataExplorerQueryV4.makeQueryElements(params), countOnly);
+  }
+
+  private boolean hasResult(QueryResult queryResult) {
+    return queryResult.getResults() != null
+        && queryResult.getResults().size() > 0
+        && queryResult.getResults().get(0).getSeries() != null;
+  }
+
+  private String getDatabaseName() {
+    return env.getTsStorageBucket().getValueOrDefault();
+  }
+}
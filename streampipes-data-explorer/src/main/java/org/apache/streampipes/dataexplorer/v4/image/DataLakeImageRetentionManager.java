@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.image;
+
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
+import org.apache.streampipes.dataexplorer.commons.image.FileSystemImageBlobStore;
+import org.apache.streampipes.dataexplorer.commons.image.ImageStore;
+import org.apache.streampipes.dataexplorer.commons.image.ImageStoreUtils;
+import org.apache.streampipes.dataexplorer.commons.influx.InfluxNameSanitizer;
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.query.DataExplorerQueryV4;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.storage.api.IDataLakeStorage;
+import org.apache.streampipes.storage.management.StorageDispatcher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
+
+/**
+ * Removes images of the file system image store which are no longer referenced by any event of
+ * the data lake. Since images are written before the events which reference them, only images
+ * which have not been written or referenced within the retention time are removed. The cleanup
+ * runs in the core service only, and only if a retention time is configured.
+ */
+public enum DataLakeImageRetentionManager {
+
+  INSTANCE;
+
+  private static final Logger LOG = LoggerFactory.getLogger(DataLakeImageRetentionManager.class);
+
+  private static final long CLEANUP_INTERVAL_MINUTES = 60;
+  private static final int CHUNK_SIZE = 10000;
+  private static final String TIME_FIELD = "time";
+
+  private ScheduledExecutorService scheduler;
+
+  public synchronized void start() {
+    Environment environment = Environments.getEnvironment();
+    int retentionDays = environment.getDataLakeImageRetentionDays().getValueOrDefault();
+    if (scheduler == null && retentionDays > 0 && ImageStore.isFileSystemStore(environment)) {
+      Path baseDir = FileSystemImageBlobStore.getBaseDir(environment);
+      long retentionMs = TimeUnit.DAYS.toMillis(retentionDays);
+      scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "image-retention");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.scheduleWithFixedDelay(() -> removeUnusedImages(baseDir, retentionMs),
+          CLEANUP_INTERVAL_MINUTES, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+  }
+
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  private void removeUnusedImages(Path baseDir,
+                                  long retentionMs) {
+    try {
+      // images written or referenced after the references have been collected are kept
+      long unusedSince = System.currentTimeMillis() - retentionMs;
+      Set<String> referencedImages = findReferencedImages();
+      int removedImages = FileSystemImageBlobStore.removeUnusedImages(
+          baseDir, imageId -> !referencedImages.contains(imageId), unusedSince);
+      if (removedImages > 0) {
+        LOG.info("Removed {} unused images", removedImages);
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.error("Could not remove unused images", e);
+    }
+  }
+
+  private Set<String> findReferencedImages() throws IOException {
+    Set<String> imageIds = new HashSet<>();
+    for (DataLakeMeasure measure : getDataLakeStorage().getAllDataLakeMeasures()) {
+      List<String> imageFields = ImageStoreUtils.getImageProperties(measure)
+          .stream()
+          .map(ep -> InfluxNameSanitizer.renameReservedKeywords(ep.getRuntimeName()))
+          .collect(Collectors.toList());
+      if (!imageFields.isEmpty()) {
+        Map<String, String> params = new HashMap<>();
+        params.put(QP_COLUMNS, String.join(",", imageFields));
+        var queryParts = DataLakeManagementUtils.getSelectQueryParams(
+            new ProvidedQueryParams(measure.getMeasureName(), params));
+        new DataExplorerQueryV4(queryParts).executeQuery(false, CHUNK_SIZE, (columns, row) -> {
+          for (int i = 0; i < row.size(); i++) {
+            if (row.get(i) != null && !TIME_FIELD.equals(columns.get(i))) {
+              imageIds.add(row.get(i).toString());
+            }
+          }
+        });
+      }
+    }
+    return imageIds;
+  }
+
+  private IDataLakeStorage getDataLakeStorage() {
+    return StorageDispatcher.INSTANCE.getNoSqlStore().getDataLakeStorage();
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.params;
+
+import org.apache.streampipes.dataexplorer.v4.downsampling.DownsamplingMode;
+
+public class DownsamplingParams extends QueryParamsV4 {
+
+  public static final int DEFAULT_MAX_POINTS = 1000;
+  private static final int MIN_POINTS = 2;
+
+  private final DownsamplingMode mode;
+  private final int maxPoints;
+
+  public DownsamplingParams(String measurementID,
+                            DownsamplingMode mode,
+                            int maxPoints) {
+    super(measurementID);
+    this.mode = mode;
+    this.maxPoints = maxPoints;
+  }
+
+  public static DownsamplingParams from(String measurementID,
+                                        String mode,
+                                        Integer maxPoints) {
+    int points = maxPoints != null ? maxPoints : DEFAULT_MAX_POINTS;
+    if (points < MIN_POINTS) {
+      throw new IllegalArgumentException("The number of downsampling points must be at least " + MIN_POINTS);
+    }
+    return new DownsamplingParams(measurementID, DownsamplingMode.fromName(mode), points);
+  }
+
+  public DownsamplingMode getMode() {
+    return mode;
+  }
+
+  public int getMaxPoints() {
+    return maxPoints;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.params;
+
+import java.util.List;
+
+/**
+ * Select statement which reads pre-aggregated rollup buckets instead of the raw events of a
+ * measurement. The sources are subqueries which return buckets of the same columns.
+ */
+public class RollupSelectFromStatementParams extends QueryParamsV4 {
+
+  private final List<String> columns;
+  private final List<String> sources;
+
+  public RollupSelectFromStatementParams(String measurementId,
+                                         List<String> columns,
+                                         List<String> sources) {
+    super(measurementId);
+    this.columns = columns;
+    this.sources = sources;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public List<String> getSources() {
+    return sources;
+  }
+}
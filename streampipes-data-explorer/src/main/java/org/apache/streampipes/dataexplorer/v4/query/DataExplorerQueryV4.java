@@ -18,10 +18,11 @@
 
 package org.apache.streampipes.dataexplorer.v4.query;
 
-import org.apache.streampipes.commons.environment.Environment;
-import org.apache.streampipes.commons.environment.Environments;
-import org.apache.streampipes.dataexplorer.commons.influx.InfluxClientProvider;
+import org.apache.streampipes.dataexplorer.v4.downsampling.SeriesDownsampler;
+import org.apache.streampipes.dataexplorer.v4.engine.DataLakeQueryEngine;
+import org.apache.streampipes.dataexplorer.v4.engine.DataLakeQueryEngines;
 import org.apache.streampipes.dataexplorer.v4.params.DeleteFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.params.DownsamplingParams;
 import org.apache.streampipes.dataexplorer.v4.params.FillParams;
 import org.apache.streampipes.dataexplorer.v4.params.GroupingByTagsParams;
 import org.apache.streampipes.dataexplorer.v4.params.GroupingByTimeParams;
@@ -29,6 +30,7 @@ import org.apache.streampipes.dataexplorer.v4.params.ItemLimitationParams;
 import org.apache.streampipes.dataexplorer.v4.params.OffsetParams;
 import org.apache.streampipes.dataexplorer.v4.params.OrderingByTimeParams;
 import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.params.RollupSelectFromStatementParams;
 import org.apache.streampipes.dataexplorer.v4.params.SelectFromStatementParams;
 import org.apache.streampipes.dataexplorer.v4.params.WhereStatementParams;
 import org.apache.streampipes.dataexplorer.v4.query.elements.DeleteFromStatement;
@@ -39,6 +41,7 @@ import org.apache.streampipes.dataexplorer.v4.query.elements.ItemLimitation;
 import org.apache.streampipes.dataexplorer.v4.query.elements.Offset;
 import org.apache.streampipes.dataexplorer.v4.query.elements.OrderingByTime;
 import org.apache.streampipes.dataexplorer.v4.query.elements.QueryElement;
+import org.apache.streampipes.dataexplorer.v4.query.elements.RollupSelectFromStatement;
 import org.apache.streampipes.dataexplorer.v4.query.elements.SelectFromStatement;
 import org.apache.streampipes.dataexplorer.v4.query.elements.WhereStatement;
 import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
@@ -46,20 +49,13 @@ import org.apache.streampipes.model.datalake.DataSeries;
 import org.apache.streampipes.model.datalake.SpQueryResult;
 import org.apache.streampipes.model.datalake.SpQueryStatus;
 
-import org.influxdb.InfluxDB;
-import org.influxdb.dto.Query;
-import org.influxdb.dto.QueryResult;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public class DataExplorerQueryV4 {
 
-  private static final Logger LOG = LoggerFactory.getLogger(DataExplorerQueryV4.class);
-
   protected Map<String, QueryParamsV4> params;
 
   protected int maximumAmountOfEvents;
@@ -67,7 +63,7 @@ public class DataExplorerQueryV4 {
   private boolean appendId = false;
   private String forId;
 
-  private Environment env;
+  private DataLakeQueryEngine engine;
 
   public DataExplorerQueryV4() {
 
@@ -82,7 +78,7 @@ public class DataExplorerQueryV4 {
 
   public DataExplorerQueryV4(Map<String, QueryParamsV4> params) {
     this.params = params;
-    this.env = Environments.getEnvironment();
+    this.engine = DataLakeQueryEngines.getEngine();
     this.maximumAmountOfEvents = -1;
   }
 
@@ -92,77 +88,67 @@ public class DataExplorerQueryV4 {
   }
 
   public SpQueryResult executeQuery(boolean ignoreMissingValues) throws RuntimeException {
-    try (final InfluxDB influxDB = InfluxClientProvider.getInfluxDBClient()) {
-      List<QueryElement<?>> queryElements = getQueryElements();
-
-      if (this.maximumAmountOfEvents != -1) {
-        QueryBuilder countQueryBuilder = QueryBuilder.create(getDatabaseName());
-        Query countQuery = countQueryBuilder.build(queryElements, true);
-        QueryResult countQueryResult = influxDB.query(countQuery);
-        Double amountOfQueryResults = getAmountOfResults(countQueryResult);
-
-        if (amountOfQueryResults > this.maximumAmountOfEvents) {
-          SpQueryResult tooMuchData = new SpQueryResult();
-          tooMuchData.setSpQueryStatus(SpQueryStatus.TOO_MUCH_DATA);
-          tooMuchData.setTotal(amountOfQueryResults.intValue());
-          return tooMuchData;
-        }
-      }
+    if (this.params.containsKey(DataLakeManagementUtils.DELETE_FROM)) {
+      engine.deleteData(this.params);
+      return postQuery(new ArrayList<>(), ignoreMissingValues);
+    }
 
-      QueryBuilder queryBuilder = QueryBuilder.create(getDatabaseName());
-      Query query = queryBuilder.build(queryElements, false);
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("Data Lake Query (database:" + query.getDatabase() + "): " + query.getCommand());
-      }
+    if (this.maximumAmountOfEvents != -1) {
+      long amountOfQueryResults = engine.countResults(this.params);
 
-      QueryResult result = influxDB.query(query);
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("Data Lake Query Result: " + result.toString());
+      if (amountOfQueryResults > this.maximumAmountOfEvents) {
+        SpQueryResult tooMuchData = new SpQueryResult();
+        tooMuchData.setSpQueryStatus(SpQueryStatus.TOO_MUCH_DATA);
+        tooMuchData.setTotal((int) amountOfQueryResults);
+        return tooMuchData;
       }
-
-      return postQuery(result, ignoreMissingValues);
     }
-  }
 
-  private double getAmountOfResults(QueryResult countQueryResult) {
-    if (countQueryResult.getResults().get(0).getSeries() != null
-        && countQueryResult.getResults().get(0).getSeries().get(0).getValues() != null) {
-      return (double) countQueryResult.getResults().get(0).getSeries().get(0).getValues().get(0).get(1);
-    } else {
-      return 0.0;
-    }
+    return postQuery(engine.executeQuery(this.params), ignoreMissingValues);
   }
 
+  /**
+   * Executes the query and passes each row to the handler as soon as it has been read from the
+   * storage engine, so that the result is never fully kept in memory.
+   *
+   * @return The number of rows returned by the query, including rows skipped due to missing values
+   */
+  public long executeQuery(boolean ignoreMissingValues,
+                           int chunkSize,
+                           QueryRowHandler handler) throws IOException {
+    return engine.executeQuery(this.params, ignoreMissingValues, chunkSize, handler);
+  }
 
-  protected DataSeries convertResult(QueryResult.Series series,
+  protected DataSeries convertResult(DataSeries series,
                                      boolean ignoreMissingValues) {
-    List<String> columns = series.getColumns();
-    List<List<Object>> values = series.getValues();
+    if (!ignoreMissingValues) {
+      return series;
+    }
 
     List<List<Object>> resultingValues = new ArrayList<>();
-
-    values.forEach(v -> {
-      if (ignoreMissingValues) {
-        if (!v.contains(null)) {
-          resultingValues.add(v);
-        }
-      } else {
+    series.getRows().forEach(v -> {
+      if (!v.contains(null)) {
         resultingValues.add(v);
       }
-
     });
 
-    return new DataSeries(values.size(), resultingValues, columns, series.getTags());
+    return new DataSeries(series.getTotal(), resultingValues, series.getHeaders(), series.getTags());
   }
 
-  protected SpQueryResult postQuery(QueryResult queryResult,
+  protected SpQueryResult postQuery(List<DataSeries> queryResult,
                                     boolean ignoreMissingValues) throws RuntimeException {
     SpQueryResult result = new SpQueryResult();
+    DownsamplingParams downsamplingParams = (DownsamplingParams) this.params.get(DataLakeManagementUtils.DOWNSAMPLING);
+    SeriesDownsampler downsampler = downsamplingParams != null ? downsamplingParams.getMode().makeDownsampler() : null;
 
-    if (hasResult(queryResult)) {
-      result.setTotal(queryResult.getResults().get(0).getSeries().size());
-      queryResult.getResults().get(0).getSeries().forEach(rs -> {
+    if (!queryResult.isEmpty()) {
+      result.setTotal(queryResult.size());
+      queryResult.forEach(rs -> {
         DataSeries series = convertResult(rs, ignoreMissingValues);
+        if (downsampler != null) {
+          series.setRows(downsampler.downsample(series.getHeaders(), series.getRows(),
+              downsamplingParams.getMaxPoints()));
+        }
         result.setHeaders(series.getHeaders());
         result.addDataResult(series);
       });
@@ -175,60 +161,61 @@ public class DataExplorerQueryV4 {
     return result;
   }
 
-  private boolean hasResult(QueryResult queryResult) {
-    return queryResult.getResults() != null
-        && queryResult.getResults().size() > 0
-        && queryResult.getResults().get(0).getSeries() != null;
+  protected List<QueryElement<?>> getQueryElements() {
+    return makeQueryElements(this.params);
   }
 
-  protected List<QueryElement<?>> getQueryElements() {
+  /**
+   * Translates the query parameters to the elements of an InfluxQL query.
+   */
+  public static List<QueryElement<?>> makeQueryElements(Map<String, QueryParamsV4> params) {
     List<QueryElement<?>> queryElements = new ArrayList<>();
 
-    if (this.params.containsKey(DataLakeManagementUtils.SELECT_FROM)) {
+    if (params.get(DataLakeManagementUtils.SELECT_FROM) instanceof RollupSelectFromStatementParams) {
+      queryElements.add(new RollupSelectFromStatement(
+          (RollupSelectFromStatementParams) params.get(DataLakeManagementUtils.SELECT_FROM)));
+    } else if (params.containsKey(DataLakeManagementUtils.SELECT_FROM)) {
       queryElements.add(
-          new SelectFromStatement((SelectFromStatementParams) this.params.get(DataLakeManagementUtils.SELECT_FROM)));
+          new SelectFromStatement((SelectFromStatementParams) params.get(DataLakeManagementUtils.SELECT_FROM)));
     } else {
       queryElements.add(
-          new DeleteFromStatement((DeleteFromStatementParams) this.params.get(DataLakeManagementUtils.DELETE_FROM)));
+          new DeleteFromStatement((DeleteFromStatementParams) params.get(DataLakeManagementUtils.DELETE_FROM)));
     }
 
-    if (this.params.containsKey(DataLakeManagementUtils.WHERE)) {
-      queryElements.add(new WhereStatement((WhereStatementParams) this.params.get(DataLakeManagementUtils.WHERE)));
+    if (params.containsKey(DataLakeManagementUtils.WHERE)) {
+      queryElements.add(new WhereStatement((WhereStatementParams) params.get(DataLakeManagementUtils.WHERE)));
     }
 
-    if (this.params.containsKey(DataLakeManagementUtils.GROUP_BY_TIME)) {
+    if (params.containsKey(DataLakeManagementUtils.GROUP_BY_TIME)) {
       queryElements.add(
-          new GroupingByTime((GroupingByTimeParams) this.params.get(DataLakeManagementUtils.GROUP_BY_TIME)));
+          new GroupingByTime((GroupingByTimeParams) params.get(DataLakeManagementUtils.GROUP_BY_TIME)));
 
-    } else if (this.params.containsKey(DataLakeManagementUtils.GROUP_BY_TAGS)) {
+    } else if (params.containsKey(DataLakeManagementUtils.GROUP_BY_TAGS)) {
       queryElements.add(
-          new GroupingByTags((GroupingByTagsParams) this.params.get(DataLakeManagementUtils.GROUP_BY_TAGS)));
+          new GroupingByTags((GroupingByTagsParams) params.get(DataLakeManagementUtils.GROUP_BY_TAGS)));
     }
 
-    if (this.params.containsKey(DataLakeManagementUtils.FILL)) {
-      queryElements.add(new FillStatement((FillParams) this.params.get(DataLakeManagementUtils.FILL)));
+    if (params.containsKey(DataLakeManagementUtils.FILL)) {
+      queryElements.add(new FillStatement((FillParams) params.get(DataLakeManagementUtils.FILL)));
     }
 
-    if (this.params.containsKey(DataLakeManagementUtils.ORDER_DESCENDING)) {
+    if (params.containsKey(DataLakeManagementUtils.ORDER_DESCENDING)) {
       queryElements.add(
-          new OrderingByTime((OrderingByTimeParams) this.params.get(DataLakeManagementUtils.ORDER_DESCENDING)));
-    } else if (this.params.containsKey(DataLakeManagementUtils.SELECT_FROM)) {
+          new OrderingByTime((OrderingByTimeParams) params.get(DataLakeManagementUtils.ORDER_DESCENDING)));
+    } else if (params.containsKey(DataLakeManagementUtils.SELECT_FROM)) {
       queryElements.add(new OrderingByTime(
-          OrderingByTimeParams.from(this.params.get(DataLakeManagementUtils.SELECT_FROM).getIndex(), "ASC")));
+          OrderingByTimeParams.from(params.get(DataLakeManagementUtils.SELECT_FROM).getIndex(), "ASC")));
     }
 
-    if (this.params.containsKey(DataLakeManagementUtils.LIMIT)) {
-      queryElements.add(new ItemLimitation((ItemLimitationParams) this.params.get(DataLakeManagementUtils.LIMIT)));
+    if (params.containsKey(DataLakeManagementUtils.LIMIT)) {
+      queryElements.add(new ItemLimitation((ItemLimitationParams) params.get(DataLakeManagementUtils.LIMIT)));
     }
 
-    if (this.params.containsKey(DataLakeManagementUtils.OFFSET)) {
-      queryElements.add(new Offset((OffsetParams) this.params.get(DataLakeManagementUtils.OFFSET)));
+    if (params.containsKey(DataLakeManagementUtils.OFFSET)) {
+      queryElements.add(new Offset((OffsetParams) params.get(DataLakeManagementUtils.OFFSET)));
     }
 
     return queryElements;
   }
 
-  private String getDatabaseName() {
-    return env.getTsStorageBucket().getValueOrDefault();
-  }
 }
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query;
+
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.model.datalake.SpQueryResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Executes data lake queries on a bounded thread pool. Identical queries which are in flight at the
+ * same time, either within one batch or across concurrent requests, are executed only once and
+ * share their result.
+ */
+public enum DataLakeQueryExecutor {
+
+  INSTANCE;
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private final ThreadPoolExecutor executor;
+  private final Map<QueryKey, CompletableFuture<SpQueryResult>> inFlightQueries;
+
+  DataLakeQueryExecutor() {
+    Environment env = Environments.getEnvironment();
+    int threads = Math.max(1, env.getDataLakeQueryThreads().getValueOrDefault());
+    int queueSize = Math.max(1, env.getDataLakeQueryQueueSize().getValueOrDefault());
+    AtomicInteger threadCount = new AtomicInteger();
+
+    // when the queue is full, the requesting thread runs the query itself instead of failing
+    this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize),
+        r -> {
+          Thread thread = new Thread(r, "data-lake-query-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    this.executor.allowCoreThreadTimeOut(true);
+    this.inFlightQueries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Executes all queries concurrently and returns their results in the order of the given queries.
+   */
+  public List<SpQueryResult> executeAll(List<ProvidedQueryParams> queryParams,
+                                        boolean ignoreMissingData) {
+    List<CompletableFuture<SpQueryResult>> results = new ArrayList<>(queryParams.size());
+    queryParams.forEach(params -> results.add(submit(params, ignoreMissingData)));
+
+    List<SpQueryResult> allResults = new ArrayList<>(results.size());
+    for (CompletableFuture<SpQueryResult> result : results) {
+      allResults.add(await(result));
+    }
+    return allResults;
+  }
+
+  public CompletableFuture<SpQueryResult> submit(ProvidedQueryParams queryParams,
+                                                 boolean ignoreMissingData) {
+    return submit(queryParams, ignoreMissingData,
+        (params, ignore) -> new QueryResultProvider(params, ignore).getData());
+  }
+
+  CompletableFuture<SpQueryResult> submit(ProvidedQueryParams queryParams,
+                                          boolean ignoreMissingData,
+                                          BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query) {
+    String forId = queryParams.getAsString(QueryResultProvider.FOR_ID_KEY);
+    QueryKey key = new QueryKey(queryParams, ignoreMissingData);
+    CompletableFuture<SpQueryResult> result = new CompletableFuture<>();
+    CompletableFuture<SpQueryResult> inFlightResult = inFlightQueries.putIfAbsent(key, result);
+
+    if (inFlightResult == null) {
+      inFlightResult = result;
+      executor.execute(() -> execute(key, result, query));
+    }
+
+    return inFlightResult.thenApply(r -> copyForWidget(r, forId));
+  }
+
+  private void execute(QueryKey key,
+                       CompletableFuture<SpQueryResult> result,
+                       BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query) {
+    try {
+      result.complete(query.apply(key.toQueryParams(), key.ignoreMissingData));
+    } catch (Throwable t) {
+      result.completeExceptionally(t);
+    } finally {
+      inFlightQueries.remove(key, result);
+    }
+  }
+
+  private SpQueryResult await(CompletableFuture<SpQueryResult> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SpRuntimeException("Interrupted while waiting for data lake query", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new SpRuntimeException(cause);
+    }
+  }
+
+  /**
+   * Results are shared between all requests of the same query, so each request receives its own
+   * copy which carries the widget id of the request. The data series themselves are not copied.
+   */
+  static SpQueryResult copyForWidget(SpQueryResult result,
+                                     String forId) {
+    List<String> headers = result.getHeaders() != null ? new ArrayList<>(result.getHeaders()) : null;
+    SpQueryResult copy = new SpQueryResult(result.getTotal(), headers, new ArrayList<>(result.getAllDataSeries()));
+    copy.setSourceIndex(result.getSourceIndex());
+    copy.setSpQueryStatus(result.getSpQueryStatus());
+    copy.setForId(forId);
+    return copy;
+  }
+
+  /**
+   * Identifies a query by an immutable snapshot of its parameters without the widget id, so that
+   * later changes to the parameters of a request cannot change the key of a query in flight.
+   */
+  private static final class QueryKey {
+
+    private final String measurementId;
+    private final Map<String, String> queryParams;
+    private final boolean ignoreMissingData;
+    private final int hashCode;
+
+    private QueryKey(ProvidedQueryParams queryParams,
+                     boolean ignoreMissingData) {
+      Map<String, String> params = new HashMap<>(queryParams.getProvidedParams());
+      params.remove(QueryResultProvider.FOR_ID_KEY);
+      this.measurementId = queryParams.getMeasurementId();
+      this.queryParams = Collections.unmodifiableMap(params);
+      this.ignoreMissingData = ignoreMissingData;
+      this.hashCode = Objects.hash(measurementId, this.queryParams, ignoreMissingData);
+    }
+
+    /**
+     * The query provider may rewrite its parameters, so each execution gets its own copy.
+     */
+    private ProvidedQueryParams toQueryParams() {
+      return new ProvidedQueryParams(measurementId, new HashMap<>(queryParams));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      QueryKey that = (QueryKey) o;
+      return ignoreMissingData == that.ignoreMissingData
+          && Objects.equals(measurementId, that.measurementId)
+          && queryParams.equals(that.queryParams);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query;
+
+import org.apache.streampipes.model.datalake.SpQueryResult;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cached query result. Results of queries with a fixed time range are stored as they were
+ * returned. Results of queries over an open time range store the unfiltered rows of all time
+ * buckets in {@code [settledFrom, settledUntil)} together with their parsed timestamps, so that only
+ * the buckets outside of this range need to be queried again. Each entry keeps the time at which
+ * its oldest data has been queried, so that it expires regardless of later incremental refreshes.
+ */
+class QueryCacheEntry {
+
+  private final String measurementId;
+  private final SpQueryResult result;
+  private final List<String> headers;
+  private final List<Series> series;
+  private final long settledFrom;
+  private final long settledUntil;
+  private final int rowCount;
+  private final long createdAt;
+
+  private QueryCacheEntry(String measurementId,
+                          SpQueryResult result,
+                          List<String> headers,
+                          List<Series> series,
+                          long settledFrom,
+                          long settledUntil,
+                          int rowCount,
+                          long createdAt) {
+    this.measurementId = measurementId;
+    this.result = result;
+    this.headers = headers;
+    this.series = series;
+    this.settledFrom = settledFrom;
+    this.settledUntil = settledUntil;
+    this.rowCount = rowCount;
+    this.createdAt = createdAt;
+  }
+
+  static QueryCacheEntry forFixedRange(String measurementId,
+                                       SpQueryResult result,
+                                       long createdAt) {
+    int rowCount = result.getAllDataSeries()
+        .stream()
+        .mapToInt(s -> s.getRows() != null ? s.getRows().size() : 0)
+        .sum();
+    return new QueryCacheEntry(measurementId, result, null, null, 0, 0, rowCount, createdAt);
+  }
+
+  static QueryCacheEntry forOpenRange(String measurementId,
+                                      List<String> headers,
+                                      List<Series> series,
+                                      long settledFrom,
+                                      long settledUntil,
+                                      long createdAt) {
+    int rowCount = series.stream().mapToInt(s -> s.getRows().size()).sum();
+    return new QueryCacheEntry(measurementId, null, headers, series, settledFrom, settledUntil, rowCount, createdAt);
+  }
+
+  String getMeasurementId() {
+    return measurementId;
+  }
+
+  SpQueryResult getResult() {
+    return result;
+  }
+
+  List<String> getHeaders() {
+    return headers;
+  }
+
+  List<Series> getSeries() {
+    return series;
+  }
+
+  long getSettledFrom() {
+    return settledFrom;
+  }
+
+  long getSettledUntil() {
+    return settledUntil;
+  }
+
+  int getRowCount() {
+    return rowCount;
+  }
+
+  long getCreatedAt() {
+    return createdAt;
+  }
+
+  static class Series {
+
+    private final Map<String, String> tags;
+    private final List<List<Object>> rows;
+    private final long[] times;
+
+    Series(Map<String, String> tags,
+           List<List<Object>> rows,
+           long[] times) {
+      this.tags = tags;
+      this.rows = rows;
+      this.times = times;
+    }
+
+    Map<String, String> getTags() {
+      return tags;
+    }
+
+    List<List<Object>> getRows() {
+      return rows;
+    }
+
+    long[] getTimes() {
+      return times;
+    }
+  }
+}
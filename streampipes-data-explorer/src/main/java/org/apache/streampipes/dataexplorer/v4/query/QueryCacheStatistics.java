@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query;
+
+public class QueryCacheStatistics {
+
+  private long hits;
+  private long partialHits;
+  private long misses;
+  private long uncachedQueries;
+  private long evictions;
+  private long invalidations;
+  private int entries;
+  private long rows;
+  private long maxRows;
+
+  public QueryCacheStatistics() {
+  }
+
+  public QueryCacheStatistics(long hits,
+                              long partialHits,
+                              long misses,
+                              long uncachedQueries,
+                              long evictions,
+                              long invalidations,
+                              int entries,
+                              long rows,
+                              long maxRows) {
+    this.hits = hits;
+    this.partialHits = partialHits;
+    this.misses = misses;
+    this.uncachedQueries = uncachedQueries;
+    this.evictions = evictions;
+    this.invalidations = invalidations;
+    this.entries = entries;
+    this.rows = rows;
+    this.maxRows = maxRows;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getPartialHits() {
+    return partialHits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public long getUncachedQueries() {
+    return uncachedQueries;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public long getInvalidations() {
+    return invalidations;
+  }
+
+  public int getEntries() {
+    return entries;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getMaxRows() {
+    return maxRows;
+  }
+}
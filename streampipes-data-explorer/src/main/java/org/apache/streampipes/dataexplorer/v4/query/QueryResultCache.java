@@ -0,0 +1,539 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query;
+
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
+import org.apache.streampipes.model.datalake.DataSeries;
+import org.apache.streampipes.model.datalake.SpQueryResult;
+import org.apache.streampipes.model.datalake.SpQueryStatus;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING_POINTS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_LIMIT;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_MAXIMUM_AMOUNT_OF_EVENTS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_OFFSET;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_ORDER;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_PAGE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_START_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
+
+/**
+ * Caches data lake query results, keyed by the InfluxQL statement which is built from the query
+ * parameters, with a least-recently-used eviction bounded by the total number of cached rows.
+ *
+ * <p>Results of queries whose time range ended before the settle time are final and are reused
+ * until they are evicted or the measurement is modified. Queries over an open time range, e.g.,
+ * "last 15 minutes", are cached independent of their time range and split into time buckets
+ * (single milliseconds for queries without time grouping): settled buckets are taken from the
+ * cache, only the partial first bucket and the buckets after the last settled one are queried.
+ *
+ * <p>Events are written by the extensions services, so the cache is not notified about events
+ * which arrive after their time range has settled. Entries therefore expire after a fixed time to
+ * live, which bounds how long such late events are missing from cached results.
+ */
+public enum QueryResultCache {
+
+  INSTANCE;
+
+  private static final String TIME_FIELD = "time";
+  private static final String FIXED_RANGE_KEY = "fixed:";
+  private static final String OPEN_RANGE_KEY = "open:";
+  private static final Pattern DURATION_PART = Pattern.compile("(\\d+)(ns|us|u|\u00b5|ms|s|m|h|d|w)");
+
+  // a single result may occupy at most this fraction of the cache
+  private static final int MAX_ENTRY_FRACTION = 4;
+
+  private final long maxRows;
+  private final long settleMs;
+  private final long ttlMs;
+  private final LinkedHashMap<String, QueryCacheEntry> entries;
+  private final AtomicLong generation;
+  private long cachedRows;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder partialHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder uncachedQueries = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  QueryResultCache() {
+    Environment env = Environments.getEnvironment();
+    this.maxRows = env.getDataLakeCacheMaxRows().getValueOrDefault();
+    this.settleMs = Math.max(0, env.getDataLakeCacheSettleMs().getValueOrDefault());
+    this.ttlMs = env.getDataLakeCacheTtlSeconds().getValueOrDefault() * 1000L;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.generation = new AtomicLong();
+  }
+
+  /**
+   * Returns the result of the given query, either from the cache or by (partially) executing it
+   * with the given query function. The returned result is never shared with other callers.
+   */
+  public SpQueryResult getData(ProvidedQueryParams queryParams,
+                               boolean ignoreMissingData,
+                               BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query) {
+    if (maxRows <= 0) {
+      return query.apply(queryParams, ignoreMissingData);
+    }
+
+    long now = System.currentTimeMillis();
+    Long startDate = queryParams.getAsLong(QP_START_DATE);
+    Long endDate = queryParams.getAsLong(QP_END_DATE);
+
+    if (endDate != null && endDate <= now - settleMs) {
+      return getFixedRangeData(queryParams, ignoreMissingData, query, now);
+    }
+
+    long bucketWidth = getBucketWidth(queryParams);
+    if (startDate != null && bucketWidth > 0) {
+      try {
+        return getOpenRangeData(queryParams, ignoreMissingData, query, startDate, endDate, bucketWidth, now);
+      } catch (NotCacheableException e) {
+        // fall through and execute the query as requested
+      }
+    }
+
+    uncachedQueries.increment();
+    return query.apply(queryParams, ignoreMissingData);
+  }
+
+  /**
+   * Removes all results of the given measurement, e.g., after data has been deleted.
+   */
+  public void invalidate(String measurementId) {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      Iterator<QueryCacheEntry> iterator = entries.values().iterator();
+      while (iterator.hasNext()) {
+        QueryCacheEntry entry = iterator.next();
+        if (entry.getMeasurementId().equals(measurementId)) {
+          iterator.remove();
+          cachedRows -= entry.getRowCount();
+          invalidations.increment();
+        }
+      }
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      invalidations.add(entries.size());
+      entries.clear();
+      cachedRows = 0;
+    }
+  }
+
+  public QueryCacheStatistics getStatistics() {
+    synchronized (entries) {
+      return new QueryCacheStatistics(hits.sum(), partialHits.sum(), misses.sum(), uncachedQueries.sum(),
+          evictions.sum(), invalidations.sum(), entries.size(), cachedRows, maxRows);
+    }
+  }
+
+  private SpQueryResult getFixedRangeData(ProvidedQueryParams queryParams,
+                                          boolean ignoreMissingData,
+                                          BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query,
+                                          long now) {
+    String key = FIXED_RANGE_KEY + ignoreMissingData + ":" + queryParams.getAsString(QP_MAXIMUM_AMOUNT_OF_EVENTS)
+        + ":" + queryParams.getAsString(QP_DOWNSAMPLING) + ":" + queryParams.getAsString(QP_DOWNSAMPLING_POINTS)
+        + ":" + toStatement(queryParams);
+    QueryCacheEntry entry = get(key, now);
+    if (entry != null) {
+      hits.increment();
+      return copy(entry.getResult());
+    }
+
+    misses.increment();
+    long expectedGeneration = generation.get();
+    SpQueryResult result = query.apply(new ProvidedQueryParams(queryParams), ignoreMissingData);
+    if (result.getSpQueryStatus() == SpQueryStatus.OK) {
+      put(key, QueryCacheEntry.forFixedRange(queryParams.getMeasurementId(), result, now), expectedGeneration);
+    }
+    return copy(result);
+  }
+
+  private SpQueryResult getOpenRangeData(ProvidedQueryParams queryParams,
+                                         boolean ignoreMissingData,
+                                         BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query,
+                                         long startDate,
+                                         Long endDate,
+                                         long bucketWidth,
+                                         long now) {
+    String key = OPEN_RANGE_KEY + toStatement(withTimeRange(queryParams, null, null));
+    long expectedGeneration = generation.get();
+    QueryCacheEntry entry = get(key, now);
+
+    // the first bucket only contains the events after the start date, so it is never cached
+    long firstFullBucket = align(startDate, bucketWidth) + bucketWidth;
+    long settledUntil = align(Math.min(endDate != null ? endDate : Long.MAX_VALUE, now - settleMs), bucketWidth);
+    boolean reuseEntry = entry != null
+        && entry.getSettledFrom() <= firstFullBucket
+        && firstFullBucket <= entry.getSettledUntil()
+        && (endDate == null || endDate > firstFullBucket);
+
+    MergedResult merged = new MergedResult(bucketWidth);
+    if (reuseEntry) {
+      long cachedUntil = Math.min(entry.getSettledUntil(),
+          endDate != null ? align(endDate, bucketWidth) : Long.MAX_VALUE);
+      if (bucketWidth > 1) {
+        merged.add(executeRaw(query, queryParams, startDate, firstFullBucket), Long.MIN_VALUE, firstFullBucket);
+      }
+      merged.addCached(entry, firstFullBucket, cachedUntil);
+      if (endDate == null || endDate > cachedUntil) {
+        // the query excludes its start date, so the last settled bucket ends one millisecond later
+        merged.add(executeRaw(query, queryParams, cachedUntil - 1, endDate), cachedUntil, Long.MAX_VALUE);
+      }
+    } else {
+      merged.add(executeRaw(query, queryParams, startDate, endDate), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    if (settledUntil > firstFullBucket) {
+      // the reused buckets are as old as the cached entry
+      long createdAt = reuseEntry ? entry.getCreatedAt() : now;
+      put(key, QueryCacheEntry.forOpenRange(queryParams.getMeasurementId(), merged.headers,
+          merged.getSettledSeries(firstFullBucket, settledUntil), firstFullBucket, settledUntil, createdAt),
+          expectedGeneration);
+    }
+
+    if (reuseEntry) {
+      partialHits.increment();
+    } else {
+      misses.increment();
+    }
+    return merged.toResult(ignoreMissingData);
+  }
+
+  private SpQueryResult executeRaw(BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query,
+                                   ProvidedQueryParams queryParams,
+                                   Long startDate,
+                                   Long endDate) {
+    // missing values are filtered when the result is assembled, so cached rows serve both modes
+    SpQueryResult result = query.apply(withTimeRange(queryParams, startDate, endDate), false);
+    if (result.getSpQueryStatus() != SpQueryStatus.OK) {
+      throw new NotCacheableException();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the width of the time buckets in milliseconds by which the result of an open-ended
+   * query can be assembled, or -1 if the result cannot be split by time.
+   */
+  private long getBucketWidth(ProvidedQueryParams queryParams) {
+    if (queryParams.has(QP_LIMIT)
+        || queryParams.has(QP_OFFSET)
+        || queryParams.has(QP_PAGE)
+        || queryParams.has(QP_MAXIMUM_AMOUNT_OF_EVENTS)
+        // downsampled rows depend on the whole result and cannot be assembled from buckets
+        || queryParams.has(QP_DOWNSAMPLING)
+        || queryParams.getAsBoolean(QP_COUNT_ONLY)
+        || DataLakeManagementUtils.ORDER_DESCENDING.equals(queryParams.getAsString(QP_ORDER))) {
+      return -1;
+    }
+
+    if (queryParams.has(QP_TIME_INTERVAL)) {
+      return parseDuration(queryParams.getAsString(QP_TIME_INTERVAL));
+    }
+
+    // aggregations without grouping by time are computed over the whole time range
+    String columns = queryParams.getAsString(QP_COLUMNS);
+    boolean aggregated = queryParams.has(QP_AGGREGATION_FUNCTION) || (columns != null && columns.contains(";"));
+    return aggregated ? -1 : 1;
+  }
+
+  /**
+   * Parses a duration in the format of InfluxDB to milliseconds.
+   *
+   * @return The duration, or -1 if it is invalid or not a multiple of one millisecond
+   */
+  static long parseDuration(String duration) {
+    Matcher matcher = DURATION_PART.matcher(duration);
+    long durationMs = 0;
+    int position = 0;
+    while (matcher.find() && matcher.start() == position) {
+      long value = Long.parseLong(matcher.group(1));
+      switch (matcher.group(2)) {
+        case "ms":
+          durationMs += value;
+          break;
+        case "s":
+          durationMs += value * 1000;
+          break;
+        case "m":
+          durationMs += value * 60 * 1000;
+          break;
+        case "h":
+          durationMs += value * 60 * 60 * 1000;
+          break;
+        case "d":
+          durationMs += value * 24 * 60 * 60 * 1000;
+          break;
+        case "w":
+          durationMs += value * 7 * 24 * 60 * 60 * 1000;
+          break;
+        default:
+          // buckets below one millisecond cannot be aligned to the time range of the query
+          return -1;
+      }
+      position = matcher.end();
+    }
+    return position == duration.length() && durationMs > 0 ? durationMs : -1;
+  }
+
+  private String toStatement(ProvidedQueryParams queryParams) {
+    var queryParts = DataLakeManagementUtils.getSelectQueryParams(new ProvidedQueryParams(queryParams));
+    var queryElements = new DataExplorerQueryV4(queryParts).getQueryElements();
+    return QueryBuilder.create("").build(queryElements, false).getCommand();
+  }
+
+  private ProvidedQueryParams withTimeRange(ProvidedQueryParams queryParams,
+                                            Long startDate,
+                                            Long endDate) {
+    ProvidedQueryParams params = new ProvidedQueryParams(queryParams);
+    params.remove(QP_START_DATE);
+    params.remove(QP_END_DATE);
+    if (startDate != null) {
+      params.update(QP_START_DATE, String.valueOf(startDate));
+    }
+    if (endDate != null) {
+      params.update(QP_END_DATE, String.valueOf(endDate));
+    }
+    return params;
+  }
+
+  private static long align(long timestamp,
+                            long bucketWidth) {
+    return Math.floorDiv(timestamp, bucketWidth) * bucketWidth;
+  }
+
+  private QueryCacheEntry get(String key,
+                              long now) {
+    synchronized (entries) {
+      QueryCacheEntry entry = entries.get(key);
+      if (entry != null && ttlMs > 0 && now - entry.getCreatedAt() >= ttlMs) {
+        entries.remove(key);
+        cachedRows -= entry.getRowCount();
+        invalidations.increment();
+        return null;
+      }
+      return entry;
+    }
+  }
+
+  private void put(String key,
+                   QueryCacheEntry entry,
+                   long expectedGeneration) {
+    if (entry.getRowCount() > maxRows / MAX_ENTRY_FRACTION) {
+      return;
+    }
+
+    synchronized (entries) {
+      // the measurement was modified while the query was running
+      if (generation.get() != expectedGeneration) {
+        return;
+      }
+
+      QueryCacheEntry previous = entries.put(key, entry);
+      if (previous != null) {
+        cachedRows -= previous.getRowCount();
+      }
+      cachedRows += entry.getRowCount();
+
+      Iterator<QueryCacheEntry> eldest = entries.values().iterator();
+      while (cachedRows > maxRows && eldest.hasNext()) {
+        cachedRows -= eldest.next().getRowCount();
+        eldest.remove();
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * Copies the result down to its rows, so that callers may modify it without affecting the cache.
+   */
+  static SpQueryResult copy(SpQueryResult result) {
+    List<DataSeries> series = new ArrayList<>(result.getAllDataSeries().size());
+    for (DataSeries s : result.getAllDataSeries()) {
+      series.add(new DataSeries(s.getTotal(), copyRows(s.getRows()), copyList(s.getHeaders()),
+          s.getTags() != null ? new LinkedHashMap<>(s.getTags()) : null));
+    }
+    SpQueryResult copy = new SpQueryResult(result.getTotal(), copyList(result.getHeaders()), series);
+    copy.setSourceIndex(result.getSourceIndex());
+    copy.setSpQueryStatus(result.getSpQueryStatus());
+    copy.setForId(result.getForId());
+    return copy;
+  }
+
+  private static List<List<Object>> copyRows(List<List<Object>> rows) {
+    if (rows == null) {
+      return null;
+    }
+    List<List<Object>> copy = new ArrayList<>(rows.size());
+    rows.forEach(row -> copy.add(copyList(row)));
+    return copy;
+  }
+
+  private static <T> List<T> copyList(List<T> list) {
+    return list != null ? new ArrayList<>(list) : null;
+  }
+
+  /**
+   * Rows of a result assembled from several queries and cached buckets, grouped by series.
+   */
+  static class MergedResult {
+
+    private final long bucketWidth;
+    private final Map<Map<String, String>, List<List<Object>>> rows = new LinkedHashMap<>();
+    private final Map<Map<String, String>, List<Long>> times = new LinkedHashMap<>();
+    private List<String> headers;
+
+    MergedResult(long bucketWidth) {
+      this.bucketWidth = bucketWidth;
+    }
+
+    void add(SpQueryResult result,
+             long from,
+             long until) {
+      for (DataSeries series : result.getAllDataSeries()) {
+        int timeIndex = checkHeaders(series.getHeaders());
+        for (List<Object> row : series.getRows()) {
+          long time = parseTime(row.get(timeIndex));
+          if (time >= from && time < until) {
+            add(series.getTags(), row, time);
+          }
+        }
+      }
+    }
+
+    void addCached(QueryCacheEntry entry,
+                   long from,
+                   long until) {
+      if (entry.getHeaders() != null) {
+        checkHeaders(entry.getHeaders());
+      }
+      for (QueryCacheEntry.Series series : entry.getSeries()) {
+        long[] seriesTimes = series.getTimes();
+        for (int i = 0; i < seriesTimes.length; i++) {
+          if (seriesTimes[i] >= from && seriesTimes[i] + bucketWidth <= until) {
+            add(series.getTags(), series.getRows().get(i), seriesTimes[i]);
+          }
+        }
+      }
+    }
+
+    List<QueryCacheEntry.Series> getSettledSeries(long from,
+                                                  long until) {
+      List<QueryCacheEntry.Series> settledSeries = new ArrayList<>();
+      rows.forEach((tags, seriesRows) -> {
+        List<Long> seriesTimes = times.get(tags);
+        List<List<Object>> settledRows = new ArrayList<>();
+        List<Long> settledTimes = new ArrayList<>();
+        for (int i = 0; i < seriesRows.size(); i++) {
+          long time = seriesTimes.get(i);
+          if (time >= from && time + bucketWidth <= until) {
+            settledRows.add(seriesRows.get(i));
+            settledTimes.add(time);
+          }
+        }
+        if (!settledRows.isEmpty()) {
+          settledSeries.add(new QueryCacheEntry.Series(tags, settledRows,
+              settledTimes.stream().mapToLong(Long::longValue).toArray()));
+        }
+      });
+      return settledSeries;
+    }
+
+    SpQueryResult toResult(boolean ignoreMissingData) {
+      SpQueryResult result = new SpQueryResult();
+      rows.forEach((tags, seriesRows) -> {
+        List<List<Object>> resultingRows = new ArrayList<>(seriesRows.size());
+        seriesRows.forEach(row -> {
+          if (!ignoreMissingData || !row.contains(null)) {
+            // rows of cached buckets must not be modified through the result
+            resultingRows.add(new ArrayList<>(row));
+          }
+        });
+        result.setHeaders(new ArrayList<>(headers));
+        result.addDataResult(new DataSeries(seriesRows.size(), resultingRows, new ArrayList<>(headers),
+            tags != null ? new LinkedHashMap<>(tags) : null));
+      });
+      result.setTotal(rows.size());
+      return result;
+    }
+
+    private void add(Map<String, String> tags,
+                     List<Object> row,
+                     long time) {
+      rows.computeIfAbsent(tags, t -> new ArrayList<>()).add(row);
+      times.computeIfAbsent(tags, t -> new ArrayList<>()).add(time);
+    }
+
+    private int checkHeaders(List<String> seriesHeaders) {
+      if (headers == null) {
+        headers = seriesHeaders;
+      } else if (!headers.equals(seriesHeaders)) {
+        // e.g., a new column was added to the measurement since the entry was cached
+        throw new NotCacheableException();
+      }
+      int timeIndex = headers.indexOf(TIME_FIELD);
+      if (timeIndex < 0) {
+        throw new NotCacheableException();
+      }
+      return timeIndex;
+    }
+
+    private long parseTime(Object time) {
+      try {
+        if (time instanceof Number) {
+          return ((Number) time).longValue();
+        } else if (time instanceof String) {
+          return Instant.parse((String) time).toEpochMilli();
+        }
+      } catch (DateTimeParseException e) {
+        // handled below
+      }
+      throw new NotCacheableException();
+    }
+  }
+
+  static class NotCacheableException extends RuntimeException {
+  }
+}
@@ -18,45 +18,118 @@
 
 package org.apache.streampipes.dataexplorer.v4.query;
 
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatistics;
 import org.apache.streampipes.dataexplorer.v4.AutoAggregationHandler;
 import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
 import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.rollup.RollupQueryPlanner;
 import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
 import org.apache.streampipes.model.datalake.SpQueryResult;
+import org.apache.streampipes.model.datalake.SpQueryStatus;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AUTO_AGGREGATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_GROUP_BY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_LIMIT;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_MAXIMUM_AMOUNT_OF_EVENTS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_OFFSET;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_PAGE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_START_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
 
 public class QueryResultProvider {
 
   public static final String FOR_ID_KEY = "forId";
+
+  // estimates within this tolerance of the maximum amount of events are verified by a count query
+  private static final double ESTIMATE_TOLERANCE = 0.1;
+
+  // parameters which change the number of returned rows compared to the number of stored events
+  private static final List<String> ROW_CHANGING_PARAMS = Arrays.asList(
+      QP_AGGREGATION_FUNCTION,
+      QP_TIME_INTERVAL,
+      QP_GROUP_BY,
+      QP_LIMIT,
+      QP_OFFSET,
+      QP_PAGE,
+      QP_COUNT_ONLY
+  );
+
   protected final boolean ignoreMissingData;
   protected ProvidedQueryParams queryParams;
+  private final boolean useCache;
 
   public QueryResultProvider(ProvidedQueryParams queryParams,
                              boolean ignoreMissingData) {
+    this(queryParams, ignoreMissingData, true);
+  }
+
+  protected QueryResultProvider(ProvidedQueryParams queryParams,
+                                boolean ignoreMissingData,
+                                boolean useCache) {
     this.queryParams = queryParams;
     this.ignoreMissingData = ignoreMissingData;
+    this.useCache = useCache;
   }
 
   public SpQueryResult getData() {
     if (queryParams.has(QP_AUTO_AGGREGATE)) {
       queryParams = new AutoAggregationHandler(queryParams).makeAutoAggregationQueryParams();
     }
-    Map<String, QueryParamsV4> queryParts = DataLakeManagementUtils.getSelectQueryParams(queryParams);
 
-    if (queryParams.getProvidedParams().containsKey(QP_MAXIMUM_AMOUNT_OF_EVENTS)) {
-      int maximumAmountOfEvents = Integer.parseInt(queryParams.getProvidedParams().get(QP_MAXIMUM_AMOUNT_OF_EVENTS));
-      return new DataExplorerQueryV4(queryParts, maximumAmountOfEvents).executeQuery(ignoreMissingData);
+    SpQueryResult result = useCache
+        ? QueryResultCache.INSTANCE.getData(queryParams, ignoreMissingData, QueryResultProvider::executeQuery)
+        : executeQuery(queryParams, ignoreMissingData);
+
+    if (queryParams.has(FOR_ID_KEY)) {
+      result.setForId(queryParams.getAsString(FOR_ID_KEY));
     }
+    return result;
+  }
+
+  static SpQueryResult executeQuery(ProvidedQueryParams queryParams,
+                                    boolean ignoreMissingData) {
+    Map<String, QueryParamsV4> queryParts = new RollupQueryPlanner().plan(queryParams)
+        .orElseGet(() -> DataLakeManagementUtils.getSelectQueryParams(queryParams));
 
-    if (queryParams.getProvidedParams().containsKey(FOR_ID_KEY)) {
-      String forWidgetId = queryParams.getProvidedParams().get(FOR_ID_KEY);
-      return new DataExplorerQueryV4(queryParts, forWidgetId).executeQuery(ignoreMissingData);
+    if (queryParams.has(QP_MAXIMUM_AMOUNT_OF_EVENTS)) {
+      int maximumAmountOfEvents = queryParams.getAsInt(QP_MAXIMUM_AMOUNT_OF_EVENTS);
+      Optional<Long> estimatedCount = estimateCount(queryParams);
+
+      if (estimatedCount.isPresent()) {
+        long count = estimatedCount.get();
+        if (count > maximumAmountOfEvents * (1 + ESTIMATE_TOLERANCE)) {
+          SpQueryResult tooMuchData = new SpQueryResult();
+          tooMuchData.setSpQueryStatus(SpQueryStatus.TOO_MUCH_DATA);
+          tooMuchData.setTotal((int) Math.min(count, Integer.MAX_VALUE));
+          return tooMuchData;
+        } else if (count < maximumAmountOfEvents * (1 - ESTIMATE_TOLERANCE)) {
+          return new DataExplorerQueryV4(queryParts).executeQuery(ignoreMissingData);
+        }
+      }
+      return new DataExplorerQueryV4(queryParts, maximumAmountOfEvents).executeQuery(ignoreMissingData);
     } else {
       return new DataExplorerQueryV4(queryParts).executeQuery(ignoreMissingData);
     }
   }
+
+  /**
+   * Estimates the number of returned rows from the statistics of the measurement, so that the
+   * count query can be skipped if the result is clearly below or above the maximum amount of events.
+   */
+  private static Optional<Long> estimateCount(ProvidedQueryParams queryParams) {
+    if (ROW_CHANGING_PARAMS.stream().anyMatch(queryParams::has)) {
+      return Optional.empty();
+    }
+    return AutoAggregationHandler.getStatistics(queryParams)
+        .map(statistics -> MeasureStatistics.estimateCount(statistics,
+            queryParams.getAsLong(QP_START_DATE), queryParams.getAsLong(QP_END_DATE)));
+  }
 }
@@ -21,44 +21,226 @@ package org.apache.streampipes.dataexplorer.v4.query;
 import org.apache.streampipes.dataexplorer.utils.DataExplorerUtils;
 import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
 import org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters;
+import org.apache.streampipes.dataexplorer.v4.params.OffsetParams;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.params.WhereCondition;
+import org.apache.streampipes.dataexplorer.v4.params.WhereStatementParams;
 import org.apache.streampipes.dataexplorer.v4.query.writer.ConfiguredOutputWriter;
 import org.apache.streampipes.dataexplorer.v4.query.writer.OutputFormat;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
 import org.apache.streampipes.model.datalake.DataLakeMeasure;
 import org.apache.streampipes.model.datalake.SpQueryResult;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_GROUP_BY;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_LIMIT;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_OFFSET;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_ORDER;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_PAGE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
 
 public class StreamedQueryResultProvider extends QueryResultProvider {
 
   private static final int MAX_RESULTS_PER_QUERY = 500000;
+  private static final int CHUNK_SIZE = 10000;
   private static final String TIME_FIELD = "time";
 
   private final OutputFormat format;
 
+  private boolean isFirstDataItem;
+  private Long cursor;
+  private int rowsAtCursor;
+  private long writtenRows;
+
   public StreamedQueryResultProvider(ProvidedQueryParams params,
                                      OutputFormat format,
                                      boolean ignoreMissingValues) {
-    super(params, ignoreMissingValues);
+    // exports read large, mostly one-off pages which would only displace cached dashboard queries
+    super(params, ignoreMissingValues, false);
     this.format = format;
   }
 
   public void getDataAsStream(OutputStream outputStream) throws IOException {
-    var usesLimit = queryParams.has(QP_LIMIT);
+    var measurement = findByMeasurementName(queryParams.getMeasurementId()).get();
     var configuredWriter = ConfiguredOutputWriter
-        .getConfiguredWriter(format, queryParams, ignoreMissingData);
+        .getConfiguredWriter(format, measurement, queryParams, ignoreMissingData);
+
+    configuredWriter.beforeFirstItem(outputStream);
+    writeData(configuredWriter, measurement, outputStream);
+    configuredWriter.afterLastItem(outputStream);
+  }
+
+  protected void writeData(ConfiguredOutputWriter configuredWriter,
+                           DataLakeMeasure measurement,
+                           OutputStream outputStream) throws IOException {
+    isFirstDataItem = true;
+    if (isRawQuery()) {
+      writeRawData(configuredWriter, measurement, outputStream);
+    } else if (queryParams.has(QP_DOWNSAMPLING)) {
+      writeDownsampledData(configuredWriter, measurement, outputStream);
+    } else {
+      writeAggregatedData(configuredWriter, measurement, outputStream);
+    }
+  }
+
+  /**
+   * Pages through the raw events by their timestamp instead of an offset, so that InfluxDB does not
+   * need to skip all previously exported events for every page. Each page is read in chunks and
+   * written as it arrives. Events which share the timestamp of the last exported event are skipped
+   * with a small offset, which only spans these events.
+   *
+   * <p>Rows with missing values are filtered here instead of in the query engine, so that the
+   * cursor also moves past rows which are not written and only written rows count towards the
+   * limit.</p>
+   */
+  protected void writeRawData(ConfiguredOutputWriter configuredWriter,
+                              DataLakeMeasure measurement,
+                              OutputStream outputStream) throws IOException {
+    long remaining = queryParams.has(QP_LIMIT) ? queryParams.getAsInt(QP_LIMIT) : Long.MAX_VALUE;
+    boolean descending = queryParams.has(QP_ORDER)
+        && DataLakeManagementUtils.ORDER_DESCENDING.equals(queryParams.getAsString(QP_ORDER));
+    int offset = getInitialOffset();
+    List<String> columns = new ArrayList<>();
+    long pageSize;
+    long returnedRows;
+
+    cursor = null;
+    rowsAtCursor = 0;
+    do {
+      pageSize = Math.min(remaining, getMaxResultsPerQuery());
+      var queryParts = makePageQueryParts((int) pageSize, offset, descending);
+      writtenRows = 0;
+      returnedRows = executePage(queryParts,
+          (resultColumns, row) -> writeRow(configuredWriter, measurement, outputStream, columns, resultColumns, row));
+      remaining -= writtenRows;
+      offset = rowsAtCursor;
+    } while (returnedRows == pageSize && remaining > 0 && cursor != null);
+  }
+
+  protected int getMaxResultsPerQuery() {
+    return MAX_RESULTS_PER_QUERY;
+  }
+
+  /**
+   * Executes the query of a single page and passes all returned rows, including those with
+   * missing values, to the handler.
+   *
+   * @return The number of rows returned by the query
+   */
+  protected long executePage(Map<String, QueryParamsV4> queryParts,
+                             QueryRowHandler handler) throws IOException {
+    return new DataExplorerQueryV4(queryParts).executeQuery(false, CHUNK_SIZE, handler);
+  }
+
+  private void writeRow(ConfiguredOutputWriter configuredWriter,
+                        DataLakeMeasure measurement,
+                        OutputStream outputStream,
+                        List<String> columns,
+                        List<String> resultColumns,
+                        List<Object> row) throws IOException {
+    if (columns.isEmpty()) {
+      columns.addAll(resultColumns);
+      var timeFieldIndex = columns.indexOf(TIME_FIELD);
+      if (timeFieldIndex > -1) {
+        columns.set(timeFieldIndex, measurement.getTimestampFieldName());
+      }
+    }
+
+    var timeFieldIndex = resultColumns.indexOf(TIME_FIELD);
+    if (timeFieldIndex > -1) {
+      long timestamp = toEpochNanos(row.get(timeFieldIndex));
+      if (cursor != null && cursor == timestamp) {
+        rowsAtCursor++;
+      } else {
+        cursor = timestamp;
+        rowsAtCursor = 1;
+      }
+    }
+
+    if (!ignoreMissingData || !row.contains(null)) {
+      configuredWriter.writeItem(outputStream, row, columns, isFirstDataItem);
+      isFirstDataItem = false;
+      writtenRows++;
+    }
+  }
+
+  private Map<String, QueryParamsV4> makePageQueryParts(int pageSize,
+                                                        int offset,
+                                                        boolean descending) {
+    var pageParams = new ProvidedQueryParams(queryParams);
+    var measurementId = pageParams.getMeasurementId();
+    pageParams.remove(QP_PAGE);
+    pageParams.remove(QP_OFFSET);
+    pageParams.update(QP_LIMIT, pageSize);
+
+    var queryParts = DataLakeManagementUtils.getSelectQueryParams(pageParams);
+    if (offset > 0) {
+      queryParts.put(DataLakeManagementUtils.OFFSET, OffsetParams.from(measurementId, offset));
+    }
+    if (cursor != null) {
+      var where = (WhereStatementParams) queryParts.computeIfAbsent(DataLakeManagementUtils.WHERE,
+          key -> WhereStatementParams.from(measurementId, (String) null));
+      where.getWhereConditions().add(new WhereCondition(TIME_FIELD, descending ? "<=" : ">=", String.valueOf(cursor)));
+    }
+    return queryParts;
+  }
+
+  private int getInitialOffset() {
+    if (queryParams.has(QP_OFFSET)) {
+      return queryParams.getAsInt(QP_OFFSET);
+    } else if (queryParams.has(QP_LIMIT) && queryParams.has(QP_PAGE)) {
+      return queryParams.getAsInt(QP_PAGE) * queryParams.getAsInt(QP_LIMIT);
+    } else {
+      return 0;
+    }
+  }
+
+  private boolean isRawQuery() {
+    return !queryParams.has(QP_TIME_INTERVAL)
+        && !queryParams.has(QP_GROUP_BY)
+        && !queryParams.has(QP_AGGREGATION_FUNCTION)
+        && !queryParams.has(QP_COUNT_ONLY)
+        && !queryParams.has(QP_DOWNSAMPLING);
+  }
+
+  private long toEpochNanos(Object timestamp) {
+    if (timestamp instanceof Number) {
+      return ((Number) timestamp).longValue();
+    }
+    var instant = Instant.parse(timestamp.toString());
+    return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+  }
+
+  /**
+   * Downsampling selects points from the whole series, so downsampled exports are read with a
+   * single query instead of pages, which would each be downsampled to the requested points.
+   */
+  private void writeDownsampledData(ConfiguredOutputWriter configuredWriter,
+                                    DataLakeMeasure measurement,
+                                    OutputStream outputStream) throws IOException {
+    writeResult(configuredWriter, measurement, outputStream, getData());
+  }
+
+  private void writeAggregatedData(ConfiguredOutputWriter configuredWriter,
+                                   DataLakeMeasure measurement,
+                                   OutputStream outputStream) throws IOException {
+    var usesLimit = queryParams.has(QP_LIMIT);
 
     if (!queryParams.has(QP_LIMIT)) {
       queryParams.update(QP_LIMIT, MAX_RESULTS_PER_QUERY);
     }
 
     var limit = queryParams.getAsInt(QP_LIMIT);
-    var measurement = findByMeasurementName(queryParams.getMeasurementId()).get();
 
     SpQueryResult dataResult;
     int page = 0;
@@ -66,23 +248,26 @@ public class StreamedQueryResultProvider extends QueryResultProvider {
       page = queryParams.getAsInt(QP_PAGE);
     }
 
-    boolean isFirstDataItem = true;
-    configuredWriter.beforeFirstItem(outputStream);
     do {
       queryParams.update(SupportedDataLakeQueryParameters.QP_PAGE, String.valueOf(page));
       dataResult = getData();
-
-      if (dataResult.getTotal() > 0) {
-        changeTimestampHeader(measurement, dataResult);
-        var columns = dataResult.getHeaders();
-        for (List<Object> row : dataResult.getAllDataSeries().get(0).getRows()) {
-          configuredWriter.writeItem(outputStream, row, columns, isFirstDataItem);
-          isFirstDataItem = false;
-        }
-      }
+      writeResult(configuredWriter, measurement, outputStream, dataResult);
       page++;
     } while (queryNextPage(dataResult.getTotal(), usesLimit, limit, page));
-    configuredWriter.afterLastItem(outputStream);
+  }
+
+  private void writeResult(ConfiguredOutputWriter configuredWriter,
+                           DataLakeMeasure measurement,
+                           OutputStream outputStream,
+                           SpQueryResult dataResult) throws IOException {
+    if (dataResult.getTotal() > 0) {
+      changeTimestampHeader(measurement, dataResult);
+      var columns = dataResult.getHeaders();
+      for (List<Object> row : dataResult.getAllDataSeries().get(0).getRows()) {
+        configuredWriter.writeItem(outputStream, row, columns, isFirstDataItem);
+        isFirstDataItem = false;
+      }
+    }
   }
 
   private boolean queryNextPage(int lastResultsCount,
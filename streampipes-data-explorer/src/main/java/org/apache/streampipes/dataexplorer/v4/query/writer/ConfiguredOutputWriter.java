@@ -19,6 +19,7 @@
 package org.apache.streampipes.dataexplorer.v4.query.writer;
 
 import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -27,9 +28,11 @@ import java.util.List;
 public abstract class ConfiguredOutputWriter {
 
   public static ConfiguredOutputWriter getConfiguredWriter(OutputFormat format,
+                                                           DataLakeMeasure measure,
                                                            ProvidedQueryParams params,
                                                            boolean ignoreMissingValues) {
     var writer = format.getWriter();
+    writer.setMeasure(measure);
     writer.configure(params, ignoreMissingValues);
 
     return writer;
@@ -38,6 +41,13 @@ public abstract class ConfiguredOutputWriter {
   public abstract void configure(ProvidedQueryParams params,
                                  boolean ignoreMissingValues);
 
+  /**
+   * Provides the measurement of the written data, e.g., to derive the type of each column.
+   */
+  public void setMeasure(DataLakeMeasure measure) {
+    // do nothing
+  }
+
   public abstract void beforeFirstItem(OutputStream outputStream) throws IOException;
 
   public abstract void afterLastItem(OutputStream outputStream) throws IOException;
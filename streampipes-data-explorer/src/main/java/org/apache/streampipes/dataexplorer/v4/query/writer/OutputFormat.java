@@ -18,11 +18,16 @@
 
 package org.apache.streampipes.dataexplorer.v4.query.writer;
 
+import org.apache.streampipes.dataexplorer.v4.query.writer.columnar.ConfiguredArrowOutputWriter;
+import org.apache.streampipes.dataexplorer.v4.query.writer.columnar.ConfiguredParquetOutputWriter;
+
 import java.util.function.Supplier;
 
 public enum OutputFormat {
   JSON(ConfiguredJsonOutputWriter::new),
-  CSV(ConfiguredCsvOutputWriter::new);
+  CSV(ConfiguredCsvOutputWriter::new),
+  PARQUET(ConfiguredParquetOutputWriter::new),
+  ARROW(ConfiguredArrowOutputWriter::new);
 
   private final Supplier<ConfiguredOutputWriter> writerSupplier;
 
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query.writer.columnar;
+
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.SO;
+import org.apache.streampipes.vocabulary.XSD;
+
+/**
+ * Type of a column in a columnar export, derived from the event schema of the measurement or,
+ * for computed columns, from the exported values.
+ */
+public enum ColumnType {
+
+  TIMESTAMP,
+  LONG,
+  DOUBLE,
+  BOOLEAN,
+  STRING;
+
+  /**
+   * Returns the type in which the values of the property are stored in the time series storage.
+   */
+  public static ColumnType of(EventProperty property) {
+    if (!(property instanceof EventPropertyPrimitive)
+        || PropertyScope.DIMENSION_PROPERTY.name().equals(property.getPropertyScope())) {
+      // dimension properties are stored as tags, which are always strings
+      return STRING;
+    }
+    String runtimeType = ((EventPropertyPrimitive) property).getRuntimeType();
+    if (XSD.INTEGER.toString().equals(runtimeType) || XSD.LONG.toString().equals(runtimeType)) {
+      return LONG;
+    } else if (XSD.FLOAT.toString().equals(runtimeType)
+        || XSD.DOUBLE.toString().equals(runtimeType)
+        || SO.NUMBER.equals(runtimeType)) {
+      return DOUBLE;
+    } else if (XSD.BOOLEAN.toString().equals(runtimeType)) {
+      return BOOLEAN;
+    } else {
+      return STRING;
+    }
+  }
+
+  /**
+   * Returns the type of a column without schema information from one of its values.
+   */
+  public static ColumnType infer(Object value) {
+    if (value instanceof Number) {
+      return DOUBLE;
+    } else if (value instanceof Boolean) {
+      return BOOLEAN;
+    } else {
+      return STRING;
+    }
+  }
+}
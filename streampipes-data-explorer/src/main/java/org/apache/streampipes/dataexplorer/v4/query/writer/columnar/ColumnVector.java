@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query.writer.columnar;
+
+import org.apache.streampipes.dataexplorer.v4.utils.TimeParser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffers the values of a single column of a batch of rows in a typed array. Values which cannot
+ * be converted to the type of the column are stored as missing values.
+ */
+public class ColumnVector {
+
+  private final String name;
+  private final ColumnType type;
+
+  private final boolean[] present;
+  private final long[] longValues;
+  private final double[] doubleValues;
+  private final boolean[] booleanValues;
+  private final byte[][] stringValues;
+
+  private int size;
+  private int nullCount;
+
+  public ColumnVector(String name,
+                      ColumnType type,
+                      int capacity) {
+    this.name = name;
+    this.type = type;
+    this.present = new boolean[capacity];
+    this.longValues = type == ColumnType.TIMESTAMP || type == ColumnType.LONG ? new long[capacity] : null;
+    this.doubleValues = type == ColumnType.DOUBLE ? new double[capacity] : null;
+    this.booleanValues = type == ColumnType.BOOLEAN ? new boolean[capacity] : null;
+    this.stringValues = type == ColumnType.STRING ? new byte[capacity][] : null;
+  }
+
+  public void add(Object value) {
+    boolean converted = value != null && convert(value);
+    present[size] = converted;
+    if (!converted) {
+      nullCount++;
+    }
+    size++;
+  }
+
+  public void clear() {
+    size = 0;
+    nullCount = 0;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public ColumnType getType() {
+    return type;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int getNullCount() {
+    return nullCount;
+  }
+
+  public boolean isPresent(int index) {
+    return present[index];
+  }
+
+  public long getLong(int index) {
+    return longValues[index];
+  }
+
+  public double getDouble(int index) {
+    return doubleValues[index];
+  }
+
+  public boolean getBoolean(int index) {
+    return booleanValues[index];
+  }
+
+  /**
+   * @return The UTF-8 encoded string value
+   */
+  public byte[] getString(int index) {
+    return stringValues[index];
+  }
+
+  private boolean convert(Object value) {
+    switch (type) {
+      case TIMESTAMP:
+        longValues[size] = value instanceof Number
+            ? ((Number) value).longValue()
+            : TimeParser.parseTime(value.toString());
+        return true;
+      case LONG:
+        if (value instanceof Number) {
+          longValues[size] = ((Number) value).longValue();
+          return true;
+        }
+        return false;
+      case DOUBLE:
+        if (value instanceof Number) {
+          doubleValues[size] = ((Number) value).doubleValue();
+          return true;
+        }
+        return false;
+      case BOOLEAN:
+        if (value instanceof Boolean) {
+          booleanValues[size] = (Boolean) value;
+          return true;
+        }
+        return false;
+      default:
+        stringValues[size] = value.toString().getBytes(StandardCharsets.UTF_8);
+        return true;
+    }
+  }
+}
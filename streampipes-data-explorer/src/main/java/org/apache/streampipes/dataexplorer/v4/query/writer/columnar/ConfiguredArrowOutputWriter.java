@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query.writer.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes an Arrow IPC stream, which consists of the schema followed by one record batch per
+ * batch of rows and the end-of-stream marker. Timestamps are written as UTC timestamps in
+ * milliseconds.
+ */
+public class ConfiguredArrowOutputWriter extends ConfiguredColumnarOutputWriter {
+
+  // constants of the Arrow format specification
+  private static final short METADATA_VERSION_V5 = 4;
+  private static final byte HEADER_SCHEMA = 1;
+  private static final byte HEADER_RECORD_BATCH = 3;
+  private static final byte TYPE_INT = 2;
+  private static final byte TYPE_FLOATING_POINT = 3;
+  private static final byte TYPE_UTF8 = 5;
+  private static final byte TYPE_BOOL = 6;
+  private static final byte TYPE_TIMESTAMP = 10;
+  private static final short PRECISION_DOUBLE = 2;
+  private static final short TIME_UNIT_MILLISECOND = 1;
+  private static final int CONTINUATION = 0xFFFFFFFF;
+  private static final int ALIGNMENT = 8;
+
+  private boolean schemaWritten;
+
+  public ConfiguredArrowOutputWriter() {
+    this(DEFAULT_BATCH_SIZE);
+  }
+
+  public ConfiguredArrowOutputWriter(int batchSize) {
+    super(batchSize);
+  }
+
+  @Override
+  public void beforeFirstItem(OutputStream outputStream) throws IOException {
+    super.beforeFirstItem(outputStream);
+    schemaWritten = false;
+  }
+
+  @Override
+  protected void writeBatch(OutputStream outputStream,
+                            List<ColumnVector> columns,
+                            int rowCount) throws IOException {
+    writeSchema(outputStream, columns);
+
+    Body body = new Body();
+    for (ColumnVector column : columns) {
+      body.addBuffer(makeValidityBuffer(column));
+      switch (column.getType()) {
+        case BOOLEAN:
+          body.addBuffer(makeBooleanBuffer(column));
+          break;
+        case STRING:
+          addStringBuffers(body, column);
+          break;
+        default:
+          body.addBuffer(makeFixedWidthBuffer(column));
+      }
+    }
+
+    FlatBufferBuilder builder = new FlatBufferBuilder();
+    builder.startVector(2 * Long.BYTES, columns.size(), Long.BYTES);
+    for (int i = columns.size() - 1; i >= 0; i--) {
+      builder.addLongPairStruct(rowCount, columns.get(i).getNullCount());
+    }
+    int nodes = builder.endVector(columns.size());
+    builder.startVector(2 * Long.BYTES, body.buffers.size(), Long.BYTES);
+    for (int i = body.buffers.size() - 1; i >= 0; i--) {
+      builder.addLongPairStruct(body.buffers.get(i)[0], body.buffers.get(i)[1]);
+    }
+    int buffers = builder.endVector(body.buffers.size());
+
+    builder.startTable(5);
+    builder.addLongField(0, rowCount);
+    builder.addOffsetField(1, nodes);
+    builder.addOffsetField(2, buffers);
+    int recordBatch = builder.endTable();
+
+    writeMessage(outputStream, builder, HEADER_RECORD_BATCH, recordBatch, body.toByteArray());
+  }
+
+  @Override
+  protected void writeEnd(OutputStream outputStream,
+                          List<ColumnVector> columns) throws IOException {
+    writeSchema(outputStream, columns);
+    write(outputStream, ByteBuffer.allocate(2 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(CONTINUATION)
+        .putInt(0)
+        .array());
+  }
+
+  private void writeSchema(OutputStream outputStream,
+                           List<ColumnVector> columns) throws IOException {
+    if (schemaWritten) {
+      return;
+    }
+
+    FlatBufferBuilder builder = new FlatBufferBuilder();
+    int[] fields = new int[columns.size()];
+    for (int i = 0; i < columns.size(); i++) {
+      fields[i] = makeField(builder, columns.get(i));
+    }
+    int fieldVector = builder.createOffsetVector(fields);
+
+    builder.startTable(4);
+    // little endian
+    builder.addShortField(0, (short) 0);
+    builder.addOffsetField(1, fieldVector);
+    int schema = builder.endTable();
+
+    writeMessage(outputStream, builder, HEADER_SCHEMA, schema, new byte[0]);
+    schemaWritten = true;
+  }
+
+  private int makeField(FlatBufferBuilder builder,
+                        ColumnVector column) {
+    int name = builder.createString(column.getName());
+    int children = builder.createOffsetVector(new int[0]);
+    byte typeType;
+    int type;
+    switch (column.getType()) {
+      case TIMESTAMP:
+        int timezone = builder.createString("UTC");
+        builder.startTable(2);
+        builder.addShortField(0, TIME_UNIT_MILLISECOND);
+        builder.addOffsetField(1, timezone);
+        type = builder.endTable();
+        typeType = TYPE_TIMESTAMP;
+        break;
+      case LONG:
+        builder.startTable(2);
+        builder.addIntField(0, Long.SIZE);
+        builder.addByteField(1, (byte) 1);
+        type = builder.endTable();
+        typeType = TYPE_INT;
+        break;
+      case DOUBLE:
+        builder.startTable(1);
+        builder.addShortField(0, PRECISION_DOUBLE);
+        type = builder.endTable();
+        typeType = TYPE_FLOATING_POINT;
+        break;
+      case BOOLEAN:
+        builder.startTable(0);
+        type = builder.endTable();
+        typeType = TYPE_BOOL;
+        break;
+      default:
+        builder.startTable(0);
+        type = builder.endTable();
+        typeType = TYPE_UTF8;
+    }
+
+    builder.startTable(7);
+    builder.addOffsetField(0, name);
+    builder.addByteField(1, (byte) 1);
+    builder.addByteField(2, typeType);
+    builder.addOffsetField(3, type);
+    builder.addOffsetField(5, children);
+    return builder.endTable();
+  }
+
+  private void writeMessage(OutputStream outputStream,
+                            FlatBufferBuilder builder,
+                            byte headerType,
+                            int header,
+                            byte[] body) throws IOException {
+    builder.startTable(5);
+    builder.addShortField(0, METADATA_VERSION_V5);
+    builder.addByteField(1, headerType);
+    builder.addOffsetField(2, header);
+    builder.addLongField(3, body.length);
+    byte[] metadata = builder.finish(builder.endTable());
+
+    // the metadata is padded so that the body starts at an aligned position
+    int paddedLength = align(metadata.length);
+    write(outputStream, ByteBuffer.allocate(2 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(CONTINUATION)
+        .putInt(paddedLength)
+        .array());
+    write(outputStream, metadata);
+    write(outputStream, new byte[paddedLength - metadata.length]);
+    write(outputStream, body);
+  }
+
+  private byte[] makeValidityBuffer(ColumnVector column) {
+    byte[] bitmap = new byte[(column.size() + 7) / 8];
+    for (int i = 0; i < column.size(); i++) {
+      if (column.isPresent(i)) {
+        bitmap[i / 8] |= (byte) (1 << (i % 8));
+      }
+    }
+    return bitmap;
+  }
+
+  private byte[] makeBooleanBuffer(ColumnVector column) {
+    byte[] bitmap = new byte[(column.size() + 7) / 8];
+    for (int i = 0; i < column.size(); i++) {
+      if (column.isPresent(i) && column.getBoolean(i)) {
+        bitmap[i / 8] |= (byte) (1 << (i % 8));
+      }
+    }
+    return bitmap;
+  }
+
+  private byte[] makeFixedWidthBuffer(ColumnVector column) {
+    ByteBuffer values = ByteBuffer.allocate(column.size() * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    for (int i = 0; i < column.size(); i++) {
+      if (!column.isPresent(i)) {
+        values.putLong(0);
+      } else if (column.getType() == ColumnType.DOUBLE) {
+        values.putDouble(column.getDouble(i));
+      } else {
+        values.putLong(column.getLong(i));
+      }
+    }
+    return values.array();
+  }
+
+  private void addStringBuffers(Body body,
+                                ColumnVector column) {
+    ByteBuffer offsets = ByteBuffer.allocate((column.size() + 1) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    offsets.putInt(0);
+    for (int i = 0; i < column.size(); i++) {
+      if (column.isPresent(i)) {
+        data.writeBytes(column.getString(i));
+      }
+      offsets.putInt(data.size());
+    }
+    body.addBuffer(offsets.array());
+    body.addBuffer(data.toByteArray());
+  }
+
+  private static int align(int length) {
+    return (length + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+
+  /**
+   * The body of a record batch, with the offset and length of each of its buffers.
+   */
+  private static class Body {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final List<long[]> buffers = new ArrayList<>();
+
+    void addBuffer(byte[] buffer) {
+      buffers.add(new long[]{bytes.size(), buffer.length});
+      bytes.writeBytes(buffer);
+      bytes.writeBytes(new byte[align(buffer.length) - buffer.length]);
+    }
+
+    byte[] toByteArray() {
+      return bytes.toByteArray();
+    }
+  }
+}
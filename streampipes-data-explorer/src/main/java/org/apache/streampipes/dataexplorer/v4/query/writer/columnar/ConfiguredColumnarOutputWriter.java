@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query.writer.columnar;
+
+import org.apache.streampipes.dataexplorer.commons.influx.InfluxNameSanitizer;
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.query.writer.ConfiguredOutputWriter;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.schema.EventProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
+
+/**
+ * Base class of writers for columnar formats. Rows are collected into batches which are written
+ * column by column. The first column is the timestamp, the types of the other columns are taken
+ * from the event schema of the measurement. Columns which are computed by the query, e.g.,
+ * aggregations, are typed by their values in the first batch.
+ */
+public abstract class ConfiguredColumnarOutputWriter extends ConfiguredOutputWriter {
+
+  public static final int DEFAULT_BATCH_SIZE = 65536;
+
+  private final int batchSize;
+  private final List<List<Object>> batch;
+
+  private Map<String, EventProperty> properties = new HashMap<>();
+  private boolean useSchemaTypes;
+  private List<String> columnNames;
+  private List<ColumnVector> columns;
+  private long position;
+
+  protected ConfiguredColumnarOutputWriter(int batchSize) {
+    this.batchSize = batchSize;
+    this.batch = new ArrayList<>(batchSize);
+  }
+
+  @Override
+  public void setMeasure(DataLakeMeasure measure) {
+    properties = new HashMap<>();
+    if (measure != null && measure.getEventSchema() != null) {
+      measure.getEventSchema().getEventProperties().forEach(ep ->
+          properties.put(InfluxNameSanitizer.renameReservedKeywords(ep.getRuntimeName()), ep));
+    }
+  }
+
+  @Override
+  public void configure(ProvidedQueryParams params,
+                        boolean ignoreMissingValues) {
+    String columnParams = params.getAsString(QP_COLUMNS);
+    this.useSchemaTypes = !params.has(QP_AGGREGATION_FUNCTION)
+        && !params.has(QP_TIME_INTERVAL)
+        && !params.has(QP_COUNT_ONLY)
+        && (columnParams == null || !columnParams.contains(";"));
+  }
+
+  @Override
+  public void beforeFirstItem(OutputStream outputStream) throws IOException {
+    position = 0;
+  }
+
+  @Override
+  public void writeItem(OutputStream outputStream,
+                        List<Object> row,
+                        List<String> columnNames,
+                        boolean firstObject) throws IOException {
+    if (this.columnNames == null) {
+      this.columnNames = new ArrayList<>(columnNames);
+    }
+    batch.add(row);
+    if (batch.size() >= batchSize) {
+      flush(outputStream);
+    }
+  }
+
+  @Override
+  public void afterLastItem(OutputStream outputStream) throws IOException {
+    if (!batch.isEmpty()) {
+      flush(outputStream);
+    }
+    writeEnd(outputStream, columns != null ? columns : new ArrayList<>());
+  }
+
+  /**
+   * Writes a batch of rows. The columns of all batches have the same names and types.
+   */
+  protected abstract void writeBatch(OutputStream outputStream,
+                                     List<ColumnVector> columns,
+                                     int rowCount) throws IOException;
+
+  /**
+   * Finishes the output after the last batch, or without any batch if no rows were written.
+   */
+  protected abstract void writeEnd(OutputStream outputStream,
+                                   List<ColumnVector> columns) throws IOException;
+
+  protected void write(OutputStream outputStream,
+                       byte[] bytes) throws IOException {
+    outputStream.write(bytes);
+    position += bytes.length;
+  }
+
+  /**
+   * @return The number of bytes written to the output stream
+   */
+  protected long getPosition() {
+    return position;
+  }
+
+  private void flush(OutputStream outputStream) throws IOException {
+    if (columns == null) {
+      columns = makeColumns();
+    }
+    columns.forEach(ColumnVector::clear);
+    for (List<Object> row : batch) {
+      for (int i = 0; i < columns.size(); i++) {
+        columns.get(i).add(i < row.size() ? row.get(i) : null);
+      }
+    }
+    writeBatch(outputStream, columns, batch.size());
+    batch.clear();
+  }
+
+  private List<ColumnVector> makeColumns() {
+    List<ColumnVector> typedColumns = new ArrayList<>(columnNames.size());
+    for (int i = 0; i < columnNames.size(); i++) {
+      String name = columnNames.get(i);
+      typedColumns.add(new ColumnVector(name, i == 0 ? ColumnType.TIMESTAMP : getType(name, i), batchSize));
+    }
+    return typedColumns;
+  }
+
+  private ColumnType getType(String name,
+                             int index) {
+    if (useSchemaTypes && properties.containsKey(name)) {
+      return ColumnType.of(properties.get(name));
+    }
+    return batch.stream()
+        .map(row -> index < row.size() ? row.get(index) : null)
+        .filter(Objects::nonNull)
+        .findFirst()
+        .map(ColumnType::infer)
+        .orElse(ColumnType.STRING);
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query.writer.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes Parquet files with one row group per batch. Each column chunk consists of a single
+ * GZIP-compressed data page in plain encoding, all columns are optional.
+ */
+public class ConfiguredParquetOutputWriter extends ConfiguredColumnarOutputWriter {
+
+  private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+  private static final String CREATED_BY = "Apache StreamPipes";
+
+  // constants of the Parquet format specification
+  private static final int TYPE_BOOLEAN = 0;
+  private static final int TYPE_INT64 = 2;
+  private static final int TYPE_DOUBLE = 5;
+  private static final int TYPE_BYTE_ARRAY = 6;
+  private static final int CONVERTED_TYPE_UTF8 = 0;
+  private static final int CONVERTED_TYPE_TIMESTAMP_MILLIS = 9;
+  private static final int REPETITION_OPTIONAL = 1;
+  private static final int ENCODING_PLAIN = 0;
+  private static final int ENCODING_RLE = 3;
+  private static final int CODEC_GZIP = 2;
+  private static final int PAGE_TYPE_DATA_PAGE = 0;
+
+  private final List<RowGroup> rowGroups = new ArrayList<>();
+
+  public ConfiguredParquetOutputWriter() {
+    this(DEFAULT_BATCH_SIZE);
+  }
+
+  public ConfiguredParquetOutputWriter(int batchSize) {
+    super(batchSize);
+  }
+
+  @Override
+  public void beforeFirstItem(OutputStream outputStream) throws IOException {
+    super.beforeFirstItem(outputStream);
+    rowGroups.clear();
+    write(outputStream, MAGIC);
+  }
+
+  @Override
+  protected void writeBatch(OutputStream outputStream,
+                            List<ColumnVector> columns,
+                            int rowCount) throws IOException {
+    RowGroup rowGroup = new RowGroup(rowCount);
+    for (ColumnVector column : columns) {
+      byte[] page = makePage(column);
+      byte[] compressedPage = compress(page);
+      byte[] pageHeader = makePageHeader(rowCount, page.length, compressedPage.length);
+
+      long offset = getPosition();
+      write(outputStream, pageHeader);
+      write(outputStream, compressedPage);
+      rowGroup.columnChunks.add(new ColumnChunk(column, offset, pageHeader.length + page.length,
+          pageHeader.length + compressedPage.length));
+    }
+    rowGroups.add(rowGroup);
+  }
+
+  @Override
+  protected void writeEnd(OutputStream outputStream,
+                          List<ColumnVector> columns) throws IOException {
+    byte[] footer = makeFileMetaData(columns);
+    write(outputStream, footer);
+    write(outputStream, ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(footer.length).array());
+    write(outputStream, MAGIC);
+  }
+
+  private byte[] makePage(ColumnVector column) {
+    int rowCount = column.size();
+    ByteArrayOutputStream page = new ByteArrayOutputStream();
+
+    // definition levels of an optional column, RLE encoded with a bit width of 1
+    ByteArrayOutputStream levels = new ByteArrayOutputStream();
+    int runStart = 0;
+    for (int i = 1; i <= rowCount; i++) {
+      if (i == rowCount || column.isPresent(i) != column.isPresent(runStart)) {
+        writeUnsignedVarint(levels, (long) (i - runStart) << 1);
+        levels.write(column.isPresent(runStart) ? 1 : 0);
+        runStart = i;
+      }
+    }
+    writeInt(page, levels.size());
+    page.writeBytes(levels.toByteArray());
+
+    ColumnType type = column.getType();
+    if (type == ColumnType.BOOLEAN) {
+      writeBooleanValues(page, column);
+    } else {
+      ByteBuffer value = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < rowCount; i++) {
+        if (column.isPresent(i)) {
+          if (type == ColumnType.STRING) {
+            byte[] string = column.getString(i);
+            writeInt(page, string.length);
+            page.write(string, 0, string.length);
+          } else {
+            value.clear();
+            if (type == ColumnType.DOUBLE) {
+              value.putDouble(column.getDouble(i));
+            } else {
+              value.putLong(column.getLong(i));
+            }
+            page.write(value.array(), 0, Long.BYTES);
+          }
+        }
+      }
+    }
+    return page.toByteArray();
+  }
+
+  private void writeBooleanValues(ByteArrayOutputStream page,
+                                  ColumnVector column) {
+    int bits = 0;
+    int bitCount = 0;
+    for (int i = 0; i < column.size(); i++) {
+      if (column.isPresent(i)) {
+        if (column.getBoolean(i)) {
+          bits |= 1 << bitCount;
+        }
+        if (++bitCount == Byte.SIZE) {
+          page.write(bits);
+          bits = 0;
+          bitCount = 0;
+        }
+      }
+    }
+    if (bitCount > 0) {
+      page.write(bits);
+    }
+  }
+
+  private byte[] compress(byte[] page) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(page.length / 2 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(page);
+    }
+    return compressed.toByteArray();
+  }
+
+  private byte[] makePageHeader(int rowCount,
+                                int uncompressedSize,
+                                int compressedSize) {
+    ThriftCompactWriter header = new ThriftCompactWriter();
+    header.beginStruct();
+    header.writeI32Field(1, PAGE_TYPE_DATA_PAGE);
+    header.writeI32Field(2, uncompressedSize);
+    header.writeI32Field(3, compressedSize);
+    header.beginStructField(5);
+    header.writeI32Field(1, rowCount);
+    header.writeI32Field(2, ENCODING_PLAIN);
+    header.writeI32Field(3, ENCODING_RLE);
+    header.writeI32Field(4, ENCODING_RLE);
+    header.endStruct();
+    header.endStruct();
+    return header.toByteArray();
+  }
+
+  private byte[] makeFileMetaData(List<ColumnVector> columns) {
+    ThriftCompactWriter metaData = new ThriftCompactWriter();
+    metaData.beginStruct();
+    metaData.writeI32Field(1, 1);
+
+    metaData.beginListField(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+    metaData.beginStruct();
+    metaData.writeStringField(4, "schema");
+    metaData.writeI32Field(5, columns.size());
+    metaData.endStruct();
+    for (ColumnVector column : columns) {
+      metaData.beginStruct();
+      metaData.writeI32Field(1, toPhysicalType(column.getType()));
+      metaData.writeI32Field(3, REPETITION_OPTIONAL);
+      metaData.writeStringField(4, column.getName());
+      if (column.getType() == ColumnType.STRING) {
+        metaData.writeI32Field(6, CONVERTED_TYPE_UTF8);
+      } else if (column.getType() == ColumnType.TIMESTAMP) {
+        metaData.writeI32Field(6, CONVERTED_TYPE_TIMESTAMP_MILLIS);
+      }
+      metaData.endStruct();
+    }
+
+    metaData.writeI64Field(3, rowGroups.stream().mapToLong(rowGroup -> rowGroup.rowCount).sum());
+
+    metaData.beginListField(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+    for (RowGroup rowGroup : rowGroups) {
+      metaData.beginStruct();
+      metaData.beginListField(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.columnChunks.size());
+      for (ColumnChunk chunk : rowGroup.columnChunks) {
+        writeColumnChunk(metaData, chunk, rowGroup.rowCount);
+      }
+      metaData.writeI64Field(2, rowGroup.columnChunks.stream().mapToLong(chunk -> chunk.uncompressedSize).sum());
+      metaData.writeI64Field(3, rowGroup.rowCount);
+      metaData.endStruct();
+    }
+
+    metaData.writeStringField(6, CREATED_BY);
+    metaData.endStruct();
+    return metaData.toByteArray();
+  }
+
+  private void writeColumnChunk(ThriftCompactWriter metaData,
+                                ColumnChunk chunk,
+                                long rowCount) {
+    metaData.beginStruct();
+    metaData.writeI64Field(2, chunk.offset);
+    metaData.beginStructField(3);
+    metaData.writeI32Field(1, chunk.physicalType);
+    metaData.beginListField(2, ThriftCompactWriter.TYPE_I32, 2);
+    metaData.writeI32(ENCODING_PLAIN);
+    metaData.writeI32(ENCODING_RLE);
+    metaData.beginListField(3, ThriftCompactWriter.TYPE_BINARY, 1);
+    metaData.writeString(chunk.name);
+    metaData.writeI32Field(4, CODEC_GZIP);
+    metaData.writeI64Field(5, rowCount);
+    metaData.writeI64Field(6, chunk.uncompressedSize);
+    metaData.writeI64Field(7, chunk.compressedSize);
+    metaData.writeI64Field(9, chunk.offset);
+    metaData.endStruct();
+    metaData.endStruct();
+  }
+
+  private static int toPhysicalType(ColumnType type) {
+    switch (type) {
+      case BOOLEAN:
+        return TYPE_BOOLEAN;
+      case DOUBLE:
+        return TYPE_DOUBLE;
+      case STRING:
+        return TYPE_BYTE_ARRAY;
+      default:
+        return TYPE_INT64;
+    }
+  }
+
+  private static void writeInt(ByteArrayOutputStream out,
+                               int value) {
+    out.write(value);
+    out.write(value >>> 8);
+    out.write(value >>> 16);
+    out.write(value >>> 24);
+  }
+
+  private static void writeUnsignedVarint(ByteArrayOutputStream out,
+                                          long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static class RowGroup {
+
+    private final long rowCount;
+    private final List<ColumnChunk> columnChunks = new ArrayList<>();
+
+    RowGroup(long rowCount) {
+      this.rowCount = rowCount;
+    }
+  }
+
+  private static class ColumnChunk {
+
+    private final String name;
+    private final int physicalType;
+    private final long offset;
+    private final long uncompressedSize;
+    private final long compressedSize;
+
+    ColumnChunk(ColumnVector column,
+                long offset,
+                long uncompressedSize,
+                long compressedSize) {
+      this.name = column.getName();
+      this.physicalType = toPhysicalType(column.getType());
+      this.offset = offset;
+      this.uncompressedSize = uncompressedSize;
+      this.compressedSize = compressedSize;
+    }
+  }
+}
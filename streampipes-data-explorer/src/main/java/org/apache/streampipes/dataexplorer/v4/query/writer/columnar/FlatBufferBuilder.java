@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query.writer.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal builder of FlatBuffers, as used by the metadata of Arrow IPC messages. As in the
+ * reference implementation, the buffer is built back to front: referenced objects (strings,
+ * vectors and tables) must be created before the table which references them, and the elements
+ * of vectors are added in reverse order. All table fields are written, even if they hold the
+ * default value.
+ */
+class FlatBufferBuilder {
+
+  private static final int VTABLE_METADATA_FIELDS = 2;
+
+  private ByteBuffer buffer;
+  private int space;
+  private int minAlign = 1;
+
+  private int[] vtable;
+  private int objectStart;
+
+  FlatBufferBuilder() {
+    this.buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    this.space = buffer.capacity();
+  }
+
+  int createString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    prep(1, 0);
+    putByte((byte) 0);
+    startVector(1, bytes.length, 1);
+    space -= bytes.length;
+    buffer.position(space);
+    buffer.put(bytes);
+    return endVector(bytes.length);
+  }
+
+  /**
+   * Starts a vector, whose elements are then added in reverse order.
+   */
+  void startVector(int elementSize,
+                   int elementCount,
+                   int alignment) {
+    prep(Integer.BYTES, elementSize * elementCount);
+    prep(alignment, elementSize * elementCount);
+  }
+
+  int endVector(int elementCount) {
+    putInt(elementCount);
+    return offset();
+  }
+
+  int createOffsetVector(int[] offsets) {
+    startVector(Integer.BYTES, offsets.length, Integer.BYTES);
+    for (int i = offsets.length - 1; i >= 0; i--) {
+      addOffset(offsets[i]);
+    }
+    return endVector(offsets.length);
+  }
+
+  /**
+   * Adds a struct of two longs to a vector of structs.
+   */
+  void addLongPairStruct(long first,
+                         long second) {
+    prep(Long.BYTES, 2 * Long.BYTES);
+    putLong(second);
+    putLong(first);
+  }
+
+  void startTable(int fieldCount) {
+    vtable = new int[fieldCount];
+    objectStart = offset();
+  }
+
+  void addByteField(int field,
+                    byte value) {
+    prep(1, 0);
+    putByte(value);
+    vtable[field] = offset();
+  }
+
+  void addShortField(int field,
+                     short value) {
+    prep(Short.BYTES, 0);
+    putShort(value);
+    vtable[field] = offset();
+  }
+
+  void addIntField(int field,
+                   int value) {
+    prep(Integer.BYTES, 0);
+    putInt(value);
+    vtable[field] = offset();
+  }
+
+  void addLongField(int field,
+                    long value) {
+    prep(Long.BYTES, 0);
+    putLong(value);
+    vtable[field] = offset();
+  }
+
+  void addOffsetField(int field,
+                      int value) {
+    addOffset(value);
+    vtable[field] = offset();
+  }
+
+  int endTable() {
+    // placeholder of the offset to the vtable
+    prep(Integer.BYTES, 0);
+    putInt(0);
+    int tableOffset = offset();
+    int fieldCount = vtable.length;
+    while (fieldCount > 0 && vtable[fieldCount - 1] == 0) {
+      fieldCount--;
+    }
+    for (int i = fieldCount - 1; i >= 0; i--) {
+      putShortAligned((short) (vtable[i] != 0 ? tableOffset - vtable[i] : 0));
+    }
+    putShortAligned((short) (tableOffset - objectStart));
+    putShortAligned((short) ((fieldCount + VTABLE_METADATA_FIELDS) * Short.BYTES));
+    buffer.putInt(buffer.capacity() - tableOffset, offset() - tableOffset);
+    vtable = null;
+    return tableOffset;
+  }
+
+  /**
+   * Finishes the buffer with the given root table.
+   *
+   * @return The finished buffer
+   */
+  byte[] finish(int rootTable) {
+    prep(minAlign, Integer.BYTES);
+    addOffset(rootTable);
+    return Arrays.copyOfRange(buffer.array(), space, buffer.capacity());
+  }
+
+  private void addOffset(int value) {
+    prep(Integer.BYTES, 0);
+    putInt(offset() - value + Integer.BYTES);
+  }
+
+  private int offset() {
+    return buffer.capacity() - space;
+  }
+
+  private void prep(int size,
+                    int additionalBytes) {
+    minAlign = Math.max(minAlign, size);
+    int alignSize = (~(offset() + additionalBytes) + 1) & (size - 1);
+    while (space < alignSize + size + additionalBytes) {
+      grow();
+    }
+    for (int i = 0; i < alignSize; i++) {
+      buffer.put(--space, (byte) 0);
+    }
+  }
+
+  private void grow() {
+    int oldCapacity = buffer.capacity();
+    ByteBuffer grown = ByteBuffer.allocate(oldCapacity * 2).order(ByteOrder.LITTLE_ENDIAN);
+    grown.position(oldCapacity);
+    grown.put(buffer.array());
+    buffer = grown;
+    space += oldCapacity;
+  }
+
+  private void putShortAligned(short value) {
+    prep(Short.BYTES, 0);
+    putShort(value);
+  }
+
+  private void putByte(byte value) {
+    buffer.put(--space, value);
+  }
+
+  private void putShort(short value) {
+    space -= Short.BYTES;
+    buffer.putShort(space, value);
+  }
+
+  private void putInt(int value) {
+    space -= Integer.BYTES;
+    buffer.putInt(space, value);
+  }
+
+  private void putLong(long value) {
+    space -= Long.BYTES;
+    buffer.putLong(space, value);
+  }
+}
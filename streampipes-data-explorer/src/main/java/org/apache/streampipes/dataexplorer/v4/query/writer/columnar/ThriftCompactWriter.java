@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query.writer.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal writer of the Thrift compact protocol, as used by the metadata of Parquet files.
+ * Fields of a struct must be written in ascending order of their ids.
+ */
+class ThriftCompactWriter {
+
+  static final byte TYPE_BOOLEAN_TRUE = 1;
+  static final byte TYPE_BOOLEAN_FALSE = 2;
+  static final byte TYPE_I32 = 5;
+  static final byte TYPE_I64 = 6;
+  static final byte TYPE_BINARY = 8;
+  static final byte TYPE_LIST = 9;
+  static final byte TYPE_STRUCT = 12;
+
+  private static final byte STOP = 0;
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final Deque<Integer> lastFieldIds = new ArrayDeque<>();
+  private int lastFieldId;
+
+  void writeI32Field(int fieldId,
+                     int value) {
+    writeFieldHeader(fieldId, TYPE_I32);
+    writeI32(value);
+  }
+
+  void writeI64Field(int fieldId,
+                     long value) {
+    writeFieldHeader(fieldId, TYPE_I64);
+    writeVarint(zigzag(value));
+  }
+
+  void writeBooleanField(int fieldId,
+                         boolean value) {
+    writeFieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+  }
+
+  void writeStringField(int fieldId,
+                        String value) {
+    writeFieldHeader(fieldId, TYPE_BINARY);
+    writeString(value);
+  }
+
+  /**
+   * Starts a struct-valued field, which must be ended with {@link #endStruct()}.
+   */
+  void beginStructField(int fieldId) {
+    writeFieldHeader(fieldId, TYPE_STRUCT);
+    beginStruct();
+  }
+
+  /**
+   * Starts a list-valued field, followed by the given number of elements.
+   */
+  void beginListField(int fieldId,
+                      byte elementType,
+                      int size) {
+    writeFieldHeader(fieldId, TYPE_LIST);
+    if (size < 15) {
+      out.write((size << 4) | elementType);
+    } else {
+      out.write(0xF0 | elementType);
+      writeVarint(size);
+    }
+  }
+
+  /**
+   * Starts a struct, either the top-level struct or an element of a list.
+   */
+  void beginStruct() {
+    lastFieldIds.push(lastFieldId);
+    lastFieldId = 0;
+  }
+
+  void endStruct() {
+    out.write(STOP);
+    lastFieldId = lastFieldIds.pop();
+  }
+
+  void writeI32(int value) {
+    writeVarint(zigzag(value));
+  }
+
+  void writeString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarint(bytes.length);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  byte[] toByteArray() {
+    return out.toByteArray();
+  }
+
+  private void writeFieldHeader(int fieldId,
+                                byte type) {
+    int delta = fieldId - lastFieldId;
+    if (delta > 0 && delta <= 15) {
+      out.write((delta << 4) | type);
+    } else {
+      out.write(type);
+      writeVarint(zigzag(fieldId));
+    }
+    lastFieldId = fieldId;
+  }
+
+  private void writeVarint(long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+}
@@ -0,0 +1,425 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.rollup;
+
+import org.apache.streampipes.commons.environment.Environments;
+import org.apache.streampipes.dataexplorer.commons.engine.TimeSeriesStorageEngine;
+import org.apache.streampipes.dataexplorer.commons.influx.InfluxClientProvider;
+import org.apache.streampipes.dataexplorer.query.DeleteDataQuery;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.storage.api.IDataLakeStorage;
+import org.apache.streampipes.storage.management.StorageDispatcher;
+
+import org.influxdb.dto.Query;
+import org.influxdb.dto.QueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the rollup tiers of all measurements in the background. The finest tier is computed
+ * from the raw events and each coarser tier from the next finer one. For every tier, the end of
+ * the last computed bucket is kept as watermark; buckets are only computed once all of their
+ * events are expected to be written.
+ *
+ * <p>Events which arrive later than the settle time are written behind the watermark. To include
+ * them, the number of events per bucket of the finest tier is periodically compared to the raw
+ * events within a lookback window, and buckets which differ are recomputed in all tiers. Until
+ * then, queries which are answered from rollups do not reflect these events. Late events older
+ * than the lookback window, or events which replace an existing event with the same timestamp, are
+ * only reflected after the rollups of the measurement have been rebuilt. Rollups are only
+ * maintained if measurements are stored in InfluxDB.
+ */
+public enum DataLakeRollupManager {
+
+  INSTANCE;
+
+  private static final Logger LOG = LoggerFactory.getLogger(DataLakeRollupManager.class);
+
+  private static final long UPDATE_INTERVAL_SECONDS = 30;
+  private static final long SETTLE_TIME_MS = 60 * 1000;
+  private static final long MAX_BUCKETS_PER_QUERY = 10000;
+  private static final long RECONCILIATION_INTERVAL_MS = 10 * 60 * 1000;
+  private static final long LATE_EVENT_LOOKBACK_MS = 24 * 60 * 60 * 1000;
+  private static final long NANOS_PER_MILLI = 1000000;
+
+  private final Object lock = new Object();
+  private final Map<String, List<RollupTier>> tiersByMeasure = new ConcurrentHashMap<>();
+  private final Map<String, List<String>> fieldsByMeasure = new ConcurrentHashMap<>();
+  private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+  private final Map<String, Long> lastReconciliations = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService scheduler;
+
+  public synchronized void start() {
+    if (scheduler == null && isSupported()) {
+      scheduler = Executors.newSingleThreadScheduledExecutor();
+      scheduler.scheduleWithFixedDelay(this::updateRollups, UPDATE_INTERVAL_SECONDS, UPDATE_INTERVAL_SECONDS,
+          TimeUnit.SECONDS);
+    }
+  }
+
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /**
+   * Returns the coarsest tier of the measurement whose bucket width divides the given interval and
+   * which already contains data.
+   */
+  public Optional<RollupTier> findTier(String measureName,
+                                       long intervalMs) {
+    return tiersByMeasure.getOrDefault(measureName, Collections.emptyList())
+        .stream()
+        .filter(tier -> tier.getWidthMs() <= intervalMs && intervalMs % tier.getWidthMs() == 0)
+        .filter(tier -> watermarks.containsKey(tier.getRollupMeasureName()))
+        .reduce((finer, coarser) -> coarser);
+  }
+
+  /**
+   * Returns the coarsest tier of the measurement whose bucket width is not larger than the given
+   * interval, e.g., to align automatically chosen aggregation intervals to a tier.
+   */
+  public Optional<RollupTier> findCoarsestTierWithin(String measureName,
+                                                     long intervalMs) {
+    return tiersByMeasure.getOrDefault(measureName, Collections.emptyList())
+        .stream()
+        .filter(tier -> tier.getWidthMs() <= intervalMs)
+        .reduce((finer, coarser) -> coarser);
+  }
+
+  public List<String> getFields(String measureName) {
+    return fieldsByMeasure.getOrDefault(measureName, Collections.emptyList());
+  }
+
+  /**
+   * The end of the last bucket of the tier which has been computed, or null if the tier is empty.
+   */
+  public Long getWatermark(RollupTier tier) {
+    return watermarks.get(tier.getRollupMeasureName());
+  }
+
+  /**
+   * Updates the rollups of a measurement after data has been deleted. If the deleted time range is
+   * bounded, the affected buckets are recomputed, otherwise all rollups of the measurement are
+   * dropped and rebuilt in the background.
+   */
+  public void onDataDeleted(String measureName,
+                            Long startDate,
+                            Long endDate) {
+    if (!isSupported()) {
+      return;
+    }
+    synchronized (lock) {
+      List<RollupTier> tiers = tiersByMeasure.containsKey(measureName)
+          ? tiersByMeasure.get(measureName)
+          : findMeasure(measureName).map(RollupTier::fromMeasure).orElse(Collections.emptyList());
+
+      if (startDate == null || endDate == null || !fieldsByMeasure.containsKey(measureName)) {
+        tiers.forEach(tier -> {
+          new DeleteDataQuery(new DataLakeMeasure(tier.getRollupMeasureName(), null)).executeQuery();
+          watermarks.remove(tier.getRollupMeasureName());
+        });
+      } else {
+        recompute(measureName, tiers, fieldsByMeasure.get(measureName), startDate, endDate);
+      }
+    }
+  }
+
+  private void updateRollups() {
+    try {
+      Map<String, DataLakeMeasure> measures = new HashMap<>();
+      getDataLakeStorage().getAllDataLakeMeasures().forEach(m -> measures.put(m.getMeasureName(), m));
+      tiersByMeasure.keySet().retainAll(measures.keySet());
+      fieldsByMeasure.keySet().retainAll(measures.keySet());
+      lastReconciliations.keySet().retainAll(measures.keySet());
+
+      for (DataLakeMeasure measure : measures.values()) {
+        List<RollupTier> tiers = RollupTier.fromMeasure(measure);
+        if (tiers.isEmpty()) {
+          tiersByMeasure.remove(measure.getMeasureName());
+        } else {
+          register(measure.getMeasureName(), tiers, RollupColumns.getNumericFields(measure));
+          updateRollups(measure.getMeasureName(), tiers);
+        }
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Could not update rollups", e);
+    }
+  }
+
+  private void updateRollups(String measureName,
+                             List<RollupTier> tiers) {
+    synchronized (lock) {
+      List<String> fields = fieldsByMeasure.get(measureName);
+      if (fields == null || fields.isEmpty()) {
+        return;
+      }
+      try {
+        String source = measureName;
+        Long sourceWatermark = System.currentTimeMillis() - SETTLE_TIME_MS;
+        for (RollupTier tier : tiers) {
+          boolean fromRawData = source.equals(measureName);
+          Long watermark = loadWatermark(tier, source);
+          if (watermark == null) {
+            return;
+          }
+          long upTo = tier.alignDown(sourceWatermark);
+          while (watermark < upTo) {
+            long to = Math.min(upTo, watermark + MAX_BUCKETS_PER_QUERY * tier.getWidthMs());
+            execute(makeRollupQuery(tier, source, fields, fromRawData, watermark, to));
+            watermark = to;
+            putWatermark(tier, watermark);
+          }
+          source = tier.getRollupMeasureName();
+          sourceWatermark = watermark;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastReconciliations.getOrDefault(measureName, 0L) >= RECONCILIATION_INTERVAL_MS) {
+          reconcile(measureName, tiers, fields);
+          lastReconciliations.put(measureName, now);
+        }
+      } catch (RuntimeException e) {
+        LOG.error("Could not update rollups of measurement {}", measureName, e);
+      }
+    }
+  }
+
+  void register(String measureName,
+                List<RollupTier> tiers,
+                List<String> fields) {
+    fieldsByMeasure.put(measureName, fields);
+    tiersByMeasure.put(measureName, tiers);
+  }
+
+  void putWatermark(RollupTier tier,
+                    long watermark) {
+    watermarks.put(tier.getRollupMeasureName(), watermark);
+  }
+
+  /**
+   * Recomputes the buckets within the lookback window whose number of events differs from the
+   * number of raw events, e.g., since events have been written after the bucket was computed.
+   */
+  private void reconcile(String measureName,
+                         List<RollupTier> tiers,
+                         List<String> fields) {
+    RollupTier finestTier = tiers.get(0);
+    Long watermark = watermarks.get(finestTier.getRollupMeasureName());
+    if (watermark == null) {
+      return;
+    }
+    long from = finestTier.alignDown(watermark - LATE_EVENT_LOOKBACK_MS);
+    Map<Long, List<Double>> rawCounts = queryCounts(finestTier, measureName, fields, true, from, watermark);
+    Map<Long, List<Double>> rollupCounts =
+        queryCounts(finestTier, finestTier.getRollupMeasureName(), fields, false, from, watermark);
+
+    List<long[]> changedRanges = findChangedRanges(finestTier, rawCounts, rollupCounts);
+    for (long[] range : changedRanges) {
+      LOG.info("Recomputing rollups of measurement {} between {} and {} to include late events",
+          measureName, Instant.ofEpochMilli(range[0]), Instant.ofEpochMilli(range[1]));
+      recompute(measureName, tiers, fields, range[0], range[1] - 1);
+    }
+  }
+
+  /**
+   * Compares the number of events per bucket and merges adjacent buckets which differ.
+   *
+   * @return The time ranges of differing buckets, each as start (inclusive) and end (exclusive)
+   */
+  static List<long[]> findChangedRanges(RollupTier tier,
+                                        Map<Long, List<Double>> expectedCounts,
+                                        Map<Long, List<Double>> actualCounts) {
+    TreeMap<Long, Boolean> buckets = new TreeMap<>();
+    expectedCounts.keySet().forEach(bucket -> buckets.put(bucket, true));
+    actualCounts.keySet().forEach(bucket -> buckets.put(bucket, true));
+
+    List<long[]> ranges = new ArrayList<>();
+    for (Long bucket : buckets.keySet()) {
+      if (!hasSameCounts(expectedCounts.get(bucket), actualCounts.get(bucket))) {
+        long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+        if (last != null && last[1] == bucket) {
+          last[1] = bucket + tier.getWidthMs();
+        } else {
+          ranges.add(new long[]{bucket, bucket + tier.getWidthMs()});
+        }
+      }
+    }
+    return ranges;
+  }
+
+  private static boolean hasSameCounts(List<Double> expected,
+                                       List<Double> actual) {
+    int size = Math.max(expected != null ? expected.size() : 0, actual != null ? actual.size() : 0);
+    for (int i = 0; i < size; i++) {
+      if (getCount(expected, i) != getCount(actual, i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static double getCount(List<Double> counts,
+                                 int index) {
+    return counts != null && index < counts.size() && counts.get(index) != null ? counts.get(index) : 0;
+  }
+
+  private Map<Long, List<Double>> queryCounts(RollupTier tier,
+                                              String measurement,
+                                              List<String> fields,
+                                              boolean fromRawData,
+                                              long from,
+                                              long to) {
+    QueryResult result = execute("SELECT " + RollupColumns.makeCountColumns(fields, fromRawData)
+        + " FROM " + RollupColumns.quote(measurement)
+        + " WHERE " + makeTimeRange(from, to)
+        + " GROUP BY time(" + tier.getInterval() + ") fill(0)");
+
+    Map<Long, List<Double>> counts = new HashMap<>();
+    Optional.ofNullable(result.getResults())
+        .flatMap(results -> results.stream().findFirst())
+        .map(QueryResult.Result::getSeries)
+        .ifPresent(series -> series.forEach(s -> s.getValues().forEach(row -> {
+          List<Double> values = new ArrayList<>();
+          row.subList(1, row.size()).forEach(v -> values.add(v != null ? ((Number) v).doubleValue() : null));
+          counts.put(Instant.parse(row.get(0).toString()).toEpochMilli(), values);
+        })));
+    return counts;
+  }
+
+  private void recompute(String measureName,
+                         List<RollupTier> tiers,
+                         List<String> fields,
+                         long startDate,
+                         long endDate) {
+    String source = measureName;
+    for (RollupTier tier : tiers) {
+      Long watermark = watermarks.get(tier.getRollupMeasureName());
+      if (watermark == null) {
+        return;
+      }
+      long from = tier.alignDown(startDate);
+      long to = Math.min(tier.alignUp(endDate + 1), watermark);
+      if (from < to) {
+        execute("DELETE FROM " + RollupColumns.quote(tier.getRollupMeasureName()) + " WHERE "
+            + makeTimeRange(from, to));
+        execute(makeRollupQuery(tier, source, fields, source.equals(measureName), from, to));
+      }
+      source = tier.getRollupMeasureName();
+    }
+  }
+
+  private Long loadWatermark(RollupTier tier,
+                             String source) {
+    Long watermark = watermarks.get(tier.getRollupMeasureName());
+    if (watermark == null) {
+      Optional<Long> lastBucket = findTimestamp(tier.getRollupMeasureName(), "DESC");
+      if (lastBucket.isPresent()) {
+        watermark = lastBucket.get() + tier.getWidthMs();
+      } else {
+        watermark = findTimestamp(source, "ASC").map(tier::alignDown).orElse(null);
+      }
+      if (watermark != null) {
+        watermarks.put(tier.getRollupMeasureName(), watermark);
+      }
+    }
+    return watermark;
+  }
+
+  static String makeRollupQuery(RollupTier tier,
+                                String source,
+                                List<String> fields,
+                                boolean fromRawData,
+                                long from,
+                                long to) {
+    return "SELECT " + RollupColumns.makeRollupColumns(fields, fromRawData)
+        + " INTO " + RollupColumns.quote(tier.getRollupMeasureName())
+        + " FROM " + RollupColumns.quote(source)
+        + " WHERE " + makeTimeRange(from, to)
+        + " GROUP BY time(" + tier.getInterval() + "), *";
+  }
+
+  static String makeTimeRange(long from,
+                              long to) {
+    return "time >= " + from * NANOS_PER_MILLI + " AND time < " + to * NANOS_PER_MILLI;
+  }
+
+  private Optional<Long> findTimestamp(String measurement,
+                                       String order) {
+    QueryResult result = execute("SELECT * FROM " + RollupColumns.quote(measurement)
+        + " ORDER BY time " + order + " LIMIT 1");
+    return Optional.ofNullable(result.getResults())
+        .flatMap(results -> results.stream().findFirst())
+        .map(QueryResult.Result::getSeries)
+        .flatMap(series -> series.stream().findFirst())
+        .filter(series -> series.getValues() != null && !series.getValues().isEmpty())
+        .map(series -> series.getValues().get(0).get(series.getColumns().indexOf("time")))
+        .map(time -> Instant.parse(time.toString()).toEpochMilli());
+  }
+
+  private QueryResult execute(String query) {
+    String databaseName = Environments.getEnvironment().getTsStorageBucket().getValueOrDefault();
+    QueryResult result = InfluxClientProvider.getSharedInfluxDBClient().query(new Query(query, databaseName));
+    String error = result.getError() != null
+        ? result.getError()
+        : Optional.ofNullable(result.getResults())
+            .map(results -> results.stream()
+                .map(QueryResult.Result::getError)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(", ")))
+            .orElse("");
+    if (!error.isEmpty()) {
+      throw new IllegalStateException("Rollup query failed: " + error + " (" + query + ")");
+    }
+    return result;
+  }
+
+  private boolean isSupported() {
+    return TimeSeriesStorageEngine.from(Environments.getEnvironment()) == TimeSeriesStorageEngine.INFLUX;
+  }
+
+  private Optional<DataLakeMeasure> findMeasure(String measureName) {
+    return getDataLakeStorage()
+        .getAllDataLakeMeasures()
+        .stream()
+        .filter(m -> m.getMeasureName().equals(measureName))
+        .findFirst();
+  }
+
+  private IDataLakeStorage getDataLakeStorage() {
+    return StorageDispatcher.INSTANCE.getNoSqlStore().getDataLakeStorage();
+  }
+}
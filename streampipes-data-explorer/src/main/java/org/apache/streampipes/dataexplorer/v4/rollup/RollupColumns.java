@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.rollup;
+
+import org.apache.streampipes.dataexplorer.commons.influx.InfluxNameSanitizer;
+import org.apache.streampipes.dataexplorer.v4.params.SelectColumn;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.SO;
+import org.apache.streampipes.vocabulary.XSD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Builds the columns of rollup measurements. For each numeric field, a rollup stores the minimum,
+ * maximum, sum, count and last value of a bucket, from which all supported aggregation functions
+ * can be computed for any multiple of the bucket width.
+ */
+public class RollupColumns {
+
+  private enum Aggregate {
+    MIN("min", "MIN", "MIN"),
+    MAX("max", "MAX", "MAX"),
+    SUM("sum", "SUM", "SUM"),
+    COUNT("count", "COUNT", "SUM"),
+    LAST("last", "LAST", "LAST");
+
+    private final String prefix;
+    private final String rawFunction;
+    private final String rollupFunction;
+
+    Aggregate(String prefix,
+              String rawFunction,
+              String rollupFunction) {
+      this.prefix = prefix;
+      this.rawFunction = rawFunction;
+      this.rollupFunction = rollupFunction;
+    }
+  }
+
+  private static final List<String> NUMERIC_TYPES = Arrays.asList(
+      XSD.INTEGER.toString(),
+      XSD.LONG.toString(),
+      XSD.FLOAT.toString(),
+      XSD.DOUBLE.toString(),
+      SO.NUMBER
+  );
+
+  /**
+   * Returns the names of the numeric fields of the measurement, as they are stored in the time
+   * series storage.
+   */
+  public static List<String> getNumericFields(DataLakeMeasure measure) {
+    List<String> fields = new ArrayList<>();
+    String timestampField = measure.getTimestampField();
+    for (EventProperty ep : measure.getEventSchema().getEventProperties()) {
+      if (ep instanceof EventPropertyPrimitive
+          && (timestampField == null || !timestampField.endsWith(ep.getRuntimeName()))
+          && !PropertyScope.DIMENSION_PROPERTY.name().equals(ep.getPropertyScope())
+          && NUMERIC_TYPES.contains(((EventPropertyPrimitive) ep).getRuntimeType())) {
+        fields.add(InfluxNameSanitizer.renameReservedKeywords(ep.getRuntimeName()));
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Builds the column list which aggregates either raw events or the buckets of a finer rollup
+   * tier into rollup buckets.
+   */
+  public static String makeRollupColumns(Collection<String> fields,
+                                         boolean fromRawData) {
+    StringJoiner columns = new StringJoiner(", ");
+    for (String field : fields) {
+      for (Aggregate aggregate : Aggregate.values()) {
+        String rollupField = getRollupField(aggregate, field);
+        columns.add(fromRawData
+            ? aggregate.rawFunction + "(" + quote(field) + ") AS " + quote(rollupField)
+            : aggregate.rollupFunction + "(" + quote(rollupField) + ") AS " + quote(rollupField));
+      }
+    }
+    return columns.toString();
+  }
+
+  /**
+   * Builds the column list which counts the events per bucket for each field, either from raw
+   * events or from the buckets of a rollup tier.
+   */
+  public static String makeCountColumns(Collection<String> fields,
+                                        boolean fromRawData) {
+    StringJoiner columns = new StringJoiner(", ");
+    for (String field : fields) {
+      String rollupField = getRollupField(Aggregate.COUNT, field);
+      columns.add(fromRawData
+          ? Aggregate.COUNT.rawFunction + "(" + quote(field) + ") AS " + quote(rollupField)
+          : makeRollupExpression(Aggregate.COUNT, field) + " AS " + quote(rollupField));
+    }
+    return columns.toString();
+  }
+
+  /**
+   * Rewrites an aggregated column of a query to read from rollup buckets, keeping its name.
+   *
+   * @return The column expression, or empty if its function cannot be computed from rollups
+   */
+  public static Optional<String> makeQueryColumn(SelectColumn column) {
+    if (column.getColumnFunction() == null || column.getTargetField() == null) {
+      return Optional.empty();
+    }
+    String field = column.getOriginalField();
+    String expression;
+    switch (column.getColumnFunction()) {
+      case MEAN:
+        expression = "SUM(" + quote(getRollupField(Aggregate.SUM, field)) + ") / SUM("
+            + quote(getRollupField(Aggregate.COUNT, field)) + ")";
+        break;
+      case MIN:
+        expression = makeRollupExpression(Aggregate.MIN, field);
+        break;
+      case MAX:
+        expression = makeRollupExpression(Aggregate.MAX, field);
+        break;
+      case SUM:
+        expression = makeRollupExpression(Aggregate.SUM, field);
+        break;
+      case COUNT:
+        expression = makeRollupExpression(Aggregate.COUNT, field);
+        break;
+      case LAST:
+        expression = makeRollupExpression(Aggregate.LAST, field);
+        break;
+      default:
+        return Optional.empty();
+    }
+    return Optional.of(expression + " AS " + quote(column.getTargetField()));
+  }
+
+  public static String quote(String name) {
+    return "\"" + name + "\"";
+  }
+
+  private static String makeRollupExpression(Aggregate aggregate,
+                                             String field) {
+    return aggregate.rollupFunction + "(" + quote(getRollupField(aggregate, field)) + ")";
+  }
+
+  private static String getRollupField(Aggregate aggregate,
+                                       String field) {
+    return aggregate.prefix + "_" + field;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.rollup;
+
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.params.RollupSelectFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.params.SelectColumn;
+import org.apache.streampipes.dataexplorer.v4.params.SelectFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.params.WhereCondition;
+import org.apache.streampipes.dataexplorer.v4.params.WhereStatementParams;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_FILTER;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_START_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
+
+/**
+ * Routes queries which aggregate by time to the coarsest rollup tier whose bucket width divides
+ * the requested interval. The rollup buckets are combined with buckets computed from the raw
+ * events for the parts of the time range which are not covered by the tier, i.e., the partial
+ * buckets at the start and end of the range and the events after the watermark of the tier.
+ * Routed queries return the same result as queries on the raw events, except for events which
+ * arrived after their bucket has been rolled up and which are not yet reconciled by the
+ * {@link DataLakeRollupManager}.
+ */
+public class RollupQueryPlanner {
+
+  private static final long NANOS_PER_MILLI = 1000000;
+  private static final String TIME_FIELD = "time";
+
+  private final DataLakeRollupManager rollupManager;
+
+  public RollupQueryPlanner() {
+    this(DataLakeRollupManager.INSTANCE);
+  }
+
+  RollupQueryPlanner(DataLakeRollupManager rollupManager) {
+    this.rollupManager = rollupManager;
+  }
+
+  /**
+   * Creates the query parts of a query which reads from rollups.
+   *
+   * @return The query parts, or empty if the query cannot be answered from rollups
+   */
+  public Optional<Map<String, QueryParamsV4>> plan(ProvidedQueryParams queryParams) {
+    if (!queryParams.has(QP_TIME_INTERVAL)
+        || !queryParams.has(QP_COLUMNS)
+        || queryParams.has(QP_FILTER)
+        || queryParams.has(QP_COUNT_ONLY)) {
+      return Optional.empty();
+    }
+
+    String measureName = queryParams.getMeasurementId();
+    Optional<RollupTier> tier = RollupTier.parseDuration(queryParams.getAsString(QP_TIME_INTERVAL))
+        .filter(intervalMs -> intervalMs > 0)
+        .flatMap(intervalMs -> rollupManager.findTier(measureName, intervalMs));
+    if (tier.isEmpty()) {
+      return Optional.empty();
+    }
+
+    List<SelectColumn> selectedColumns = SelectFromStatementParams.from(measureName,
+        queryParams.getAsString(QP_COLUMNS),
+        queryParams.getAsString(QP_AGGREGATION_FUNCTION)).getSelectedColumns();
+    List<String> columns = new ArrayList<>();
+    Set<String> fields = new LinkedHashSet<>();
+    for (SelectColumn column : selectedColumns) {
+      Optional<String> rollupColumn = RollupColumns.makeQueryColumn(column);
+      if (rollupColumn.isEmpty() || !rollupManager.getFields(measureName).contains(column.getOriginalField())) {
+        return Optional.empty();
+      }
+      columns.add(rollupColumn.get());
+      fields.add(column.getOriginalField());
+    }
+
+    Long watermark = rollupManager.getWatermark(tier.get());
+    if (watermark == null) {
+      return Optional.empty();
+    }
+    return makeSources(tier.get(), new ArrayList<>(fields), watermark,
+        queryParams.getAsLong(QP_START_DATE), queryParams.getAsLong(QP_END_DATE))
+        .map(sources -> makeQueryParts(queryParams, tier.get(), columns, sources));
+  }
+
+  private Optional<List<String>> makeSources(RollupTier tier,
+                                             List<String> fields,
+                                             long watermark,
+                                             Long startDate,
+                                             Long endDate) {
+    // events at the boundaries are excluded, as in queries on the raw events
+    Long rollupStart = startDate != null ? tier.alignDown(startDate) + tier.getWidthMs() : null;
+    long rollupEnd = endDate != null ? Math.min(tier.alignDown(endDate), watermark) : watermark;
+    if (rollupStart != null && rollupStart >= rollupEnd) {
+      return Optional.empty();
+    }
+
+    List<String> sources = new ArrayList<>();
+    String rawColumns = RollupColumns.makeRollupColumns(fields, true);
+    if (startDate != null) {
+      sources.add(makeSubquery(rawColumns, tier.getMeasureName(), tier,
+          makeCondition(">", startDate), makeCondition("<", rollupStart)));
+    }
+    sources.add(makeSubquery(RollupColumns.makeRollupColumns(fields, false), tier.getRollupMeasureName(), tier,
+        rollupStart != null ? makeCondition(">=", rollupStart) : null, makeCondition("<", rollupEnd)));
+    if (endDate == null || rollupEnd < endDate) {
+      sources.add(makeSubquery(rawColumns, tier.getMeasureName(), tier,
+          makeCondition(">=", rollupEnd), endDate != null ? makeCondition("<", endDate) : null));
+    }
+    return Optional.of(sources);
+  }
+
+  private Map<String, QueryParamsV4> makeQueryParts(ProvidedQueryParams queryParams,
+                                                    RollupTier tier,
+                                                    List<String> columns,
+                                                    List<String> sources) {
+    String measureName = queryParams.getMeasurementId();
+    Map<String, QueryParamsV4> queryParts =
+        DataLakeManagementUtils.getSelectQueryParams(new ProvidedQueryParams(queryParams));
+    queryParts.put(DataLakeManagementUtils.SELECT_FROM,
+        new RollupSelectFromStatementParams(measureName, columns, sources));
+
+    // the first bucket of the range is labeled with the aligned start time
+    WhereStatementParams where = WhereStatementParams.from(measureName, (String) null);
+    if (queryParams.has(QP_START_DATE)) {
+      where.getWhereConditions().add(makeCondition(">=", tier.alignDown(queryParams.getAsLong(QP_START_DATE))));
+    }
+    if (queryParams.has(QP_END_DATE)) {
+      where.getWhereConditions().add(makeCondition("<", queryParams.getAsLong(QP_END_DATE)));
+    }
+    if (where.getWhereConditions().isEmpty()) {
+      queryParts.remove(DataLakeManagementUtils.WHERE);
+    } else {
+      queryParts.put(DataLakeManagementUtils.WHERE, where);
+    }
+    return queryParts;
+  }
+
+  private String makeSubquery(String columns,
+                              String measurement,
+                              RollupTier tier,
+                              WhereCondition lowerBound,
+                              WhereCondition upperBound) {
+    List<String> conditions = new ArrayList<>();
+    if (lowerBound != null) {
+      conditions.add(lowerBound.toString());
+    }
+    if (upperBound != null) {
+      conditions.add(upperBound.toString());
+    }
+    return "(SELECT " + columns + " FROM " + RollupColumns.quote(measurement)
+        + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+        + " GROUP BY time(" + tier.getInterval() + "), *)";
+  }
+
+  private WhereCondition makeCondition(String operator,
+                                       long timestamp) {
+    return new WhereCondition(TIME_FIELD, operator, String.valueOf(timestamp * NANOS_PER_MILLI));
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.rollup;
+
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A rollup tier of a measurement, which stores pre-aggregated values of fixed-width time buckets
+ * in a separate measurement of the time series storage.
+ */
+public class RollupTier {
+
+  private static final String ROLLUP_MEASUREMENT_INFIX = "_rollup_";
+  private static final Pattern DURATION_PART = Pattern.compile("(\\d+)(ns|u|\u00b5|ms|s|m|h|d|w)");
+
+  private final String measureName;
+  private final String interval;
+  private final long widthMs;
+
+  private RollupTier(String measureName,
+                     String interval,
+                     long widthMs) {
+    this.measureName = measureName;
+    this.interval = interval;
+    this.widthMs = widthMs;
+  }
+
+  /**
+   * Returns the valid rollup tiers of the measurement, ordered from the finest to the coarsest tier.
+   */
+  public static List<RollupTier> fromMeasure(DataLakeMeasure measure) {
+    List<RollupTier> tiers = new ArrayList<>();
+    if (measure.getRollupTiers() != null) {
+      measure.getRollupTiers().forEach(interval -> parseDuration(interval)
+          .filter(widthMs -> widthMs > 0)
+          .filter(widthMs -> tiers.stream().noneMatch(t -> t.getWidthMs() == widthMs))
+          .ifPresent(widthMs -> tiers.add(new RollupTier(measure.getMeasureName(), interval.trim(), widthMs))));
+    }
+    tiers.sort(Comparator.comparingLong(RollupTier::getWidthMs));
+    return tiers;
+  }
+
+  /**
+   * Parses a duration in the format of InfluxDB, e.g., 500ms or 1h30m, to milliseconds.
+   */
+  public static Optional<Long> parseDuration(String duration) {
+    if (duration == null) {
+      return Optional.empty();
+    }
+    Matcher matcher = DURATION_PART.matcher(duration.trim());
+    long durationMs = 0;
+    int end = 0;
+    while (matcher.find() && matcher.start() == end) {
+      durationMs += Long.parseLong(matcher.group(1)) * getUnitMs(matcher.group(2));
+      end = matcher.end();
+    }
+    return end > 0 && end == duration.trim().length() ? Optional.of(durationMs) : Optional.empty();
+  }
+
+  public String getMeasureName() {
+    return measureName;
+  }
+
+  public String getInterval() {
+    return interval;
+  }
+
+  public long getWidthMs() {
+    return widthMs;
+  }
+
+  public String getRollupMeasureName() {
+    return measureName + ROLLUP_MEASUREMENT_INFIX + interval;
+  }
+
+  public long alignDown(long timestamp) {
+    return Math.floorDiv(timestamp, widthMs) * widthMs;
+  }
+
+  public long alignUp(long timestamp) {
+    return alignDown(timestamp) == timestamp ? timestamp : alignDown(timestamp) + widthMs;
+  }
+
+  private static long getUnitMs(String unit) {
+    switch (unit) {
+      case "s":
+        return 1000;
+      case "m":
+        return 60 * 1000;
+      case "h":
+        return 60 * 60 * 1000;
+      case "d":
+        return 24 * 60 * 60 * 1000;
+      case "w":
+        return 7 * 24 * 60 * 60 * 1000;
+      case "ms":
+        return 1;
+      default:
+        // rollups are not maintained below millisecond precision
+        return 0;
+    }
+  }
+}
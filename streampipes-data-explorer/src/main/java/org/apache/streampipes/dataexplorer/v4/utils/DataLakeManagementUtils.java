@@ -20,6 +20,7 @@ package org.apache.streampipes.dataexplorer.v4.utils;
 
 import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
 import org.apache.streampipes.dataexplorer.v4.params.DeleteFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.params.DownsamplingParams;
 import org.apache.streampipes.dataexplorer.v4.params.FillParams;
 import org.apache.streampipes.dataexplorer.v4.params.GroupingByTagsParams;
 import org.apache.streampipes.dataexplorer.v4.params.GroupingByTimeParams;
@@ -40,6 +41,8 @@ import java.util.Map;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING_POINTS;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_FILTER;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_GROUP_BY;
@@ -65,6 +68,7 @@ public class DataLakeManagementUtils {
   public static final String OFFSET = "OFFSET";
   public static final String FILL = "FILL";
   public static final String MAXIMUM_AMOUNT_OF_EVENTS = "MAXIMUM_AMOUNT_OF_EVENTS";
+  public static final String DOWNSAMPLING = "DOWNSAMPLING";
 
   public static final String DELETE_FROM = "DELETE";
 
@@ -124,6 +128,11 @@ public class DataLakeManagementUtils {
           params.getAsInt(QP_PAGE) * params.getAsInt(QP_LIMIT)));
     }
 
+    if (params.has(QP_DOWNSAMPLING)) {
+      queryParts.put(DOWNSAMPLING, DownsamplingParams.from(measurementId,
+          params.getAsString(QP_DOWNSAMPLING), params.getAsInt(QP_DOWNSAMPLING_POINTS)));
+    }
+
     return queryParts;
   }
 
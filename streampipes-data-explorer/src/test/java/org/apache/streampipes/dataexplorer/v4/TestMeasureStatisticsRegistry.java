@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4;
+
+import org.apache.streampipes.dataexplorer.commons.statistics.MeasureStatistics;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
+
+import org.junit.Test;
+
+import static org.apache.streampipes.dataexplorer.v4.MeasureStatisticsRegistry.REPORT_SEQUENCE_RETENTION_MS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestMeasureStatisticsRegistry {
+
+  private static final long NOW = 1_700_000_000_000L;
+
+  @Test
+  public void testReportIsAppliedOnce() {
+    DataLakeMeasureStatistics statistics = MeasureStatistics.empty(true);
+
+    assertTrue(MeasureStatisticsRegistry.applyReport(statistics, "writer", NOW, NOW));
+    assertFalse(MeasureStatisticsRegistry.applyReport(statistics, "writer", NOW, NOW + 1000));
+    assertFalse(MeasureStatisticsRegistry.applyReport(statistics, "writer", NOW - 1, NOW + 1000));
+    assertTrue(MeasureStatisticsRegistry.applyReport(statistics, "writer", NOW + 1, NOW + 1000));
+    assertEquals(Long.valueOf(NOW + 1), statistics.getReportSequences().get("writer"));
+  }
+
+  @Test
+  public void testWritersAreTrackedSeparately() {
+    DataLakeMeasureStatistics statistics = MeasureStatistics.empty(true);
+
+    assertTrue(MeasureStatisticsRegistry.applyReport(statistics, "first", NOW, NOW));
+    assertTrue(MeasureStatisticsRegistry.applyReport(statistics, "second", NOW, NOW));
+    assertEquals(2, statistics.getReportSequences().size());
+  }
+
+  @Test
+  public void testInactiveWritersAreForgotten() {
+    DataLakeMeasureStatistics statistics = MeasureStatistics.empty(true);
+    long later = NOW + REPORT_SEQUENCE_RETENTION_MS + 1;
+
+    MeasureStatisticsRegistry.applyReport(statistics, "stopped", NOW, NOW);
+    MeasureStatisticsRegistry.applyReport(statistics, "running", later, later);
+
+    assertFalse(statistics.getReportSequences().containsKey("stopped"));
+    assertTrue(statistics.getReportSequences().containsKey("running"));
+  }
+
+  @Test
+  public void testReportSequencesAreCopied() {
+    DataLakeMeasureStatistics statistics = MeasureStatistics.empty(true);
+    MeasureStatisticsRegistry.applyReport(statistics, "writer", NOW, NOW);
+
+    DataLakeMeasureStatistics copy = new DataLakeMeasureStatistics(statistics);
+    MeasureStatisticsRegistry.applyReport(statistics, "writer", NOW + 1, NOW + 1);
+
+    assertEquals(Long.valueOf(NOW), copy.getReportSequences().get("writer"));
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query;
+
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.model.datalake.DataSeries;
+import org.apache.streampipes.model.datalake.SpQueryResult;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_LIMIT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TestDataLakeQueryExecutor {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  @Test
+  public void testIdenticalQueriesInFlightAreExecutedOnce() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+    BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query = (params, ignoreMissingData) -> {
+      executions.incrementAndGet();
+      await(release);
+      return makeResult();
+    };
+
+    CompletableFuture<SpQueryResult> first =
+        DataLakeQueryExecutor.INSTANCE.submit(makeParams("dedup", "widget-1"), false, query);
+    CompletableFuture<SpQueryResult> second =
+        DataLakeQueryExecutor.INSTANCE.submit(makeParams("dedup", "widget-2"), false, query);
+    release.countDown();
+
+    assertEquals("widget-1", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getForId());
+    assertEquals("widget-2", second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getForId());
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  public void testDifferentQueriesAreExecutedSeparately() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+    BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query = (params, ignoreMissingData) -> {
+      executions.incrementAndGet();
+      await(release);
+      return makeResult();
+    };
+
+    CompletableFuture<SpQueryResult> first =
+        DataLakeQueryExecutor.INSTANCE.submit(makeParams("different", "widget-1"), false, query);
+    CompletableFuture<SpQueryResult> second =
+        DataLakeQueryExecutor.INSTANCE.submit(makeParams("different", "widget-1"), true, query);
+    ProvidedQueryParams otherLimit = makeParams("different", "widget-1");
+    otherLimit.update(QP_LIMIT, 5);
+    CompletableFuture<SpQueryResult> third = DataLakeQueryExecutor.INSTANCE.submit(otherLimit, false, query);
+    release.countDown();
+
+    first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    third.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertEquals(3, executions.get());
+  }
+
+  @Test
+  public void testChangingParamsAfterSubmitDoesNotAffectQueryInFlight() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+    List<ProvidedQueryParams> executedParams = new ArrayList<>();
+    BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> query = (params, ignoreMissingData) -> {
+      executions.incrementAndGet();
+      await(release);
+      synchronized (executedParams) {
+        executedParams.add(params);
+      }
+      return makeResult();
+    };
+
+    ProvidedQueryParams params = makeParams("mutated", "widget-1");
+    CompletableFuture<SpQueryResult> first = DataLakeQueryExecutor.INSTANCE.submit(params, false, query);
+    params.update(QP_LIMIT, 5);
+    CompletableFuture<SpQueryResult> second =
+        DataLakeQueryExecutor.INSTANCE.submit(makeParams("mutated", "widget-2"), false, query);
+    release.countDown();
+
+    first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertEquals(1, executions.get());
+    assertEquals("10", executedParams.get(0).getAsString(QP_LIMIT));
+    assertFalse(executedParams.get(0).has(QueryResultProvider.FOR_ID_KEY));
+  }
+
+  @Test
+  public void testCopyForWidgetIsIsolatedFromSharedResult() {
+    SpQueryResult shared = makeResult();
+    shared.setSourceIndex(2);
+    shared.setForId("shared");
+
+    SpQueryResult first = DataLakeQueryExecutor.copyForWidget(shared, "widget-1");
+    SpQueryResult second = DataLakeQueryExecutor.copyForWidget(shared, "widget-2");
+    first.getHeaders().add("extra");
+    first.getAllDataSeries().clear();
+
+    assertEquals("shared", shared.getForId());
+    assertEquals("widget-1", first.getForId());
+    assertEquals("widget-2", second.getForId());
+    assertEquals(2, second.getSourceIndex());
+    assertEquals(Arrays.asList("time", "value"), shared.getHeaders());
+    assertEquals(Arrays.asList("time", "value"), second.getHeaders());
+    assertEquals(1, shared.getAllDataSeries().size());
+    assertEquals(1, second.getAllDataSeries().size());
+    assertNotSame(shared.getHeaders(), second.getHeaders());
+    assertSame(shared.getAllDataSeries().get(0), second.getAllDataSeries().get(0));
+  }
+
+  private static ProvidedQueryParams makeParams(String measurementId,
+                                                String forId) {
+    Map<String, String> params = new HashMap<>();
+    params.put(QP_LIMIT, "10");
+    params.put(QueryResultProvider.FOR_ID_KEY, forId);
+    return new ProvidedQueryParams(measurementId, params);
+  }
+
+  private static SpQueryResult makeResult() {
+    List<String> headers = Arrays.asList("time", "value");
+    List<List<Object>> rows = new ArrayList<>();
+    rows.add(Arrays.asList(0L, 1.0));
+    List<DataSeries> series = new ArrayList<>();
+    series.add(new DataSeries(rows.size(), rows, headers, new HashMap<>()));
+    return new SpQueryResult(1, new ArrayList<>(headers), series);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
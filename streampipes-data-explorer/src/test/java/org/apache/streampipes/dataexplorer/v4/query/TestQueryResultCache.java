@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.query;
+
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.model.datalake.DataSeries;
+import org.apache.streampipes.model.datalake.SpQueryResult;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_START_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class TestQueryResultCache {
+
+  private static final long MINUTE = 60 * 1000;
+  private static final List<String> HEADERS = Arrays.asList("time", "mean_value");
+
+  @Test
+  public void testParseDuration() {
+    assertEquals(500, QueryResultCache.parseDuration("500ms"));
+    assertEquals(90 * MINUTE, QueryResultCache.parseDuration("1h30m"));
+    assertEquals(7 * 24 * 60 * MINUTE, QueryResultCache.parseDuration("1w"));
+    assertEquals(-1, QueryResultCache.parseDuration("10u"));
+    assertEquals(-1, QueryResultCache.parseDuration("10"));
+    assertEquals(-1, QueryResultCache.parseDuration("1m foo"));
+    assertEquals(-1, QueryResultCache.parseDuration("0s"));
+  }
+
+  @Test
+  public void testMergedResultKeepsRowsWithinRanges() {
+    QueryResultCache.MergedResult merged = new QueryResultCache.MergedResult(MINUTE);
+    merged.add(makeResult(0, 3 * MINUTE), Long.MIN_VALUE, MINUTE);
+    merged.add(makeResult(0, 5 * MINUTE), MINUTE, 3 * MINUTE);
+    merged.add(makeResult(2 * MINUTE, 5 * MINUTE), 3 * MINUTE, Long.MAX_VALUE);
+
+    List<List<Object>> rows = merged.toResult(false).getAllDataSeries().get(0).getRows();
+
+    assertEquals(5, rows.size());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(i * MINUTE, rows.get(i).get(0));
+    }
+  }
+
+  @Test
+  public void testMergedResultReturnsOnlySettledBuckets() {
+    QueryResultCache.MergedResult merged = new QueryResultCache.MergedResult(MINUTE);
+    merged.add(makeResult(0, 5 * MINUTE), Long.MIN_VALUE, Long.MAX_VALUE);
+
+    List<QueryCacheEntry.Series> settled = merged.getSettledSeries(MINUTE, 3 * MINUTE);
+
+    assertEquals(1, settled.size());
+    assertEquals(2, settled.get(0).getRows().size());
+    assertEquals(MINUTE, settled.get(0).getTimes()[0]);
+    assertEquals(2 * MINUTE, settled.get(0).getTimes()[1]);
+  }
+
+  @Test
+  public void testMergedResultFiltersMissingValues() {
+    QueryResultCache.MergedResult merged = new QueryResultCache.MergedResult(MINUTE);
+    SpQueryResult result = makeResult(0, 3 * MINUTE);
+    result.getAllDataSeries().get(0).getRows().get(1).set(1, null);
+    merged.add(result, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    assertEquals(3, merged.toResult(false).getAllDataSeries().get(0).getRows().size());
+    assertEquals(2, merged.toResult(true).getAllDataSeries().get(0).getRows().size());
+  }
+
+  @Test
+  public void testMergedResultRejectsChangedHeaders() {
+    QueryResultCache.MergedResult merged = new QueryResultCache.MergedResult(MINUTE);
+    merged.add(makeResult(0, MINUTE), Long.MIN_VALUE, Long.MAX_VALUE);
+    SpQueryResult changed = new SpQueryResult(1, Arrays.asList("time", "other"), Collections.singletonList(
+        new DataSeries(0, new ArrayList<>(), Arrays.asList("time", "other"), null)));
+    try {
+      merged.add(changed, Long.MIN_VALUE, Long.MAX_VALUE);
+      fail();
+    } catch (QueryResultCache.NotCacheableException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testOpenRangeQueriesOnlyFetchUnsettledBuckets() {
+    long now = System.currentTimeMillis();
+    long startDate = now - 30 * MINUTE + 1234;
+    FakeQuery query = new FakeQuery();
+
+    SpQueryResult first = QueryResultCache.INSTANCE.getData(makeParams("open", startDate, null), false, query);
+    assertEquals(1, query.ranges.size());
+
+    SpQueryResult second = QueryResultCache.INSTANCE.getData(makeParams("open", startDate, null), false, query);
+
+    // the partial first bucket and the buckets after the settled range are queried again
+    assertEquals(3, query.ranges.size());
+    assertEquals(startDate, (long) query.ranges.get(1)[0]);
+    assertEquals(startDate - startDate % MINUTE + MINUTE, (long) query.ranges.get(1)[1]);
+    assertNull(query.ranges.get(2)[1]);
+    assertEquals(getTimes(first), getTimes(second));
+  }
+
+  @Test
+  public void testResultsDoNotShareRowsWithCache() {
+    long now = System.currentTimeMillis();
+    FakeQuery query = new FakeQuery();
+    ProvidedQueryParams params = makeParams("fixed", now - 60 * MINUTE, now - 30 * MINUTE);
+
+    SpQueryResult first = QueryResultCache.INSTANCE.getData(params, false, query);
+    int rowCount = first.getAllDataSeries().get(0).getRows().size();
+    first.getAllDataSeries().get(0).getRows().get(0).set(1, -1.0);
+    first.getAllDataSeries().get(0).getRows().clear();
+    SpQueryResult second = QueryResultCache.INSTANCE.getData(params, false, query);
+
+    assertEquals(1, query.ranges.size());
+    assertEquals(rowCount, second.getAllDataSeries().get(0).getRows().size());
+    assertEquals(getValue(second.getAllDataSeries().get(0).getRows().get(0)),
+        second.getAllDataSeries().get(0).getRows().get(0).get(1));
+  }
+
+  @Test
+  public void testCopyIsIndependentOfOriginal() {
+    SpQueryResult result = makeResult(0, 2 * MINUTE);
+
+    SpQueryResult copy = QueryResultCache.copy(result);
+    copy.getAllDataSeries().get(0).getRows().get(0).set(1, -1.0);
+    copy.getHeaders().add("other");
+
+    assertEquals(0.0, result.getAllDataSeries().get(0).getRows().get(0).get(1));
+    assertEquals(2, result.getHeaders().size());
+    assertNotNull(copy.getAllDataSeries().get(0).getHeaders());
+  }
+
+  private ProvidedQueryParams makeParams(String measurementId,
+                                         Long startDate,
+                                         Long endDate) {
+    Map<String, String> params = new HashMap<>();
+    params.put(QP_COLUMNS, "value");
+    params.put(QP_AGGREGATION_FUNCTION, "MEAN");
+    params.put(QP_TIME_INTERVAL, "1m");
+    params.put(QP_START_DATE, String.valueOf(startDate));
+    if (endDate != null) {
+      params.put(QP_END_DATE, String.valueOf(endDate));
+    }
+    return new ProvidedQueryParams(measurementId, params);
+  }
+
+  /**
+   * Returns one row per minute bucket which contains events in {@code (startDate, endDate)}, as
+   * InfluxDB does for queries grouped by time.
+   */
+  private static SpQueryResult makeResult(long startDate,
+                                          long endDate) {
+    List<List<Object>> rows = new ArrayList<>();
+    for (long time = startDate - Math.floorMod(startDate, MINUTE); time < endDate; time += MINUTE) {
+      rows.add(new ArrayList<>(Arrays.asList(time, getValue(Arrays.asList(time)))));
+    }
+    SpQueryResult result = new SpQueryResult(1, new ArrayList<>(HEADERS), new ArrayList<>());
+    result.addDataResult(new DataSeries(rows.size(), rows, new ArrayList<>(HEADERS), null));
+    return result;
+  }
+
+  private static Object getValue(List<Object> row) {
+    return (double) ((Long) row.get(0) / MINUTE % 100);
+  }
+
+  private List<Object> getTimes(SpQueryResult result) {
+    List<Object> times = new ArrayList<>();
+    result.getAllDataSeries().forEach(s -> s.getRows().forEach(row -> times.add(row.get(0))));
+    return times;
+  }
+
+  private static class FakeQuery implements BiFunction<ProvidedQueryParams, Boolean, SpQueryResult> {
+
+    private final List<Long[]> ranges = new ArrayList<>();
+
+    @Override
+    public SpQueryResult apply(ProvidedQueryParams params,
+                               Boolean ignoreMissingData) {
+      Long startDate = params.getAsLong(QP_START_DATE);
+      Long endDate = params.getAsLong(QP_END_DATE);
+      ranges.add(new Long[]{startDate, endDate});
+      return makeResult(startDate, endDate != null ? endDate : System.currentTimeMillis());
+    }
+  }
+}
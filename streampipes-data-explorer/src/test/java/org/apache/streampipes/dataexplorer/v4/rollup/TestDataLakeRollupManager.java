@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.rollup;
+
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestDataLakeRollupManager {
+
+  private static final long MINUTE = 60 * 1000;
+
+  private final RollupTier tier = makeTier();
+
+  @Test
+  public void testUnchangedBucketsAreNotRecomputed() {
+    Map<Long, List<Double>> counts = new HashMap<>();
+    counts.put(0L, Arrays.asList(3.0, 2.0));
+    counts.put(MINUTE, Arrays.asList(1.0, 1.0));
+
+    assertTrue(DataLakeRollupManager.findChangedRanges(tier, counts, new HashMap<>(counts)).isEmpty());
+  }
+
+  @Test
+  public void testAdjacentChangedBucketsAreMerged() {
+    Map<Long, List<Double>> raw = new HashMap<>();
+    raw.put(0L, Arrays.asList(3.0));
+    raw.put(MINUTE, Arrays.asList(2.0));
+    raw.put(2 * MINUTE, Arrays.asList(4.0));
+    raw.put(3 * MINUTE, Arrays.asList(1.0));
+    raw.put(4 * MINUTE, Arrays.asList(5.0));
+    Map<Long, List<Double>> rollup = new HashMap<>(raw);
+    rollup.put(MINUTE, Arrays.asList(1.0));
+    rollup.put(2 * MINUTE, Arrays.asList(3.0));
+    rollup.put(4 * MINUTE, Arrays.asList(0.0));
+
+    List<long[]> ranges = DataLakeRollupManager.findChangedRanges(tier, raw, rollup);
+
+    assertEquals(2, ranges.size());
+    assertArrayEquals(new long[]{MINUTE, 3 * MINUTE}, ranges.get(0));
+    assertArrayEquals(new long[]{4 * MINUTE, 5 * MINUTE}, ranges.get(1));
+  }
+
+  @Test
+  public void testMissingBucketsAreTreatedAsEmpty() {
+    Map<Long, List<Double>> raw = new HashMap<>();
+    raw.put(0L, Arrays.asList(0.0, 0.0));
+    raw.put(MINUTE, Arrays.asList(1.0, 0.0));
+    Map<Long, List<Double>> rollup = new HashMap<>();
+    rollup.put(0L, Collections.emptyList());
+
+    List<long[]> ranges = DataLakeRollupManager.findChangedRanges(tier, raw, rollup);
+
+    assertEquals(1, ranges.size());
+    assertArrayEquals(new long[]{MINUTE, 2 * MINUTE}, ranges.get(0));
+  }
+
+  private static RollupTier makeTier() {
+    DataLakeMeasure measure = new DataLakeMeasure("m", null);
+    measure.setRollupTiers(Collections.singletonList("1m"));
+    return RollupTier.fromMeasure(measure).get(0);
+  }
+}
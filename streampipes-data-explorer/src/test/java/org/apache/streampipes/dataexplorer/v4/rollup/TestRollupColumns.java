@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.rollup;
+
+import org.apache.streampipes.dataexplorer.v4.params.ColumnFunction;
+import org.apache.streampipes.dataexplorer.v4.params.SelectColumn;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestRollupColumns {
+
+  @Test
+  public void testMeanIsComputedFromSumAndCount() {
+    Optional<String> column = RollupColumns.makeQueryColumn(new SelectColumn("temp", ColumnFunction.MEAN, "avg"));
+
+    assertEquals("SUM(\"sum_temp\") / SUM(\"count_temp\") AS \"avg\"", column.get());
+  }
+
+  @Test
+  public void testAggregatesAreCombinedFromRollupColumns() {
+    assertEquals("MIN(\"min_temp\") AS \"min_temp\"", makeQueryColumn(ColumnFunction.MIN));
+    assertEquals("MAX(\"max_temp\") AS \"max_temp\"", makeQueryColumn(ColumnFunction.MAX));
+    assertEquals("SUM(\"sum_temp\") AS \"sum_temp\"", makeQueryColumn(ColumnFunction.SUM));
+    assertEquals("SUM(\"count_temp\") AS \"count_temp\"", makeQueryColumn(ColumnFunction.COUNT));
+    assertEquals("LAST(\"last_temp\") AS \"last_temp\"", makeQueryColumn(ColumnFunction.LAST));
+  }
+
+  @Test
+  public void testUnsupportedColumnsAreNotRewritten() {
+    assertFalse(RollupColumns.makeQueryColumn(new SelectColumn("temp", ColumnFunction.FIRST, "first")).isPresent());
+    assertFalse(RollupColumns.makeQueryColumn(new SelectColumn("temp", ColumnFunction.MODE, "mode")).isPresent());
+    assertFalse(RollupColumns.makeQueryColumn(new SelectColumn("temp")).isPresent());
+  }
+
+  @Test
+  public void testRollupColumnsFromRawData() {
+    assertEquals("MIN(\"temp\") AS \"min_temp\", MAX(\"temp\") AS \"max_temp\", SUM(\"temp\") AS \"sum_temp\", "
+            + "COUNT(\"temp\") AS \"count_temp\", LAST(\"temp\") AS \"last_temp\"",
+        RollupColumns.makeRollupColumns(Collections.singletonList("temp"), true));
+  }
+
+  @Test
+  public void testRollupColumnsFromFinerTier() {
+    assertEquals("MIN(\"min_temp\") AS \"min_temp\", MAX(\"max_temp\") AS \"max_temp\", "
+            + "SUM(\"sum_temp\") AS \"sum_temp\", SUM(\"count_temp\") AS \"count_temp\", "
+            + "LAST(\"last_temp\") AS \"last_temp\"",
+        RollupColumns.makeRollupColumns(Collections.singletonList("temp"), false));
+  }
+
+  @Test
+  public void testCountColumns() {
+    assertEquals("COUNT(\"a\") AS \"count_a\", COUNT(\"b\") AS \"count_b\"",
+        RollupColumns.makeCountColumns(Arrays.asList("a", "b"), true));
+    assertEquals("SUM(\"count_a\") AS \"count_a\", SUM(\"count_b\") AS \"count_b\"",
+        RollupColumns.makeCountColumns(Arrays.asList("a", "b"), false));
+  }
+
+  private String makeQueryColumn(ColumnFunction function) {
+    return RollupColumns.makeQueryColumn(
+        new SelectColumn("temp", function, function.name().toLowerCase() + "_temp")).get();
+  }
+}
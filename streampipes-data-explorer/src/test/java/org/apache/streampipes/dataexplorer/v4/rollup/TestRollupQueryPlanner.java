@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataexplorer.v4.rollup;
+
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.params.RollupSelectFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_AGGREGATION_FUNCTION;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_FILTER;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_START_DATE;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_TIME_INTERVAL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRollupQueryPlanner {
+
+  private static final long MINUTE = 60 * 1000;
+  private static final long HOUR = 60 * MINUTE;
+
+  private final RollupQueryPlanner planner = new RollupQueryPlanner(DataLakeRollupManager.INSTANCE);
+
+  @Test
+  public void testCoarsestTierDividingIntervalIsChosen() {
+    register("tiers", 10 * HOUR, 10 * HOUR, "1m", "1h");
+
+    assertEquals("tiers_rollup_1h", getSources(plan("tiers", "2h", null, null).get()).get(0)
+        .split("FROM ")[1].split(" ")[0].replace("\"", ""));
+    assertEquals("tiers_rollup_1m", getSources(plan("tiers", "90m", null, null).get()).get(0)
+        .split("FROM ")[1].split(" ")[0].replace("\"", ""));
+    assertFalse(plan("tiers", "30s", null, null).isPresent());
+  }
+
+  @Test
+  public void testTierWithoutDataIsSkipped() {
+    register("empty", 10 * HOUR, null, "1m", "1h");
+
+    assertTrue(getSources(plan("empty", "2h", null, null).get()).get(0).contains("\"empty_rollup_1m\""));
+  }
+
+  @Test
+  public void testMeanIsReadFromSumAndCount() {
+    register("mean", 10 * HOUR, null, "1m");
+
+    RollupSelectFromStatementParams select = getSelect(plan("mean", "5m", null, null).get());
+
+    assertEquals(Arrays.asList("SUM(\"sum_temp\") / SUM(\"count_temp\") AS \"mean_temp\""), select.getColumns());
+  }
+
+  @Test
+  public void testSourcesAreSplitAtWatermark() {
+    register("split", 5 * MINUTE, null, "1m");
+
+    List<String> sources = getSources(plan("split", "1m", 90 * 1000L, 10 * MINUTE).get());
+
+    assertEquals(3, sources.size());
+    assertTrue(sources.get(0).contains("FROM \"split\" WHERE time > 90000000000 AND time < 120000000000"));
+    assertTrue(sources.get(1).contains("FROM \"split_rollup_1m\" WHERE time >= 120000000000 AND time < 300000000000"));
+    assertTrue(sources.get(2).contains("FROM \"split\" WHERE time >= 300000000000 AND time < 600000000000"));
+    assertTrue(sources.get(0).startsWith("(SELECT MIN(\"temp\") AS \"min_temp\""));
+    assertTrue(sources.get(1).startsWith("(SELECT MIN(\"min_temp\") AS \"min_temp\""));
+  }
+
+  @Test
+  public void testRangeAfterWatermarkIsReadFromRawData() {
+    register("unbounded", 5 * MINUTE, null, "1m");
+
+    List<String> sources = getSources(plan("unbounded", "1m", null, null).get());
+
+    assertEquals(2, sources.size());
+    assertTrue(sources.get(0).contains("FROM \"unbounded_rollup_1m\" WHERE time < 300000000000"));
+    assertTrue(sources.get(1).contains("FROM \"unbounded\" WHERE time >= 300000000000 GROUP BY"));
+  }
+
+  @Test
+  public void testFilteredQueriesAreNotRouted() {
+    register("filtered", 10 * HOUR, null, "1m");
+    Map<String, String> params = makeParams("5m", null, null);
+    params.put(QP_FILTER, "[temp;>;10]");
+
+    assertFalse(planner.plan(new ProvidedQueryParams("filtered", params)).isPresent());
+  }
+
+  @Test
+  public void testUnsupportedAggregationIsNotRouted() {
+    register("first", 10 * HOUR, null, "1m");
+    Map<String, String> params = makeParams("5m", null, null);
+    params.put(QP_AGGREGATION_FUNCTION, "FIRST");
+
+    assertFalse(planner.plan(new ProvidedQueryParams("first", params)).isPresent());
+  }
+
+  private void register(String measureName,
+                        long finestWatermark,
+                        Long coarserWatermark,
+                        String... intervals) {
+    DataLakeMeasure measure = new DataLakeMeasure(measureName, null);
+    measure.setRollupTiers(Arrays.asList(intervals));
+    List<RollupTier> tiers = RollupTier.fromMeasure(measure);
+    DataLakeRollupManager.INSTANCE.register(measureName, tiers, Arrays.asList("temp"));
+    DataLakeRollupManager.INSTANCE.putWatermark(tiers.get(0), finestWatermark);
+    if (coarserWatermark != null) {
+      DataLakeRollupManager.INSTANCE.putWatermark(tiers.get(1), coarserWatermark);
+    }
+  }
+
+  private Optional<Map<String, QueryParamsV4>> plan(String measureName,
+                                                    String interval,
+                                                    Long startDate,
+                                                    Long endDate) {
+    return planner.plan(new ProvidedQueryParams(measureName, makeParams(interval, startDate, endDate)));
+  }
+
+  private Map<String, String> makeParams(String interval,
+                                         Long startDate,
+                                         Long endDate) {
+    Map<String, String> params = new HashMap<>();
+    params.put(QP_COLUMNS, "temp");
+    params.put(QP_AGGREGATION_FUNCTION, "MEAN");
+    params.put(QP_TIME_INTERVAL, interval);
+    if (startDate != null) {
+      params.put(QP_START_DATE, String.valueOf(startDate));
+    }
+    if (endDate != null) {
+      params.put(QP_END_DATE, String.valueOf(endDate));
+    }
+    return params;
+  }
+
+  private RollupSelectFromStatementParams getSelect(Map<String, QueryParamsV4> queryParts) {
+    return (RollupSelectFromStatementParams) queryParts.get(DataLakeManagementUtils.SELECT_FROM);
+  }
+
+  private List<String> getSources(Map<String, QueryParamsV4> queryParts) {
+    return getSelect(queryParts).getSources();
+  }
+}
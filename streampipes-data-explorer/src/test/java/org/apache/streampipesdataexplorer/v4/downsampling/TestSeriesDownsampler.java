@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipesdataexplorer.v4.downsampling;
+
+import org.apache.streampipes.dataexplorer.v4.downsampling.DownsamplingMode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestSeriesDownsampler {
+
+  private static final List<String> COLUMNS = Arrays.asList("time", "value", "sensor");
+  private static final int ROW_COUNT = 1000;
+  private static final int SPIKE_ROW = 503;
+
+  @Test
+  public void testLttbKeepsBoundsAndSpike() {
+    List<List<Object>> rows = makeRows();
+
+    List<List<Object>> result = DownsamplingMode.LTTB.makeDownsampler().downsample(COLUMNS, rows, 50);
+
+    assertEquals(50, result.size());
+    assertSame(rows.get(0), result.get(0));
+    assertSame(rows.get(ROW_COUNT - 1), result.get(49));
+    assertTrue(result.contains(rows.get(SPIKE_ROW)));
+    assertOrdered(result);
+  }
+
+  @Test
+  public void testMinMaxKeepsSpike() {
+    List<List<Object>> rows = makeRows();
+
+    List<List<Object>> result = DownsamplingMode.MIN_MAX.makeDownsampler().downsample(COLUMNS, rows, 50);
+
+    assertTrue(result.size() <= 50);
+    assertTrue(result.contains(rows.get(SPIKE_ROW)));
+    assertOrdered(result);
+  }
+
+  @Test
+  public void testSmallSeriesIsNotDownsampled() {
+    List<List<Object>> rows = makeRows().subList(0, 20);
+
+    assertSame(rows, DownsamplingMode.LTTB.makeDownsampler().downsample(COLUMNS, rows, 50));
+    assertSame(rows, DownsamplingMode.MIN_MAX.makeDownsampler().downsample(COLUMNS, rows, 50));
+  }
+
+  @Test
+  public void testMissingValues() {
+    List<List<Object>> rows = makeRows();
+    rows.get(SPIKE_ROW + 1).set(1, null);
+
+    List<List<Object>> result = DownsamplingMode.LTTB.makeDownsampler().downsample(COLUMNS, rows, 50);
+
+    assertEquals(50, result.size());
+    assertTrue(result.contains(rows.get(SPIKE_ROW)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownMode() {
+    DownsamplingMode.fromName("average");
+  }
+
+  private List<List<Object>> makeRows() {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      double value = i == SPIKE_ROW ? 100.0 : Math.sin(i / 50.0);
+      rows.add(new ArrayList<>(Arrays.asList(1668578077051L + i * 1000L, value, "sensor1")));
+    }
+    return rows;
+  }
+
+  private void assertOrdered(List<List<Object>> rows) {
+    for (int i = 1; i < rows.size(); i++) {
+      assertTrue((Long) rows.get(i - 1).get(0) < (Long) rows.get(i).get(0));
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipesdataexplorer.v4.engine;
+
+import org.apache.streampipes.dataexplorer.commons.embedded.EmbeddedStorage;
+import org.apache.streampipes.dataexplorer.commons.embedded.EmbeddedStore;
+import org.apache.streampipes.dataexplorer.v4.engine.EmbeddedQueryEngine;
+import org.apache.streampipes.dataexplorer.v4.params.DeleteFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.params.GroupingByTagsParams;
+import org.apache.streampipes.dataexplorer.v4.params.GroupingByTimeParams;
+import org.apache.streampipes.dataexplorer.v4.params.ItemLimitationParams;
+import org.apache.streampipes.dataexplorer.v4.params.OrderingByTimeParams;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.params.SelectFromStatementParams;
+import org.apache.streampipes.dataexplorer.v4.params.TimeBoundaryParams;
+import org.apache.streampipes.dataexplorer.v4.params.WhereStatementParams;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.datalake.DataSeries;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.XSD;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestEmbeddedQueryEngine {
+
+  private static final String MEASURE = "test";
+  private static final long DAY = 24 * 60 * 60 * 1000L;
+  private static final long START = 19000 * DAY;
+
+  private EmbeddedStorage storage;
+  private EmbeddedQueryEngine engine;
+
+  @Before
+  public void setUp() throws IOException {
+    storage = new EmbeddedStorage(Files.createTempDirectory("embedded"));
+    engine = new EmbeddedQueryEngine(storage);
+
+    DataLakeMeasure measure = new DataLakeMeasure(MEASURE, "s0::timestamp", makeSchema());
+    // small segments, so that queries span several segments and partitions
+    EmbeddedStore store = new EmbeddedStore(measure, storage, 3, 60000);
+    for (int i = 0; i < 10; i++) {
+      Map<String, Object> event = new HashMap<>();
+      event.put("timestamp", START + (i < 5 ? i * 1000L : DAY + i * 1000L));
+      event.put("value", i * 1.5);
+      event.put("count", i);
+      event.put("sensor", i % 2 == 0 ? "a" : "b");
+      store.onEvent(EventFactory.fromMap(event, new SourceInfo("topic", "s0"), new SchemaInfo(makeSchema(),
+          Collections.emptyList())));
+    }
+    store.close();
+  }
+
+  @Test
+  public void testRawQuery() {
+    List<DataSeries> result = engine.executeQuery(makeSelect(null, null));
+
+    assertEquals(1, result.size());
+    assertEquals(Arrays.asList("time", "count", "sensor", "value"), result.get(0).getHeaders());
+    assertEquals(10, result.get(0).getRows().size());
+    assertEquals(Arrays.asList("2022-01-08T00:00:00Z", 0.0, "a", 0.0), result.get(0).getRows().get(0));
+    assertEquals(7.0, result.get(0).getRows().get(7).get(1));
+  }
+
+  @Test
+  public void testConditionsOrderAndLimit() {
+    Map<String, QueryParamsV4> params = makeSelect("value", null);
+    params.put(DataLakeManagementUtils.WHERE, WhereStatementParams.from(MEASURE, START, START + 2 * DAY,
+        "[value;>;4],[sensor;=;b]"));
+    params.put(DataLakeManagementUtils.ORDER_DESCENDING, OrderingByTimeParams.from(MEASURE, "DESC"));
+    params.put(DataLakeManagementUtils.LIMIT, ItemLimitationParams.from(MEASURE, 2));
+
+    List<List<Object>> rows = engine.executeQuery(params).get(0).getRows();
+
+    assertEquals(2, rows.size());
+    assertEquals(13.5, rows.get(0).get(1));
+    assertEquals(10.5, rows.get(1).get(1));
+    assertEquals(4, engine.countResults(makeCountQuery(params)));
+  }
+
+  @Test
+  public void testAggregation() {
+    Map<String, QueryParamsV4> params = makeSelect("value", "MEAN");
+    params.put(DataLakeManagementUtils.GROUP_BY_TIME, GroupingByTimeParams.from(MEASURE, "1d"));
+
+    List<List<Object>> rows = engine.executeQuery(params).get(0).getRows();
+
+    assertEquals(2, rows.size());
+    assertEquals(Arrays.asList("2022-01-08T00:00:00Z", 3.0), rows.get(0));
+    assertEquals(Arrays.asList("2022-01-09T00:00:00Z", 10.5), rows.get(1));
+  }
+
+  @Test
+  public void testGroupingByTags() {
+    Map<String, QueryParamsV4> params = makeSelect("count", "COUNT");
+    params.put(DataLakeManagementUtils.GROUP_BY_TAGS, GroupingByTagsParams.from(MEASURE, "sensor"));
+
+    List<DataSeries> result = engine.executeQuery(params);
+
+    assertEquals(2, result.size());
+    assertEquals("a", result.get(0).getTags().get("sensor"));
+    assertEquals(5.0, result.get(0).getRows().get(0).get(1));
+    assertEquals(Arrays.asList("a", "b"), engine.getTagValues(MEASURE, List.of("sensor")).get("sensor"));
+  }
+
+  @Test
+  public void testDeleteAndDrop() throws IOException {
+    Map<String, QueryParamsV4> delete = new HashMap<>();
+    delete.put(DataLakeManagementUtils.DELETE_FROM, DeleteFromStatementParams.from(MEASURE));
+    delete.put(DataLakeManagementUtils.WHERE, TimeBoundaryParams.from(MEASURE, START, START + DAY));
+    engine.deleteData(delete);
+
+    List<List<Object>> rows = engine.executeQuery(makeSelect(null, null)).get(0).getRows();
+    assertEquals(6, rows.size());
+    assertEquals("2022-01-08T00:00:00Z", rows.get(0).get(0));
+
+    assertTrue(engine.dropMeasurement(MEASURE));
+    assertTrue(engine.executeQuery(makeSelect(null, null)).isEmpty());
+  }
+
+  @Test
+  public void testStreamedQuery() throws IOException {
+    List<List<Object>> rows = new ArrayList<>();
+    long returned = engine.executeQuery(makeSelect("value,count", null), false, 2, (columns, row) -> rows.add(row));
+
+    assertEquals(10, returned);
+    assertEquals(Arrays.asList("2022-01-09T00:00:09Z", 13.5, 9.0), rows.get(9));
+  }
+
+  private Map<String, QueryParamsV4> makeSelect(String columns,
+                                                String aggregationFunction) {
+    Map<String, QueryParamsV4> params = new HashMap<>();
+    params.put(DataLakeManagementUtils.SELECT_FROM,
+        SelectFromStatementParams.from(MEASURE, columns, aggregationFunction));
+    return params;
+  }
+
+  private Map<String, QueryParamsV4> makeCountQuery(Map<String, QueryParamsV4> params) {
+    Map<String, QueryParamsV4> countParams = new HashMap<>(params);
+    countParams.remove(DataLakeManagementUtils.LIMIT);
+    return countParams;
+  }
+
+  private EventSchema makeSchema() {
+    EventPropertyPrimitive sensor =
+        new EventPropertyPrimitive(XSD.STRING.toString(), "sensor", "", Collections.emptyList());
+    sensor.setPropertyScope(PropertyScope.DIMENSION_PROPERTY.name());
+    return new EventSchema(Arrays.asList(
+        new EventPropertyPrimitive(XSD.LONG.toString(), "timestamp", "", Collections.emptyList()),
+        new EventPropertyPrimitive(XSD.DOUBLE.toString(), "value", "", Collections.emptyList()),
+        new EventPropertyPrimitive(XSD.INTEGER.toString(), "count", "", Collections.emptyList()),
+        sensor));
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipesdataexplorer.v4.query;
+
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.params.ItemLimitationParams;
+import org.apache.streampipes.dataexplorer.v4.params.OffsetParams;
+import org.apache.streampipes.dataexplorer.v4.params.QueryParamsV4;
+import org.apache.streampipes.dataexplorer.v4.params.WhereCondition;
+import org.apache.streampipes.dataexplorer.v4.params.WhereStatementParams;
+import org.apache.streampipes.dataexplorer.v4.query.QueryRowHandler;
+import org.apache.streampipes.dataexplorer.v4.query.StreamedQueryResultProvider;
+import org.apache.streampipes.dataexplorer.v4.query.writer.ConfiguredOutputWriter;
+import org.apache.streampipes.dataexplorer.v4.query.writer.OutputFormat;
+import org.apache.streampipes.dataexplorer.v4.utils.DataLakeManagementUtils;
+import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.datalake.DataSeries;
+import org.apache.streampipes.model.datalake.SpQueryResult;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING_POINTS;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_LIMIT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestStreamedQueryResultProvider {
+
+  private static final List<String> COLUMNS = Arrays.asList("time", "value");
+
+  @Test
+  public void testNullOnlyFirstPage() throws IOException {
+    var rows = makeRows(null, null, null, 4, 5, 6);
+
+    var exported = export(rows, 3, null, true);
+
+    assertEquals(Arrays.asList(4, 5, 6), values(exported));
+  }
+
+  @Test
+  public void testNullOnlyPagesWithoutLimit() throws IOException {
+    var rows = makeRows(1, null, null, null, null, null, null, 8);
+
+    var exported = export(rows, 3, null, true);
+
+    assertEquals(Arrays.asList(1, 8), values(exported));
+  }
+
+  @Test
+  public void testLimitCountsWrittenRows() throws IOException {
+    var rows = makeRows(1, null, 3, null, 5, 6, 7);
+
+    var exported = export(rows, 100, 3, true);
+
+    assertEquals(Arrays.asList(1, 3, 5), values(exported));
+  }
+
+  @Test
+  public void testMissingValuesAreKept() throws IOException {
+    var rows = makeRows(1, null, 3);
+
+    var exported = export(rows, 2, null, false);
+
+    assertEquals(Arrays.asList(1, null, 3), values(exported));
+  }
+
+  @Test
+  public void testEqualTimestampsAcrossPages() throws IOException {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      rows.add(Arrays.asList(i < 5 ? 1L : 2L, i));
+    }
+    rows.set(2, Arrays.asList(1L, null));
+
+    var exported = export(rows, 2, null, true);
+
+    assertEquals(Arrays.asList(0, 1, 3, 4, 5, 6), values(exported));
+  }
+
+  @Test
+  public void testDownsampledExportIsQueriedOnce() throws IOException {
+    Map<String, String> params = new HashMap<>();
+    params.put(QP_DOWNSAMPLING, "lttb");
+    params.put(QP_DOWNSAMPLING_POINTS, "10");
+    var rows = makeRows(1, 2, 3);
+    var provider = new PagedProvider(new ProvidedQueryParams("test", params), true, rows, 2);
+    var writer = new CollectingWriter();
+
+    provider.exportAll(writer);
+
+    assertEquals(0, provider.pages);
+    assertEquals(1, provider.resultQueries);
+    assertEquals(rows, writer.rows);
+  }
+
+  private List<List<Object>> export(List<List<Object>> rows,
+                                    int pageSize,
+                                    Integer limit,
+                                    boolean ignoreMissingValues) throws IOException {
+    Map<String, String> params = new HashMap<>();
+    if (limit != null) {
+      params.put(QP_LIMIT, String.valueOf(limit));
+    }
+    var provider = new PagedProvider(new ProvidedQueryParams("test", params), ignoreMissingValues, rows, pageSize);
+    var writer = new CollectingWriter();
+    provider.export(writer);
+    assertTrue(provider.pages < 100);
+    return writer.rows;
+  }
+
+  private List<List<Object>> makeRows(Integer... values) {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < values.length; i++) {
+      rows.add(Arrays.asList((long) i + 1, values[i]));
+    }
+    return rows;
+  }
+
+  private List<Object> values(List<List<Object>> rows) {
+    List<Object> values = new ArrayList<>();
+    rows.forEach(row -> values.add(row.get(1)));
+    return values;
+  }
+
+  /**
+   * Answers the page queries from a list of rows ordered by time, as the storage engine would.
+   */
+  private static class PagedProvider extends StreamedQueryResultProvider {
+
+    private final List<List<Object>> rows;
+    private final int pageSize;
+    private int pages;
+    private int resultQueries;
+
+    PagedProvider(ProvidedQueryParams params,
+                  boolean ignoreMissingValues,
+                  List<List<Object>> rows,
+                  int pageSize) {
+      super(params, OutputFormat.CSV, ignoreMissingValues);
+      this.rows = rows;
+      this.pageSize = pageSize;
+    }
+
+    void export(ConfiguredOutputWriter writer) throws IOException {
+      var measure = new DataLakeMeasure();
+      measure.setTimestampField("s0::timestamp");
+      writeRawData(writer, measure, new ByteArrayOutputStream());
+    }
+
+    void exportAll(ConfiguredOutputWriter writer) throws IOException {
+      var measure = new DataLakeMeasure();
+      measure.setTimestampField("s0::timestamp");
+      writeData(writer, measure, new ByteArrayOutputStream());
+    }
+
+    @Override
+    public SpQueryResult getData() {
+      resultQueries++;
+      var result = new SpQueryResult();
+      result.setTotal(1);
+      result.setHeaders(COLUMNS);
+      result.addDataResult(new DataSeries(rows.size(), rows, COLUMNS, new HashMap<>()));
+      return result;
+    }
+
+    @Override
+    protected int getMaxResultsPerQuery() {
+      return pageSize;
+    }
+
+    @Override
+    protected long executePage(Map<String, QueryParamsV4> queryParts,
+                               QueryRowHandler handler) throws IOException {
+      if (++pages >= 100) {
+        return 0;
+      }
+      long cursor = Long.MIN_VALUE;
+      var where = (WhereStatementParams) queryParts.get(DataLakeManagementUtils.WHERE);
+      if (where != null) {
+        for (WhereCondition condition : where.getWhereConditions()) {
+          cursor = Long.parseLong(condition.getCondition());
+        }
+      }
+      var offsetParams = (OffsetParams) queryParts.get(DataLakeManagementUtils.OFFSET);
+      int offset = offsetParams != null ? offsetParams.getOffset() : 0;
+      int limit = ((ItemLimitationParams) queryParts.get(DataLakeManagementUtils.LIMIT)).getLimit();
+
+      long returned = 0;
+      for (List<Object> row : rows) {
+        if ((long) row.get(0) >= cursor && offset-- <= 0 && returned < limit) {
+          handler.onRow(COLUMNS, row);
+          returned++;
+        }
+      }
+      return returned;
+    }
+  }
+
+  private static class CollectingWriter extends ConfiguredOutputWriter {
+
+    private final List<List<Object>> rows = new ArrayList<>();
+
+    @Override
+    public void configure(ProvidedQueryParams params,
+                          boolean ignoreMissingValues) {
+    }
+
+    @Override
+    public void beforeFirstItem(OutputStream outputStream) {
+    }
+
+    @Override
+    public void afterLastItem(OutputStream outputStream) {
+    }
+
+    @Override
+    public void writeItem(OutputStream outputStream,
+                          List<Object> row,
+                          List<String> columnNames,
+                          boolean firstObject) {
+      rows.add(row);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipesdataexplorer.v4.query.writer;
+
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.query.writer.columnar.ConfiguredArrowOutputWriter;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestConfiguredArrowOutputWriter extends TestConfiguredOutputWriter {
+
+  private static final int CONTINUATION = 0xFFFFFFFF;
+
+  @Test
+  public void testArrowOutputWriter() throws IOException {
+    var writer = new ConfiguredArrowOutputWriter();
+    writer.configure(new ProvidedQueryParams(null, new HashMap<>()), true);
+
+    try (var outputStream = new ByteArrayOutputStream()) {
+      writer.beforeFirstItem(outputStream);
+
+      for (int i = 0; i < rows.size(); i++) {
+        writer.writeItem(outputStream, rows.get(i), columns, i == 0);
+      }
+
+      writer.afterLastItem(outputStream);
+      ByteBuffer stream = ByteBuffer.wrap(outputStream.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+      // schema message, one record batch and the end-of-stream marker
+      assertEquals(2, countMessages(stream));
+      assertEquals(stream.limit(), stream.position());
+    }
+  }
+
+  @Test
+  public void testArrowStreamCanBeReadByArrowReader() throws IOException {
+    List<String> columns = Arrays.asList("time", "string", "number", "flag");
+    List<List<Object>> rows = Arrays.asList(
+        Arrays.asList(1668578077051L, "test", 1.5, true),
+        Arrays.asList(1668578127050L, null, null, false),
+        Arrays.asList(1668578177049L, "test3", 3, null)
+    );
+
+    // two rows per record batch, so that the stream consists of two record batches
+    var writer = new ConfiguredArrowOutputWriter(2);
+    writer.configure(new ProvidedQueryParams(null, new HashMap<>()), true);
+    var outputStream = new ByteArrayOutputStream();
+    writer.beforeFirstItem(outputStream);
+    for (int i = 0; i < rows.size(); i++) {
+      writer.writeItem(outputStream, rows.get(i), columns, i == 0);
+    }
+    writer.afterLastItem(outputStream);
+
+    try (BufferAllocator allocator = new RootAllocator();
+         var reader = new ArrowStreamReader(new ByteArrayInputStream(outputStream.toByteArray()), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertEquals(columns.size(), root.getSchema().getFields().size());
+      assertEquals("UTC", ((TimeStampMilliTZVector) root.getVector("time")).getTimeZone());
+
+      assertTrue(reader.loadNextBatch());
+      assertEquals(2, root.getRowCount());
+      var time = (TimeStampMilliTZVector) root.getVector("time");
+      var string = (VarCharVector) root.getVector("string");
+      var number = (Float8Vector) root.getVector("number");
+      var flag = (BitVector) root.getVector("flag");
+      assertEquals(1668578077051L, time.get(0));
+      assertEquals("test", string.getObject(0).toString());
+      assertEquals(1.5, number.get(0), 0.0);
+      assertEquals(1, flag.get(0));
+      assertEquals(1668578127050L, time.get(1));
+      assertTrue(string.isNull(1));
+      assertTrue(number.isNull(1));
+      assertEquals(0, flag.get(1));
+
+      assertTrue(reader.loadNextBatch());
+      assertEquals(1, root.getRowCount());
+      assertEquals(1668578177049L, ((TimeStampMilliTZVector) root.getVector("time")).get(0));
+      assertEquals("test3", root.getVector("string").getObject(0).toString());
+      assertEquals(3.0, ((Float8Vector) root.getVector("number")).get(0), 0.0);
+      assertTrue(root.getVector("flag").isNull(0));
+
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  private int countMessages(ByteBuffer stream) {
+    int messages = 0;
+    while (true) {
+      assertEquals(CONTINUATION, stream.getInt());
+      int metadataLength = stream.getInt();
+      if (metadataLength == 0) {
+        return messages;
+      }
+      assertEquals(0, (8 + metadataLength) % 8);
+
+      // the body length is the last field of the message table
+      ByteBuffer message = stream.slice().order(ByteOrder.LITTLE_ENDIAN);
+      int root = message.getInt(0);
+      int vtable = root - message.getInt(root);
+      int bodyLengthOffset = message.getShort(vtable + 4 + 3 * 2);
+      long bodyLength = bodyLengthOffset != 0 ? message.getLong(root + bodyLengthOffset) : 0;
+
+      stream.position(stream.position() + metadataLength + (int) bodyLength);
+      messages++;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipesdataexplorer.v4.query.writer;
+
+import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.query.writer.columnar.ConfiguredParquetOutputWriter;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestConfiguredParquetOutputWriter extends TestConfiguredOutputWriter {
+
+  private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+  @Test
+  public void testParquetOutputWriter() throws IOException {
+    // a batch size of one row results in one row group per row
+    var writer = new ConfiguredParquetOutputWriter(1);
+    writer.configure(new ProvidedQueryParams(null, new HashMap<>()), true);
+
+    try (var outputStream = new ByteArrayOutputStream()) {
+      writer.beforeFirstItem(outputStream);
+
+      for (int i = 0; i < rows.size(); i++) {
+        writer.writeItem(outputStream, rows.get(i), columns, i == 0);
+      }
+
+      writer.afterLastItem(outputStream);
+      byte[] file = outputStream.toByteArray();
+
+      assertEquals(ByteBuffer.wrap(MAGIC), ByteBuffer.wrap(file, 0, 4));
+      assertEquals(ByteBuffer.wrap(MAGIC), ByteBuffer.wrap(file, file.length - 4, 4));
+
+      int footerLength = ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+      assertTrue(footerLength > 0 && footerLength < file.length - 12);
+
+      String footer = new String(Arrays.copyOfRange(file, file.length - 8 - footerLength, file.length - 8),
+          StandardCharsets.UTF_8);
+      assertTrue(footer.contains("time"));
+      assertTrue(footer.contains("string"));
+      assertTrue(footer.contains("number"));
+    }
+  }
+
+  @Test
+  public void testParquetFileCanBeReadByParquetReader() throws IOException {
+    List<String> columns = Arrays.asList("time", "string", "number", "flag");
+    List<List<Object>> rows = Arrays.asList(
+        Arrays.asList(1668578077051L, "test", 1.5, true),
+        Arrays.asList(1668578127050L, null, null, false),
+        Arrays.asList(1668578177049L, "test3", 3, null)
+    );
+
+    // two rows per row group, so that the file consists of two row groups
+    var writer = new ConfiguredParquetOutputWriter(2);
+    writer.configure(new ProvidedQueryParams(null, new HashMap<>()), true);
+    Path file = Files.createTempFile("export", ".parquet");
+
+    try (var outputStream = Files.newOutputStream(file)) {
+      writer.beforeFirstItem(outputStream);
+      for (int i = 0; i < rows.size(); i++) {
+        writer.writeItem(outputStream, rows.get(i), columns, i == 0);
+      }
+      writer.afterLastItem(outputStream);
+    }
+
+    var path = new org.apache.hadoop.fs.Path(file.toUri());
+    try (var fileReader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()))) {
+      MessageType schema = fileReader.getFooter().getFileMetaData().getSchema();
+      assertEquals(2, fileReader.getRowGroups().size());
+      assertEquals(PrimitiveTypeName.INT64, schema.getType("time").asPrimitiveType().getPrimitiveTypeName());
+      assertEquals(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS),
+          schema.getType("time").getLogicalTypeAnnotation());
+      assertEquals(PrimitiveTypeName.BINARY, schema.getType("string").asPrimitiveType().getPrimitiveTypeName());
+      assertEquals(PrimitiveTypeName.DOUBLE, schema.getType("number").asPrimitiveType().getPrimitiveTypeName());
+      assertEquals(PrimitiveTypeName.BOOLEAN, schema.getType("flag").asPrimitiveType().getPrimitiveTypeName());
+    }
+
+    List<Group> groups = new ArrayList<>();
+    try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path).build()) {
+      for (Group group = reader.read(); group != null; group = reader.read()) {
+        groups.add(group);
+      }
+    } finally {
+      Files.delete(file);
+    }
+
+    assertEquals(3, groups.size());
+    assertEquals(1668578077051L, groups.get(0).getLong("time", 0));
+    assertEquals("test", groups.get(0).getString("string", 0));
+    assertEquals(1.5, groups.get(0).getDouble("number", 0), 0.0);
+    assertTrue(groups.get(0).getBoolean("flag", 0));
+
+    assertEquals(1668578127050L, groups.get(1).getLong("time", 0));
+    assertEquals(0, groups.get(1).getFieldRepetitionCount("string"));
+    assertEquals(0, groups.get(1).getFieldRepetitionCount("number"));
+    assertFalse(groups.get(1).getBoolean("flag", 0));
+
+    assertEquals(1668578177049L, groups.get(2).getLong("time", 0));
+    assertEquals("test3", groups.get(2).getString("string", 0));
+    assertEquals(3.0, groups.get(2).getDouble("number", 0), 0.0);
+    assertEquals(0, groups.get(2).getFieldRepetitionCount("flag"));
+  }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataformat.binary;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventConverter;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
+import org.apache.streampipes.model.schema.EventSchema;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schema-bound binary format for streams with mostly primitive, fixed-schema values.
+ *
+ * <p>A message consists of a header (magic byte, version, schema fingerprint, offsets of the
+ * fixed and the extra section), the descriptor of the schema, a bitmap of the fields present in
+ * the fixed section, the fixed section with one slot per primitive property of the schema, the
+ * UTF-8 bytes of string values and finally an optional JSON-encoded section with all values that
+ * do not fit into the fixed section, such as nested properties, lists or properties which are not
+ * part of the schema.</p>
+ *
+ * <p>Consumers decode the fixed section with the schema of the fingerprint if it is known within
+ * their JVM and read the embedded descriptor otherwise. Without a bound schema, all values are
+ * written to the extra section.</p>
+ */
+public class BinaryDataFormatDefinition implements SpDataFormatDefinition {
+
+  private static final byte MAGIC = 0x42;
+  private static final byte VERSION = 2;
+  private static final int HEADER_LENGTH = 18;
+  private static final int FINGERPRINT_POSITION = 2;
+  private static final int DATA_POSITION = 10;
+  private static final int EXTRAS_POSITION = 14;
+
+  private final BinarySchema schema;
+  private final ObjectMapper objectMapper;
+  private final Map<EventLayout, int[]> layoutSlots;
+
+  public BinaryDataFormatDefinition() {
+    this(null);
+  }
+
+  public BinaryDataFormatDefinition(BinarySchema schema) {
+    this.schema = schema;
+    this.objectMapper = new ObjectMapper();
+    this.layoutSlots = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public SpDataFormatDefinition bindSchema(EventSchema eventSchema) {
+    return eventSchema != null ? new BinaryDataFormatDefinition(BinarySchema.of(eventSchema)) : this;
+  }
+
+  @Override
+  public Map<String, Object> toMap(byte[] event) throws SpRuntimeException {
+    ByteBuffer buffer = ByteBuffer.wrap(event);
+    BinarySchema messageSchema = getMessageSchema(buffer);
+    Map<String, Object> result = new HashMap<>();
+
+    if (messageSchema != null) {
+      int dataStart = buffer.getInt(DATA_POSITION);
+      for (int slot = 0; slot < messageSchema.size(); slot++) {
+        if (isPresent(buffer, dataStart, slot)) {
+          result.put(messageSchema.getRuntimeName(slot),
+              messageSchema.getType(slot).read(buffer, fixedPosition(messageSchema, dataStart, slot)));
+        }
+      }
+    }
+    result.putAll(readExtras(buffer));
+    return result;
+  }
+
+  @Override
+  public byte[] fromMap(Map<String, Object> event) throws SpRuntimeException {
+    Object[] values = schema != null ? new Object[schema.size()] : null;
+    Map<String, Object> extras = new LinkedHashMap<>();
+
+    event.forEach((runtimeName, value) -> {
+      if (!assignSlot(values, runtimeName, value)) {
+        extras.put(runtimeName, value);
+      }
+    });
+    return write(values, extras);
+  }
+
+  @Override
+  public Event toEvent(byte[] event,
+                       SourceInfo sourceInfo,
+                       SchemaInfo schemaInfo,
+                       EventLayout eventLayout) throws SpRuntimeException {
+    ByteBuffer buffer = ByteBuffer.wrap(event);
+    BinarySchema messageSchema = getMessageSchema(buffer);
+    Map<String, AbstractField> fields = eventLayout.makeFieldMap();
+
+    if (messageSchema != null) {
+      int dataStart = buffer.getInt(DATA_POSITION);
+      int[] layoutSlots = getLayoutSlots(messageSchema, eventLayout);
+      for (int slot = 0; slot < messageSchema.size(); slot++) {
+        if (isPresent(buffer, dataStart, slot)) {
+          String runtimeName = messageSchema.getRuntimeName(slot);
+          int layoutSlot = layoutSlots[slot];
+          String selector = layoutSlot >= 0
+              ? eventLayout.getSelector(layoutSlot)
+              : eventLayout.makeSelector(runtimeName);
+          String runtimeNameOut = layoutSlot >= 0
+              ? eventLayout.getRuntimeNameOut(layoutSlot)
+              : eventLayout.getNewRuntimeName(selector, runtimeName);
+          fields.put(selector, new LazyPrimitiveField(runtimeName, runtimeNameOut, buffer,
+              fixedPosition(messageSchema, dataStart, slot), messageSchema.getType(slot)));
+        }
+      }
+    }
+
+    Map<String, Object> extras = readExtras(buffer);
+    if (!extras.isEmpty()) {
+      fields.putAll(EventFactory.fromMap(extras, sourceInfo, schemaInfo, eventLayout).getFields());
+    }
+    return new Event(fields, sourceInfo, schemaInfo);
+  }
+
+  @Override
+  public byte[] fromEvent(Event event) throws SpRuntimeException {
+    Object[] values = schema != null ? new Object[schema.size()] : null;
+    Map<String, Object> extras = new LinkedHashMap<>();
+
+    for (AbstractField field : event.getFields().values()) {
+      boolean assigned = field instanceof PrimitiveField
+          && assignSlot(values, field.getFieldNameOut(), field.getRawValue());
+      if (!assigned) {
+        extras.put(field.getFieldNameOut(), null);
+      }
+    }
+
+    if (!extras.isEmpty()) {
+      // nested and list values are converted only if they occur
+      Map<String, Object> eventMap = new EventConverter(event).toMap();
+      extras.replaceAll((runtimeName, value) -> eventMap.get(runtimeName));
+    }
+    return write(values, extras);
+  }
+
+  private boolean assignSlot(Object[] values,
+                             String runtimeName,
+                             Object value) {
+    if (values == null) {
+      return false;
+    }
+    int slot = schema.getSlot(runtimeName);
+    if (slot >= 0 && value != null && schema.getType(slot).canWrite(value)) {
+      values[slot] = value;
+      return true;
+    }
+    return false;
+  }
+
+  private byte[] write(Object[] values,
+                       Map<String, Object> extras) throws SpRuntimeException {
+    byte[][] strings = null;
+    int stringLength = 0;
+    if (values != null) {
+      for (int slot = 0; slot < values.length; slot++) {
+        if (values[slot] != null && schema.getType(slot) == BinaryType.STRING) {
+          if (strings == null) {
+            strings = new byte[values.length][];
+          }
+          strings[slot] = ((String) values[slot]).getBytes(StandardCharsets.UTF_8);
+          stringLength += strings[slot].length;
+        }
+      }
+    }
+    byte[] extraBytes = writeExtras(extras);
+
+    int dataStart = HEADER_LENGTH + (values != null ? schema.getDescriptorLength() : 0);
+    int fixedStart = dataStart + (values != null ? schema.getBitmapLength() : 0);
+    int variableStart = fixedStart + (values != null ? schema.getFixedLength() : 0);
+    int extrasStart = variableStart + stringLength;
+
+    // the message is written in place into an array of its exact size
+    byte[] message = new byte[extrasStart + extraBytes.length];
+    ByteBuffer buffer = ByteBuffer.wrap(message);
+    buffer.put(0, MAGIC);
+    buffer.put(1, VERSION);
+    buffer.putLong(FINGERPRINT_POSITION, values != null ? schema.getFingerprint() : 0);
+    buffer.putInt(DATA_POSITION, dataStart);
+    buffer.putInt(EXTRAS_POSITION, extrasStart);
+
+    if (values != null) {
+      schema.writeDescriptor(message, HEADER_LENGTH);
+      int stringPosition = variableStart;
+      for (int slot = 0; slot < values.length; slot++) {
+        if (values[slot] == null) {
+          continue;
+        }
+        message[dataStart + slot / 8] |= (byte) (1 << (slot % 8));
+        int position = fixedStart + schema.getOffset(slot);
+        if (schema.getType(slot) == BinaryType.STRING) {
+          buffer.putInt(position, stringPosition);
+          buffer.putInt(position + 4, strings[slot].length);
+          System.arraycopy(strings[slot], 0, message, stringPosition, strings[slot].length);
+          stringPosition += strings[slot].length;
+        } else {
+          schema.getType(slot).write(buffer, position, values[slot]);
+        }
+      }
+    }
+    System.arraycopy(extraBytes, 0, message, extrasStart, extraBytes.length);
+    return message;
+  }
+
+  private byte[] writeExtras(Map<String, Object> extras) throws SpRuntimeException {
+    if (extras.isEmpty()) {
+      return new byte[0];
+    }
+    try {
+      return objectMapper.writeValueAsBytes(extras);
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not convert event data structure");
+    }
+  }
+
+  private Map<String, Object> readExtras(ByteBuffer buffer) throws SpRuntimeException {
+    int extrasStart = buffer.getInt(EXTRAS_POSITION);
+    int extrasLength = buffer.limit() - extrasStart;
+    if (extrasLength == 0) {
+      return new HashMap<>();
+    }
+    try {
+      return objectMapper.readValue(buffer.array(), extrasStart, extrasLength, HashMap.class);
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not convert event to event data structure");
+    }
+  }
+
+  private BinarySchema getMessageSchema(ByteBuffer buffer) throws SpRuntimeException {
+    if (buffer.limit() < HEADER_LENGTH || buffer.get(0) != MAGIC || buffer.get(1) != VERSION) {
+      throw new SpRuntimeException("Could not convert event, not a binary message");
+    }
+    long fingerprint = buffer.getLong(FINGERPRINT_POSITION);
+    if (fingerprint == 0) {
+      return null;
+    } else if (schema != null && schema.getFingerprint() == fingerprint) {
+      return schema;
+    } else {
+      BinarySchema messageSchema = BinarySchema.forFingerprint(fingerprint);
+      return messageSchema != null ? messageSchema : BinarySchema.fromDescriptor(buffer, HEADER_LENGTH, fingerprint);
+    }
+  }
+
+  private int[] getLayoutSlots(BinarySchema messageSchema,
+                               EventLayout eventLayout) {
+    if (messageSchema != schema) {
+      return makeLayoutSlots(messageSchema, eventLayout);
+    }
+    return layoutSlots.computeIfAbsent(eventLayout, layout -> makeLayoutSlots(messageSchema, layout));
+  }
+
+  private int[] makeLayoutSlots(BinarySchema messageSchema,
+                                EventLayout eventLayout) {
+    int[] slots = new int[messageSchema.size()];
+    for (int slot = 0; slot < slots.length; slot++) {
+      slots[slot] = eventLayout.getSlotByRuntimeName(messageSchema.getRuntimeName(slot));
+    }
+    return slots;
+  }
+
+  private boolean isPresent(ByteBuffer buffer,
+                            int dataStart,
+                            int slot) {
+    return (buffer.get(dataStart + slot / 8) & (1 << (slot % 8))) != 0;
+  }
+
+  private int fixedPosition(BinarySchema messageSchema,
+                            int dataStart,
+                            int slot) {
+    return dataStart + messageSchema.getBitmapLength() + messageSchema.getOffset(slot);
+  }
+}
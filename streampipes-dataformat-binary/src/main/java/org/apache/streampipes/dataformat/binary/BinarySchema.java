@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataformat.binary;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message layout derived from an {@link EventSchema}. All top-level primitive properties with a
+ * supported runtime type get a fixed offset, ordered by runtime name so that producer and
+ * consumer derive the same layout regardless of the property order in their schema copies.
+ * Layouts are identified in each message by a 64-bit fingerprint, the leading bytes of the
+ * SHA-256 digest of their field names and types, and are described by a descriptor of the same
+ * names and types, which is embedded into each message so that consumers without the schema of
+ * the producer can decode it as well.
+ */
+public class BinarySchema implements Serializable {
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private static final Map<Long, BinarySchema> KNOWN_SCHEMAS = new ConcurrentHashMap<>();
+
+  private final String[] runtimeNames;
+  private final BinaryType[] types;
+  private final int[] offsets;
+  private final Map<String, Integer> slots;
+  private final String signature;
+  private final long fingerprint;
+  private final byte[] descriptor;
+  private final int bitmapLength;
+  private final int fixedLength;
+
+  private BinarySchema(String[] runtimeNames,
+                       BinaryType[] types) {
+    int size = runtimeNames.length;
+    this.runtimeNames = runtimeNames;
+    this.types = types;
+    this.offsets = new int[size];
+    this.slots = new HashMap<>(size * 2);
+    this.bitmapLength = (size + 7) / 8;
+
+    StringBuilder signature = new StringBuilder();
+    int offset = 0;
+    for (int slot = 0; slot < size; slot++) {
+      offsets[slot] = offset;
+      slots.put(runtimeNames[slot], slot);
+      offset += types[slot].getWidth();
+      signature.append(runtimeNames[slot]).append(':').append(types[slot]).append(';');
+    }
+    this.fixedLength = offset;
+    this.signature = signature.toString();
+    this.fingerprint = makeFingerprint(this.signature);
+    this.descriptor = makeDescriptor(runtimeNames, types);
+  }
+
+  public static BinarySchema of(EventSchema eventSchema) {
+    return register(create(eventSchema));
+  }
+
+  static BinarySchema create(EventSchema eventSchema) {
+    List<EventPropertyPrimitive> properties = new ArrayList<>();
+    if (eventSchema != null && eventSchema.getEventProperties() != null) {
+      for (EventProperty property : eventSchema.getEventProperties()) {
+        if (property instanceof EventPropertyPrimitive
+            && BinaryType.fromRuntimeType(((EventPropertyPrimitive) property).getRuntimeType()) != null) {
+          properties.add((EventPropertyPrimitive) property);
+        }
+      }
+    }
+    properties.sort(Comparator.comparing(EventProperty::getRuntimeName));
+
+    String[] runtimeNames = new String[properties.size()];
+    BinaryType[] types = new BinaryType[properties.size()];
+    for (int slot = 0; slot < runtimeNames.length; slot++) {
+      runtimeNames[slot] = properties.get(slot).getRuntimeName();
+      types[slot] = BinaryType.fromRuntimeType(properties.get(slot).getRuntimeType());
+    }
+    return new BinarySchema(runtimeNames, types);
+  }
+
+  /**
+   * Reads the schema descriptor embedded in a message, which is used by consumers that did not
+   * bind the schema of the producer, e.g., consumers in another JVM or with an outdated schema.
+   */
+  public static BinarySchema fromDescriptor(ByteBuffer buffer,
+                                            int position,
+                                            long fingerprint) {
+    try {
+      int size = buffer.getShort(position) & 0xFFFF;
+      position += 2;
+      String[] runtimeNames = new String[size];
+      BinaryType[] types = new BinaryType[size];
+      BinaryType[] allTypes = BinaryType.values();
+      for (int slot = 0; slot < size; slot++) {
+        int nameLength = buffer.getShort(position) & 0xFFFF;
+        runtimeNames[slot] = new String(buffer.array(), position + 2, nameLength, StandardCharsets.UTF_8);
+        position += 2 + nameLength;
+        types[slot] = allTypes[buffer.get(position++)];
+      }
+      BinarySchema schema = new BinarySchema(runtimeNames, types);
+      if (schema.getFingerprint() != fingerprint) {
+        throw new SpRuntimeException("Binary schema descriptor does not match fingerprint " + fingerprint);
+      }
+      return register(schema);
+    } catch (IndexOutOfBoundsException e) {
+      throw new SpRuntimeException("Could not read binary schema descriptor of fingerprint " + fingerprint);
+    }
+  }
+
+  /**
+   * Returns a schema which was bound or read within this JVM by its fingerprint, or null if unknown.
+   */
+  public static BinarySchema forFingerprint(long fingerprint) {
+    return KNOWN_SCHEMAS.get(fingerprint);
+  }
+
+  private static BinarySchema register(BinarySchema schema) {
+    BinarySchema knownSchema = KNOWN_SCHEMAS.putIfAbsent(schema.getFingerprint(), schema);
+    if (knownSchema != null && !knownSchema.signature.equals(schema.signature)) {
+      throw new SpRuntimeException("Binary schema fingerprint " + schema.getFingerprint()
+          + " is already used by a different schema");
+    }
+    return knownSchema != null ? knownSchema : schema;
+  }
+
+  private static long makeFingerprint(String signature) {
+    try {
+      byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(signature.getBytes(StandardCharsets.UTF_8));
+      long fingerprint = ByteBuffer.wrap(digest).getLong();
+      // 0 marks messages without a fixed section
+      return fingerprint != 0 ? fingerprint : 1;
+    } catch (NoSuchAlgorithmException e) {
+      throw new SpRuntimeException(e);
+    }
+  }
+
+  // slot count, then per slot the length of the UTF-8 runtime name, the name and the type ordinal
+  private static byte[] makeDescriptor(String[] runtimeNames,
+                                       BinaryType[] types) {
+    byte[][] names = new byte[runtimeNames.length][];
+    int length = 2;
+    for (int slot = 0; slot < runtimeNames.length; slot++) {
+      names[slot] = runtimeNames[slot].getBytes(StandardCharsets.UTF_8);
+      length += 3 + names[slot].length;
+    }
+    ByteBuffer descriptor = ByteBuffer.allocate(length);
+    descriptor.putShort((short) runtimeNames.length);
+    for (int slot = 0; slot < runtimeNames.length; slot++) {
+      descriptor.putShort((short) names[slot].length);
+      descriptor.put(names[slot]);
+      descriptor.put((byte) types[slot].ordinal());
+    }
+    return descriptor.array();
+  }
+
+  public void writeDescriptor(byte[] message,
+                              int position) {
+    System.arraycopy(descriptor, 0, message, position, descriptor.length);
+  }
+
+  public int getDescriptorLength() {
+    return descriptor.length;
+  }
+
+  public int size() {
+    return runtimeNames.length;
+  }
+
+  public int getSlot(String runtimeName) {
+    Integer slot = slots.get(runtimeName);
+    return slot != null ? slot : -1;
+  }
+
+  public String getRuntimeName(int slot) {
+    return runtimeNames[slot];
+  }
+
+  public BinaryType getType(int slot) {
+    return types[slot];
+  }
+
+  public int getOffset(int slot) {
+    return offsets[slot];
+  }
+
+  public long getFingerprint() {
+    return fingerprint;
+  }
+
+  public int getBitmapLength() {
+    return bitmapLength;
+  }
+
+  public int getFixedLength() {
+    return fixedLength;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataformat.binary;
+
+import org.apache.streampipes.vocabulary.XSD;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-width encodings of primitive values. Strings occupy a fixed slot holding the position and
+ * length of their UTF-8 bytes in the variable-length section of the message. Schema descriptors
+ * refer to types by their ordinal, so new types must only be appended.
+ */
+public enum BinaryType {
+
+  BOOLEAN(1),
+  INTEGER(4),
+  LONG(8),
+  FLOAT(4),
+  DOUBLE(8),
+  STRING(8);
+
+  private final int width;
+
+  BinaryType(int width) {
+    this.width = width;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the binary type of a runtime type or null if values of this type are not encoded in
+   * the fixed section of a message.
+   */
+  public static BinaryType fromRuntimeType(String runtimeType) {
+    if (runtimeType == null) {
+      return null;
+    } else if (runtimeType.equals(XSD.BOOLEAN.toString())) {
+      return BOOLEAN;
+    } else if (runtimeType.equals(XSD.INTEGER.toString()) || runtimeType.equals(XSD.INT.toString())) {
+      return INTEGER;
+    } else if (runtimeType.equals(XSD.LONG.toString())) {
+      return LONG;
+    } else if (runtimeType.equals(XSD.FLOAT.toString())) {
+      return FLOAT;
+    } else if (runtimeType.equals(XSD.DOUBLE.toString())) {
+      return DOUBLE;
+    } else if (runtimeType.equals(XSD.STRING.toString())) {
+      return STRING;
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Checks whether a value is written to the fixed section. Only values which are read back with
+   * the same Java type qualify, all others keep their type in the extra section of the message.
+   */
+  public boolean canWrite(Object value) {
+    switch (this) {
+      case BOOLEAN:
+        return value instanceof Boolean;
+      case INTEGER:
+        return value instanceof Integer;
+      case LONG:
+        return value instanceof Long;
+      case FLOAT:
+        return value instanceof Float;
+      case DOUBLE:
+        return value instanceof Double;
+      default:
+        return value instanceof String;
+    }
+  }
+
+  public void write(ByteBuffer buffer,
+                    int position,
+                    Object value) {
+    switch (this) {
+      case BOOLEAN:
+        buffer.put(position, (byte) ((Boolean) value ? 1 : 0));
+        break;
+      case INTEGER:
+        buffer.putInt(position, ((Number) value).intValue());
+        break;
+      case LONG:
+        buffer.putLong(position, ((Number) value).longValue());
+        break;
+      case FLOAT:
+        buffer.putFloat(position, ((Number) value).floatValue());
+        break;
+      case DOUBLE:
+        buffer.putDouble(position, ((Number) value).doubleValue());
+        break;
+      default:
+        throw new IllegalStateException("Strings are written by the encoder");
+    }
+  }
+
+  public Object read(ByteBuffer buffer,
+                     int position) {
+    switch (this) {
+      case BOOLEAN:
+        return buffer.get(position) != 0;
+      case INTEGER:
+        return buffer.getInt(position);
+      case LONG:
+        return buffer.getLong(position);
+      case FLOAT:
+        return buffer.getFloat(position);
+      case DOUBLE:
+        return buffer.getDouble(position);
+      default:
+        return new String(buffer.array(),
+            buffer.arrayOffset() + buffer.getInt(position),
+            buffer.getInt(position + 4),
+            StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataformat.binary;
+
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Primitive field which is decoded from the message buffer on first access.
+ */
+public class LazyPrimitiveField extends PrimitiveField {
+
+  private ByteBuffer buffer;
+  private final int position;
+  private final BinaryType type;
+
+  public LazyPrimitiveField(String fieldNameIn,
+                            String fieldNameOut,
+                            ByteBuffer buffer,
+                            int position,
+                            BinaryType type) {
+    super(fieldNameIn, fieldNameOut, null);
+    this.buffer = buffer;
+    this.position = position;
+    this.type = type;
+  }
+
+  @Override
+  public Object getRawValue() {
+    if (buffer != null) {
+      this.value = type.read(buffer, position);
+      this.buffer = null;
+    }
+    return value;
+  }
+
+  @Override
+  public void setValue(Object value) {
+    this.buffer = null;
+    super.setValue(value);
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataformat.binary;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventConverter;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyNested;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.vocabulary.XSD;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class BinaryDataFormatDefinitionTest {
+
+  private static final EventSchema SCHEMA = new EventSchema(Arrays.asList(
+      primitive(XSD.BOOLEAN.toString(), "booleanValue"),
+      primitive(XSD.INTEGER.toString(), "integerValue"),
+      primitive(XSD.LONG.toString(), "longValue"),
+      primitive(XSD.FLOAT.toString(), "floatValue"),
+      primitive(XSD.DOUBLE.toString(), "doubleValue"),
+      primitive(XSD.STRING.toString(), "stringValue"),
+      new EventPropertyNested("nestedValue", new ArrayList<>(List.of(
+          primitive(XSD.INTEGER.toString(), "innerValue"))))
+  ));
+
+  @Test
+  public void testRoundTripOfAllTypes() {
+    Map<String, Object> event = makeEvent();
+
+    Map<String, Object> result = roundTrip(event);
+
+    assertEquals(event, result);
+    assertEquals(Boolean.class, result.get("booleanValue").getClass());
+    assertEquals(Integer.class, result.get("integerValue").getClass());
+    assertEquals(Long.class, result.get("longValue").getClass());
+    assertEquals(Float.class, result.get("floatValue").getClass());
+    assertEquals(Double.class, result.get("doubleValue").getClass());
+    assertEquals(String.class, result.get("stringValue").getClass());
+  }
+
+  @Test
+  public void testValuesOfOtherTypesKeepTheirType() {
+    Map<String, Object> event = new HashMap<>();
+    event.put("integerValue", 5_000_000_000L);
+    event.put("longValue", 42L);
+    event.put("floatValue", 0.1);
+    event.put("doubleValue", 0.5);
+
+    Map<String, Object> result = roundTrip(event);
+
+    assertEquals(event, result);
+    assertEquals(Long.class, result.get("integerValue").getClass());
+    assertEquals(Double.class, result.get("floatValue").getClass());
+  }
+
+  @Test
+  public void testNullValues() {
+    Map<String, Object> event = new HashMap<>();
+    event.put("integerValue", null);
+    event.put("stringValue", null);
+    event.put("doubleValue", 1.0);
+
+    assertEquals(event, roundTrip(event));
+  }
+
+  @Test
+  public void testNestedAndUnknownFields() {
+    Map<String, Object> event = new HashMap<>();
+    event.put("nestedValue", Map.of("innerValue", 7));
+    event.put("listValue", List.of("a", "b"));
+    event.put("unknownValue", "x");
+    event.put("longValue", 3L);
+
+    assertEquals(event, roundTrip(event));
+  }
+
+  @Test
+  public void testRoundTripWithoutSchema() {
+    var definition = new BinaryDataFormatDefinition();
+    Map<String, Object> event = Map.of("stringValue", "a", "doubleValue", 1.5);
+
+    assertEquals(event, definition.toMap(definition.fromMap(event)));
+  }
+
+  @Test
+  public void testEventRoundTrip() {
+    var definition = new BinaryDataFormatDefinition().bindSchema(SCHEMA);
+    var sourceInfo = new SourceInfo("source", "s0");
+    var schemaInfo = new SchemaInfo(SCHEMA, new ArrayList<>());
+    Map<String, Object> event = makeEvent();
+
+    byte[] message = definition.fromEvent(EventFactory.fromMap(event, sourceInfo, schemaInfo));
+    Event result = definition.toEvent(message, sourceInfo, schemaInfo, EventLayout.compile(sourceInfo, schemaInfo));
+
+    assertEquals(event, new EventConverter(result).toMap());
+    assertEquals(1.5f, result.getFieldBySelector("s0::floatValue").getAsPrimitive().getAsFloat(), 0.0f);
+  }
+
+  @Test
+  public void testConsumerWithoutSchemaDecodesKnownFingerprint() {
+    byte[] message = new BinaryDataFormatDefinition().bindSchema(SCHEMA).fromMap(makeEvent());
+
+    assertEquals(makeEvent(), new BinaryDataFormatDefinition().toMap(message));
+  }
+
+  @Test
+  public void testConsumerReadsDescriptorOfUnknownSchema() {
+    // a schema which is not registered within this JVM, as it is the case for a remote producer
+    var producerSchema = BinarySchema.create(new EventSchema(List.of(
+        primitive(XSD.STRING.toString(), "remoteStringValue"),
+        primitive(XSD.DOUBLE.toString(), "remoteDoubleValue"))));
+    byte[] message = new BinaryDataFormatDefinition(producerSchema)
+        .fromMap(Map.of("remoteStringValue", "a", "remoteDoubleValue", 1.5, "unknownValue", "x"));
+
+    assertNull(BinarySchema.forFingerprint(producerSchema.getFingerprint()));
+    assertEquals(Map.of("remoteStringValue", "a", "remoteDoubleValue", 1.5, "unknownValue", "x"),
+        new BinaryDataFormatDefinition().bindSchema(SCHEMA).toMap(message));
+    assertNotNull(BinarySchema.forFingerprint(producerSchema.getFingerprint()));
+  }
+
+  @Test(expected = SpRuntimeException.class)
+  public void testFingerprintNotMatchingDescriptor() {
+    byte[] message = new BinaryDataFormatDefinition().bindSchema(SCHEMA).fromMap(makeEvent());
+    ByteBuffer.wrap(message).putLong(2, 42L);
+
+    new BinaryDataFormatDefinition().bindSchema(SCHEMA).toMap(message);
+  }
+
+  @Test
+  public void testFingerprintDependsOnFieldTypes() {
+    var schema = BinarySchema.of(SCHEMA);
+    var otherSchema = BinarySchema.of(new EventSchema(List.of(primitive(XSD.DOUBLE.toString(), "integerValue"))));
+
+    assertNotEquals(schema.getFingerprint(), otherSchema.getFingerprint());
+    assertEquals(schema.getFingerprint(), BinarySchema.of(SCHEMA).getFingerprint());
+    assertNotNull(BinarySchema.forFingerprint(schema.getFingerprint()));
+  }
+
+  private Map<String, Object> roundTrip(Map<String, Object> event) {
+    SpDataFormatDefinition definition = new BinaryDataFormatDefinition().bindSchema(SCHEMA);
+    return definition.toMap(definition.fromMap(event));
+  }
+
+  private static Map<String, Object> makeEvent() {
+    Map<String, Object> event = new HashMap<>();
+    event.put("booleanValue", true);
+    event.put("integerValue", -17);
+    event.put("longValue", 1_700_000_000_000L);
+    event.put("floatValue", 1.5f);
+    event.put("doubleValue", 0.1);
+    event.put("stringValue", "äöü");
+    return event;
+  }
+
+  private static EventProperty primitive(String runtimeType,
+                                         String runtimeName) {
+    return new EventPropertyPrimitive(runtimeType, runtimeName, "", new ArrayList<>());
+  }
+}
@@ -19,7 +19,12 @@
 package org.apache.streampipes.dataformat.json;
 
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataformat.JacksonEventCodec;
 import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -31,9 +36,11 @@ import java.util.Map;
 public class JsonDataFormatDefinition implements SpDataFormatDefinition {
 
   private ObjectMapper objectMapper;
+  private JacksonEventCodec eventCodec;
 
   public JsonDataFormatDefinition() {
     this.objectMapper = new ObjectMapper();
+    this.eventCodec = new JacksonEventCodec(objectMapper);
   }
 
   @Override
@@ -53,4 +60,17 @@ public class JsonDataFormatDefinition implements SpDataFormatDefinition {
       throw new SpRuntimeException("Could not convert map data structure to JSON string");
     }
   }
+
+  @Override
+  public Event toEvent(byte[] event,
+                       SourceInfo sourceInfo,
+                       SchemaInfo schemaInfo,
+                       EventLayout eventLayout) throws SpRuntimeException {
+    return eventCodec.toEvent(event, sourceInfo, schemaInfo, eventLayout);
+  }
+
+  @Override
+  public byte[] fromEvent(Event event) throws SpRuntimeException {
+    return eventCodec.fromEvent(event);
+  }
 }
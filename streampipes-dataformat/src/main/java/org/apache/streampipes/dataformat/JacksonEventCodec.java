@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.dataformat;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.constants.PropertySelectorConstants;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.ListField;
+import org.apache.streampipes.model.runtime.field.NestedField;
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes events token by token with any Jackson-based data format, without creating
+ * an intermediate map representation of the event.
+ */
+public class JacksonEventCodec implements Serializable {
+
+  private final ObjectMapper objectMapper;
+
+  public JacksonEventCodec(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public Event toEvent(byte[] event,
+                       SourceInfo sourceInfo,
+                       SchemaInfo schemaInfo,
+                       EventLayout eventLayout) throws SpRuntimeException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(event)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new SpRuntimeException("Could not convert event, expected an object");
+      }
+      return new Event(readObject(parser, eventLayout), sourceInfo, schemaInfo);
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not convert event to event data structure");
+    }
+  }
+
+  public byte[] fromEvent(Event event) throws SpRuntimeException {
+    try (ByteArrayBuilder buffer = new ByteArrayBuilder();
+         JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+      writeObject(generator, event.getFields());
+      generator.flush();
+      return buffer.toByteArray();
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not convert event data structure");
+    }
+  }
+
+  private Map<String, AbstractField> readObject(JsonParser parser,
+                                                EventLayout eventLayout) throws IOException {
+    Map<String, AbstractField> fields = eventLayout.makeFieldMap();
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String runtimeName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      int slot = eventLayout.getSlotByRuntimeName(runtimeName);
+      if (slot >= 0) {
+        String selector = eventLayout.getSelector(slot);
+        fields.put(selector, readField(parser, token, runtimeName, selector,
+            eventLayout.getRuntimeNameOut(slot), eventLayout.getNestedLayout(slot)));
+      } else {
+        String selector = eventLayout.makeSelector(runtimeName);
+        fields.put(selector, readField(parser, token, runtimeName, selector,
+            eventLayout.getNewRuntimeName(selector, runtimeName),
+            isPrimitive(token) ? null : eventLayout.makeDynamicLayout(selector)));
+      }
+    }
+
+    return fields;
+  }
+
+  private AbstractField readField(JsonParser parser,
+                                  JsonToken token,
+                                  String runtimeName,
+                                  String selector,
+                                  String newRuntimeName,
+                                  EventLayout nestedLayout) throws IOException {
+    if (token == JsonToken.START_OBJECT) {
+      return new NestedField(runtimeName, newRuntimeName, readObject(parser, nestedLayout));
+    } else if (token == JsonToken.START_ARRAY) {
+      List<AbstractField> items = new ArrayList<>();
+      JsonToken itemToken;
+      while ((itemToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+        String itemSelector = selector + PropertySelectorConstants.PROPERTY_DELIMITER + items.size();
+        items.add(readField(parser, itemToken, "", itemSelector, nestedLayout.getNewRuntimeName(itemSelector, ""),
+            isPrimitive(itemToken) ? null : nestedLayout.makeDynamicLayout(itemSelector)));
+      }
+      return new ListField(runtimeName, newRuntimeName, items);
+    } else {
+      return new PrimitiveField(runtimeName, newRuntimeName, readPrimitive(parser, token));
+    }
+  }
+
+  private Object readPrimitive(JsonParser parser, JsonToken token) throws IOException {
+    // value types match those produced by reading the message into a HashMap
+    switch (token) {
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        return parser.getNumberValue();
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      case VALUE_NULL:
+        return null;
+      case VALUE_EMBEDDED_OBJECT:
+        return parser.getEmbeddedObject();
+      default:
+        throw new SpRuntimeException("Unexpected token " + token);
+    }
+  }
+
+  private boolean isPrimitive(JsonToken token) {
+    return token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY;
+  }
+
+  private void writeObject(JsonGenerator generator,
+                           Map<String, AbstractField> fields) throws IOException {
+    generator.writeStartObject();
+    for (AbstractField field : fields.values()) {
+      generator.writeFieldName(field.getFieldNameOut());
+      writeValue(generator, field);
+    }
+    generator.writeEndObject();
+  }
+
+  private void writeValue(JsonGenerator generator,
+                          AbstractField field) throws IOException {
+    if (field instanceof PrimitiveField) {
+      writePrimitive(generator, field.getRawValue());
+    } else if (field instanceof ListField) {
+      generator.writeStartArray();
+      for (AbstractField item : field.getAsList().getRawValue()) {
+        writeValue(generator, item);
+      }
+      generator.writeEndArray();
+    } else {
+      writeObject(generator, field.getAsComposite().getRawValue());
+    }
+  }
+
+  private void writePrimitive(JsonGenerator generator,
+                              Object value) throws IOException {
+    if (value instanceof String) {
+      generator.writeString((String) value);
+    } else if (value instanceof Integer) {
+      generator.writeNumber((Integer) value);
+    } else if (value instanceof Long) {
+      generator.writeNumber((Long) value);
+    } else if (value instanceof Double) {
+      generator.writeNumber((Double) value);
+    } else if (value instanceof Float) {
+      generator.writeNumber((Float) value);
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value == null) {
+      generator.writeNull();
+    } else {
+      // e.g. lists or maps added as primitive values by pipeline elements
+      objectMapper.writeValue(generator, value);
+    }
+  }
+}
@@ -19,6 +19,13 @@
 package org.apache.streampipes.dataformat;
 
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventConverter;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.schema.EventSchema;
 
 import java.io.Serializable;
 import java.util.Map;
@@ -28,4 +35,34 @@ public interface SpDataFormatDefinition extends Serializable {
   Map<String, Object> toMap(byte[] event) throws SpRuntimeException;
 
   byte[] fromMap(Map<String, Object> event) throws SpRuntimeException;
+
+  /**
+   * Decodes a message into an event using the given layout.
+   * Formats which support it should override this method and decode directly into event fields,
+   * the default implementation takes the detour over {@link #toMap(byte[])}.
+   */
+  default Event toEvent(byte[] event,
+                        SourceInfo sourceInfo,
+                        SchemaInfo schemaInfo,
+                        EventLayout eventLayout) throws SpRuntimeException {
+    return EventFactory.fromMap(toMap(event), sourceInfo, schemaInfo, eventLayout);
+  }
+
+  /**
+   * Encodes the (renamed) fields of an event.
+   * Formats which support it should override this method and write event fields directly,
+   * the default implementation takes the detour over {@link #fromMap(Map)}.
+   */
+  default byte[] fromEvent(Event event) throws SpRuntimeException {
+    return fromMap(new EventConverter(event).toMap());
+  }
+
+  /**
+   * Returns a definition which reads and writes messages of a stream with the given schema.
+   * Schema-bound formats derive their message layout from the schema, all other formats are
+   * self-describing and return themselves.
+   */
+  default SpDataFormatDefinition bindSchema(EventSchema eventSchema) {
+    return this;
+  }
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.dataformat;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.output.PropertyRenameRule;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventConverter;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.EventLayout;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyNested;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.vocabulary.XSD;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JacksonEventCodecTest {
+
+  private static final SourceInfo SOURCE_INFO = new SourceInfo("source", "s0");
+
+  private static final EventSchema SCHEMA = new EventSchema(Arrays.asList(
+      primitive(XSD.LONG.toString(), "timestamp"),
+      primitive(XSD.DOUBLE.toString(), "value"),
+      new EventPropertyNested("nested", new ArrayList<>(List.of(
+          primitive(XSD.STRING.toString(), "label"))))
+  ));
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final JacksonEventCodec codec = new JacksonEventCodec(objectMapper);
+  private final SpDataFormatDefinition mapBasedDefinition = new MapBasedDataFormatDefinition(objectMapper);
+
+  @Test
+  public void testRoundTrip() {
+    Map<String, Object> event = makeEvent();
+    var schemaInfo = new SchemaInfo(SCHEMA, new ArrayList<>());
+
+    Event result = codec.toEvent(codec.fromEvent(EventFactory.fromMap(event, SOURCE_INFO, schemaInfo)),
+        SOURCE_INFO, schemaInfo, EventLayout.compile(SOURCE_INFO, schemaInfo));
+
+    assertEquals(event, new EventConverter(result).toMap());
+    assertEquals("b", result.getFieldBySelector("s0::nested::label").getAsPrimitive().getAsString());
+    assertEquals(2, result.getFieldBySelector("s0::list").getAsList().getRawValue().size());
+  }
+
+  @Test
+  public void testDecodesLikeMapBasedDefault() throws IOException {
+    byte[] message = objectMapper.writeValueAsBytes(makeEvent());
+    var schemaInfo = new SchemaInfo(SCHEMA, new ArrayList<>());
+    var eventLayout = EventLayout.compile(SOURCE_INFO, schemaInfo);
+
+    Event direct = codec.toEvent(message, SOURCE_INFO, schemaInfo, eventLayout);
+    Event viaMap = mapBasedDefinition.toEvent(message, SOURCE_INFO, schemaInfo, eventLayout);
+
+    assertEquals(new EventConverter(viaMap).toMap(), new EventConverter(direct).toMap());
+    assertEquals(viaMap.getFields().keySet(), direct.getFields().keySet());
+    assertEquals(Integer.class, direct.getFieldBySelector("s0::count").getRawValue().getClass());
+    assertEquals(Long.class, direct.getFieldBySelector("s0::timestamp").getRawValue().getClass());
+    assertEquals(Double.class, direct.getFieldBySelector("s0::value").getRawValue().getClass());
+    assertNull(direct.getFieldBySelector("s0::missing").getRawValue());
+  }
+
+  @Test
+  public void testEncodesLikeMapBasedDefault() throws IOException {
+    var schemaInfo = new SchemaInfo(SCHEMA, new ArrayList<>());
+    Event event = EventFactory.fromMap(makeEvent(), SOURCE_INFO, schemaInfo);
+
+    assertEquals(objectMapper.readValue(mapBasedDefinition.fromEvent(event), HashMap.class),
+        objectMapper.readValue(codec.fromEvent(event), HashMap.class));
+  }
+
+  @Test
+  public void testRenameRulesAreApplied() throws IOException {
+    var schemaInfo = new SchemaInfo(SCHEMA, List.of(
+        new PropertyRenameRule("s0::timestamp", "ts"),
+        new PropertyRenameRule("s0::nested::label", "name")));
+    byte[] message = objectMapper.writeValueAsBytes(makeEvent());
+    var eventLayout = EventLayout.compile(SOURCE_INFO, schemaInfo);
+
+    byte[] direct = codec.fromEvent(codec.toEvent(message, SOURCE_INFO, schemaInfo, eventLayout));
+    byte[] viaMap = mapBasedDefinition.fromEvent(mapBasedDefinition.toEvent(message, SOURCE_INFO, schemaInfo,
+        eventLayout));
+
+    Map<?, ?> result = objectMapper.readValue(direct, HashMap.class);
+    assertEquals(objectMapper.readValue(viaMap, HashMap.class), result);
+    assertEquals(1_700_000_000_000L, result.get("ts"));
+    assertEquals(Map.of("name", "b"), result.get("nested"));
+  }
+
+  @Test
+  public void testDefaultMethodsRoundTrip() {
+    Map<String, Object> event = makeEvent();
+    var schemaInfo = new SchemaInfo(SCHEMA, new ArrayList<>());
+
+    byte[] message = mapBasedDefinition.fromEvent(EventFactory.fromMap(event, SOURCE_INFO, schemaInfo));
+    Event result = mapBasedDefinition.toEvent(message, SOURCE_INFO, schemaInfo,
+        EventLayout.compile(SOURCE_INFO, schemaInfo));
+
+    assertEquals(event, new EventConverter(result).toMap());
+  }
+
+  @Test(expected = SpRuntimeException.class)
+  public void testNonObjectMessage() {
+    var schemaInfo = new SchemaInfo(SCHEMA, new ArrayList<>());
+
+    codec.toEvent("[1, 2]".getBytes(), SOURCE_INFO, schemaInfo, EventLayout.compile(SOURCE_INFO, schemaInfo));
+  }
+
+  private static Map<String, Object> makeEvent() {
+    Map<String, Object> event = new HashMap<>();
+    event.put("timestamp", 1_700_000_000_000L);
+    event.put("value", 0.5);
+    event.put("count", 3);
+    event.put("missing", null);
+    event.put("nested", new HashMap<>(Map.of("label", "b")));
+    event.put("list", List.of("x", "y"));
+    return event;
+  }
+
+  private static EventProperty primitive(String runtimeType,
+                                         String runtimeName) {
+    return new EventPropertyPrimitive(runtimeType, runtimeName, "", new ArrayList<>());
+  }
+
+  /**
+   * Only implements the map-based methods, so events take the detour of the default methods.
+   */
+  private static class MapBasedDataFormatDefinition implements SpDataFormatDefinition {
+
+    private final ObjectMapper objectMapper;
+
+    MapBasedDataFormatDefinition(ObjectMapper objectMapper) {
+      this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Map<String, Object> toMap(byte[] event) throws SpRuntimeException {
+      try {
+        return objectMapper.readValue(event, HashMap.class);
+      } catch (IOException e) {
+        throw new SpRuntimeException(e);
+      }
+    }
+
+    @Override
+    public byte[] fromMap(Map<String, Object> event) throws SpRuntimeException {
+      try {
+        return objectMapper.writeValueAsBytes(event);
+      } catch (IOException e) {
+        throw new SpRuntimeException(e);
+      }
+    }
+  }
+}
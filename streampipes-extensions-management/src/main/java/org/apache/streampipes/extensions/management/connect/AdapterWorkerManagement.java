@@ -20,6 +20,7 @@ package org.apache.streampipes.extensions.management.connect;
 
 import org.apache.streampipes.extensions.api.connect.IAdapter;
 import org.apache.streampipes.extensions.api.connect.exception.AdapterException;
+import org.apache.streampipes.extensions.management.connect.adapter.Adapter;
 import org.apache.streampipes.extensions.management.init.RunningAdapterInstances;
 import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
 import org.apache.streampipes.model.connect.adapter.AdapterDescription;
@@ -45,7 +46,7 @@ public class AdapterWorkerManagement {
 
     RunningAdapterInstances.INSTANCE.addAdapter(adapterStreamDescription.getElementId(), adapter,
         adapterStreamDescription);
-    adapter.startAdapter();
+    startAdapter(adapter);
   }
 
   public void stopStreamAdapter(AdapterStreamDescription adapterStreamDescription) throws AdapterException {
@@ -63,7 +64,7 @@ public class AdapterWorkerManagement {
     // Start a thread to start a set adapter
     Runnable r = () -> {
       try {
-        adapter.startAdapter();
+        startAdapter(adapter);
       } catch (AdapterException e) {
         e.printStackTrace();
       }
@@ -76,6 +77,20 @@ public class AdapterWorkerManagement {
     stopAdapter(adapterSetDescription);
   }
 
+  private void startAdapter(IAdapter<?> adapter) throws AdapterException {
+    if (adapter instanceof Adapter) {
+      ((Adapter<?>) adapter).startAdapterPipeline();
+    }
+    try {
+      adapter.startAdapter();
+    } catch (AdapterException | RuntimeException e) {
+      if (adapter instanceof Adapter) {
+        ((Adapter<?>) adapter).stopAdapterPipeline();
+      }
+      throw e;
+    }
+  }
+
   private void stopAdapter(AdapterDescription adapterDescription) throws AdapterException {
 
     String elementId = adapterDescription.getElementId();
@@ -84,6 +99,9 @@ public class AdapterWorkerManagement {
 
     if (adapter != null) {
       adapter.stopAdapter();
+      if (adapter instanceof Adapter) {
+        ((Adapter<?>) adapter).stopAdapterPipeline();
+      }
     }
     resetMonitoring(elementId);
   }
@@ -63,6 +63,18 @@ public abstract class Adapter<T extends AdapterDescription> implements IAdapter<
     }
   }
 
+  public void startAdapterPipeline() {
+    if (adapterPipeline != null) {
+      adapterPipeline.start();
+    }
+  }
+
+  public void stopAdapterPipeline() {
+    if (adapterPipeline != null) {
+      adapterPipeline.stop();
+    }
+  }
+
   private AdapterPipeline getAdapterPipeline(T adapterDescription) {
     return new AdapterPipelineGenerator().generatePipeline(adapterDescription);
   }
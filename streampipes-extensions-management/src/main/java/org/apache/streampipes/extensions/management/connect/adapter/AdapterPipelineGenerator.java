@@ -18,20 +18,18 @@
 
 package org.apache.streampipes.extensions.management.connect.adapter;
 
+import org.apache.streampipes.commons.environment.Environments;
 import org.apache.streampipes.config.backend.BackendConfig;
 import org.apache.streampipes.extensions.api.connect.IAdapterPipelineElement;
 import org.apache.streampipes.extensions.management.connect.adapter.model.pipeline.AdapterPipeline;
-import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.AddTimestampPipelineElement;
-import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.AddValuePipelineElement;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.DebugAdapterSink;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.FusedTransformAdapterPipelineElement;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.SendToBrokerAdapterSink;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.SendToJmsAdapterSink;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.SendToKafkaAdapterSink;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.SendToMqttAdapterSink;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.SendToNatsAdapterSink;
-import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.TransformSchemaAdapterPipelineElement;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.TransformStreamAdapterElement;
-import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.TransformValueAdapterPipelineElement;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.stream.DuplicateFilterPipelineElement;
 import org.apache.streampipes.model.config.SpProtocol;
 import org.apache.streampipes.model.connect.adapter.AdapterDescription;
@@ -46,6 +44,7 @@ import org.apache.streampipes.model.connect.rules.value.ValueTransformationRuleD
 import org.apache.streampipes.model.grounding.JmsTransportProtocol;
 import org.apache.streampipes.model.grounding.KafkaTransportProtocol;
 import org.apache.streampipes.model.grounding.MqttTransportProtocol;
+import org.apache.streampipes.model.schema.EventSchema;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -60,55 +59,69 @@ public class AdapterPipelineGenerator {
     var duplicatesTransformationRuleDescription =
         getRemoveDuplicateRule(adapterDescription.getRules());
     if (duplicatesTransformationRuleDescription != null) {
-      pipelineElements.add(
-          new DuplicateFilterPipelineElement(duplicatesTransformationRuleDescription.getFilterTimeWindow()));
+      pipelineElements.add(new DuplicateFilterPipelineElement(
+          duplicatesTransformationRuleDescription.getFilterTimeWindow(),
+          duplicatesTransformationRuleDescription.getKeyFields() != null
+              ? duplicatesTransformationRuleDescription.getKeyFields()
+              : List.of(),
+          Environments.getEnvironment().getConnectDuplicateFilterMaxEntries().getValueOrDefault()));
     }
 
+    var transformStreamAdapterElement = makeTransformStreamAdapterElement(adapterDescription);
+    pipelineElements.add(transformStreamAdapterElement);
+
+    var resultingEventSchema = transformStreamAdapterElement.transformSchema(adapterDescription.getEventSchema());
+    return makeAdapterPipeline(adapterDescription, pipelineElements, resultingEventSchema);
+  }
+
+  /**
+   * Returns the schema of the events the adapter publishes, which differs from the event schema of the adapter
+   * description if events are aggregated. The event schema of the adapter description is not modified.
+   */
+  public EventSchema makeResultingEventSchema(AdapterDescription adapterDescription) {
+    return makeTransformStreamAdapterElement(adapterDescription).transformSchema(adapterDescription.getEventSchema());
+  }
+
+  private TransformStreamAdapterElement makeTransformStreamAdapterElement(AdapterDescription adapterDescription) {
     var transformStreamAdapterElement = new TransformStreamAdapterElement();
     var eventRateTransformationRuleDescription = getEventRateTransformationRule(adapterDescription.getRules());
     if (eventRateTransformationRuleDescription != null) {
-      transformStreamAdapterElement.addStreamTransformationRuleDescription(eventRateTransformationRuleDescription);
+      transformStreamAdapterElement.addStreamTransformationRuleDescription(eventRateTransformationRuleDescription,
+          adapterDescription.getEventSchema());
     }
-    pipelineElements.add(transformStreamAdapterElement);
+    return transformStreamAdapterElement;
+  }
 
+  private AdapterPipeline makeAdapterPipeline(AdapterDescription adapterDescription,
+                                              List<IAdapterPipelineElement> pipelineElements,
+                                              EventSchema resultingEventSchema) {
     if (adapterDescription.getEventGrounding() != null
         && adapterDescription.getEventGrounding().getTransportProtocol() != null
         && adapterDescription.getEventGrounding().getTransportProtocol().getBrokerHostname() != null) {
       return new AdapterPipeline(
           pipelineElements,
           getAdapterSink(adapterDescription),
-          adapterDescription.getEventSchema());
+          resultingEventSchema);
     }
 
     DebugSinkRuleDescription debugSinkRuleDescription = getDebugRule(adapterDescription.getRules());
     if (debugSinkRuleDescription != null) {
-      return new AdapterPipeline(pipelineElements, new DebugAdapterSink(), adapterDescription.getEventSchema());
+      return new AdapterPipeline(pipelineElements, new DebugAdapterSink(), resultingEventSchema);
     }
 
-    return new AdapterPipeline(pipelineElements, adapterDescription.getEventSchema());
+    return new AdapterPipeline(pipelineElements, resultingEventSchema);
   }
 
   public List<IAdapterPipelineElement> makeAdapterPipelineElements(List<TransformationRuleDescription> rules) {
     List<IAdapterPipelineElement> pipelineElements = new ArrayList<>();
 
-    // Must be before the schema transformations to ensure that user can move this event property
-    var timestampTransformationRuleDescription = getTimestampRule(rules);
-    if (timestampTransformationRuleDescription != null) {
-      pipelineElements.add(new AddTimestampPipelineElement(
-          timestampTransformationRuleDescription.getRuntimeKey()));
-    }
-
-    var valueTransformationRuleDescription = getAddValueRule(rules);
-    if (valueTransformationRuleDescription != null) {
-      pipelineElements.add(new AddValuePipelineElement(
-          valueTransformationRuleDescription.getRuntimeKey(),
-          valueTransformationRuleDescription.getStaticValue()));
-    }
-
-    // first transform schema before transforming vales
-    // value rules should use unique keys for of new schema
-    pipelineElements.add(new TransformSchemaAdapterPipelineElement(getSchemaRules(rules)));
-    pipelineElements.add(new TransformValueAdapterPipelineElement(getValueRules(rules)));
+    // all schema, value and timestamp rules are compiled into a single transformation
+    // schema rules are applied before value rules, which use the keys of the new schema
+    pipelineElements.add(new FusedTransformAdapterPipelineElement(
+        getTimestampRule(rules),
+        getAddValueRule(rules),
+        getSchemaRules(rules),
+        getValueRules(rules)));
 
     return pipelineElements;
   }
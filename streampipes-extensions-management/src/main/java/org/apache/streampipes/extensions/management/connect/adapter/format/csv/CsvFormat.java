@@ -27,8 +27,6 @@ import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.adapter.FormatDescriptionBuilder;
 import org.apache.streampipes.sdk.helpers.Labels;
 
-import org.apache.commons.lang3.StringUtils;
-
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -90,29 +88,7 @@ public class CsvFormat implements IFormat {
 
     } else {
       for (int i = 0; i <= arr.length - 1; i++) {
-
-        if (!arr[i].equals("") && StringUtils.isNumeric(arr[i])) {
-          // If there is a number format exception for long, transform it to a dauble
-          try {
-            map.put(keyValues[i], Long.parseLong(arr[i]));
-          } catch (NumberFormatException e) {
-            // If not a double use string as fallback type
-            map.put(keyValues[i], Double.parseDouble(arr[i]));
-          }
-        } else if ("true".equals(arr[i].toLowerCase()) || "false".equals(arr[i].toLowerCase())) {
-          map.put(keyValues[i], Boolean.parseBoolean(arr[i]));
-        } else {
-
-          try {
-            Double doubleValue = Double.parseDouble(arr[i]);
-            map.put(keyValues[i], doubleValue);
-
-          } catch (NumberFormatException e) {
-            // If not a double use string as fallback type
-            map.put(keyValues[i], arr[i]);
-          }
-
-        }
+        map.put(keyValues[i], CsvRecordConverter.inferValue(arr[i]));
       }
 
     }
@@ -34,9 +34,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 
 public class CsvParser extends Parser {
@@ -70,12 +73,9 @@ public class CsvParser extends Parser {
     boolean result = true;
 
     try {
-      while (reader.ready() && result) {
-        String s = reader.readLine();
-        byte[] parseResult = s.getBytes();
-        if (parseResult != null) {
-          result = emitBinaryEvent.emit(parseResult);
-        }
+      String line;
+      while (result && (line = reader.readLine()) != null) {
+        result = emitBinaryEvent.emit(line.getBytes());
       }
     } catch (IOException e) {
       throw new ParseException(e.getMessage());
@@ -83,6 +83,18 @@ public class CsvParser extends Parser {
 
   }
 
+  /**
+   * Parses a whole CSV file in parallel chunks and emits the resulting events in file order,
+   * without going through the binary representation used by {@link CsvFormat}.
+   *
+   * @param emitEvent receives the parsed events, parsing stops as soon as it returns false
+   */
+  public void parseFile(Path file,
+                        Predicate<Map<String, Object>> emitEvent) throws IOException {
+    new ParallelCsvReader(delimiter, header, Runtime.getRuntime().availableProcessors())
+        .read(file, emitEvent);
+  }
+
   @Override
   public boolean supportsPreview() {
     return true;
@@ -133,7 +145,7 @@ public class CsvParser extends Parser {
 
     char customQuote = '"';
 
-    StringBuffer curVal = new StringBuffer();
+    StringBuilder curVal = new StringBuilder();
     boolean inQuotes = false;
     boolean startCollectChar = false;
     boolean doubleQuotesInColumn = false;
@@ -174,7 +186,7 @@ public class CsvParser extends Parser {
 
           result.add(curVal.toString());
 
-          curVal = new StringBuffer();
+          curVal.setLength(0);
           startCollectChar = false;
 
         } else if (ch == '\r') {
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.format.csv;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts the fields of a {@link CsvTokenizer} record into an event map. Values get the same types
+ * as in {@link CsvFormat}, but common integer and decimal values are parsed without creating
+ * intermediate strings.
+ */
+public class CsvRecordConverter {
+
+  private static final int MAX_INTEGER_DIGITS = 18;
+  private static final int MAX_DECIMAL_DIGITS = 15;
+
+  // decimals with up to 15 digits are exactly representable, so a single division is correctly rounded
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+  };
+
+  private final String[] keys;
+
+  public CsvRecordConverter(String[] keys) {
+    this.keys = keys;
+  }
+
+  public static String[] makeKeys(int columns) {
+    String[] keys = new String[columns];
+    for (int i = 0; i < columns; i++) {
+      keys[i] = "key_" + i;
+    }
+    return keys;
+  }
+
+  public Map<String, Object> convert(CsvTokenizer tokenizer) {
+    Map<String, Object> event = new HashMap<>(keys.length * 4 / 3 + 1);
+    while (tokenizer.nextField()) {
+      int column = tokenizer.getColumn();
+      if (column < keys.length) {
+        event.put(keys[column], convertValue(tokenizer));
+      }
+    }
+    return event.isEmpty() ? null : event;
+  }
+
+  public static Object inferValue(String value) {
+    if (!value.equals("") && StringUtils.isNumeric(value)) {
+      // If there is a number format exception for long, transform it to a double
+      try {
+        return Long.parseLong(value);
+      } catch (NumberFormatException e) {
+        return Double.parseDouble(value);
+      }
+    } else if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+      return Boolean.parseBoolean(value);
+    } else {
+      try {
+        return Double.parseDouble(value);
+      } catch (NumberFormatException e) {
+        // If not a double use string as fallback type
+        return value;
+      }
+    }
+  }
+
+  private Object convertValue(CsvTokenizer tokenizer) {
+    Object number = parseNumber(tokenizer);
+    if (number != null) {
+      return number;
+    } else if (tokenizer.equalsIgnoreCase("true")) {
+      return Boolean.TRUE;
+    } else if (tokenizer.equalsIgnoreCase("false")) {
+      return Boolean.FALSE;
+    } else if (mayBeNumber(tokenizer)) {
+      return inferValue(tokenizer.getString());
+    } else {
+      return tokenizer.getString();
+    }
+  }
+
+  private Object parseNumber(CsvTokenizer tokenizer) {
+    int length = tokenizer.length();
+    boolean signed = length > 0 && (tokenizer.byteAt(0) == '-' || tokenizer.byteAt(0) == '+');
+    long mantissa = 0;
+    int digits = 0;
+    int pointIndex = -1;
+
+    for (int i = signed ? 1 : 0; i < length; i++) {
+      byte b = tokenizer.byteAt(i);
+      if (b >= '0' && b <= '9') {
+        if (++digits > MAX_INTEGER_DIGITS) {
+          return null;
+        }
+        mantissa = mantissa * 10 + (b - '0');
+      } else if (b == '.' && pointIndex < 0) {
+        pointIndex = i;
+      } else {
+        return null;
+      }
+    }
+
+    if (digits == 0) {
+      return null;
+    } else if (!signed && pointIndex < 0) {
+      return mantissa;
+    } else if (digits > MAX_DECIMAL_DIGITS) {
+      return null;
+    } else {
+      double value = pointIndex < 0 ? mantissa : mantissa / POWERS_OF_TEN[length - pointIndex - 1];
+      return tokenizer.byteAt(0) == '-' ? -value : value;
+    }
+  }
+
+  private boolean mayBeNumber(CsvTokenizer tokenizer) {
+    // only characters accepted by Double#parseDouble, NaN, Infinity and non-ASCII digits are left to the fallback
+    for (int i = 0; i < tokenizer.length(); i++) {
+      byte b = tokenizer.byteAt(i);
+      if (b < 0 || b == 'N' || b == 'I') {
+        return true;
+      } else if (!isNumberCharacter(b)) {
+        return false;
+      }
+    }
+    return tokenizer.length() > 0;
+  }
+
+  private boolean isNumberCharacter(byte b) {
+    return (b >= '0' && b <= '9')
+        || (b >= 'a' && b <= 'f')
+        || (b >= 'A' && b <= 'F')
+        || b == '.' || b == '+' || b == '-'
+        || b == 'x' || b == 'X' || b == 'p' || b == 'P'
+        || b <= ' ';
+  }
+}
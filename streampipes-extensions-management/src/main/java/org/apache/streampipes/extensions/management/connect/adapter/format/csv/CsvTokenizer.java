@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.format.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Single-pass tokenizer for delimited records stored in a byte buffer. Unquoted fields are read in
+ * place, only quoted fields are copied to an internal buffer to resolve escaped quotes. As in the
+ * line-based {@link CsvParser}, a line break always terminates the current record.
+ */
+public class CsvTokenizer {
+
+  private static final byte QUOTE = '"';
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private final ByteBuffer buffer;
+  private final byte delimiter;
+  private final int limit;
+
+  private int position;
+  private boolean recordEnd = true;
+  private int column;
+
+  private boolean copied;
+  private int fieldStart;
+  private int fieldLength;
+  private byte[] scratch = new byte[256];
+
+  public CsvTokenizer(ByteBuffer buffer,
+                      int position,
+                      int limit,
+                      String delimiter) {
+    this.buffer = buffer;
+    this.position = position;
+    this.limit = limit;
+    this.delimiter = (byte) delimiter.charAt(0);
+  }
+
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * Moves to the beginning of the next non-empty record, skipping remaining fields of the current
+   * record.
+   *
+   * @return false if the end of the buffer is reached
+   */
+  public boolean nextRecord() {
+    while (nextField()) {
+      // skip remaining fields
+    }
+    while (position < limit) {
+      byte b = buffer.get(position);
+      if (b == LF || b == CR) {
+        position++;
+      } else {
+        recordEnd = false;
+        column = -1;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Moves to the next field of the current record.
+   *
+   * @return false if the current record has no more fields
+   */
+  public boolean nextField() {
+    if (recordEnd) {
+      return false;
+    }
+    column++;
+    if (position < limit && buffer.get(position) == QUOTE) {
+      readQuotedField();
+    } else {
+      readField();
+    }
+    return true;
+  }
+
+  public int getColumn() {
+    return column;
+  }
+
+  public int length() {
+    return fieldLength;
+  }
+
+  public byte byteAt(int index) {
+    return copied ? scratch[index] : buffer.get(fieldStart + index);
+  }
+
+  public boolean equalsIgnoreCase(String ascii) {
+    if (ascii.length() != fieldLength) {
+      return false;
+    }
+    for (int i = 0; i < fieldLength; i++) {
+      byte b = byteAt(i);
+      if (b >= 'A' && b <= 'Z') {
+        b += 'a' - 'A';
+      }
+      if (b != Character.toLowerCase(ascii.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public String getString() {
+    if (!copied) {
+      ensureCapacity(fieldLength);
+      buffer.get(fieldStart, scratch, 0, fieldLength);
+    }
+    return new String(scratch, 0, fieldLength, StandardCharsets.UTF_8);
+  }
+
+  private void readField() {
+    int i = position;
+    while (i < limit) {
+      byte b = buffer.get(i);
+      if (b == delimiter || b == LF) {
+        break;
+      }
+      i++;
+    }
+    copied = false;
+    fieldStart = position;
+    fieldLength = i - position;
+    if (fieldLength > 0 && buffer.get(i - 1) == CR && !isDelimiter(i)) {
+      fieldLength--;
+    }
+    finishField(i);
+  }
+
+  private void readQuotedField() {
+    copied = true;
+    fieldLength = 0;
+    boolean inQuotes = true;
+    int i = position + 1;
+    while (i < limit) {
+      byte b = buffer.get(i);
+      if (b == LF) {
+        break;
+      } else if (inQuotes) {
+        if (b != QUOTE) {
+          append(b);
+        } else if (i + 1 < limit && buffer.get(i + 1) == QUOTE) {
+          append(QUOTE);
+          i++;
+        } else {
+          inQuotes = false;
+        }
+      } else if (b == delimiter) {
+        break;
+      } else if (b == QUOTE) {
+        inQuotes = true;
+      } else if (b != CR) {
+        append(b);
+      }
+      i++;
+    }
+    finishField(i);
+  }
+
+  private void finishField(int end) {
+    if (isDelimiter(end)) {
+      position = end + 1;
+    } else {
+      recordEnd = true;
+      position = Math.min(end + 1, limit);
+    }
+  }
+
+  private boolean isDelimiter(int index) {
+    return index < limit && buffer.get(index) == delimiter;
+  }
+
+  private void append(byte b) {
+    ensureCapacity(fieldLength + 1);
+    scratch[fieldLength++] = b;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (scratch.length < capacity) {
+      scratch = Arrays.copyOf(scratch, Math.max(capacity, scratch.length * 2));
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.format.csv;
+
+import org.apache.streampipes.extensions.api.connect.exception.ParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Reads a CSV file in memory-mapped chunks which are parsed in parallel. Chunks always end at a
+ * line break, and the parsed events are handed over in file order on the calling thread.
+ */
+public class ParallelCsvReader {
+
+  private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+  private static final int BOUNDARY_SCAN_SIZE = 64 * 1024;
+  private static final byte LF = '\n';
+
+  private final String delimiter;
+  private final boolean header;
+  private final int parallelism;
+  private final int chunkSize;
+
+  public ParallelCsvReader(String delimiter,
+                           boolean header,
+                           int parallelism) {
+    this(delimiter, header, parallelism, DEFAULT_CHUNK_SIZE);
+  }
+
+  public ParallelCsvReader(String delimiter,
+                           boolean header,
+                           int parallelism,
+                           int chunkSize) {
+    this.delimiter = delimiter;
+    this.header = header;
+    this.parallelism = parallelism;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * @param file      the CSV file to read
+   * @param emitEvent receives the events in file order, reading stops as soon as it returns false
+   */
+  public void read(Path file,
+                   Predicate<Map<String, Object>> emitEvent) throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long chunkEnd = findChunkEnd(channel, 0, size);
+      ByteBuffer firstChunk = channel.map(FileChannel.MapMode.READ_ONLY, 0, chunkEnd);
+      CsvTokenizer tokenizer = new CsvTokenizer(firstChunk, 0, firstChunk.limit(), delimiter);
+      if (!tokenizer.nextRecord()) {
+        return;
+      }
+
+      List<String> columns = new ArrayList<>();
+      while (tokenizer.nextField()) {
+        columns.add(tokenizer.getString());
+      }
+      CsvRecordConverter converter = new CsvRecordConverter(header
+          ? columns.toArray(new String[0])
+          : CsvRecordConverter.makeKeys(columns.size()));
+
+      Deque<Future<List<Map<String, Object>>>> pending = new ArrayDeque<>();
+      long position = header ? tokenizer.getPosition() : 0;
+      while (position < size || !pending.isEmpty()) {
+        while (position < size && pending.size() < parallelism * 2) {
+          long end = findChunkEnd(channel, position, size);
+          ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+          pending.add(executor.submit(() -> parseChunk(chunk, converter)));
+          position = end;
+        }
+        for (Map<String, Object> event : pending.poll().get()) {
+          if (!emitEvent.test(event)) {
+            return;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new ParseException(e.getCause().getMessage());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<Map<String, Object>> parseChunk(ByteBuffer chunk,
+                                               CsvRecordConverter converter) {
+    List<Map<String, Object>> events = new ArrayList<>();
+    CsvTokenizer tokenizer = new CsvTokenizer(chunk, 0, chunk.limit(), delimiter);
+    while (tokenizer.nextRecord()) {
+      Map<String, Object> event = converter.convert(tokenizer);
+      if (event != null) {
+        events.add(event);
+      }
+    }
+    return events;
+  }
+
+  private long findChunkEnd(FileChannel channel,
+                            long start,
+                            long size) throws IOException {
+    long end = start + chunkSize;
+    while (end < size) {
+      int length = (int) Math.min(BOUNDARY_SCAN_SIZE, size - end);
+      ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, end, length);
+      for (int i = 0; i < length; i++) {
+        if (window.get(i) == LF) {
+          return end + i + 1;
+        }
+      }
+      end += length;
+    }
+    return size;
+  }
+}
@@ -20,13 +20,19 @@ package org.apache.streampipes.extensions.management.connect.adapter.model.pipel
 
 import org.apache.streampipes.extensions.api.connect.IAdapterPipeline;
 import org.apache.streampipes.extensions.api.connect.IAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.TransformStreamAdapterElement;
 import org.apache.streampipes.model.schema.EventSchema;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.List;
 import java.util.Map;
 
 public class AdapterPipeline implements IAdapterPipeline {
 
+  private static final Logger LOG = LoggerFactory.getLogger(AdapterPipeline.class);
+
   private List<IAdapterPipelineElement> pipelineElements;
   private IAdapterPipelineElement pipelineSink;
 
@@ -47,7 +53,7 @@ public class AdapterPipeline implements IAdapterPipeline {
   }
 
   @Override
-  public void process(Map<String, Object> event) {
+  public synchronized void process(Map<String, Object> event) {
 
     for (IAdapterPipelineElement pipelineElement : pipelineElements) {
       event = pipelineElement.process(event);
@@ -58,6 +64,49 @@ public class AdapterPipeline implements IAdapterPipeline {
 
   }
 
+  /**
+   * Hands an event which was created by a pipeline element outside of {@link #process(Map)}, e.g., on a timer,
+   * to the pipeline elements following this element and to the sink.
+   */
+  public synchronized void emit(IAdapterPipelineElement source,
+                                Map<String, Object> event) {
+    int index = pipelineElements.indexOf(source);
+    for (int i = index + 1; i < pipelineElements.size(); i++) {
+      event = pipelineElements.get(i).process(event);
+    }
+    if (pipelineSink != null) {
+      pipelineSink.process(event);
+    }
+  }
+
+  /**
+   * Starts timers of pipeline elements, e.g., for the emission of aggregation windows, once the adapter is
+   * started. They are stopped by {@link #stop()}.
+   */
+  public void start() {
+    for (IAdapterPipelineElement pipelineElement : pipelineElements) {
+      if (pipelineElement instanceof TransformStreamAdapterElement) {
+        var element = (TransformStreamAdapterElement) pipelineElement;
+        element.startWindowEmission(event -> emit(element, event));
+      }
+    }
+  }
+
+  /**
+   * Releases resources of pipeline elements, e.g., timers, once the adapter is stopped.
+   */
+  public void stop() {
+    for (IAdapterPipelineElement pipelineElement : pipelineElements) {
+      if (pipelineElement instanceof AutoCloseable) {
+        try {
+          ((AutoCloseable) pipelineElement).close();
+        } catch (Exception e) {
+          LOG.error("Could not close adapter pipeline element", e);
+        }
+      }
+    }
+  }
+
   @Override
   public List<IAdapterPipelineElement> getPipelineElements() {
     return pipelineElements;
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements;
+
+import org.apache.streampipes.extensions.api.connect.IAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.FusedEventTransformer;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.schema.SchemaEventTransformer;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.TimestampTranformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.ValueEventTransformer;
+import org.apache.streampipes.model.connect.rules.TransformationRuleDescription;
+import org.apache.streampipes.model.connect.rules.value.AddTimestampRuleDescription;
+import org.apache.streampipes.model.connect.rules.value.AddValueTransformationRuleDescription;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Replaces the chain of {@link AddTimestampPipelineElement}, {@link AddValuePipelineElement},
+ * {@link TransformSchemaAdapterPipelineElement} and {@link TransformValueAdapterPipelineElement} with a single
+ * element, which applies all rules with a {@link FusedEventTransformer} compiled at adapter start-up.
+ */
+public class FusedTransformAdapterPipelineElement implements IAdapterPipelineElement {
+
+  private final SchemaEventTransformer schemaEventTransformer;
+  private final ValueEventTransformer valueEventTransformer;
+
+  private String timestampKey;
+  private final String valueKey;
+  private final String value;
+
+  private FusedEventTransformer eventTransformer;
+
+  public FusedTransformAdapterPipelineElement(
+      AddTimestampRuleDescription timestampRuleDescription,
+      AddValueTransformationRuleDescription valueRuleDescription,
+      List<? extends TransformationRuleDescription> schemaRuleDescriptions,
+      List<? extends TransformationRuleDescription> valueRuleDescriptions) {
+    this.schemaEventTransformer =
+        new TransformSchemaAdapterPipelineElement(schemaRuleDescriptions).getEventTransformer();
+    this.valueEventTransformer =
+        new TransformValueAdapterPipelineElement(valueRuleDescriptions).getEventTransformer();
+
+    this.timestampKey = timestampRuleDescription != null ? timestampRuleDescription.getRuntimeKey() : null;
+    this.valueKey = valueRuleDescription != null ? valueRuleDescription.getRuntimeKey() : null;
+    this.value = valueRuleDescription != null ? valueRuleDescription.getStaticValue() : null;
+
+    this.eventTransformer = new FusedEventTransformer(schemaEventTransformer, valueEventTransformer);
+  }
+
+  @Override
+  public Map<String, Object> process(Map<String, Object> event) {
+    // added before the schema transformations to ensure that users can move these event properties
+    if (timestampKey != null) {
+      event.put(timestampKey, System.currentTimeMillis());
+    }
+    if (valueKey != null) {
+      event.put(valueKey, value);
+    }
+    return eventTransformer.transform(event);
+  }
+
+  /**
+   * Removes the rule which adds the current time to each event, e.g. for adapters which need to apply it
+   * before the event is handed over to the pipeline.
+   */
+  public Optional<IAdapterPipelineElement> removeAddTimestampElement() {
+    if (timestampKey == null) {
+      return Optional.empty();
+    }
+    var addTimestampElement = new AddTimestampPipelineElement(timestampKey);
+    this.timestampKey = null;
+    return Optional.of(addTimestampElement);
+  }
+
+  /**
+   * Removes all timestamp transformation rules and recompiles the remaining rules.
+   */
+  public List<TimestampTranformationRule> removeTimestampTransformationRules() {
+    var timestampRules = valueEventTransformer.getTimestampTransformationRules();
+    valueEventTransformer.setTimestampTransformationRules(List.of());
+    this.eventTransformer = new FusedEventTransformer(schemaEventTransformer, valueEventTransformer);
+    return timestampRules;
+  }
+}
@@ -23,6 +23,7 @@ import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.dataformat.SpDataFormatDefinition;
 import org.apache.streampipes.extensions.api.connect.IAdapterPipelineElement;
 import org.apache.streampipes.extensions.management.connect.adapter.util.TransportFormatSelector;
+import org.apache.streampipes.extensions.management.monitoring.EventTracer;
 import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
 import org.apache.streampipes.messaging.EventProducer;
 import org.apache.streampipes.model.StreamPipesErrorMessage;
@@ -31,6 +32,7 @@ import org.apache.streampipes.model.grounding.TransportFormat;
 import org.apache.streampipes.model.grounding.TransportProtocol;
 import org.apache.streampipes.model.monitoring.SpLogEntry;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.function.Supplier;
 
@@ -60,7 +62,9 @@ public abstract class SendToBrokerAdapterSink<T extends TransportProtocol> imple
         .get(0);
 
     this.dataFormatDefinition =
-        new TransportFormatSelector(transportFormat).getDataFormatDefinition();
+        new TransportFormatSelector(transportFormat)
+            .getDataFormatDefinition()
+            .bindSchema(adapterDescription.getEventSchema());
 
     try {
       producer.connect(protocol);
@@ -87,7 +91,7 @@ public abstract class SendToBrokerAdapterSink<T extends TransportProtocol> imple
   }
 
   protected void sendToBroker(byte[] event) throws RuntimeException {
-    producer.publish(event);
+    producer.publish(event, EventTracer.INSTANCE.inject(Collections.emptyMap()));
   }
 
   public abstract void modifyProtocolForDebugging(T transportProtocol);
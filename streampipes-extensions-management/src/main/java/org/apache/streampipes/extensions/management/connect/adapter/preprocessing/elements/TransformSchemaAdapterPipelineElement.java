@@ -78,4 +78,8 @@ public class TransformSchemaAdapterPipelineElement implements IAdapterPipelineEl
   public Map<String, Object> process(Map<String, Object> event) {
     return eventTransformer.transform(event);
   }
+
+  public SchemaEventTransformer getEventTransformer() {
+    return eventTransformer;
+  }
 }
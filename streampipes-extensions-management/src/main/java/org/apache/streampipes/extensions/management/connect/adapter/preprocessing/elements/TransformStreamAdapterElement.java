@@ -25,6 +25,7 @@ import org.apache.streampipes.extensions.management.connect.adapter.preprocessin
 import org.apache.streampipes.model.connect.rules.TransformationRuleDescription;
 import org.apache.streampipes.model.connect.rules.stream.EventRateTransformationRuleDescription;
 import org.apache.streampipes.model.connect.rules.stream.StreamTransformationRuleDescription;
+import org.apache.streampipes.model.schema.EventSchema;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,10 +33,15 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
-public class TransformStreamAdapterElement implements IAdapterPipelineElement {
+public class TransformStreamAdapterElement implements IAdapterPipelineElement, AutoCloseable {
 
   private StreamEventTransformer eventTransformer;
+  private ScheduledExecutorService windowScheduler;
   Logger logger = LoggerFactory.getLogger(TransformStreamAdapterElement.class);
 
   public TransformStreamAdapterElement() {
@@ -57,10 +63,19 @@ public class TransformStreamAdapterElement implements IAdapterPipelineElement {
   }
 
   public void addStreamTransformationRuleDescription(StreamTransformationRuleDescription ruleDescription) {
+    addStreamTransformationRuleDescription(ruleDescription, null);
+  }
+
+  /**
+   * Adds a rule which uses the given event schema of the adapter to identify the timestamp and the dimension
+   * properties, which are not aggregated.
+   */
+  public void addStreamTransformationRuleDescription(StreamTransformationRuleDescription ruleDescription,
+                                                     EventSchema eventSchema) {
     if (ruleDescription instanceof EventRateTransformationRuleDescription) {
       EventRateTransformationRuleDescription tmp = (EventRateTransformationRuleDescription) ruleDescription;
       eventTransformer.addEventRateTransformationRule(
-          new EventRateTransformationRule(tmp.getAggregationTimeWindow(), tmp.getAggregationType()));
+          new EventRateTransformationRule(tmp.getAggregationTimeWindow(), tmp.getAggregationType(), eventSchema));
     }
   }
 
@@ -68,4 +83,53 @@ public class TransformStreamAdapterElement implements IAdapterPipelineElement {
   public Map<String, Object> process(Map<String, Object> event) {
     return eventTransformer.transform(event);
   }
+
+  /**
+   * Starts a timer which hands aggregated events to the given consumer once their window has ended, also if no
+   * further events arrive. Windows which end while events arrive are returned by {@link #process(Map)}. The timer
+   * runs until the element is closed.
+   */
+  public synchronized void startWindowEmission(Consumer<Map<String, Object>> windowConsumer) {
+    var aggregatingRules = eventTransformer.getAggregatingRules();
+    if (aggregatingRules.isEmpty() || windowScheduler != null) {
+      return;
+    }
+
+    this.windowScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "adapter-window-emission");
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (var rule : aggregatingRules) {
+      long windowSize = Math.max(1, rule.getAggregationTimeWindow());
+      // ticks are aligned to the end of the windows
+      long initialDelay = windowSize - System.currentTimeMillis() % windowSize + 1;
+      windowScheduler.scheduleAtFixedRate(() -> emitClosedWindows(windowConsumer),
+          initialDelay, windowSize, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public synchronized boolean isEmittingWindows() {
+    return windowScheduler != null;
+  }
+
+  public EventSchema transformSchema(EventSchema eventSchema) {
+    return eventTransformer.transformSchema(eventSchema);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (windowScheduler != null) {
+      windowScheduler.shutdownNow();
+      windowScheduler = null;
+    }
+  }
+
+  private void emitClosedWindows(Consumer<Map<String, Object>> windowConsumer) {
+    try {
+      eventTransformer.closeWindows(System.currentTimeMillis()).forEach(windowConsumer);
+    } catch (RuntimeException e) {
+      logger.error("Could not emit aggregated events", e);
+    }
+  }
 }
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform;
+
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.schema.SchemaEventTransformer;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.ValueEventTransformer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Applies the schema and value rules of an adapter in a single transformation, with the same result as
+ * running the {@link SchemaEventTransformer} followed by the {@link ValueEventTransformer}.
+ * The rules are compiled once: key paths are split up front, schema rules modify the event in place
+ * without copying nested maps, and value rules are grouped by their key path, so that each nested map is
+ * visited only once and each value is rewritten in a single step per event.
+ */
+public class FusedEventTransformer implements TransformationRule {
+
+  private final List<Consumer<Map<String, Object>>> schemaOperations;
+  private final ValueNode valueOperations;
+
+  public FusedEventTransformer(SchemaEventTransformer schemaEventTransformer,
+                               ValueEventTransformer valueEventTransformer) {
+    this.schemaOperations = new ArrayList<>();
+    this.valueOperations = new ValueNode();
+
+    // schema rules depend on each other and are applied in the order of the SchemaEventTransformer
+    schemaEventTransformer.getRenameTransformationRules().forEach(rule ->
+        schemaOperations.add(makeRenameOperation(toPath(rule.getOldKey()), rule.getNewKey())));
+    schemaEventTransformer.getCreateNestedTransformationRules().forEach(rule ->
+        schemaOperations.add(makeCreateNestedOperation(toPath(rule.getKey()))));
+    schemaEventTransformer.getMoveTransformationRules().forEach(rule ->
+        schemaOperations.add(makeMoveOperation(toPath(rule.getOldKey()), toPath(rule.getNewKey()))));
+    schemaEventTransformer.getDeleteTransformationRules().forEach(rule ->
+        schemaOperations.add(makeDeleteOperation(toPath(rule.getKey()))));
+
+    // value rules of the same key are chained in the order of the ValueEventTransformer
+    valueEventTransformer.getUnitTransformationRules().forEach(rule ->
+        valueOperations.add(toPath(rule.getEventKey()), 0, rule::transformValue));
+    valueEventTransformer.getTimestampTransformationRules().forEach(rule ->
+        valueOperations.add(toPath(rule.getEventKey()), 0, rule::transformValue));
+    valueEventTransformer.getDatatypeTransformationRules().forEach(rule ->
+        valueOperations.add(new String[]{rule.getEventKey()}, 0, rule::transformDatatype));
+    valueEventTransformer.getCorrectionValueTransformationRules().forEach(rule ->
+        valueOperations.add(toPath(rule.getEventKey()), 0, rule::transformValue));
+    valueOperations.compile();
+  }
+
+  @Override
+  public Map<String, Object> transform(Map<String, Object> event) {
+    for (Consumer<Map<String, Object>> operation : schemaOperations) {
+      operation.accept(event);
+    }
+    valueOperations.apply(event);
+
+    return event;
+  }
+
+  private Consumer<Map<String, Object>> makeRenameOperation(String[] oldPath,
+                                                            String newKey) {
+    String oldKey = oldPath[oldPath.length - 1];
+    return event -> {
+      Map<String, Object> parent = getParent(event, oldPath);
+      if (parent != null) {
+        parent.put(newKey, parent.remove(oldKey));
+      }
+    };
+  }
+
+  private Consumer<Map<String, Object>> makeCreateNestedOperation(String[] path) {
+    String key = path[path.length - 1];
+    return event -> {
+      Map<String, Object> parent = getParent(event, path);
+      if (parent != null) {
+        parent.put(key, new HashMap<>());
+      }
+    };
+  }
+
+  private Consumer<Map<String, Object>> makeMoveOperation(String[] oldPath,
+                                                          String[] newPath) {
+    String oldKey = oldPath[oldPath.length - 1];
+    boolean moveToRoot = newPath.length == 1 && newPath[0].isEmpty();
+    String newKey = newPath[newPath.length - 1];
+
+    return event -> {
+      Map<String, Object> oldParent = getParent(event, oldPath);
+      Map<String, Object> newParent = moveToRoot ? event : getParent(event, newPath);
+      if (oldParent == null || newParent == null) {
+        return;
+      }
+
+      Object value = oldParent.get(oldKey);
+      if (moveToRoot) {
+        newParent.put(oldKey, value);
+      } else if (newParent.get(newKey) instanceof Map) {
+        ((Map<String, Object>) newParent.get(newKey)).put(oldKey, value);
+      } else {
+        Map<String, Object> target = new HashMap<>();
+        target.put(oldKey, value);
+        newParent.put(newKey, target);
+      }
+      oldParent.remove(oldKey);
+    };
+  }
+
+  private Consumer<Map<String, Object>> makeDeleteOperation(String[] path) {
+    String key = path[path.length - 1];
+    return event -> {
+      Map<String, Object> parent = getParent(event, path);
+      if (parent != null) {
+        parent.remove(key);
+      }
+    };
+  }
+
+  private static Map<String, Object> getParent(Map<String, Object> event,
+                                               String[] path) {
+    Map<String, Object> current = event;
+    for (int i = 0; i < path.length - 1 && current != null; i++) {
+      Object child = current.get(path[i]);
+      current = child instanceof Map ? (Map<String, Object>) child : null;
+    }
+    return current;
+  }
+
+  private static String[] toPath(List<String> keys) {
+    return keys.toArray(new String[0]);
+  }
+
+  /**
+   * All value operations which apply to the keys of one (nested) map of the event.
+   */
+  private static class ValueNode {
+
+    private final Map<String, ValueNode> children = new LinkedHashMap<>();
+    private final Map<String, Function<Object, Object>> operations = new LinkedHashMap<>();
+
+    private String[] childKeys;
+    private ValueNode[] childNodes;
+    private String[] operationKeys;
+    private Function<Object, Object>[] operationFunctions;
+
+    void add(String[] path,
+             int depth,
+             Function<Object, Object> operation) {
+      String key = path[depth];
+      if (depth == path.length - 1) {
+        operations.merge(key, operation, Function::andThen);
+      } else {
+        children.computeIfAbsent(key, k -> new ValueNode()).add(path, depth + 1, operation);
+      }
+    }
+
+    void compile() {
+      children.values().forEach(ValueNode::compile);
+      this.childKeys = children.keySet().toArray(new String[0]);
+      this.childNodes = children.values().toArray(new ValueNode[0]);
+      this.operationKeys = operations.keySet().toArray(new String[0]);
+      this.operationFunctions = operations.values().toArray(new Function[0]);
+    }
+
+    void apply(Map<String, Object> event) {
+      for (int i = 0; i < childKeys.length; i++) {
+        Object child = event.get(childKeys[i]);
+        if (child instanceof Map) {
+          childNodes[i].apply((Map<String, Object>) child);
+        }
+      }
+      for (int i = 0; i < operationKeys.length; i++) {
+        event.put(operationKeys[i], operationFunctions[i].apply(event.get(operationKeys[i])));
+      }
+    }
+  }
+}
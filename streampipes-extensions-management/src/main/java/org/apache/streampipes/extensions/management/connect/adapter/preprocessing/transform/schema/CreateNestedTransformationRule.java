@@ -52,4 +52,8 @@ public class CreateNestedTransformationRule implements SchemaTransformationRule
     }
 
   }
+
+  public List<String> getKey() {
+    return key;
+  }
 }
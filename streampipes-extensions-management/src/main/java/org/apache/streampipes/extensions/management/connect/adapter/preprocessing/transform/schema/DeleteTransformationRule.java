@@ -51,4 +51,8 @@ public class DeleteTransformationRule implements SchemaTransformationRule {
     }
 
   }
+
+  public List<String> getKey() {
+    return key;
+  }
 }
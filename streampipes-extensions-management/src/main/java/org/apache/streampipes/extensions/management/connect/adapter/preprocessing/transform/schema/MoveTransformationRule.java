@@ -106,4 +106,12 @@ public class MoveTransformationRule implements SchemaTransformationRule {
       return event;
     }
   }
+
+  public List<String> getOldKey() {
+    return oldKey;
+  }
+
+  public List<String> getNewKey() {
+    return newKey;
+  }
 }
@@ -55,5 +55,12 @@ public class RenameTransformationRule implements SchemaTransformationRule {
 
     return event;
   }
-}
 
+  public List<String> getOldKey() {
+    return oldKey;
+  }
+
+  public String getNewKey() {
+    return newKey;
+  }
+}
@@ -18,60 +18,218 @@
 
 package org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.stream;
 
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.extensions.api.connect.IAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.Util;
 
-import java.util.HashMap;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
- * A hash of events is stored to check if event was already sent
+ * A fingerprint of events is stored to check if event was already sent
  * If the same event is sent multiple times the timer is always reseted to cover polling of rest endpoints
  * User can configure how long events are stored in cache, it should be minimum 2x the polling intervall
+ *
+ * <p>The fingerprint is a 128 bit digest of a canonical encoding of the event (or of the configured key fields),
+ * which does not depend on the key order of the event maps. Fingerprints are kept in the order they were last
+ * seen, so that expired fingerprints are evicted from the head without scanning the whole state and the oldest
+ * fingerprints are evicted once the maximum number of entries is reached.
  */
 public class DuplicateFilterPipelineElement implements IAdapterPipelineElement {
 
+  private static final String DIGEST_ALGORITHM = "MD5";
+  private static final int DEFAULT_MAX_ENTRIES = 100000;
+
+  // expired fingerprints are evicted at most once per interval
+  private static final long CLEAN_UP_INTERVAL_MILLI_SEC = 1000;
+
   /**
    * Lifetime of events
    */
-  private long filterTimeWindow;
+  private final long filterTimeWindow;
+  private final List<String[]> keyFields;
+  private final int maxEntries;
+
+  private final LinkedHashMap<Fingerprint, Fingerprint> eventState;
+  private final MessageDigest digest;
+  private final DataOutputStream encoder;
+  private long lastCleanUpTimestamp = System.currentTimeMillis();
 
   public DuplicateFilterPipelineElement(String filterTimeWindow) {
-    // convert it to seconds
-    this.filterTimeWindow = 1000 * Long.parseLong(filterTimeWindow);
+    this(filterTimeWindow, Collections.emptyList(), DEFAULT_MAX_ENTRIES);
   }
 
-  // Trade of between computation and storage, maybe change value in future
-  private static final long CLEAN_UP_INTERVAL_MILLI_SEC = 10000; //10 seconds
+  public DuplicateFilterPipelineElement(String filterTimeWindow,
+                                        List<String> keyFields,
+                                        int maxEntries) {
+    // convert it to seconds
+    this.filterTimeWindow = 1000 * Long.parseLong(filterTimeWindow);
+    this.keyFields = keyFields.stream().map(key -> Util.toKeyArray(key).toArray(new String[0]))
+        .collect(Collectors.toList());
+    this.maxEntries = maxEntries;
 
-  private Map<Integer, Long> eventState = new HashMap<>();
-  private long lastCleanUpTimestamp = System.currentTimeMillis();
+    // access order moves fingerprints of repeated events to the tail
+    this.eventState = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Fingerprint, Fingerprint> eldest) {
+        return size() > DuplicateFilterPipelineElement.this.maxEntries;
+      }
+    };
+    this.digest = makeDigest();
+    this.encoder = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+  }
 
   @Override
   public Map<String, Object> process(Map<String, Object> event) {
-    cleanUpEvenState();
+    long now = System.currentTimeMillis();
+    cleanUpEventState(now);
 
-    int hash = event.hashCode();
+    Fingerprint fingerprint = makeFingerprint(event);
+    Fingerprint existing = eventState.get(fingerprint);
 
-    if (isDuplicatedEvent(hash)) {
-      saveEvent(hash);
+    if (existing != null) {
+      existing.lastSeen = now;
       return null;
     }
-    saveEvent(hash);
+    fingerprint.lastSeen = now;
+    eventState.put(fingerprint, fingerprint);
     return event;
   }
 
-  private boolean isDuplicatedEvent(int key) {
-    return eventState.containsKey(key);
+  private void cleanUpEventState(long now) {
+    if (now > lastCleanUpTimestamp + CLEAN_UP_INTERVAL_MILLI_SEC) {
+      Iterator<Fingerprint> iterator = eventState.keySet().iterator();
+      while (iterator.hasNext() && iterator.next().lastSeen + filterTimeWindow < now) {
+        iterator.remove();
+      }
+      lastCleanUpTimestamp = now;
+    }
   }
 
-  private void saveEvent(int key) {
-    eventState.put(key, System.currentTimeMillis());
+  private Fingerprint makeFingerprint(Map<String, Object> event) {
+    try {
+      if (keyFields.isEmpty()) {
+        writeValue(event);
+      } else {
+        for (String[] keyField : keyFields) {
+          writeValue(getValue(event, keyField));
+        }
+      }
+      encoder.flush();
+    } catch (IOException e) {
+      digest.reset();
+      throw new SpRuntimeException("Could not compute fingerprint of event", e);
+    }
+
+    ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+    return new Fingerprint(hash.getLong(), hash.getLong());
   }
 
-  private void cleanUpEvenState() {
-    if (System.currentTimeMillis() > lastCleanUpTimestamp + CLEAN_UP_INTERVAL_MILLI_SEC) {
-      eventState.entrySet().removeIf(entry -> entry.getValue() + filterTimeWindow < System.currentTimeMillis());
-      lastCleanUpTimestamp = System.currentTimeMillis();
+  private Object getValue(Map<String, Object> event,
+                          String[] keys) {
+    Object value = event;
+    for (String key : keys) {
+      if (!(value instanceof Map)) {
+        return null;
+      }
+      value = ((Map<?, ?>) value).get(key);
+    }
+    return value;
+  }
+
+  private void writeValue(Object value) throws IOException {
+    if (value == null) {
+      encoder.writeByte('0');
+    } else if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      String[] keys = map.keySet().stream().map(String::valueOf).toArray(String[]::new);
+      Arrays.sort(keys);
+      encoder.writeByte('M');
+      encoder.writeInt(keys.length);
+      for (String key : keys) {
+        writeString(key);
+        writeValue(map.get(key));
+      }
+    } else if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      encoder.writeByte('L');
+      encoder.writeInt(list.size());
+      for (Object item : list) {
+        writeValue(item);
+      }
+    } else if (value instanceof String) {
+      encoder.writeByte('S');
+      writeString((String) value);
+    } else if (value instanceof Integer || value instanceof Long
+        || value instanceof Short || value instanceof Byte) {
+      encoder.writeByte('I');
+      encoder.writeLong(((Number) value).longValue());
+    } else if (value instanceof Double || value instanceof Float) {
+      encoder.writeByte('D');
+      encoder.writeDouble(((Number) value).doubleValue());
+    } else if (value instanceof Boolean) {
+      encoder.writeByte('B');
+      encoder.writeBoolean((Boolean) value);
+    } else {
+      encoder.writeByte('O');
+      writeString(value.toString());
+    }
+  }
+
+  private void writeString(String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    encoder.writeInt(bytes.length);
+    encoder.write(bytes);
+  }
+
+  private static MessageDigest makeDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new SpRuntimeException(e);
+    }
+  }
+
+  private static class Fingerprint {
+
+    private final long high;
+    private final long low;
+    private long lastSeen;
+
+    Fingerprint(long high,
+                long low) {
+      this.high = high;
+      this.low = low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Fingerprint)) {
+        return false;
+      }
+      Fingerprint that = (Fingerprint) o;
+      return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (low ^ (low >>> 32));
     }
   }
 }
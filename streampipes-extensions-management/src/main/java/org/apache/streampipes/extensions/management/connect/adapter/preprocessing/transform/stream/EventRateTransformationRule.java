@@ -18,38 +18,289 @@
 
 package org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.stream;
 
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyNested;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.SO;
+import org.apache.streampipes.vocabulary.XSD;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Reduces the event rate of an adapter. With the aggregation type none, the first event of each time window is
+ * forwarded. All other aggregation types aggregate the events of tumbling time windows: numeric fields are
+ * replaced by the aggregate of their values in the window, all other fields keep their last value. The state
+ * of each field is updated incrementally, so that the cost per event does not depend on the window size.
+ * Dimension properties of the event schema are never aggregated and keep their last (or, with the aggregation
+ * type first, their first) value. The timestamp property of the schema is set to the end of the window for the
+ * aggregation types mean, sum and count and is handled like a dimension property otherwise.
+ */
 public class EventRateTransformationRule implements StreamTransformationRule {
 
+  public static final String NONE = "none";
+  public static final String MAX = "max";
+  public static final String MIN = "min";
+  public static final String MEAN = "mean";
+  public static final String SUM = "sum";
+  public static final String COUNT = "count";
+  public static final String FIRST = "first";
+  public static final String LAST = "last";
+
+  private static final Set<String> NUMERIC_TYPES = Set.of(
+      XSD.DOUBLE.toString(), XSD.FLOAT.toString(), XSD.DECIMAL.toString(), XSD.INTEGER.toString(),
+      XSD.INT.toString(), XSD.LONG.toString(), XSD.SHORT.toString());
+
   private long aggregationTimeWindow;
 
-  //none (Values from last event), max, min, mean, sum (of the values in the time window)
+  //none (Values from last event), max, min, mean, sum, count, first, last (of the values in the time window)
   private String aggregationType;
 
   private long lastSentToPipelineTimestamp = System.currentTimeMillis();
 
+  private final WindowNode window;
+  private boolean windowOpen;
+  private long windowEnd;
+
   public EventRateTransformationRule(long aggregationTimeWindow, String aggregationType) {
+    this(aggregationTimeWindow, aggregationType, null);
+  }
+
+  public EventRateTransformationRule(long aggregationTimeWindow,
+                                     String aggregationType,
+                                     EventSchema eventSchema) {
     this.aggregationTimeWindow = aggregationTimeWindow;
     this.aggregationType = aggregationType;
+    this.window = new WindowNode(eventSchema != null ? eventSchema.getEventProperties() : List.of());
   }
 
   @Override
-  public Map<String, Object> transform(Map<String, Object> event) {
-    if (System.currentTimeMillis() > lastSentToPipelineTimestamp + aggregationTimeWindow) {
-      switch (aggregationType) {
-        case "none":
-          lastSentToPipelineTimestamp = System.currentTimeMillis();
-          return event;
-//                case "max":
-//                case "min":
-//                case "mean":
-//                case "sum":
+  public synchronized Map<String, Object> transform(Map<String, Object> event) {
+    if (!isAggregating()) {
+      if (System.currentTimeMillis() > lastSentToPipelineTimestamp + aggregationTimeWindow) {
+        lastSentToPipelineTimestamp = System.currentTimeMillis();
+        return event;
+      }
+      return null;
+    }
+
+    long now = System.currentTimeMillis();
+    Map<String, Object> closedWindow = closeWindow(now);
+    if (event != null) {
+      if (!windowOpen) {
+        long windowSize = Math.max(1, aggregationTimeWindow);
+        windowEnd = now - now % windowSize + windowSize;
+        windowOpen = true;
+      }
+      window.add(event);
+    }
+    return closedWindow;
+  }
+
+  /**
+   * Returns the aggregated event of the current window if the window has ended, or null otherwise.
+   * This is called on a timer, so that windows are also emitted when no further events arrive.
+   */
+  public synchronized Map<String, Object> closeWindow(long now) {
+    if (!windowOpen || now < windowEnd) {
+      return null;
+    }
+    windowOpen = false;
+    return window.makeResult(aggregationType, windowEnd);
+  }
+
+  public boolean isAggregating() {
+    return !NONE.equals(aggregationType);
+  }
+
+  public long getAggregationTimeWindow() {
+    return aggregationTimeWindow;
+  }
+
+  /**
+   * Updates the runtime types of aggregated numeric properties to the types of the aggregated values.
+   * The timestamp property and dimension properties keep their runtime type.
+   */
+  public void transformSchema(List<EventProperty> eventProperties) {
+    for (EventProperty eventProperty : eventProperties) {
+      if (eventProperty instanceof EventPropertyNested) {
+        transformSchema(((EventPropertyNested) eventProperty).getEventProperties());
+      } else if (eventProperty instanceof EventPropertyPrimitive && getRole(eventProperty) == FieldRole.AGGREGATE) {
+        EventPropertyPrimitive primitive = (EventPropertyPrimitive) eventProperty;
+        if (NUMERIC_TYPES.contains(primitive.getRuntimeType())) {
+          if (MEAN.equals(aggregationType) || SUM.equals(aggregationType)) {
+            primitive.setRuntimeType(XSD.DOUBLE.toString());
+          } else if (COUNT.equals(aggregationType)) {
+            primitive.setRuntimeType(XSD.LONG.toString());
+          }
+        }
+      }
+    }
+  }
+
+  private static FieldRole getRole(EventProperty eventProperty) {
+    if (eventProperty.getDomainProperties() != null
+        && eventProperty.getDomainProperties().contains(URI.create(SO.DATE_TIME))) {
+      return FieldRole.TIMESTAMP;
+    } else if (PropertyScope.DIMENSION_PROPERTY.name().equals(eventProperty.getPropertyScope())) {
+      return FieldRole.RETAIN;
+    } else {
+      return FieldRole.AGGREGATE;
+    }
+  }
 
+  private enum FieldRole {
+    AGGREGATE,
+    RETAIN,
+    TIMESTAMP
+  }
+
+  /**
+   * Aggregation state of the fields of one (nested) map of the events in a window.
+   * Fields which are not part of the event schema are aggregated.
+   */
+  private static class WindowNode {
+
+    private final Map<String, FieldRole> roles = new HashMap<>();
+    private final Map<String, List<EventProperty>> childProperties = new HashMap<>();
+
+    private final Map<String, FieldAggregate> fields = new LinkedHashMap<>();
+    private final Map<String, WindowNode> children = new LinkedHashMap<>();
+
+    WindowNode(List<EventProperty> eventProperties) {
+      for (EventProperty eventProperty : eventProperties) {
+        if (eventProperty instanceof EventPropertyNested) {
+          childProperties.put(eventProperty.getRuntimeName(),
+              ((EventPropertyNested) eventProperty).getEventProperties());
+        } else {
+          roles.put(eventProperty.getRuntimeName(), getRole(eventProperty));
+        }
+      }
+    }
+
+    void add(Map<String, Object> event) {
+      for (Map.Entry<String, Object> entry : event.entrySet()) {
+        Object value = entry.getValue();
+        if (value instanceof Map) {
+          children.computeIfAbsent(entry.getKey(),
+                  key -> new WindowNode(childProperties.getOrDefault(key, List.of())))
+              .add((Map<String, Object>) value);
+        } else {
+          fields.computeIfAbsent(entry.getKey(),
+                  key -> new FieldAggregate(roles.getOrDefault(key, FieldRole.AGGREGATE)))
+              .add(value);
+        }
       }
     }
-    return null;
+
+    /**
+     * Creates the aggregated event and resets the state for the next window.
+     */
+    Map<String, Object> makeResult(String aggregationType,
+                                   long windowEnd) {
+      Map<String, Object> result = new LinkedHashMap<>();
+      for (Map.Entry<String, FieldAggregate> field : fields.entrySet()) {
+        if (field.getValue().count > 0) {
+          result.put(field.getKey(), field.getValue().makeResult(aggregationType, windowEnd));
+        }
+      }
+      for (Map.Entry<String, WindowNode> child : children.entrySet()) {
+        Map<String, Object> childResult = child.getValue().makeResult(aggregationType, windowEnd);
+        if (!childResult.isEmpty()) {
+          result.put(child.getKey(), childResult);
+        }
+      }
+      return result;
+    }
   }
 
+  private static class FieldAggregate {
+
+    private final FieldRole role;
+
+    private long count;
+    private Object first;
+    private Object last;
 
+    private long numericCount;
+    private double sum;
+    private Number min;
+    private Number max;
+
+    FieldAggregate(FieldRole role) {
+      this.role = role;
+    }
+
+    void add(Object value) {
+      if (count == 0) {
+        first = value;
+      }
+      last = value;
+      count++;
+
+      if (role == FieldRole.AGGREGATE && value instanceof Number) {
+        Number number = (Number) value;
+        double doubleValue = number.doubleValue();
+        if (numericCount == 0 || doubleValue < min.doubleValue()) {
+          min = number;
+        }
+        if (numericCount == 0 || doubleValue > max.doubleValue()) {
+          max = number;
+        }
+        sum += doubleValue;
+        numericCount++;
+      }
+    }
+
+    Object makeResult(String aggregationType,
+                      long windowEnd) {
+      Object result;
+      if (role == FieldRole.TIMESTAMP
+          && (MEAN.equals(aggregationType) || SUM.equals(aggregationType) || COUNT.equals(aggregationType))) {
+        result = windowEnd;
+      } else if (FIRST.equals(aggregationType)) {
+        result = first;
+      } else if (numericCount == 0 || LAST.equals(aggregationType)) {
+        result = last;
+      } else {
+        switch (aggregationType) {
+          case MAX:
+            result = max;
+            break;
+          case MIN:
+            result = min;
+            break;
+          case MEAN:
+            result = sum / numericCount;
+            break;
+          case SUM:
+            result = sum;
+            break;
+          case COUNT:
+            result = numericCount;
+            break;
+          default:
+            result = last;
+        }
+      }
+      reset();
+      return result;
+    }
+
+    private void reset() {
+      count = 0;
+      first = null;
+      last = null;
+      numericCount = 0;
+      sum = 0;
+      min = null;
+      max = null;
+    }
+  }
 }
@@ -19,10 +19,12 @@
 package org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.stream;
 
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.TransformationRule;
+import org.apache.streampipes.model.schema.EventSchema;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class StreamEventTransformer implements StreamTransformationRule {
 
@@ -63,4 +65,41 @@ public class StreamEventTransformer implements StreamTransformationRule {
 
     return event;
   }
+
+  /**
+   * Returns the aggregated events of all windows which have ended, passed through the subsequent rules.
+   */
+  public List<Map<String, Object>> closeWindows(long now) {
+    List<Map<String, Object>> closedWindows = new ArrayList<>();
+    for (int i = 0; i < eventRateTransformationRules.size(); i++) {
+      Map<String, Object> event = eventRateTransformationRules.get(i).closeWindow(now);
+      for (int j = i + 1; j < eventRateTransformationRules.size() && event != null; j++) {
+        event = eventRateTransformationRules.get(j).transform(event);
+      }
+      if (event != null) {
+        closedWindows.add(event);
+      }
+    }
+    return closedWindows;
+  }
+
+  public List<EventRateTransformationRule> getAggregatingRules() {
+    return eventRateTransformationRules
+        .stream()
+        .filter(EventRateTransformationRule::isAggregating)
+        .collect(Collectors.toList());
+  }
+
+  public EventSchema transformSchema(EventSchema eventSchema) {
+    var aggregatingRules = getAggregatingRules();
+    if (eventSchema == null || aggregatingRules.isEmpty()) {
+      return eventSchema;
+    }
+
+    EventSchema resultingSchema = new EventSchema(eventSchema);
+    for (EventRateTransformationRule rule : aggregatingRules) {
+      rule.transformSchema(resultingSchema.getEventProperties());
+    }
+    return resultingSchema;
+  }
 }
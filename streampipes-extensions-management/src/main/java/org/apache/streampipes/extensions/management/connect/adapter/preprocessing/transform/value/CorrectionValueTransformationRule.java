@@ -18,16 +18,11 @@
 
 package org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.List;
 import java.util.Map;
 
 public class CorrectionValueTransformationRule implements ValueTransformationRule {
 
-  private static Logger logger = LoggerFactory.getLogger(CorrectionValueTransformationRule.class);
-
   private final List<String> eventKey;
   private final double correctionValue;
   private final String operator;
@@ -47,33 +42,7 @@ public class CorrectionValueTransformationRule implements ValueTransformationRul
   private Map<String, Object> transform(Map<String, Object> event, List<String> eventKey) {
 
     if (eventKey.size() == 1) {
-      try {
-        Object obj = event.get(eventKey.get(0));
-        double old = 0d;
-        if (obj instanceof Number) {
-          old = ((Number) obj).doubleValue();
-        }
-
-        double corrected = 0d;
-        switch (operator) {
-          case "MULTIPLY":
-            corrected = old * correctionValue;
-            break;
-          case "ADD":
-            corrected = old + correctionValue;
-            break;
-          case "SUBSTRACT":
-            corrected = old - correctionValue;
-            break;
-          default:
-            corrected = old;
-            break;
-        }
-
-        event.put(eventKey.get(0), corrected);
-      } catch (ClassCastException e) {
-        logger.error(e.toString());
-      }
+      event.put(eventKey.get(0), transformValue(event.get(eventKey.get(0))));
       return event;
 
     } else {
@@ -90,4 +59,26 @@ public class CorrectionValueTransformationRule implements ValueTransformationRul
     }
 
   }
+
+  public Object transformValue(Object value) {
+    double old = 0d;
+    if (value instanceof Number) {
+      old = ((Number) value).doubleValue();
+    }
+
+    switch (operator) {
+      case "MULTIPLY":
+        return old * correctionValue;
+      case "ADD":
+        return old + correctionValue;
+      case "SUBSTRACT":
+        return old - correctionValue;
+      default:
+        return old;
+    }
+  }
+
+  public List<String> getEventKey() {
+    return eventKey;
+  }
 }
@@ -50,4 +50,8 @@ public class DatatypeTransformationRule implements ValueTransformationRule {
   public Object transformDatatype(Object value) {
     return DatatypeUtils.convertValue(value, targetDatatypeXsd);
   }
+
+  public String getEventKey() {
+    return eventKey;
+  }
 }
@@ -57,17 +57,7 @@ public class TimestampTranformationRule implements ValueTransformationRule {
   private Map<String, Object> transform(Map<String, Object> event, List<String> eventKey) {
 
     if (eventKey.size() == 1) {
-
-      switch (mode) {
-        case TIME_UNIT:
-          long timeLong = Long.valueOf(String.valueOf(event.get(eventKey.get(0))));
-          event.put(eventKey.get(0), this.performTimeUnitTransformation(timeLong));
-          break;
-        case FORMAT_STRING:
-          String dateString = String.valueOf(event.get(eventKey.get(0)));
-          event.put(eventKey.get(0), performFormatStringTransformation(dateString));
-      }
-
+      event.put(eventKey.get(0), transformValue(event.get(eventKey.get(0))));
       return event;
 
     } else {
@@ -85,6 +75,21 @@ public class TimestampTranformationRule implements ValueTransformationRule {
 
   }
 
+  public Object transformValue(Object value) {
+    switch (mode) {
+      case TIME_UNIT:
+        return performTimeUnitTransformation(Long.valueOf(String.valueOf(value)));
+      case FORMAT_STRING:
+        return performFormatStringTransformation(String.valueOf(value));
+      default:
+        return value;
+    }
+  }
+
+  public List<String> getEventKey() {
+    return eventKey;
+  }
+
   private long performTimeUnitTransformation(long time) {
     return time * multiplier;
   }
@@ -51,18 +51,7 @@ public class UnitTransformationRule implements ValueTransformationRule {
   private Map<String, Object> transform(Map<String, Object> event, List<String> eventKey) {
 
     if (eventKey.size() == 1) {
-      try {
-        double value = Double.valueOf(String.valueOf(event.get(eventKey.get(0))));
-
-        Quantity obs = new Quantity(value, unitTypeFrom);
-        double newValue = obs.convertTo(unitTypeTo).getValue();
-
-        event.put(eventKey.get(0), newValue);
-      } catch (ClassCastException e) {
-        logger.error(e.toString());
-      } catch (IllegalAccessException e) {
-        logger.error(e.toString());
-      }
+      event.put(eventKey.get(0), transformValue(event.get(eventKey.get(0))));
       return event;
 
     } else {
@@ -79,4 +68,20 @@ public class UnitTransformationRule implements ValueTransformationRule {
     }
 
   }
+
+  public Object transformValue(Object value) {
+    try {
+      double doubleValue = Double.valueOf(String.valueOf(value));
+
+      Quantity obs = new Quantity(doubleValue, unitTypeFrom);
+      return obs.convertTo(unitTypeTo).getValue();
+    } catch (ClassCastException | IllegalAccessException e) {
+      logger.error(e.toString());
+      return value;
+    }
+  }
+
+  public List<String> getEventKey() {
+    return eventKey;
+  }
 }
@@ -72,6 +72,10 @@ public class ValueEventTransformer implements ValueTransformationRule {
     return event;
   }
 
+  public List<UnitTransformationRule> getUnitTransformationRules() {
+    return unitTransformationRules;
+  }
+
   public List<TimestampTranformationRule> getTimestampTransformationRules() {
     return timestampTransformationRules;
   }
@@ -80,4 +84,12 @@ public class ValueEventTransformer implements ValueTransformationRule {
       List<TimestampTranformationRule> timestampTransformationRules) {
     this.timestampTransformationRules = timestampTransformationRules;
   }
+
+  public List<CorrectionValueTransformationRule> getCorrectionValueTransformationRules() {
+    return correctionValueTransformationRules;
+  }
+
+  public List<DatatypeTransformationRule> getDatatypeTransformationRules() {
+    return datatypeTransformationRules;
+  }
 }
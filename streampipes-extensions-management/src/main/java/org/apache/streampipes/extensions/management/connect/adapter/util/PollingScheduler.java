@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.util;
+
+import org.apache.streampipes.commons.environment.Environments;
+import org.apache.streampipes.extensions.management.monitoring.ElementMetrics;
+import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker-wide scheduler for polling adapters. A single thread advances a hashed timer wheel and
+ * hands due polls to a bounded pool, which only keeps as many threads alive as polls are running
+ * concurrently. Polls of the same adapter never overlap: the next run is scheduled once the
+ * current one has finished, and runs missed due to an overrun are skipped. Runs which find all
+ * threads busy and the queue of the pool full are skipped as well.
+ */
+public class PollingScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PollingScheduler.class);
+
+  private static final long DEFAULT_TICK_MILLIS = 10;
+  private static final int DEFAULT_WHEEL_SIZE = 512;
+  private static final long MAX_START_JITTER_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private final long tickNanos;
+  private final List<List<ScheduledPoll>> wheel;
+  private final Queue<ScheduledPoll> pendingPolls;
+  private final ThreadPoolExecutor executor;
+  private final Thread ticker;
+  private final long startNanos;
+
+  private volatile boolean running;
+  private long currentTick;
+
+  public PollingScheduler(long tickMillis,
+                          int wheelSize,
+                          int maxThreads,
+                          int queueSize) {
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    this.wheel = new ArrayList<>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      wheel.add(new ArrayList<>());
+    }
+    this.pendingPolls = new ConcurrentLinkedQueue<>();
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+        r -> {
+          Thread thread = new Thread(r, "sp-polling-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    this.executor.allowCoreThreadTimeOut(true);
+
+    this.running = true;
+    this.startNanos = System.nanoTime();
+    this.ticker = new Thread(this::runTicker, "sp-polling-scheduler");
+    this.ticker.setDaemon(true);
+    this.ticker.start();
+  }
+
+  public static PollingScheduler getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Schedules a poll at a fixed rate. The first run is delayed by a random offset of at most one
+   * interval or one second, so that adapters started together do not poll at the same instants.
+   *
+   * @param resourceId the adapter whose metrics record the poll latency and overruns
+   */
+  public ScheduledPoll schedule(String resourceId,
+                                Runnable poll,
+                                long interval,
+                                TimeUnit timeUnit) {
+    long intervalNanos = Math.max(timeUnit.toNanos(interval), tickNanos);
+    var metrics = SpMonitoringManager.INSTANCE.getElementMetrics(resourceId);
+    metrics.enablePollMetrics();
+    var scheduledPoll = new ScheduledPoll(resourceId, poll, intervalNanos, metrics);
+    scheduledPoll.deadline = System.nanoTime()
+        + ThreadLocalRandom.current().nextLong(Math.min(intervalNanos, MAX_START_JITTER_NANOS));
+    pendingPolls.add(scheduledPoll);
+    return scheduledPoll;
+  }
+
+  public void shutdown() {
+    running = false;
+    ticker.interrupt();
+    executor.shutdownNow();
+  }
+
+  private void runTicker() {
+    while (running) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(startNanos + (currentTick + 1) * tickNanos - System.nanoTime());
+      } catch (InterruptedException e) {
+        return;
+      }
+      currentTick++;
+      addPendingPolls();
+      expireBucket();
+    }
+  }
+
+  private void addPendingPolls() {
+    ScheduledPoll poll;
+    while ((poll = pendingPolls.poll()) != null) {
+      if (!poll.isCancelled()) {
+        poll.deadlineTick = Math.max(currentTick, Math.floorDiv(poll.deadline - startNanos + tickNanos - 1, tickNanos));
+        wheel.get((int) (poll.deadlineTick % wheel.size())).add(poll);
+      }
+    }
+  }
+
+  private void expireBucket() {
+    List<ScheduledPoll> bucket = wheel.get((int) (currentTick % wheel.size()));
+    int i = 0;
+    while (i < bucket.size()) {
+      ScheduledPoll poll = bucket.get(i);
+      if (poll.isCancelled() || poll.deadlineTick <= currentTick) {
+        bucket.set(i, bucket.get(bucket.size() - 1));
+        bucket.remove(bucket.size() - 1);
+        if (!poll.isCancelled()) {
+          submit(poll);
+        }
+      } else {
+        i++;
+      }
+    }
+  }
+
+  private void submit(ScheduledPoll poll) {
+    try {
+      executor.execute(() -> execute(poll));
+    } catch (RejectedExecutionException e) {
+      if (running) {
+        LOG.warn("Skipping poll of adapter {}, all polling threads are busy", poll.resourceId);
+        poll.metrics.increasePollOverrunCounter();
+        scheduleNext(poll);
+      }
+    }
+  }
+
+  private void execute(ScheduledPoll poll) {
+    long start = System.nanoTime();
+    if (!poll.begin()) {
+      return;
+    }
+    try {
+      poll.poll.run();
+    } catch (RuntimeException e) {
+      LOG.error("Poll of adapter {} failed", poll.resourceId, e);
+      poll.metrics.increaseErrorCounter();
+    } finally {
+      poll.end();
+    }
+
+    long duration = System.nanoTime() - start;
+    poll.metrics.recordPollTime(duration);
+    if (duration > poll.intervalNanos) {
+      poll.metrics.increasePollOverrunCounter();
+      if (!poll.overrun) {
+        LOG.warn("Poll of adapter {} took {} ms, which exceeds its polling interval of {} ms",
+            poll.resourceId, TimeUnit.NANOSECONDS.toMillis(duration),
+            TimeUnit.NANOSECONDS.toMillis(poll.intervalNanos));
+      }
+    }
+    poll.overrun = duration > poll.intervalNanos;
+
+    if (!poll.isCancelled()) {
+      scheduleNext(poll);
+    }
+  }
+
+  private void scheduleNext(ScheduledPoll poll) {
+    long now = System.nanoTime();
+    long next = poll.deadline + poll.intervalNanos;
+    if (next < now) {
+      next += (now - next + poll.intervalNanos - 1) / poll.intervalNanos * poll.intervalNanos;
+    }
+    poll.deadline = next;
+    pendingPolls.add(poll);
+  }
+
+  public static class ScheduledPoll {
+
+    private final String resourceId;
+    private final Runnable poll;
+    private final long intervalNanos;
+    private final ElementMetrics metrics;
+
+    private long deadline;
+    private long deadlineTick;
+    private boolean overrun;
+
+    private volatile boolean cancelled;
+    private Thread runner;
+
+    private ScheduledPoll(String resourceId,
+                          Runnable poll,
+                          long intervalNanos,
+                          ElementMetrics metrics) {
+      this.resourceId = resourceId;
+      this.poll = poll;
+      this.intervalNanos = intervalNanos;
+      this.metrics = metrics;
+    }
+
+    /**
+     * Stops all further runs and interrupts the current run, if any.
+     */
+    public synchronized void cancel() {
+      cancelled = true;
+      if (runner != null) {
+        runner.interrupt();
+      }
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    private synchronized boolean begin() {
+      if (cancelled) {
+        return false;
+      }
+      runner = Thread.currentThread();
+      return true;
+    }
+
+    private synchronized void end() {
+      runner = null;
+      // clear an interrupt from cancel, the thread returns to the pool
+      Thread.interrupted();
+    }
+  }
+
+  private static class Holder {
+    private static final PollingScheduler INSTANCE = new PollingScheduler(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE,
+        Environments.getEnvironment().getConnectPollingThreads().getValueOrDefault(),
+        Environments.getEnvironment().getConnectPollingQueueSize().getValueOrDefault());
+  }
+}
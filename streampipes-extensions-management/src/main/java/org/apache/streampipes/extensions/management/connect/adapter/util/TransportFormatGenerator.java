@@ -28,15 +28,20 @@ import java.util.List;
 
 public class TransportFormatGenerator {
 
+  /**
+   * Returns the format of adapter streams. As the consumers of a stream are not known when it is
+   * created, the binary format, which is not supported by all pipeline elements, is skipped.
+   */
   public static TransportFormat getTransportFormat() {
-    List<SpDataFormat> supportedFormats =
+    List<SpDataFormat> prioritizedFormats =
         BackendConfig.INSTANCE.getMessagingSettings().getPrioritizedFormats();
 
-    if (supportedFormats.size() > 0) {
-      return new TransportFormat(supportedFormats.get(0).getMessageFormat());
-    } else {
-      return new TransportFormat(MessageFormat.JSON);
-    }
+    return prioritizedFormats
+        .stream()
+        .filter(format -> format != SpDataFormat.BINARY)
+        .findFirst()
+        .map(format -> new TransportFormat(format.getMessageFormat()))
+        .orElseGet(() -> new TransportFormat(MessageFormat.JSON));
   }
 
   public static List<TransportFormat> getAllFormats() {
@@ -18,6 +18,7 @@
 package org.apache.streampipes.extensions.management.connect.adapter.util;
 
 import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.dataformat.binary.BinaryDataFormatDefinition;
 import org.apache.streampipes.dataformat.cbor.CborDataFormatDefinition;
 import org.apache.streampipes.dataformat.fst.FstDataFormatDefinition;
 import org.apache.streampipes.dataformat.json.JsonDataFormatDefinition;
@@ -42,6 +43,8 @@ public class TransportFormatSelector {
       return new FstDataFormatDefinition();
     } else if (isSmileFormat(transportFormat)) {
       return new SmileDataFormatDefinition();
+    } else if (isBinaryFormat(transportFormat)) {
+      return new BinaryDataFormatDefinition();
     } else {
       throw new IllegalArgumentException("Wrong transport format: " + makeError(transportFormat));
     }
@@ -55,6 +58,10 @@ public class TransportFormatSelector {
     return isFormat(MessageFormat.FST, transportFormat);
   }
 
+  private boolean isBinaryFormat(TransportFormat transportFormat) {
+    return isFormat(MessageFormat.BINARY, transportFormat);
+  }
+
   private boolean isCborFormat(TransportFormat transportFormat) {
     return isFormat(MessageFormat.CBOR, transportFormat);
   }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.monitoring;
+
+import org.apache.streampipes.model.monitoring.MessageCounter;
+import org.apache.streampipes.model.monitoring.SpMetricsEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a single pipeline element, adapter or function. Instances are created once per
+ * resource and can be held by the caller to update the metrics without any map lookup.
+ */
+public class ElementMetrics {
+
+  private final Map<String, MetricsCounter> messagesIn;
+  private final MetricsCounter messagesOut;
+  private final LongAdder errors;
+  private final LatencyHistogram processingLatency;
+  private final LatencyHistogram queueingLatency;
+  private final LatencyHistogram endToEndLatency;
+
+  // only adapters poll their source, so the poll metrics are created once a poll is scheduled
+  private volatile LongAdder pollOverruns;
+  private volatile LatencyHistogram pollLatency;
+
+  public ElementMetrics() {
+    this.messagesIn = new ConcurrentHashMap<>();
+    this.messagesOut = new MetricsCounter();
+    this.errors = new LongAdder();
+    this.processingLatency = new LatencyHistogram();
+    this.queueingLatency = new LatencyHistogram();
+    this.endToEndLatency = new LatencyHistogram();
+  }
+
+  public void increaseInCounter(String sourceInfo) {
+    getInCounter(sourceInfo).increment();
+  }
+
+  public void increaseInCounter(String sourceInfo,
+                                long timestamp) {
+    getInCounter(sourceInfo).increment(timestamp);
+  }
+
+  public void increaseOutCounter() {
+    messagesOut.increment();
+  }
+
+  public void increaseOutCounter(long timestamp) {
+    messagesOut.increment(timestamp);
+  }
+
+  public void increaseErrorCounter() {
+    errors.increment();
+  }
+
+  public void recordProcessingTime(long durationNanos) {
+    processingLatency.record(durationNanos);
+  }
+
+  public void recordQueueingTime(long durationNanos) {
+    queueingLatency.record(durationNanos);
+  }
+
+  public void recordEndToEndTime(long durationNanos) {
+    endToEndLatency.record(durationNanos);
+  }
+
+  /**
+   * Enables the poll latency and overrun metrics, which are only reported for adapters.
+   */
+  public synchronized void enablePollMetrics() {
+    if (pollLatency == null) {
+      pollOverruns = new LongAdder();
+      pollLatency = new LatencyHistogram();
+    }
+  }
+
+  public void recordPollTime(long durationNanos) {
+    var histogram = pollLatency;
+    if (histogram != null) {
+      histogram.record(durationNanos);
+    }
+  }
+
+  public void increasePollOverrunCounter() {
+    var overruns = pollOverruns;
+    if (overruns != null) {
+      overruns.increment();
+    }
+  }
+
+  public SpMetricsEntry snapshot(long now) {
+    var entry = new SpMetricsEntry();
+    var inCounters = new HashMap<String, MessageCounter>();
+    messagesIn.forEach((sourceInfo, counter) -> inCounters.put(sourceInfo, counter.snapshot(now)));
+    entry.setMessagesIn(inCounters);
+    entry.setMessagesOut(messagesOut.snapshot(now));
+    entry.setErrorCount(errors.sum());
+    entry.setProcessingLatency(processingLatency.snapshot());
+    entry.setQueueingLatency(queueingLatency.snapshot());
+    entry.setEndToEndLatency(endToEndLatency.snapshot());
+    var histogram = pollLatency;
+    if (histogram != null) {
+      entry.setPollLatency(histogram.snapshot());
+      entry.setPollOverruns(pollOverruns.sum());
+    }
+    entry.setLastTimestamp(Math.max(entry.getMessagesOut().getLastTimestamp(),
+        inCounters.values().stream().mapToLong(MessageCounter::getLastTimestamp).max().orElse(0)));
+    return entry;
+  }
+
+  public void reset() {
+    messagesIn.clear();
+    messagesOut.reset();
+    errors.reset();
+    processingLatency.reset();
+    queueingLatency.reset();
+    endToEndLatency.reset();
+    var histogram = pollLatency;
+    if (histogram != null) {
+      histogram.reset();
+      pollOverruns.reset();
+    }
+  }
+
+  private MetricsCounter getInCounter(String sourceInfo) {
+    // get first, since computeIfAbsent may lock the bin even if the key is present
+    MetricsCounter counter = messagesIn.get(sourceInfo);
+    return counter != null ? counter : messagesIn.computeIfAbsent(sourceInfo, key -> new MetricsCounter());
+  }
+}
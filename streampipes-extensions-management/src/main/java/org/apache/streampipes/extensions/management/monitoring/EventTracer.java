@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.monitoring;
+
+import org.apache.streampipes.commons.environment.Environments;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional end-to-end tracing of events. If enabled, each event carries a transport header with a
+ * list of timestamps: the time at which the event left the adapter, followed by the time at which
+ * each pipeline element emitted it. From this trace, every pipeline element records how long an
+ * event was queued before it was received and how long it took since ingestion.
+ *
+ * <p>The trace is never part of the event payload, so consumers which do not know about tracing
+ * are not affected. Events which are sent over a protocol without headers, such as MQTT, are not
+ * traced.</p>
+ *
+ * <p>Timestamps are taken from the wall clock of the respective service, so latencies between
+ * hosts include their clock offset. Tracing needs to be enabled in all services of a pipeline,
+ * since services without tracing do not forward the trace.</p>
+ */
+public final class EventTracer {
+
+  public static final EventTracer INSTANCE =
+      new EventTracer(Environments.getEnvironment().getEventTracingEnabled().getValueOrDefault());
+
+  public static final String TRACE_HEADER = "spTrace";
+
+  private static final String DELIMITER = ",";
+
+  private final boolean enabled;
+  private final ThreadLocal<TraceContext> traceContext;
+
+  EventTracer(boolean enabled) {
+    this.enabled = enabled;
+    this.traceContext = ThreadLocal.withInitial(TraceContext::new);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the receive time of an event which has just been delivered by the broker. The time
+   * is taken before the event is queued for processing, so that the time spent in the input
+   * queue counts as queueing time.
+   *
+   * @return the current time or 0 if tracing is disabled
+   */
+  public long receiveTime() {
+    return enabled ? System.currentTimeMillis() : 0;
+  }
+
+  /**
+   * Sets the receive time and the trace of the event which is about to be processed by the
+   * current thread.
+   *
+   * @param receivedAt the time returned by {@link #receiveTime()} when the event was delivered
+   * @param trace      the value of the {@link #TRACE_HEADER} of the event, or null if it has none
+   */
+  public void markReceived(long receivedAt,
+                           String trace) {
+    if (enabled) {
+      var context = traceContext.get();
+      context.receivedAt = receivedAt;
+      context.receivedTrace = trace;
+    }
+  }
+
+  /**
+   * Takes the trace of the event which is about to be processed by the current thread and records
+   * queueing and end-to-end latency.
+   *
+   * @return the timestamps of the trace or null if the event is not traced
+   */
+  public List<Long> extract(ElementMetrics metrics) {
+    if (!enabled) {
+      return null;
+    }
+
+    var context = traceContext.get();
+    List<Long> trace = parse(context.receivedTrace);
+    long receivedAt = context.receivedAt > 0 ? context.receivedAt : System.currentTimeMillis();
+    context.receivedTrace = null;
+    context.receivedAt = 0;
+
+    if (trace == null) {
+      return null;
+    }
+    metrics.recordQueueingTime(TimeUnit.MILLISECONDS.toNanos(receivedAt - trace.get(trace.size() - 1)));
+    metrics.recordEndToEndTime(TimeUnit.MILLISECONDS.toNanos(receivedAt - trace.get(0)));
+    return trace;
+  }
+
+  /**
+   * Makes the trace of the event which is processed by the current thread available to output
+   * collectors.
+   */
+  public void begin(List<Long> trace) {
+    if (enabled) {
+      traceContext.get().trace = trace;
+    }
+  }
+
+  public void end() {
+    if (enabled) {
+      traceContext.get().trace = null;
+    }
+  }
+
+  /**
+   * Adds the trace of the currently processed event, extended by the emit time, to the headers of
+   * an outgoing event. Events which are not derived from a traced event start a new trace.
+   *
+   * @return the given headers if tracing is disabled, otherwise a copy which contains the trace
+   */
+  public Map<String, String> inject(Map<String, String> headers) {
+    if (!enabled) {
+      return headers;
+    }
+    Map<String, String> tracedHeaders = new HashMap<>(headers);
+    tracedHeaders.put(TRACE_HEADER, makeOutgoingTrace());
+    return tracedHeaders;
+  }
+
+  private String makeOutgoingTrace() {
+    List<Long> trace = traceContext.get().trace;
+    StringBuilder outgoingTrace = new StringBuilder();
+    if (trace != null) {
+      trace.forEach(timestamp -> outgoingTrace.append(timestamp).append(DELIMITER));
+    }
+    return outgoingTrace.append(System.currentTimeMillis()).toString();
+  }
+
+  private List<Long> parse(String header) {
+    if (header == null || header.isEmpty()) {
+      return null;
+    }
+    List<Long> trace = new ArrayList<>();
+    for (String timestamp : header.split(DELIMITER)) {
+      try {
+        trace.add(Long.parseLong(timestamp.trim()));
+      } catch (NumberFormatException e) {
+        // malformed entries, e.g., of a foreign producer, do not invalidate the remaining trace
+      }
+    }
+    return trace.isEmpty() ? null : trace;
+  }
+
+  private static class TraceContext {
+    private long receivedAt;
+    private String receivedTrace;
+    private List<Long> trace;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.monitoring;
+
+import org.apache.streampipes.model.monitoring.LatencyStatistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with exponential buckets, where bucket i holds all values below
+ * 2^i microseconds. Percentiles are reported as the upper bound of the matching bucket.
+ */
+public class LatencyHistogram {
+
+  private static final int BUCKETS = 40;
+
+  private final LongAdder[] buckets;
+  private final LongAdder count;
+  private final LongAdder sumMicros;
+  private final LongAccumulator maxMicros;
+
+  public LatencyHistogram() {
+    this.buckets = new LongAdder[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+    this.count = new LongAdder();
+    this.sumMicros = new LongAdder();
+    this.maxMicros = new LongAccumulator(Math::max, 0);
+  }
+
+  public void record(long durationNanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(durationNanos, 0));
+    buckets[Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1)].increment();
+    count.increment();
+    sumMicros.add(micros);
+    maxMicros.accumulate(micros);
+  }
+
+  public LatencyStatistics snapshot() {
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+
+    var statistics = new LatencyStatistics();
+    statistics.setCount(total);
+    if (total > 0) {
+      long max = maxMicros.get();
+      statistics.setMeanMicros(sumMicros.sum() / Math.max(count.sum(), 1));
+      statistics.setP50Micros(Math.min(percentile(counts, total, 0.5), max));
+      statistics.setP90Micros(Math.min(percentile(counts, total, 0.9), max));
+      statistics.setP99Micros(Math.min(percentile(counts, total, 0.99), max));
+      statistics.setMaxMicros(max);
+    }
+    return statistics;
+  }
+
+  public void reset() {
+    for (LongAdder bucket : buckets) {
+      bucket.reset();
+    }
+    count.reset();
+    sumMicros.reset();
+    maxMicros.reset();
+  }
+
+  private long percentile(long[] counts,
+                          long total,
+                          double quantile) {
+    long rank = (long) Math.ceil(total * quantile);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return (1L << i) - 1;
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.monitoring;
+
+import org.apache.streampipes.model.monitoring.MessageCounter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts messages from any number of threads without locking. The time of the last message is
+ * either recorded explicitly or, for the cheaper {@link #increment()}, approximated by the time
+ * at which new messages were first observed in a snapshot.
+ *
+ * <p>The rate of messages is derived from the counts of previous snapshots, so that counting does
+ * not need the current time. It spans the time since the oldest snapshot within the rate window,
+ * or since the last snapshot if snapshots are taken less often.</p>
+ */
+public class MetricsCounter {
+
+  private static final long RATE_WINDOW_MILLIS = 60000;
+  private static final long MIN_SAMPLE_INTERVAL_MILLIS = 1000;
+
+  private final LongAdder counter = new LongAdder();
+  private final LongAccumulator lastTimestamp = new LongAccumulator(Math::max, 0);
+
+  private long observedCount;
+  private long observedTimestamp;
+
+  // time and count of previous snapshots, oldest first
+  private final Deque<long[]> samples = new ArrayDeque<>();
+
+  public void increment() {
+    counter.increment();
+  }
+
+  public void increment(long timestamp) {
+    counter.increment();
+    lastTimestamp.accumulate(timestamp);
+  }
+
+  public long getCount() {
+    return counter.sum();
+  }
+
+  public synchronized MessageCounter snapshot(long now) {
+    long count = counter.sum();
+    if (count != observedCount) {
+      observedCount = count;
+      observedTimestamp = now;
+    }
+    var messageCounter = new MessageCounter();
+    messageCounter.setCounter(count);
+    messageCounter.setLastTimestamp(Math.max(lastTimestamp.get(), observedTimestamp));
+    messageCounter.setEventsPerSecond(makeRate(now, count));
+    return messageCounter;
+  }
+
+  public synchronized void reset() {
+    counter.reset();
+    lastTimestamp.reset();
+    observedCount = 0;
+    observedTimestamp = 0;
+    samples.clear();
+  }
+
+  private double makeRate(long now,
+                          long count) {
+    while (samples.size() > 1 && getSecondSample()[0] <= now - RATE_WINDOW_MILLIS) {
+      samples.removeFirst();
+    }
+    double rate = 0;
+    long[] oldest = samples.peekFirst();
+    if (oldest != null && now > oldest[0]) {
+      rate = (count - oldest[1]) * 1000.0 / (now - oldest[0]);
+    }
+
+    long[] latest = samples.peekLast();
+    if (latest == null || now - latest[0] >= MIN_SAMPLE_INTERVAL_MILLIS) {
+      samples.addLast(new long[]{now, count});
+    }
+    return rate;
+  }
+
+  private long[] getSecondSample() {
+    var iterator = samples.iterator();
+    iterator.next();
+    return iterator.next();
+  }
+}
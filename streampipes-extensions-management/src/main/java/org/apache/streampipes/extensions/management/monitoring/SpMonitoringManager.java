@@ -18,6 +18,7 @@
 
 package org.apache.streampipes.extensions.management.monitoring;
 
+import org.apache.streampipes.model.monitoring.InputQueueStatistics;
 import org.apache.streampipes.model.monitoring.SpEndpointMonitoringInfo;
 import org.apache.streampipes.model.monitoring.SpLogEntry;
 import org.apache.streampipes.model.monitoring.SpMetricsEntry;
@@ -26,50 +27,65 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public enum SpMonitoringManager {
 
   INSTANCE;
 
   private final Map<String, List<SpLogEntry>> logInfos;
-  private final Map<String, SpMetricsEntry> metricsInfos;
+  private final Map<String, ElementMetrics> metricsInfos;
+  private final Map<String, Supplier<InputQueueStatistics>> inputQueues;
 
   SpMonitoringManager() {
-    this.logInfos = new HashMap<>();
-    this.metricsInfos = new HashMap<>();
+    this.logInfos = new ConcurrentHashMap<>();
+    this.metricsInfos = new ConcurrentHashMap<>();
+    this.inputQueues = new ConcurrentHashMap<>();
   }
 
   public void addErrorMessage(String resourceId,
                               SpLogEntry errorMessageEntry) {
-    if (!logInfos.containsKey(resourceId)) {
-      logInfos.put(resourceId, new ArrayList<>());
+    var logs = logInfos.computeIfAbsent(resourceId, key -> new ArrayList<>());
+    synchronized (logs) {
+      logs.add(0, errorMessageEntry);
     }
-    this.logInfos.get(resourceId).add(0, errorMessageEntry);
+    getElementMetrics(resourceId).increaseErrorCounter();
+  }
+
+  /**
+   * Returns the metrics of the given resource. Callers on a hot path should keep the returned
+   * instance instead of calling the counter methods of this class for each event.
+   */
+  public ElementMetrics getElementMetrics(String resourceId) {
+    var metrics = metricsInfos.get(resourceId);
+    return metrics != null ? metrics : metricsInfos.computeIfAbsent(resourceId, key -> new ElementMetrics());
   }
 
   public void increaseInCounter(String resourceId,
                                 String sourceInfo,
                                 long timestamp) {
-    var currentEntry = getMetricsEntry(resourceId, timestamp);
-    currentEntry.addInMetrics(sourceInfo, timestamp);
-    this.metricsInfos.put(resourceId, currentEntry);
+    getElementMetrics(resourceId).increaseInCounter(sourceInfo, timestamp);
   }
 
-
   public void increaseOutCounter(String resourceId,
                                  long timestamp) {
-    var currentEntry = getMetricsEntry(resourceId, timestamp);
-    currentEntry.addOutMetrics(timestamp);
-    this.metricsInfos.put(resourceId, currentEntry);
+    getElementMetrics(resourceId).increaseOutCounter(timestamp);
   }
 
   public void resetCounter(String resourceId) {
-    this.metricsInfos.put(resourceId, new SpMetricsEntry());
+    var metrics = metricsInfos.get(resourceId);
+    if (metrics != null) {
+      metrics.reset();
+    }
   }
 
   public void resetLogs(String resourceId) {
-    if (this.logInfos.containsKey(resourceId)) {
-      this.logInfos.get(resourceId).clear();
+    var logs = logInfos.get(resourceId);
+    if (logs != null) {
+      synchronized (logs) {
+        logs.clear();
+      }
     }
   }
 
@@ -78,39 +94,54 @@ public enum SpMonitoringManager {
     this.resetLogs(resourceId);
   }
 
-  public SpMetricsEntry getMetricsEntry(String resourceId,
-                                        long timestamp) {
-    checkAndPrepareMetrics(resourceId);
-    var currentEntry = this.metricsInfos.get(resourceId);
-    currentEntry.setLastTimestamp(timestamp);
-
-    return currentEntry;
+  public SpMetricsEntry getMetricsEntry(String resourceId) {
+    return getElementMetrics(resourceId).snapshot(System.currentTimeMillis());
   }
 
   public Map<String, List<SpLogEntry>> getAllLogs() {
-    return logInfos;
+    Map<String, List<SpLogEntry>> logs = new HashMap<>();
+    logInfos.forEach((resourceId, entries) -> {
+      synchronized (entries) {
+        logs.put(resourceId, new ArrayList<>(entries));
+      }
+    });
+    return logs;
   }
 
   public Map<String, SpMetricsEntry> getAllMetrics() {
-    return this.metricsInfos;
+    long now = System.currentTimeMillis();
+    Map<String, SpMetricsEntry> metrics = new HashMap<>();
+    metricsInfos.forEach((resourceId, elementMetrics) -> metrics.put(resourceId, elementMetrics.snapshot(now)));
+    return metrics;
   }
 
-  public SpEndpointMonitoringInfo getMonitoringInfo() {
-    return new SpEndpointMonitoringInfo(logInfos, metricsInfos);
+  /**
+   * Registers a gauge for the input queue of the given topic, which is reported by the monitoring endpoint.
+   */
+  public void registerInputQueue(String topic,
+                                 Supplier<InputQueueStatistics> statistics) {
+    this.inputQueues.put(topic, statistics);
   }
 
-  private void checkAndPrepareMetrics(String resourceId) {
-    if (!metricsInfos.containsKey(resourceId)) {
-      addMetricsObject(resourceId);
-    }
+  public void unregisterInputQueue(String topic) {
+    this.inputQueues.remove(topic);
   }
 
-  private void addMetricsObject(String resourceId) {
-    this.metricsInfos.put(resourceId, new SpMetricsEntry());
+  public Map<String, InputQueueStatistics> getAllInputQueues() {
+    Map<String, InputQueueStatistics> queues = new HashMap<>();
+    inputQueues.forEach((topic, statistics) -> queues.put(topic, statistics.get()));
+    return queues;
   }
 
+  public SpEndpointMonitoringInfo getMonitoringInfo() {
+    return new SpEndpointMonitoringInfo(getAllLogs(), getAllMetrics(), getAllInputQueues());
+  }
 
   public void clearAllLogs() {
-    logInfos.forEach((key, value) -> value.clear());
+    logInfos.forEach((key, value) -> {
+      synchronized (value) {
+        value.clear();
+      }
+    });
   }
 }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.format.csv;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelCsvReaderTest {
+
+  @Test
+  public void readMatchesCsvFormat() throws IOException {
+    var csv = "timestamp;value;name;flag\n"
+        + "1667904471000;1;a;true\n"
+        + "1667904472000;-1.25;\"b;\"\"c\"\"\";FALSE\r\n"
+        + "1667904473000;12345678901234567890;1e5;\n"
+        + "\n"
+        + "1667904474000;0.1;NaN;x\n";
+
+    var events = read(csv, ";", true, 4096);
+    var format = new CsvFormat(";", true);
+    format.parse("timestamp;value;name;flag".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(4, events.size());
+    assertEquals("b;\"c\"", events.get(1).get("name"));
+    assertEquals(1667904471000L, events.get(0).get("timestamp"));
+    assertEquals(-1.25, events.get(1).get("value"));
+    assertEquals(Boolean.FALSE, events.get(1).get("flag"));
+    assertEquals("", events.get(2).get("flag"));
+    assertEquals(format.parse("1667904473000;12345678901234567890;1e5;".getBytes(StandardCharsets.UTF_8)),
+        events.get(2));
+    assertEquals(format.parse("1667904474000;0.1;NaN;x".getBytes(StandardCharsets.UTF_8)), events.get(3));
+  }
+
+  @Test
+  public void readPreservesOrderAcrossChunks() throws IOException {
+    var csv = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      csv.append(i).append(',').append(i * 0.5).append('\n');
+    }
+
+    var events = read(csv.toString(), ",", false, 64);
+
+    assertEquals(1000, events.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals((long) i, events.get(i).get("key_0"));
+      assertEquals(i * 0.5, events.get(i).get("key_1"));
+    }
+  }
+
+  @Test
+  public void readStopsWhenRequested() throws IOException {
+    var csv = new StringBuilder("value\n");
+    for (int i = 0; i < 1000; i++) {
+      csv.append(i).append('\n');
+    }
+    var file = writeFile(csv.toString());
+    List<Map<String, Object>> events = new ArrayList<>();
+
+    try {
+      new ParallelCsvReader(",", true, 2, 64).read(file, event -> events.add(event) && events.size() < 10);
+    } finally {
+      Files.delete(file);
+    }
+
+    assertEquals(10, events.size());
+  }
+
+  private List<Map<String, Object>> read(String csv,
+                                         String delimiter,
+                                         boolean header,
+                                         int chunkSize) throws IOException {
+    var file = writeFile(csv);
+    List<Map<String, Object>> events = new ArrayList<>();
+    try {
+      new ParallelCsvReader(delimiter, header, 4, chunkSize).read(file, events::add);
+    } finally {
+      Files.delete(file);
+    }
+    return events;
+  }
+
+  private Path writeFile(String csv) throws IOException {
+    var file = Files.createTempFile("sp-csv", ".csv");
+    Files.writeString(file, csv);
+    return file;
+  }
+}
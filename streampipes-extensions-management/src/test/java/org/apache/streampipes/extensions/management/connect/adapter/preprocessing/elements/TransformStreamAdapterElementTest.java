@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements;
+
+import org.apache.streampipes.extensions.api.connect.IAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.model.pipeline.AdapterPipeline;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.stream.EventRateTransformationRule;
+import org.apache.streampipes.model.connect.rules.stream.EventRateTransformationRuleDescription;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TransformStreamAdapterElementTest {
+
+  private final List<Map<String, Object>> emitted = new CopyOnWriteArrayList<>();
+  private AdapterPipeline pipeline;
+
+  @After
+  public void tearDown() {
+    if (pipeline != null) {
+      pipeline.stop();
+    }
+  }
+
+  @Test
+  public void testWindowEmissionRunsBetweenStartAndStop() {
+    var element = makeElement(EventRateTransformationRule.MEAN, 1000);
+    pipeline = makePipeline(element);
+    assertFalse(element.isEmittingWindows());
+
+    pipeline.start();
+    assertTrue(element.isEmittingWindows());
+    assertTrue(getWindowEmissionThreads().stream().allMatch(Thread::isDaemon));
+
+    pipeline.stop();
+    assertFalse(element.isEmittingWindows());
+  }
+
+  @Test
+  public void testNonAggregatingRuleStartsNoTimer() {
+    var element = makeElement(EventRateTransformationRule.NONE, 1000);
+    pipeline = makePipeline(element);
+
+    pipeline.start();
+
+    assertFalse(element.isEmittingWindows());
+  }
+
+  @Test
+  public void testClosedWindowIsEmittedWithoutFurtherEvents() throws InterruptedException {
+    var element = makeElement(EventRateTransformationRule.COUNT, 50);
+    pipeline = makePipeline(element);
+    pipeline.start();
+
+    pipeline.process(Map.of("value", 1.0));
+
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+    while (emitted.isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, emitted.size());
+  }
+
+  private TransformStreamAdapterElement makeElement(String aggregationType,
+                                                    long aggregationTimeWindow) {
+    var ruleDescription = new EventRateTransformationRuleDescription();
+    ruleDescription.setAggregationType(aggregationType);
+    ruleDescription.setAggregationTimeWindow(aggregationTimeWindow);
+
+    var element = new TransformStreamAdapterElement();
+    element.addStreamTransformationRuleDescription(ruleDescription);
+    return element;
+  }
+
+  private AdapterPipeline makePipeline(TransformStreamAdapterElement element) {
+    IAdapterPipelineElement sink = event -> {
+      if (event != null) {
+        emitted.add(event);
+      }
+      return event;
+    };
+    return new AdapterPipeline(List.of(element), sink, null);
+  }
+
+  private List<Thread> getWindowEmissionThreads() {
+    return Thread.getAllStackTraces().keySet()
+        .stream()
+        .filter(thread -> thread.getName().equals("adapter-window-emission"))
+        .collect(Collectors.toList());
+  }
+}
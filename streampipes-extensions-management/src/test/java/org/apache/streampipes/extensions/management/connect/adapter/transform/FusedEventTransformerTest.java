@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.transform;
+
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.FusedEventTransformer;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.TransformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.schema.CreateNestedTransformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.schema.DeleteTransformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.schema.MoveTransformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.schema.RenameTransformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.schema.SchemaEventTransformer;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.CorrectionValueTransformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.TimestampTranformationRule;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.TimestampTranformationRuleMode;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.ValueEventTransformer;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.ValueTransformationRule;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class FusedEventTransformerTest {
+
+  @Test
+  public void transformMatchesSeparateTransformers() {
+    List<TransformationRule> schemaRules = new ArrayList<>();
+    schemaRules.add(new RenameTransformationRule(List.of("a"), "a1"));
+    schemaRules.add(new RenameTransformationRule(List.of("b"), "b1"));
+    schemaRules.add(new RenameTransformationRule(List.of("c"), "c1"));
+    schemaRules.add(new RenameTransformationRule(List.of("c1", "d"), "d1"));
+    schemaRules.add(new CreateNestedTransformationRule(List.of("c1", "f")));
+    schemaRules.add(new MoveTransformationRule(List.of("b1"), List.of("c1", "f")));
+    schemaRules.add(new MoveTransformationRule(List.of("c1", "g"), List.of("")));
+    schemaRules.add(new DeleteTransformationRule(List.of("e")));
+
+    List<ValueTransformationRule> valueRules = new ArrayList<>();
+    valueRules.add(new CorrectionValueTransformationRule(List.of("a1"), 2.0, "MULTIPLY"));
+    valueRules.add(new CorrectionValueTransformationRule(List.of("c1", "d1"), 1.0, "ADD"));
+    valueRules.add(new CorrectionValueTransformationRule(List.of("c1", "d1"), 3.0, "SUBSTRACT"));
+    valueRules.add(new TimestampTranformationRule(List.of("c1", "f", "b1"),
+        TimestampTranformationRuleMode.TIME_UNIT, null, 1000));
+
+    Map<String, Object> expected = new ValueEventTransformer(valueRules)
+        .transform(new SchemaEventTransformer(schemaRules).transform(makeEvent()));
+
+    FusedEventTransformer fusedTransformer = new FusedEventTransformer(
+        new SchemaEventTransformer(schemaRules),
+        new ValueEventTransformer(valueRules));
+
+    assertEquals(expected, fusedTransformer.transform(makeEvent()));
+    assertEquals(expected, fusedTransformer.transform(makeEvent()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void transformValuesOfSameKeyInRuleOrder() {
+    List<ValueTransformationRule> valueRules = new ArrayList<>();
+    valueRules.add(new CorrectionValueTransformationRule(List.of("c", "d"), 2.0, "MULTIPLY"));
+    valueRules.add(new TimestampTranformationRule(List.of("c", "d"),
+        TimestampTranformationRuleMode.TIME_UNIT, null, 1000));
+
+    FusedEventTransformer fusedTransformer = new FusedEventTransformer(
+        new SchemaEventTransformer(new ArrayList<>()),
+        new ValueEventTransformer(valueRules));
+
+    Map<String, Object> result = fusedTransformer.transform(makeEvent());
+
+    // timestamp rules are applied before correction rules, as in the ValueEventTransformer
+    assertEquals(10000.0, ((Map<String, Object>) result.get("c")).get("d"));
+  }
+
+  private Map<String, Object> makeEvent() {
+    Map<String, Object> nested = new HashMap<>();
+    nested.put("d", 5);
+    nested.put("g", "moved");
+
+    Map<String, Object> event = new HashMap<>();
+    event.put("a", 1);
+    event.put("b", 1672531200L);
+    event.put("c", nested);
+    event.put("e", "deleted");
+    return event;
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.transform.stream;
+
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.stream.EventRateTransformationRule;
+import org.apache.streampipes.model.schema.EventPropertyNested;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.vocabulary.SO;
+import org.apache.streampipes.vocabulary.XSD;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventRateTransformationRuleTest {
+
+  private static final long ONE_HOUR = 3600000;
+
+  @Test
+  public void aggregateMean() {
+    EventRateTransformationRule rule = new EventRateTransformationRule(ONE_HOUR, EventRateTransformationRule.MEAN);
+
+    assertNull(rule.transform(makeEvent(1, "a", 10.0)));
+    assertNull(rule.transform(makeEvent(3, "b", 20.0)));
+    assertNull(rule.closeWindow(System.currentTimeMillis()));
+
+    Map<String, Object> result = rule.closeWindow(Long.MAX_VALUE);
+
+    assertEquals(2.0, result.get("value"));
+    assertEquals("b", result.get("name"));
+    assertEquals(15.0, ((Map<String, Object>) result.get("nested")).get("temperature"));
+    assertNull(rule.closeWindow(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void aggregateMinMaxCountFirstLast() {
+    assertEquals(1, aggregate(EventRateTransformationRule.MIN).get("value"));
+    assertEquals(5, aggregate(EventRateTransformationRule.MAX).get("value"));
+    assertEquals(9.0, aggregate(EventRateTransformationRule.SUM).get("value"));
+    assertEquals(3L, aggregate(EventRateTransformationRule.COUNT).get("value"));
+    assertEquals(3, aggregate(EventRateTransformationRule.FIRST).get("value"));
+    assertEquals("c", aggregate(EventRateTransformationRule.FIRST).get("name"));
+    assertEquals(1, aggregate(EventRateTransformationRule.LAST).get("value"));
+  }
+
+  @Test
+  public void windowIsResetAfterEmission() {
+    EventRateTransformationRule rule = new EventRateTransformationRule(ONE_HOUR, EventRateTransformationRule.SUM);
+
+    rule.transform(makeEvent(1, "a", 10.0));
+    rule.closeWindow(Long.MAX_VALUE);
+    rule.transform(makeEvent(2, "b", 10.0));
+
+    assertEquals(2.0, rule.closeWindow(Long.MAX_VALUE).get("value"));
+  }
+
+  @Test
+  public void transformSchema() {
+    EventRateTransformationRule rule = new EventRateTransformationRule(ONE_HOUR, EventRateTransformationRule.MEAN);
+    EventPropertyPrimitive value = primitive("value", XSD.INTEGER.toString());
+    EventPropertyPrimitive name = primitive("name", XSD.STRING.toString());
+    EventPropertyPrimitive temperature = primitive("temperature", XSD.FLOAT.toString());
+    EventSchema schema = new EventSchema(List.of(value, name, new EventPropertyNested("nested", List.of(temperature))));
+
+    rule.transformSchema(schema.getEventProperties());
+
+    assertEquals(XSD.DOUBLE.toString(), value.getRuntimeType());
+    assertEquals(XSD.STRING.toString(), name.getRuntimeType());
+    assertEquals(XSD.DOUBLE.toString(), temperature.getRuntimeType());
+  }
+
+  @Test
+  public void timestampAndDimensionsAreNotAggregated() {
+    EventRateTransformationRule rule =
+        new EventRateTransformationRule(ONE_HOUR, EventRateTransformationRule.SUM, makeSchema());
+
+    rule.transform(makeEvent(1, "a", 10.0, 1000L, 7));
+    rule.transform(makeEvent(2, "b", 10.0, 2000L, 8));
+    long now = System.currentTimeMillis();
+    Map<String, Object> result = rule.closeWindow(Long.MAX_VALUE);
+
+    assertEquals(3.0, result.get("value"));
+    assertEquals(8, result.get("sensorId"));
+    long timestamp = (Long) result.get("timestamp");
+    assertEquals(0, timestamp % ONE_HOUR);
+    assertTrue(timestamp > now && timestamp <= now + ONE_HOUR);
+  }
+
+  @Test
+  public void timestampKeepsSelectedValue() {
+    EventRateTransformationRule first =
+        new EventRateTransformationRule(ONE_HOUR, EventRateTransformationRule.FIRST, makeSchema());
+    EventRateTransformationRule max =
+        new EventRateTransformationRule(ONE_HOUR, EventRateTransformationRule.MAX, makeSchema());
+    for (EventRateTransformationRule rule : List.of(first, max)) {
+      rule.transform(makeEvent(5, "a", 10.0, 1000L, 7));
+      rule.transform(makeEvent(2, "b", 10.0, 2000L, 8));
+    }
+
+    Map<String, Object> firstResult = first.closeWindow(Long.MAX_VALUE);
+    Map<String, Object> maxResult = max.closeWindow(Long.MAX_VALUE);
+
+    assertEquals(1000L, firstResult.get("timestamp"));
+    assertEquals(7, firstResult.get("sensorId"));
+    assertEquals(2000L, maxResult.get("timestamp"));
+    assertEquals(8, maxResult.get("sensorId"));
+    assertEquals(5, maxResult.get("value"));
+  }
+
+  @Test
+  public void transformSchemaSkipsTimestampAndDimensions() {
+    EventSchema schema = makeSchema();
+    EventRateTransformationRule rule =
+        new EventRateTransformationRule(ONE_HOUR, EventRateTransformationRule.COUNT, schema);
+
+    rule.transformSchema(schema.getEventProperties());
+
+    assertEquals(XSD.LONG.toString(), runtimeType(schema, 0));
+    assertEquals(XSD.LONG.toString(), runtimeType(schema, 1));
+    assertEquals(XSD.INTEGER.toString(), runtimeType(schema, 2));
+  }
+
+  private EventSchema makeSchema() {
+    EventPropertyPrimitive timestamp = primitive("timestamp", XSD.LONG.toString());
+    timestamp.setDomainProperties(List.of(URI.create(SO.DATE_TIME)));
+    EventPropertyPrimitive value = primitive("value", XSD.INTEGER.toString());
+    EventPropertyPrimitive sensorId = primitive("sensorId", XSD.INTEGER.toString());
+    sensorId.setPropertyScope(PropertyScope.DIMENSION_PROPERTY.name());
+    return new EventSchema(new ArrayList<>(List.of(timestamp, value, sensorId)));
+  }
+
+  private String runtimeType(EventSchema schema,
+                             int index) {
+    return ((EventPropertyPrimitive) schema.getEventProperties().get(index)).getRuntimeType();
+  }
+
+  private Map<String, Object> makeEvent(int value,
+                                        String name,
+                                        double temperature,
+                                        long timestamp,
+                                        int sensorId) {
+    Map<String, Object> event = makeEvent(value, name, temperature);
+    event.put("timestamp", timestamp);
+    event.put("sensorId", sensorId);
+    return event;
+  }
+
+  private Map<String, Object> aggregate(String aggregationType) {
+    EventRateTransformationRule rule = new EventRateTransformationRule(ONE_HOUR, aggregationType);
+    rule.transform(makeEvent(3, "c", 0.0));
+    rule.transform(makeEvent(5, "e", 0.0));
+    rule.transform(makeEvent(1, "a", 0.0));
+    return rule.closeWindow(Long.MAX_VALUE);
+  }
+
+  private Map<String, Object> makeEvent(int value,
+                                        String name,
+                                        double temperature) {
+    Map<String, Object> nested = new HashMap<>();
+    nested.put("temperature", temperature);
+
+    Map<String, Object> event = new HashMap<>();
+    event.put("value", value);
+    event.put("name", name);
+    event.put("nested", nested);
+    return event;
+  }
+
+  private EventPropertyPrimitive primitive(String runtimeName,
+                                           String runtimeType) {
+    return new EventPropertyPrimitive(runtimeType, runtimeName, "", new ArrayList<>());
+  }
+}
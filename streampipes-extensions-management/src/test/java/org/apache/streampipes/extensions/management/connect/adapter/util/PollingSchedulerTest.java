@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.connect.adapter.util;
+
+import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PollingSchedulerTest {
+
+  private final PollingScheduler scheduler = new PollingScheduler(1, 64, 4, 16);
+
+  @After
+  public void shutdown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  public void pollAtFixedRate() throws InterruptedException {
+    var latch = new CountDownLatch(5);
+    var resourceId = "fixed-rate";
+
+    scheduler.schedule(resourceId, latch::countDown, 20, TimeUnit.MILLISECONDS);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(SpMonitoringManager.INSTANCE.getMetricsEntry(resourceId).getPollLatency().getCount() >= 4);
+  }
+
+  @Test
+  public void cancelStopsPolling() throws InterruptedException {
+    var polls = new AtomicInteger();
+    var interrupted = new CountDownLatch(1);
+    var poll = scheduler.schedule("cancel", () -> {
+      polls.incrementAndGet();
+      try {
+        Thread.sleep(10000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+    }, 10, TimeUnit.MILLISECONDS);
+
+    waitFor(() -> polls.get() > 0);
+    poll.cancel();
+
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    assertEquals(1, polls.get());
+  }
+
+  @Test
+  public void overrunsAreCountedAndPollsDoNotOverlap() throws InterruptedException {
+    var resourceId = "overrun";
+    var running = new AtomicBoolean();
+    var overlap = new AtomicBoolean();
+    var polls = new AtomicInteger();
+
+    scheduler.schedule(resourceId, () -> {
+      overlap.compareAndSet(false, !running.compareAndSet(false, true));
+      try {
+        Thread.sleep(30);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      running.set(false);
+      polls.incrementAndGet();
+    }, 10, TimeUnit.MILLISECONDS);
+
+    waitFor(() -> polls.get() >= 3);
+
+    assertFalse(overlap.get());
+    assertTrue(SpMonitoringManager.INSTANCE.getMetricsEntry(resourceId).getPollOverruns() >= 3);
+  }
+
+  @Test
+  public void pollsAreSkippedWhenThePoolIsSaturated() throws InterruptedException {
+    var saturatedScheduler = new PollingScheduler(1, 64, 1, 1);
+    var release = new CountDownLatch(1);
+    var blockingPolls = new AtomicInteger();
+    var otherPolls = new AtomicInteger();
+
+    try {
+      saturatedScheduler.schedule("saturating", () -> {
+        blockingPolls.incrementAndGet();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }, 10, TimeUnit.MILLISECONDS);
+      waitFor(() -> blockingPolls.get() == 1);
+      // only one of these fits into the queue, the other one is skipped until the pool is free again
+      saturatedScheduler.schedule("saturated-1", otherPolls::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+      saturatedScheduler.schedule("saturated-2", otherPolls::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+
+      waitFor(() -> getPollOverruns("saturated-1") + getPollOverruns("saturated-2") >= 2);
+      assertEquals(0, otherPolls.get());
+
+      release.countDown();
+      waitFor(() -> otherPolls.get() >= 4);
+    } finally {
+      release.countDown();
+      saturatedScheduler.shutdown();
+    }
+  }
+
+  private long getPollOverruns(String resourceId) {
+    return SpMonitoringManager.INSTANCE.getMetricsEntry(resourceId).getPollOverruns();
+  }
+
+  private void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.monitoring;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ElementMetricsTest {
+
+  @Test
+  public void testConcurrentCounting() throws InterruptedException {
+    var metrics = new ElementMetrics();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      threads.add(new Thread(() -> {
+        for (int j = 0; j < 10000; j++) {
+          metrics.increaseInCounter("s0");
+          metrics.increaseOutCounter();
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    var entry = metrics.snapshot(1000L);
+    assertEquals(40000, entry.getMessagesIn().get("s0").getCounter());
+    assertEquals(40000, entry.getMessagesOut().getCounter());
+    assertEquals(1000L, entry.getLastTimestamp());
+  }
+
+  @Test
+  public void testLastTimestamp() {
+    var metrics = new ElementMetrics();
+    metrics.increaseInCounter("s0", 500L);
+    assertEquals(500L, metrics.snapshot(100L).getMessagesIn().get("s0").getLastTimestamp());
+
+    // without new messages, the time of the last message does not change
+    metrics.snapshot(200L);
+    assertEquals(500L, metrics.snapshot(800L).getMessagesIn().get("s0").getLastTimestamp());
+
+    metrics.increaseInCounter("s0");
+    assertEquals(900L, metrics.snapshot(900L).getMessagesIn().get("s0").getLastTimestamp());
+  }
+
+  @Test
+  public void testRates() {
+    var metrics = new ElementMetrics();
+    metrics.increaseInCounter("s0");
+    assertEquals(0.0, metrics.snapshot(1000L).getMessagesIn().get("s0").getEventsPerSecond(), 0.0);
+
+    for (int i = 0; i < 100; i++) {
+      metrics.increaseInCounter("s0");
+      metrics.increaseOutCounter();
+    }
+    var entry = metrics.snapshot(3000L);
+    assertEquals(50.0, entry.getMessagesIn().get("s0").getEventsPerSecond(), 0.001);
+    assertEquals(50.0, entry.getMessagesOut().getEventsPerSecond(), 0.001);
+
+    // the rate only spans the window, not the time since the first snapshot
+    metrics.snapshot(60000L);
+    for (int i = 0; i < 60; i++) {
+      metrics.increaseOutCounter();
+    }
+    assertEquals(1.0, metrics.snapshot(120000L).getMessagesOut().getEventsPerSecond(), 0.001);
+  }
+
+  @Test
+  public void testPollMetricsAreOnlyReportedWhenEnabled() {
+    var metrics = new ElementMetrics();
+    metrics.recordPollTime(1000);
+    metrics.increasePollOverrunCounter();
+    assertNull(metrics.snapshot(100L).getPollLatency());
+    assertNull(metrics.snapshot(100L).getPollOverruns());
+
+    metrics.enablePollMetrics();
+    metrics.recordPollTime(1000);
+    metrics.increasePollOverrunCounter();
+    var entry = metrics.snapshot(100L);
+    assertEquals(1, entry.getPollLatency().getCount());
+    assertEquals(Long.valueOf(1), entry.getPollOverruns());
+  }
+
+  @Test
+  public void testLatencyPercentiles() {
+    var histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+    }
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+    var statistics = histogram.snapshot();
+    assertEquals(100, statistics.getCount());
+    assertEquals(15, statistics.getP50Micros());
+    assertEquals(15, statistics.getP99Micros());
+    assertEquals(5000, statistics.getMaxMicros());
+    assertEquals(59, statistics.getMeanMicros());
+  }
+
+  @Test
+  public void testReset() {
+    var metrics = new ElementMetrics();
+    metrics.increaseOutCounter();
+    metrics.increaseErrorCounter();
+    metrics.recordProcessingTime(1000);
+    metrics.reset();
+
+    var entry = metrics.snapshot(100L);
+    assertEquals(0, entry.getMessagesOut().getCounter());
+    assertEquals(0, entry.getErrorCount());
+    assertEquals(0, entry.getProcessingLatency().getCount());
+  }
+}
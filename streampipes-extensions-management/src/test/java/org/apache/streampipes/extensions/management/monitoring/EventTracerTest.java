@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.extensions.management.monitoring;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EventTracerTest {
+
+  @Test
+  public void testDisabledTracerIgnoresEvents() {
+    var tracer = new EventTracer(false);
+    var metrics = new ElementMetrics();
+    Map<String, String> headers = Collections.emptyMap();
+
+    assertEquals(0, tracer.receiveTime());
+    tracer.markReceived(1000L, "1000,2000");
+    assertNull(tracer.extract(metrics));
+    assertSame(headers, tracer.inject(headers));
+    assertEquals(0, metrics.snapshot(0).getQueueingLatency().getCount());
+  }
+
+  @Test
+  public void testExtractTakesTraceAndRecordsLatencies() {
+    var tracer = new EventTracer(true);
+    var metrics = new ElementMetrics();
+    long now = System.currentTimeMillis();
+
+    tracer.markReceived(now, (now - 5000) + "," + (now - 2000));
+    List<Long> trace = tracer.extract(metrics);
+
+    assertEquals(Arrays.asList(now - 5000, now - 2000), trace);
+    assertNull(tracer.extract(metrics));
+    var entry = metrics.snapshot(now);
+    assertEquals(1, entry.getQueueingLatency().getCount());
+    assertEquals(1, entry.getEndToEndLatency().getCount());
+    assertEquals(TimeUnit.SECONDS.toMicros(2), entry.getQueueingLatency().getMaxMicros());
+    assertEquals(TimeUnit.SECONDS.toMicros(5), entry.getEndToEndLatency().getMaxMicros());
+  }
+
+  @Test
+  public void testEventsWithoutTraceAreNotTraced() {
+    var tracer = new EventTracer(true);
+    var metrics = new ElementMetrics();
+
+    tracer.markReceived(System.currentTimeMillis(), null);
+    assertNull(tracer.extract(metrics));
+    tracer.markReceived(System.currentTimeMillis(), "not-a-timestamp");
+    assertNull(tracer.extract(metrics));
+    assertEquals(0, metrics.snapshot(0).getQueueingLatency().getCount());
+  }
+
+  @Test
+  public void testReceiveTimeIsTakenBeforeQueueing() {
+    var tracer = new EventTracer(true);
+    var metrics = new ElementMetrics();
+    long emittedAt = System.currentTimeMillis() - 10000;
+
+    // the event was received right after it was emitted, but processed much later
+    tracer.markReceived(emittedAt + 10, (emittedAt - 10) + "," + emittedAt);
+    tracer.extract(metrics);
+
+    assertTrue(metrics.snapshot(0).getQueueingLatency().getMaxMicros() < TimeUnit.SECONDS.toMicros(1));
+  }
+
+  @Test
+  public void testInjectExtendsTraceOfCurrentEvent() {
+    var tracer = new EventTracer(true);
+
+    tracer.begin(new ArrayList<>(Arrays.asList(1000L, 2000L)));
+    Map<String, String> headers = tracer.inject(Map.of("other", "header"));
+    tracer.end();
+
+    String[] trace = headers.get(EventTracer.TRACE_HEADER).split(",");
+    assertEquals(3, trace.length);
+    assertEquals("1000", trace[0]);
+    assertEquals("2000", trace[1]);
+    assertTrue(Long.parseLong(trace[2]) >= 2000L);
+    assertEquals("header", headers.get("other"));
+  }
+
+  @Test
+  public void testInjectStartsNewTraceWithoutCurrentEvent() {
+    var tracer = new EventTracer(true);
+
+    Map<String, String> headers = tracer.inject(Collections.emptyMap());
+
+    assertEquals(1, headers.get(EventTracer.TRACE_HEADER).split(",").length);
+  }
+}
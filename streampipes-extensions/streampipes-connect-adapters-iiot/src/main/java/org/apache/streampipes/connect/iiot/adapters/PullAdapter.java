@@ -20,6 +20,7 @@ package org.apache.streampipes.connect.iiot.adapters;
 
 import org.apache.streampipes.extensions.api.connect.exception.AdapterException;
 import org.apache.streampipes.extensions.management.connect.adapter.model.specific.SpecificDataStreamAdapter;
+import org.apache.streampipes.extensions.management.connect.adapter.util.PollingScheduler;
 import org.apache.streampipes.extensions.management.connect.adapter.util.PollingSettings;
 import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
 import org.apache.streampipes.model.StreamPipesErrorMessage;
@@ -30,19 +31,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public abstract class PullAdapter extends SpecificDataStreamAdapter {
 
   protected static final Logger LOGGER = LoggerFactory.getLogger(PullAdapter.class);
 
-  private ScheduledExecutorService scheduler;
-  private ScheduledExecutorService errorThreadscheduler;
-
+  private PollingScheduler.ScheduledPoll scheduledPoll;
 
   public PullAdapter() {
     super();
@@ -61,41 +56,30 @@ public abstract class PullAdapter extends SpecificDataStreamAdapter {
   public void startAdapter() throws AdapterException {
     before();
 
-    final Runnable errorThread = this::executeAdpaterLogic;
-
-    scheduler = Executors.newScheduledThreadPool(1);
-    scheduler.schedule(errorThread, 0, TimeUnit.MILLISECONDS);
-
-  }
-
-  private void executeAdpaterLogic() {
-    final Runnable task = () -> {
-      try {
-        pullData();
-      } catch (ExecutionException | InterruptedException e) {
-        SpMonitoringManager.INSTANCE.addErrorMessage(
-            adapterDescription.getElementId(),
-            SpLogEntry.from(System.currentTimeMillis(), StreamPipesErrorMessage.from(e)));
-      } catch (TimeoutException e) {
-        LOGGER.warn("Timeout occurred", e);
-      }
-    };
-
-    scheduler = Executors.newScheduledThreadPool(1);
-    ScheduledFuture<?> handle = scheduler.scheduleAtFixedRate(task, 1,
+    scheduledPoll = PollingScheduler.getInstance().schedule(adapterDescription.getElementId(), this::poll,
         getPollingInterval().getValue(), getPollingInterval().getTimeUnit());
+  }
 
+  private void poll() {
     try {
-      handle.get();
+      pullData();
     } catch (ExecutionException | InterruptedException e) {
-      LOGGER.error("Error", e);
+      SpMonitoringManager.INSTANCE.addErrorMessage(
+          adapterDescription.getElementId(),
+          SpLogEntry.from(System.currentTimeMillis(), StreamPipesErrorMessage.from(e)));
+    } catch (TimeoutException e) {
+      LOGGER.warn("Timeout occurred", e);
     }
   }
 
   @Override
   public void stopAdapter() throws AdapterException {
+    // the poll is not scheduled yet if the adapter failed to start
+    if (scheduledPoll != null) {
+      scheduledPoll.cancel();
+      scheduledPoll = null;
+    }
     after();
-    scheduler.shutdownNow();
   }
 
   /**
@@ -26,10 +26,10 @@ import org.apache.streampipes.extensions.api.connect.IFormat;
 import org.apache.streampipes.extensions.api.connect.IParser;
 import org.apache.streampipes.extensions.api.connect.exception.AdapterException;
 import org.apache.streampipes.extensions.api.connect.exception.ParseException;
+import org.apache.streampipes.extensions.management.connect.adapter.format.csv.CsvParser;
 import org.apache.streampipes.extensions.management.connect.adapter.guess.SchemaGuesser;
 import org.apache.streampipes.extensions.management.connect.adapter.model.generic.Protocol;
-import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.AddTimestampPipelineElement;
-import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.TransformValueAdapterPipelineElement;
+import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.elements.FusedTransformAdapterPipelineElement;
 import org.apache.streampipes.extensions.management.connect.adapter.preprocessing.transform.value.TimestampTranformationRule;
 import org.apache.streampipes.extensions.management.util.EventSchemaUtils;
 import org.apache.streampipes.model.AdapterType;
@@ -52,8 +52,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -111,31 +113,24 @@ public class FileStreamProtocol extends Protocol {
   private Optional<IAdapterPipelineElement> checkAndRemoveAddTimestampPipelineElement(
       List<IAdapterPipelineElement> pipelineElements) {
 
-    var pipelineElement = pipelineElements.stream()
-        .filter(o -> o.getClass() == AddTimestampPipelineElement.class)
-        .findFirst();
-
-    pipelineElement.ifPresent(pipelineElements::remove);
-
-    return pipelineElement;
+    return getTransformPipelineElement(pipelineElements)
+        .flatMap(FusedTransformAdapterPipelineElement::removeAddTimestampElement);
   }
 
   private Optional<List<TimestampTranformationRule>> checkAndRemoveChangeTimestampPipelineElement(
       List<IAdapterPipelineElement> pipelineElements) {
 
-    var pipelineElement = pipelineElements.stream()
-        .filter(o -> o.getClass() == TransformValueAdapterPipelineElement.class)
-        .map(pe -> (TransformValueAdapterPipelineElement) pe)
-        .findFirst();
+    return getTransformPipelineElement(pipelineElements)
+        .map(FusedTransformAdapterPipelineElement::removeTimestampTransformationRules);
+  }
 
-    if (pipelineElement.isPresent()) {
-      var eventTransformer = pipelineElement.get().getEventTransformer();
-      var result = eventTransformer.getTimestampTransformationRules();
-      eventTransformer.setTimestampTransformationRules(List.of());
+  private Optional<FusedTransformAdapterPipelineElement> getTransformPipelineElement(
+      List<IAdapterPipelineElement> pipelineElements) {
 
-      return Optional.of(result);
-    }
-    return Optional.empty();
+    return pipelineElements.stream()
+        .filter(o -> o.getClass() == FusedTransformAdapterPipelineElement.class)
+        .map(pe -> (FusedTransformAdapterPipelineElement) pe)
+        .findFirst();
   }
 
   @Override
@@ -165,9 +160,23 @@ public class FileStreamProtocol extends Protocol {
   }
 
   private void processFileInput(LocalEventProcessor eventProcessor) {
-    try (InputStream dataInputStream = getDataFromEndpoint()) {
-      format.reset();
-      parser.parse(dataInputStream, eventProcessor);
+    if (parser instanceof CsvParser) {
+      processCsvFileInput((CsvParser) parser, eventProcessor);
+    } else {
+      try (InputStream dataInputStream = getDataFromEndpoint()) {
+        format.reset();
+        parser.parse(dataInputStream, eventProcessor);
+      } catch (ParseException | IOException e) {
+        logger.error("Error while parsing: " + e.getMessage());
+      }
+    }
+  }
+
+  private void processCsvFileInput(CsvParser csvParser,
+                                   LocalEventProcessor eventProcessor) {
+    try {
+      Path file = FileProtocolUtils.getFile(selectedFileName).toPath();
+      csvParser.parseFile(file, eventProcessor::emitEvent);
     } catch (ParseException | IOException e) {
       logger.error("Error while parsing: " + e.getMessage());
     }
@@ -196,43 +205,44 @@ public class FileStreamProtocol extends Protocol {
 
     @Override
     public Boolean emit(byte[] event) {
-
       var eventMap = format.parse(event);
-      if (eventMap != null) {
-        // The following two statemants are required when the timestamp is added via a rule and is not within the file
-        if (addTimestampRule.isPresent()) {
-          eventMap = addTimestampRule.get().process(eventMap);
-        }
+      return eventMap == null || emitEvent(eventMap);
+    }
 
-        if (transformationTimestampRule.isPresent()) {
-          for (var rule : transformationTimestampRule.get()) {
-            rule.transform(eventMap);
-          }
+    public boolean emitEvent(Map<String, Object> eventMap) {
+      // The following two statemants are required when the timestamp is added via a rule and is not within the file
+      if (addTimestampRule.isPresent()) {
+        eventMap = addTimestampRule.get().process(eventMap);
+      }
+
+      if (transformationTimestampRule.isPresent()) {
+        for (var rule : transformationTimestampRule.get()) {
+          rule.transform(eventMap);
         }
+      }
 
-        long actualEventTimestamp = (long) eventMap.get(timestampKey);
-
-        if (lastEventTimestamp != -1) {
-          long sleepTime = (long) ((actualEventTimestamp - lastEventTimestamp) / speedUp);
-          // speed up is set to Float.MAX_VALUE when user selected fastest option
-          if (sleepTime > 0 && speedUp != Float.MAX_VALUE) {
-            try {
-              Thread.sleep(sleepTime);
-            } catch (InterruptedException e) {
-              logger.info("File stream adapter was stopped, the current replay is interuppted", e);
-              return false;
-            }
+      long actualEventTimestamp = (long) eventMap.get(timestampKey);
+
+      if (lastEventTimestamp != -1) {
+        long sleepTime = (long) ((actualEventTimestamp - lastEventTimestamp) / speedUp);
+        // speed up is set to Float.MAX_VALUE when user selected fastest option
+        if (sleepTime > 0 && speedUp != Float.MAX_VALUE) {
+          try {
+            Thread.sleep(sleepTime);
+          } catch (InterruptedException e) {
+            logger.info("File stream adapter was stopped, the current replay is interuppted", e);
+            return false;
           }
         }
+      }
 
-        if (replaceTimestamp) {
-          eventMap.put(timestampKey, System.currentTimeMillis());
-        }
-        lastEventTimestamp = actualEventTimestamp;
+      if (replaceTimestamp) {
+        eventMap.put(timestampKey, System.currentTimeMillis());
+      }
+      lastEventTimestamp = actualEventTimestamp;
 
-        adapterPipeline.process(eventMap);
+      adapterPipeline.process(eventMap);
 
-      }
       return true;
     }
   }
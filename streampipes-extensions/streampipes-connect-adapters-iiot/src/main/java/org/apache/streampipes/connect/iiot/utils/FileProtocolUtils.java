@@ -31,6 +31,10 @@ import java.io.InputStream;
 public class FileProtocolUtils {
 
   public static InputStream getFileInputStream(String selectedFilename) throws FileNotFoundException {
+    return new FileInputStream(getFile(selectedFilename));
+  }
+
+  public static File getFile(String selectedFilename) {
     if (!isFilePresent(selectedFilename)) {
       try {
         storeFileLocally(selectedFilename);
@@ -39,7 +43,7 @@ public class FileProtocolUtils {
       }
     }
 
-    return new FileInputStream(makeFileLoc(selectedFilename));
+    return new File(makeFileLoc(selectedFilename));
   }
 
   private static boolean isFilePresent(String selectedFilename) {
@@ -20,24 +20,18 @@ package org.apache.streampipes.connect.adapters;
 
 import org.apache.streampipes.extensions.api.connect.exception.AdapterException;
 import org.apache.streampipes.extensions.management.connect.adapter.model.specific.SpecificDataStreamAdapter;
+import org.apache.streampipes.extensions.management.connect.adapter.util.PollingScheduler;
 import org.apache.streampipes.extensions.management.connect.adapter.util.PollingSettings;
 import org.apache.streampipes.model.connect.adapter.SpecificAdapterStreamDescription;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
 
 public abstract class PullAdapter extends SpecificDataStreamAdapter {
 
   protected static Logger logger = LoggerFactory.getLogger(PullAdapter.class);
-  private ScheduledExecutorService scheduler;
-  private ScheduledExecutorService errorThreadscheduler;
+  private PollingScheduler.ScheduledPoll scheduledPoll;
 
 
   public PullAdapter() {
@@ -56,37 +50,18 @@ public abstract class PullAdapter extends SpecificDataStreamAdapter {
   public void startAdapter() throws AdapterException {
     before();
 
-    final Runnable errorThread = () -> {
-      executeAdpaterLogic();
-    };
-
-    scheduler = Executors.newScheduledThreadPool(1);
-    scheduler.schedule(errorThread, 0, TimeUnit.MILLISECONDS);
-
-  }
-
-  private void executeAdpaterLogic() {
-    final Runnable task = () -> {
-
-      pullData();
-
-    };
-
-    scheduler = Executors.newScheduledThreadPool(1);
-    ScheduledFuture<?> handle = scheduler.scheduleAtFixedRate(task, 1,
+    scheduledPoll = PollingScheduler.getInstance().schedule(adapterDescription.getElementId(), this::pullData,
         getPollingInterval().getValue(), getPollingInterval().getTimeUnit());
-
-    try {
-      handle.get();
-    } catch (ExecutionException | InterruptedException e) {
-      logger.error("Error", e);
-    }
   }
 
   @Override
   public void stopAdapter() throws AdapterException {
+    // the poll is not scheduled yet if the adapter failed to start
+    if (scheduledPoll != null) {
+      scheduledPoll.cancel();
+      scheduledPoll = null;
+    }
     after();
-    scheduler.shutdownNow();
   }
 
   /**
@@ -42,6 +42,57 @@ public class DuplicateFilterTest {
 
   }
 
+  @Test
+  public void duplicateWithCollidingHashCode() {
+    DuplicateFilterPipelineElement duplicateFilter = new DuplicateFilterPipelineElement("0");
+
+    // "Aa" and "BB" have the same hash code, and so do both maps
+    assertNotNull(duplicateFilter.process(makeMap("Aa", 1)));
+    assertNotNull(duplicateFilter.process(makeMap("BB", 1)));
+    assertNull(duplicateFilter.process(makeMap("BB", 1)));
+  }
+
+  @Test
+  public void duplicateWithDifferentKeyOrder() {
+    DuplicateFilterPipelineElement duplicateFilter = new DuplicateFilterPipelineElement("0");
+    Map<String, Object> event = makeMap("Test", 123);
+    event.put("Name", "Piet");
+    Map<String, Object> reordered = makeMap("Name", "Piet");
+    reordered.put("Test", 123);
+
+    assertNotNull(duplicateFilter.process(event));
+    assertNull(duplicateFilter.process(reordered));
+  }
+
+  @Test
+  public void duplicateKeyFields() {
+    DuplicateFilterPipelineElement duplicateFilter =
+        new DuplicateFilterPipelineElement("0", List.of("id"), 100);
+    Map<String, Object> event = makeMap("id", 1);
+    event.put("timestamp", 1000L);
+    Map<String, Object> sameId = makeMap("id", 1);
+    sameId.put("timestamp", 2000L);
+
+    assertNotNull(duplicateFilter.process(event));
+    assertNull(duplicateFilter.process(sameId));
+    assertNotNull(duplicateFilter.process(makeMap("id", 2)));
+  }
+
+  @Test
+  public void duplicateMaxEntries() {
+    DuplicateFilterPipelineElement duplicateFilter =
+        new DuplicateFilterPipelineElement("0", List.of(), 2);
+    List<Map> events = generateEvents();
+
+    assertNotNull(duplicateFilter.process(events.get(0)));
+    assertNotNull(duplicateFilter.process(events.get(1)));
+    assertNull(duplicateFilter.process(events.get(0)));
+    assertNotNull(duplicateFilter.process(events.get(2)));
+    // the least recently seen event was evicted
+    assertNotNull(duplicateFilter.process(events.get(1)));
+    assertNull(duplicateFilter.process(events.get(2)));
+  }
+
   @Test
   public void duplicateComplex() {
     DuplicateFilterPipelineElement duplicateFilter = new DuplicateFilterPipelineElement("0");
@@ -25,18 +25,27 @@ import org.apache.streampipes.model.grounding.JmsTransportProtocol;
 
 import org.apache.activemq.command.ActiveMQBytesMessage;
 import org.apache.activemq.util.ByteSequence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.jms.BytesMessage;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Session;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 
 public class ActiveMQConsumer extends ActiveMQConnectionProvider implements
     EventConsumer<JmsTransportProtocol>,
     AutoCloseable, Serializable {
 
+  private static final Logger LOG = LoggerFactory.getLogger(ActiveMQConsumer.class);
+
   private Session session;
   private MessageConsumer consumer;
   private InternalEventProcessor<byte[]> eventProcessor;
@@ -48,7 +57,7 @@ public class ActiveMQConsumer extends ActiveMQConnectionProvider implements
       consumer.setMessageListener(message -> {
         if (message instanceof BytesMessage) {
           ByteSequence bs = ((ActiveMQBytesMessage) message).getContent();
-          eventProcessor.onEvent(bs.getData());
+          eventProcessor.onEvent(bs.getData(), getHeaders(message));
         }
 
       });
@@ -57,6 +66,24 @@ public class ActiveMQConsumer extends ActiveMQConnectionProvider implements
     }
   }
 
+  private Map<String, String> getHeaders(Message message) {
+    try {
+      Enumeration<?> propertyNames = message.getPropertyNames();
+      if (!propertyNames.hasMoreElements()) {
+        return Collections.emptyMap();
+      }
+      Map<String, String> headers = new HashMap<>();
+      while (propertyNames.hasMoreElements()) {
+        String name = propertyNames.nextElement().toString();
+        headers.put(name, message.getStringProperty(name));
+      }
+      return headers;
+    } catch (JMSException e) {
+      LOG.warn("Could not read message properties", e);
+      return Collections.emptyMap();
+    }
+  }
+
   @Override
   public void connect(JmsTransportProtocol protocolSettings, InternalEventProcessor<byte[]>
       eventProcessor) throws SpRuntimeException {
@@ -35,6 +35,8 @@ import javax.jms.JMSException;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
 
+import java.util.List;
+import java.util.Map;
 
 public class ActiveMQPublisher implements EventProducer<JmsTransportProtocol> {
 
@@ -123,6 +125,58 @@ public class ActiveMQPublisher implements EventProducer<JmsTransportProtocol> {
     }
   }
 
+  @Override
+  public void publish(byte[] event,
+                      Map<String, String> headers) {
+    try {
+      BytesMessage message = session.createBytesMessage();
+      setHeaders(message, headers);
+      message.writeBytes(event);
+      producer.send(message);
+    } catch (JMSException e) {
+      LOG.error("Could not publish event", e);
+    }
+  }
+
+  @Override
+  public void publishBatch(List<byte[]> events) {
+    try {
+      // the message is copied on send, so a single message can be reused for the whole batch
+      BytesMessage message = session.createBytesMessage();
+      for (byte[] event : events) {
+        message.clearBody();
+        message.writeBytes(event);
+        producer.send(message);
+      }
+    } catch (JMSException e) {
+      LOG.error("Could not publish batch of {} events", events.size(), e);
+    }
+  }
+
+  @Override
+  public void publishBatch(List<byte[]> events,
+                           List<Map<String, String>> headers) {
+    try {
+      BytesMessage message = session.createBytesMessage();
+      for (int i = 0; i < events.size(); i++) {
+        message.clearBody();
+        message.clearProperties();
+        setHeaders(message, headers.get(i));
+        message.writeBytes(events.get(i));
+        producer.send(message);
+      }
+    } catch (JMSException e) {
+      LOG.error("Could not publish batch of {} events", events.size(), e);
+    }
+  }
+
+  private void setHeaders(BytesMessage message,
+                          Map<String, String> headers) throws JMSException {
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      message.setStringProperty(header.getKey(), header.getValue());
+    }
+  }
+
   @Override
   public void disconnect() throws SpRuntimeException {
     try {
@@ -41,4 +41,9 @@ public class SpJmsProtocol implements SpProtocolDefinition<JmsTransportProtocol>
   public EventProducer<JmsTransportProtocol> getProducer() {
     return jmsProducer;
   }
+
+  @Override
+  public boolean supportsHeaders() {
+    return true;
+  }
 }
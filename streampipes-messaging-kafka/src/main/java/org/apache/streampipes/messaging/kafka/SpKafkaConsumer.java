@@ -18,6 +18,7 @@
 
 package org.apache.streampipes.messaging.kafka;
 
+import org.apache.streampipes.commons.environment.Environments;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.messaging.EventConsumer;
 import org.apache.streampipes.messaging.InternalEventProcessor;
@@ -26,20 +27,26 @@ import org.apache.streampipes.messaging.kafka.config.KafkaConfigAppender;
 import org.apache.streampipes.model.grounding.KafkaTransportProtocol;
 import org.apache.streampipes.model.grounding.WildcardTopicDefinition;
 
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.regex.Pattern;
 
@@ -79,15 +86,15 @@ public class SpKafkaConsumer implements EventConsumer<KafkaTransportProtocol>, R
 
   @Override
   public void run() {
+    consume(makeProperties(protocol, appenders));
+  }
 
-    Properties props = makeProperties(protocol, appenders);
-
+  private void consume(Properties props) {
     KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props);
     if (!patternTopic) {
       consumer.subscribe(Collections.singletonList(topic));
     } else {
-      topic = replaceWildcardWithPatternFormat(topic);
-      consumer.subscribe(Pattern.compile(topic), new ConsumerRebalanceListener() {
+      consumer.subscribe(Pattern.compile(replaceWildcardWithPatternFormat(topic)), new ConsumerRebalanceListener() {
         @Override
         public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
           // TODO
@@ -102,12 +109,33 @@ public class SpKafkaConsumer implements EventConsumer<KafkaTransportProtocol>, R
     Duration duration = Duration.of(100, ChronoUnit.MILLIS);
     while (isRunning) {
       ConsumerRecords<byte[], byte[]> records = consumer.poll(duration);
-      records.forEach(record -> eventProcessor.onEvent(record.value()));
+      if (!records.isEmpty()) {
+        List<byte[]> events = new ArrayList<>(records.count());
+        List<Map<String, String>> headers = new ArrayList<>(records.count());
+        records.forEach(record -> {
+          events.add(record.value());
+          headers.add(toMap(record.headers()));
+        });
+        eventProcessor.onEvents(events, headers);
+      }
     }
     LOG.info("Closing Kafka Consumer.");
     consumer.close();
   }
 
+  private Map<String, String> toMap(Headers headers) {
+    Map<String, String> map = null;
+    for (Header header : headers) {
+      if (header.value() != null) {
+        if (map == null) {
+          map = new HashMap<>();
+        }
+        map.put(header.key(), new String(header.value(), StandardCharsets.UTF_8));
+      }
+    }
+    return map != null ? map : Collections.emptyMap();
+  }
+
   private String replaceWildcardWithPatternFormat(String topic) {
     topic = topic.replaceAll("\\.", "\\\\.");
     return topic.replaceAll("\\*", ".*");
@@ -131,8 +159,20 @@ public class SpKafkaConsumer implements EventConsumer<KafkaTransportProtocol>, R
     this.topic = protocol.getTopicDefinition().getActualTopicName();
     this.isRunning = true;
 
-    Thread thread = new Thread(this);
-    thread.start();
+    int consumerThreads = Environments.getEnvironment().getKafkaConsumerThreads().getValueOrDefault();
+    if (consumerThreads > 1) {
+      // all consumers share the same group id, so that the topic partitions are split among them
+      Properties props = makeProperties(protocol, appenders);
+      for (int i = 0; i < consumerThreads; i++) {
+        Properties consumerProps = new Properties();
+        consumerProps.putAll(props);
+        consumerProps.put(ConsumerConfig.CLIENT_ID_CONFIG, props.get(ConsumerConfig.CLIENT_ID_CONFIG) + "-" + i);
+        new Thread(() -> consume(consumerProps)).start();
+      }
+    } else {
+      Thread thread = new Thread(this);
+      thread.start();
+    }
   }
 
   @Override
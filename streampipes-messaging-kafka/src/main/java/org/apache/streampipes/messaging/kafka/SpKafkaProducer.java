@@ -38,11 +38,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 
 public class SpKafkaProducer implements EventProducer<KafkaTransportProtocol>, Serializable {
@@ -54,6 +56,10 @@ public class SpKafkaProducer implements EventProducer<KafkaTransportProtocol>, S
   private String topic;
   private Producer<String, byte[]> producer;
 
+  // all records of this producer share a key and therefore a partition, so that consumers receive
+  // them in order also if the topic has several partitions which are consumed by several threads
+  private final String recordKey = UUID.randomUUID().toString();
+
   private boolean connected = false;
 
   private static final Logger LOG = LoggerFactory.getLogger(SpKafkaProducer.class);
@@ -80,7 +86,17 @@ public class SpKafkaProducer implements EventProducer<KafkaTransportProtocol>, S
 
   public void publish(byte[] message) {
     if (connected) {
-      producer.send(new ProducerRecord<>(topic, message));
+      producer.send(new ProducerRecord<>(topic, recordKey, message));
+    }
+  }
+
+  @Override
+  public void publish(byte[] message,
+                      Map<String, String> headers) {
+    if (connected) {
+      var record = new ProducerRecord<>(topic, recordKey, message);
+      headers.forEach((key, value) -> record.headers().add(key, value.getBytes(StandardCharsets.UTF_8)));
+      producer.send(record);
     }
   }
 
@@ -127,7 +143,8 @@ public class SpKafkaProducer implements EventProducer<KafkaTransportProtocol>, S
       String retentionTime = Environments.getEnvironment().getKafkaRetentionTimeMs().getValueOrDefault();
       topicConfig.put(TopicConfig.RETENTION_MS_CONFIG, retentionTime);
 
-      final NewTopic newTopic = new NewTopic(topic, 1, (short) 1);
+      int partitions = Environments.getEnvironment().getKafkaTopicPartitions().getValueOrDefault();
+      final NewTopic newTopic = new NewTopic(topic, partitions, (short) 1);
       newTopic.configs(topicConfig);
 
       final CreateTopicsResult createTopicsResult = adminClient.createTopics(Collections.singleton(newTopic));
@@ -42,4 +42,9 @@ public class SpKafkaProtocol implements SpProtocolDefinition<KafkaTransportProto
   public EventProducer<KafkaTransportProtocol> getProducer() {
     return kafkaProducer;
   }
+
+  @Override
+  public boolean supportsHeaders() {
+    return true;
+  }
 }
@@ -27,11 +27,16 @@ import org.fusesource.mqtt.client.QoS;
 import org.fusesource.mqtt.client.Topic;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class MqttConsumer extends AbstractMqttConnector implements
     EventConsumer<MqttTransportProtocol>,
     AutoCloseable, Serializable {
 
+  private static final int MAX_BATCH_SIZE = 500;
+
   @Override
   public void connect(MqttTransportProtocol protocolSettings, InternalEventProcessor<byte[]> eventProcessor)
       throws SpRuntimeException {
@@ -59,10 +64,19 @@ public class MqttConsumer extends AbstractMqttConnector implements
     public void run() {
       try {
         while (connected) {
-          Message message = connection.receive();
-          byte[] payload = message.getPayload();
-          eventProcessor.onEvent(payload);
-          message.ack();
+          List<Message> messages = new ArrayList<>();
+          messages.add(connection.receive());
+          Message message;
+          // drain messages which are already buffered by the client without waiting
+          while (messages.size() < MAX_BATCH_SIZE
+              && (message = connection.receive(0, TimeUnit.MILLISECONDS)) != null) {
+            messages.add(message);
+          }
+
+          List<byte[]> payloads = new ArrayList<>(messages.size());
+          messages.forEach(m -> payloads.add(m.getPayload()));
+          eventProcessor.onEvents(payloads);
+          messages.forEach(Message::ack);
         }
       } catch (Exception e) {
         e.printStackTrace();
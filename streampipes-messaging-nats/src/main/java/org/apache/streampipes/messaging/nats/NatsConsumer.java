@@ -26,9 +26,13 @@ import org.apache.streampipes.model.nats.NatsConfig;
 
 import io.nats.client.Connection;
 import io.nats.client.Dispatcher;
+import io.nats.client.Message;
 import io.nats.client.Subscription;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 public class NatsConsumer extends AbstractNatsConnector implements EventConsumer<NatsTransportProtocol> {
@@ -72,6 +76,19 @@ public class NatsConsumer extends AbstractNatsConnector implements EventConsumer
     dispatcher = natsConnection.createDispatcher((message) -> {});
 
     this.subscription = dispatcher.subscribe(subject, (message) ->
-        eventProcessor.onEvent(message.getData()));
+        eventProcessor.onEvent(message.getData(), getHeaders(message)));
+  }
+
+  private Map<String, String> getHeaders(Message message) {
+    if (!message.hasHeaders()) {
+      return Collections.emptyMap();
+    }
+    Map<String, String> headers = new HashMap<>();
+    message.getHeaders().forEach((key, values) -> {
+      if (!values.isEmpty()) {
+        headers.put(key, values.get(0));
+      }
+    });
+    return headers;
   }
 }
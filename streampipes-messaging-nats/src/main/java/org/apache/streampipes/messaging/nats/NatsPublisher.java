@@ -23,8 +23,11 @@ import org.apache.streampipes.messaging.EventProducer;
 import org.apache.streampipes.model.grounding.NatsTransportProtocol;
 
 import io.nats.client.Connection;
+import io.nats.client.impl.Headers;
+import io.nats.client.impl.NatsMessage;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 public class NatsPublisher extends AbstractNatsConnector implements EventProducer<NatsTransportProtocol> {
@@ -43,6 +46,22 @@ public class NatsPublisher extends AbstractNatsConnector implements EventProduce
     natsConnection.publish(subject, event);
   }
 
+  @Override
+  public void publish(byte[] event,
+                      Map<String, String> headers) {
+    if (headers.isEmpty()) {
+      publish(event);
+    } else {
+      Headers natsHeaders = new Headers();
+      headers.forEach(natsHeaders::put);
+      natsConnection.publish(NatsMessage.builder()
+          .subject(subject)
+          .headers(natsHeaders)
+          .data(event)
+          .build());
+    }
+  }
+
   @Override
   public void disconnect() throws SpRuntimeException {
     try {
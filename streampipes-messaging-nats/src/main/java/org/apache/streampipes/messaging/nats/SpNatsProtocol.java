@@ -42,4 +42,9 @@ public class SpNatsProtocol implements SpProtocolDefinition<NatsTransportProtoco
   public EventProducer<NatsTransportProtocol> getProducer() {
     return this.natsProducer;
   }
+
+  @Override
+  public boolean supportsHeaders() {
+    return true;
+  }
 }
@@ -22,6 +22,8 @@ import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.grounding.TransportProtocol;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
 
 public interface EventProducer<T extends TransportProtocol> extends Serializable {
 
@@ -29,6 +31,36 @@ public interface EventProducer<T extends TransportProtocol> extends Serializable
 
   void publish(byte[] event);
 
+  /**
+   * Publishes an event together with headers which are transported next to the payload. Producers
+   * of protocols which support headers (see {@link SpProtocolDefinition#supportsHeaders()}) must
+   * override this method, all others publish the payload only.
+   */
+  default void publish(byte[] event,
+                       Map<String, String> headers) {
+    publish(event);
+  }
+
+  /**
+   * Publishes a batch of events. Producers should override this method if the underlying client
+   * can send several messages at lower cost than sending them one by one.
+   */
+  default void publishBatch(List<byte[]> events) {
+    for (byte[] event : events) {
+      publish(event);
+    }
+  }
+
+  /**
+   * Publishes a batch of events with the headers of each event at the same position.
+   */
+  default void publishBatch(List<byte[]> events,
+                            List<Map<String, String>> headers) {
+    for (int i = 0; i < events.size(); i++) {
+      publish(events.get(i), headers.get(i));
+    }
+  }
+
   void disconnect() throws SpRuntimeException;
 
   boolean isConnected();
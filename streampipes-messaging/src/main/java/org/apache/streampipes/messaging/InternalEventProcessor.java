@@ -18,7 +18,40 @@
 
 package org.apache.streampipes.messaging;
 
+import java.util.List;
+import java.util.Map;
+
 public interface InternalEventProcessor<T> {
 
   void onEvent(T event);
+
+  /**
+   * Processes an event together with the headers it was transported with. Consumers of protocols
+   * which do not support headers call {@link #onEvent(Object)} instead. By default, the headers
+   * are ignored.
+   */
+  default void onEvent(T event,
+                       Map<String, String> headers) {
+    onEvent(event);
+  }
+
+  /**
+   * Processes a batch of events, e.g., all messages returned by a single poll of the broker client.
+   * By default, each event is passed to {@link #onEvent(Object)}.
+   */
+  default void onEvents(List<T> events) {
+    for (T event : events) {
+      onEvent(event);
+    }
+  }
+
+  /**
+   * Processes a batch of events with the headers of each event at the same position.
+   */
+  default void onEvents(List<T> events,
+                        List<Map<String, String>> headers) {
+    for (int i = 0; i < events.size(); i++) {
+      onEvent(events.get(i), headers.get(i));
+    }
+  }
 }
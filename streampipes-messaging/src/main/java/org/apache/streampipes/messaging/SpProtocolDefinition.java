@@ -25,4 +25,12 @@ public interface SpProtocolDefinition<T extends TransportProtocol> {
   EventConsumer<T> getConsumer();
 
   EventProducer<T> getProducer();
+
+  /**
+   * Checks whether headers published with {@link EventProducer#publish(byte[], java.util.Map)} are
+   * delivered to consumers with {@link InternalEventProcessor#onEvent(Object, java.util.Map)}.
+   */
+  default boolean supportsHeaders() {
+    return false;
+  }
 }
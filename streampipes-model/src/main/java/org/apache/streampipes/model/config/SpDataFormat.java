@@ -25,7 +25,8 @@ public enum SpDataFormat {
   CBOR("Cbor", MessageFormat.CBOR),
   JSON("JSON", MessageFormat.JSON),
   FST("Fast-Serializer", MessageFormat.FST),
-  SMILE("Smile", MessageFormat.SMILE);
+  SMILE("Smile", MessageFormat.SMILE),
+  BINARY("Binary", MessageFormat.BINARY);
 
   private String name;
   private String messageFormat;
@@ -18,17 +18,27 @@
 
 package org.apache.streampipes.model.connect.rules.stream;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class RemoveDuplicatesTransformationRuleDescription extends StreamTransformationRuleDescription {
 
   private String filterTimeWindow;
 
+  /**
+   * Runtime keys of the fields which identify an event, all fields are compared if empty
+   */
+  private List<String> keyFields;
+
   public RemoveDuplicatesTransformationRuleDescription() {
     super();
+    this.keyFields = new ArrayList<>();
   }
 
   public RemoveDuplicatesTransformationRuleDescription(RemoveDuplicatesTransformationRuleDescription other) {
     super(other);
     this.filterTimeWindow = other.getFilterTimeWindow();
+    this.keyFields = other.getKeyFields() != null ? new ArrayList<>(other.getKeyFields()) : new ArrayList<>();
   }
 
   public String getFilterTimeWindow() {
@@ -38,4 +48,12 @@ public class RemoveDuplicatesTransformationRuleDescription extends StreamTransfo
   public void setFilterTimeWindow(String filterTimeWindow) {
     this.filterTimeWindow = filterTimeWindow;
   }
+
+  public List<String> getKeyFields() {
+    return keyFields;
+  }
+
+  public void setKeyFields(List<String> keyFields) {
+    this.keyFields = keyFields;
+  }
 }
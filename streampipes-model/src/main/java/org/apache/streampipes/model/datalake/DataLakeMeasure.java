@@ -27,6 +27,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.google.gson.annotations.SerializedName;
 
+import java.util.List;
+
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "@class")
 @TsModel
 public class DataLakeMeasure {
@@ -49,6 +51,10 @@ public class DataLakeMeasure {
 
   private String schemaVersion;
 
+  private DataLakeMeasureStatistics statistics;
+
+  private List<String> rollupTiers;
+
   public DataLakeMeasure() {
     super();
   }
@@ -118,6 +124,26 @@ public class DataLakeMeasure {
     this.schemaVersion = schemaVersion;
   }
 
+  public DataLakeMeasureStatistics getStatistics() {
+    return statistics;
+  }
+
+  public void setStatistics(DataLakeMeasureStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * The intervals of the rollup tiers which are maintained for this measurement, e.g., 1s, 1m and
+   * 1h, in the duration format of InfluxDB. Rollups are disabled if no tiers are set.
+   */
+  public List<String> getRollupTiers() {
+    return rollupTiers;
+  }
+
+  public void setRollupTiers(List<String> rollupTiers) {
+    this.rollupTiers = rollupTiers;
+  }
+
   public String getTimestampField() {
     return timestampField;
   }
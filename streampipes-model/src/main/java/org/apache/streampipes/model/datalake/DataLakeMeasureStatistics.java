@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.model.datalake;
+
+import org.apache.streampipes.model.shared.annotation.TsModel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics of the data stored in a measurement, maintained by the data lake while events are
+ * written: the first and last timestamp, the number of events per time bucket and the value
+ * range of numeric fields.
+ */
+@TsModel
+public class DataLakeMeasureStatistics {
+
+  private Long firstTimestamp;
+  private Long lastTimestamp;
+  private long bucketWidthMs;
+  private Map<Long, Long> bucketCounts;
+  private Map<String, DataLakeFieldStatistics> fieldStatistics;
+  private boolean complete;
+  private Map<String, Long> reportSequences;
+
+  public DataLakeMeasureStatistics() {
+    this.bucketCounts = new HashMap<>();
+    this.fieldStatistics = new HashMap<>();
+    this.reportSequences = new HashMap<>();
+  }
+
+  public DataLakeMeasureStatistics(DataLakeMeasureStatistics other) {
+    this.firstTimestamp = other.getFirstTimestamp();
+    this.lastTimestamp = other.getLastTimestamp();
+    this.bucketWidthMs = other.getBucketWidthMs();
+    this.bucketCounts = new HashMap<>(other.getBucketCounts());
+    this.fieldStatistics = new HashMap<>();
+    other.getFieldStatistics().forEach((field, statistics) ->
+        this.fieldStatistics.put(field, new DataLakeFieldStatistics(statistics)));
+    this.complete = other.isComplete();
+    this.reportSequences = new HashMap<>(other.getReportSequences());
+  }
+
+  public Long getFirstTimestamp() {
+    return firstTimestamp;
+  }
+
+  public void setFirstTimestamp(Long firstTimestamp) {
+    this.firstTimestamp = firstTimestamp;
+  }
+
+  public Long getLastTimestamp() {
+    return lastTimestamp;
+  }
+
+  public void setLastTimestamp(Long lastTimestamp) {
+    this.lastTimestamp = lastTimestamp;
+  }
+
+  public long getBucketWidthMs() {
+    return bucketWidthMs;
+  }
+
+  public void setBucketWidthMs(long bucketWidthMs) {
+    this.bucketWidthMs = bucketWidthMs;
+  }
+
+  /**
+   * The number of events per time bucket, keyed by the start of the bucket in milliseconds.
+   */
+  public Map<Long, Long> getBucketCounts() {
+    return bucketCounts;
+  }
+
+  public void setBucketCounts(Map<Long, Long> bucketCounts) {
+    this.bucketCounts = bucketCounts;
+  }
+
+  public Map<String, DataLakeFieldStatistics> getFieldStatistics() {
+    return fieldStatistics;
+  }
+
+  public void setFieldStatistics(Map<String, DataLakeFieldStatistics> fieldStatistics) {
+    this.fieldStatistics = fieldStatistics;
+  }
+
+  /**
+   * Whether the statistics have been maintained since the measurement was created, and thus
+   * cover all of its data.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public void setComplete(boolean complete) {
+    this.complete = complete;
+  }
+
+  /**
+   * The sequence number of the last report applied per writer, keyed by the id of the writer.
+   * Reports whose sequence number is not greater than the applied one are ignored, so that
+   * writers can safely resend reports whose response got lost.
+   */
+  public Map<String, Long> getReportSequences() {
+    return reportSequences;
+  }
+
+  public void setReportSequences(Map<String, Long> reportSequences) {
+    this.reportSequences = reportSequences;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.model.monitoring;
+
+public class LatencyStatistics {
+
+  private long count;
+  private long meanMicros;
+  private long p50Micros;
+  private long p90Micros;
+  private long p99Micros;
+  private long maxMicros;
+
+  public LatencyStatistics() {
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getMeanMicros() {
+    return meanMicros;
+  }
+
+  public void setMeanMicros(long meanMicros) {
+    this.meanMicros = meanMicros;
+  }
+
+  public long getP50Micros() {
+    return p50Micros;
+  }
+
+  public void setP50Micros(long p50Micros) {
+    this.p50Micros = p50Micros;
+  }
+
+  public long getP90Micros() {
+    return p90Micros;
+  }
+
+  public void setP90Micros(long p90Micros) {
+    this.p90Micros = p90Micros;
+  }
+
+  public long getP99Micros() {
+    return p99Micros;
+  }
+
+  public void setP99Micros(long p99Micros) {
+    this.p99Micros = p99Micros;
+  }
+
+  public long getMaxMicros() {
+    return maxMicros;
+  }
+
+  public void setMaxMicros(long maxMicros) {
+    this.maxMicros = maxMicros;
+  }
+}
@@ -22,6 +22,7 @@ public class MessageCounter {
 
   private long lastTimestamp;
   private long counter = 0;
+  private double eventsPerSecond;
 
   public MessageCounter() {
   }
@@ -41,4 +42,12 @@ public class MessageCounter {
   public void setCounter(long counter) {
     this.counter = counter;
   }
+
+  public double getEventsPerSecond() {
+    return eventsPerSecond;
+  }
+
+  public void setEventsPerSecond(double eventsPerSecond) {
+    this.eventsPerSecond = eventsPerSecond;
+  }
 }
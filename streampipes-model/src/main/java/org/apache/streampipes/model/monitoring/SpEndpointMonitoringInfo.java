@@ -26,16 +26,27 @@ public class SpEndpointMonitoringInfo {
 
   private Map<String, List<SpLogEntry>> logInfos;
   private Map<String, SpMetricsEntry> metricsInfos;
+  private Map<String, InputQueueStatistics> inputQueues;
 
   public SpEndpointMonitoringInfo() {
     this.logInfos = new HashMap<>();
     this.metricsInfos = new HashMap<>();
+    this.inputQueues = new HashMap<>();
   }
 
   public SpEndpointMonitoringInfo(Map<String, List<SpLogEntry>> logInfos,
                                   Map<String, SpMetricsEntry> metricsInfos) {
     this.logInfos = logInfos;
     this.metricsInfos = metricsInfos;
+    this.inputQueues = new HashMap<>();
+  }
+
+  public SpEndpointMonitoringInfo(Map<String, List<SpLogEntry>> logInfos,
+                                  Map<String, SpMetricsEntry> metricsInfos,
+                                  Map<String, InputQueueStatistics> inputQueues) {
+    this.logInfos = logInfos;
+    this.metricsInfos = metricsInfos;
+    this.inputQueues = inputQueues;
   }
 
   public Map<String, List<SpLogEntry>> getLogInfos() {
@@ -53,4 +64,12 @@ public class SpEndpointMonitoringInfo {
   public void setMetricsInfos(Map<String, SpMetricsEntry> metricsInfos) {
     this.metricsInfos = metricsInfos;
   }
+
+  public Map<String, InputQueueStatistics> getInputQueues() {
+    return inputQueues;
+  }
+
+  public void setInputQueues(Map<String, InputQueueStatistics> inputQueues) {
+    this.inputQueues = inputQueues;
+  }
 }
@@ -29,10 +29,21 @@ public class SpMetricsEntry {
   private long lastTimestamp;
   private Map<String, MessageCounter> messagesIn;
   private MessageCounter messagesOut;
+  private long errorCount;
+  private LatencyStatistics processingLatency;
+  private LatencyStatistics queueingLatency;
+  private LatencyStatistics endToEndLatency;
+
+  // only reported for adapters which poll their source
+  private LatencyStatistics pollLatency;
+  private Long pollOverruns;
 
   public SpMetricsEntry() {
     this.messagesIn = new HashMap<>();
     this.messagesOut = new MessageCounter();
+    this.processingLatency = new LatencyStatistics();
+    this.queueingLatency = new LatencyStatistics();
+    this.endToEndLatency = new LatencyStatistics();
   }
 
   public long getLastTimestamp() {
@@ -59,6 +70,54 @@ public class SpMetricsEntry {
     this.messagesOut = messagesOut;
   }
 
+  public long getErrorCount() {
+    return errorCount;
+  }
+
+  public void setErrorCount(long errorCount) {
+    this.errorCount = errorCount;
+  }
+
+  public LatencyStatistics getProcessingLatency() {
+    return processingLatency;
+  }
+
+  public void setProcessingLatency(LatencyStatistics processingLatency) {
+    this.processingLatency = processingLatency;
+  }
+
+  public LatencyStatistics getQueueingLatency() {
+    return queueingLatency;
+  }
+
+  public void setQueueingLatency(LatencyStatistics queueingLatency) {
+    this.queueingLatency = queueingLatency;
+  }
+
+  public LatencyStatistics getEndToEndLatency() {
+    return endToEndLatency;
+  }
+
+  public void setEndToEndLatency(LatencyStatistics endToEndLatency) {
+    this.endToEndLatency = endToEndLatency;
+  }
+
+  public LatencyStatistics getPollLatency() {
+    return pollLatency;
+  }
+
+  public void setPollLatency(LatencyStatistics pollLatency) {
+    this.pollLatency = pollLatency;
+  }
+
+  public Long getPollOverruns() {
+    return pollOverruns;
+  }
+
+  public void setPollOverruns(Long pollOverruns) {
+    this.pollOverruns = pollOverruns;
+  }
+
   public void addOutMetrics(long lastTimestamp) {
     this.messagesOut.setLastTimestamp(lastTimestamp);
     this.messagesOut.setCounter(this.messagesOut.getCounter() + 1);
@@ -80,5 +139,14 @@ public class SpMetricsEntry {
     this.messagesIn.clear();
     this.messagesOut.setCounter(0);
     this.messagesOut.setLastTimestamp(0);
+    this.messagesOut.setEventsPerSecond(0);
+    this.errorCount = 0;
+    this.processingLatency = new LatencyStatistics();
+    this.queueingLatency = new LatencyStatistics();
+    this.endToEndLatency = new LatencyStatistics();
+    if (this.pollLatency != null) {
+      this.pollLatency = new LatencyStatistics();
+      this.pollOverruns = 0L;
+    }
   }
 }
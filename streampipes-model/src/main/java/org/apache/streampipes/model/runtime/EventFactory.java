@@ -77,6 +77,58 @@ public class EventFactory {
     return new Event(fields, sourceInfo, schemaInfo);
   }
 
+  public static Event fromMap(Map<String, Object> event,
+                              SourceInfo sourceInfo,
+                              SchemaInfo schemaInfo,
+                              EventLayout eventLayout) {
+    return new Event(makeFieldMap(event, eventLayout), sourceInfo, schemaInfo);
+  }
+
+  private static Map<String, AbstractField> makeFieldMap(Map<String, Object> items,
+                                                         EventLayout eventLayout) {
+    SlotFieldMap fields = new SlotFieldMap(eventLayout);
+
+    items.forEach((key, value) -> {
+      int slot = eventLayout.getSlotByRuntimeName(key);
+      if (slot >= 0) {
+        fields.setSlot(slot, makeField(key, value, eventLayout.getSelector(slot),
+            eventLayout.getRuntimeNameOut(slot), eventLayout.getNestedLayout(slot)));
+      } else {
+        String selector = eventLayout.makeSelector(key);
+        fields.put(selector, makeField(key, value, selector, eventLayout.getNewRuntimeName(selector, key),
+            isPrimitive(value) ? null : eventLayout.makeDynamicLayout(selector)));
+      }
+    });
+
+    return fields;
+  }
+
+  private static AbstractField makeField(String runtimeName,
+                                         Object o,
+                                         String currentSelector,
+                                         String newRuntimeName,
+                                         EventLayout nestedLayout) {
+    if (o instanceof Map) {
+      return new NestedField(runtimeName, newRuntimeName, makeFieldMap((Map<String, Object>) o, nestedLayout));
+    } else if (o instanceof List) {
+      List<Object> values = (List<Object>) o;
+      List<AbstractField> items = new ArrayList<>(values.size());
+      for (int i = 0; i < values.size(); i++) {
+        Object value = values.get(i);
+        String selector = currentSelector + PropertySelectorConstants.PROPERTY_DELIMITER + i;
+        items.add(makeField("", value, selector, nestedLayout.getNewRuntimeName(selector, ""),
+            isPrimitive(value) ? null : nestedLayout.makeDynamicLayout(selector)));
+      }
+      return new ListField(runtimeName, newRuntimeName, items);
+    } else {
+      return new PrimitiveField(runtimeName, newRuntimeName, o);
+    }
+  }
+
+  private static boolean isPrimitive(Object o) {
+    return !(o instanceof Map) && !(o instanceof List);
+  }
+
   public static Event makeSubset(Event event, List<String> fieldSelectors) {
     Map<String, AbstractField> fieldMap = makeFieldMap(event.getFields(), fieldSelectors);
     return new Event(fieldMap, event.getSourceInfo(), event.getSchemaInfo());
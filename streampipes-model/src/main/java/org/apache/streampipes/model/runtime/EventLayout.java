@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.model.runtime;
+
+import org.apache.streampipes.model.constants.PropertySelectorConstants;
+import org.apache.streampipes.model.output.PropertyRenameRule;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.EventPropertyNested;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field layout of an event, compiled once from the {@link SchemaInfo} of an input stream.
+ * Each property of the schema is assigned a fixed slot together with its pre-built selector
+ * and output runtime name, so that events can be created without building selector strings or
+ * evaluating rename rules per event. Fields which are not part of the schema are still
+ * supported, but are resolved dynamically.
+ */
+public class EventLayout implements Serializable {
+
+  private final String selectorPrefix;
+  private final Map<String, String> renameRules;
+
+  private final Map<String, Integer> slotsByRuntimeName;
+  private final Map<String, Integer> slotsBySelector;
+  private final String[] selectors;
+  private final String[] runtimeNamesOut;
+  private final EventLayout[] nestedLayouts;
+
+  private EventLayout(String selectorPrefix,
+                      List<EventProperty> eventProperties,
+                      Map<String, String> renameRules) {
+    int size = eventProperties.size();
+    this.selectorPrefix = selectorPrefix;
+    this.renameRules = renameRules;
+    this.slotsByRuntimeName = new HashMap<>(size * 2);
+    this.slotsBySelector = new HashMap<>(size * 2);
+    this.selectors = new String[size];
+    this.runtimeNamesOut = new String[size];
+    this.nestedLayouts = new EventLayout[size];
+
+    for (int slot = 0; slot < size; slot++) {
+      EventProperty property = eventProperties.get(slot);
+      String runtimeName = property.getRuntimeName();
+      String selector = makeSelector(runtimeName);
+
+      selectors[slot] = selector;
+      runtimeNamesOut[slot] = getNewRuntimeName(selector, runtimeName);
+      nestedLayouts[slot] = property instanceof EventPropertyNested
+          ? new EventLayout(selector, ((EventPropertyNested) property).getEventProperties(), renameRules)
+          : makeDynamicLayout(selector);
+      slotsByRuntimeName.put(runtimeName, slot);
+      slotsBySelector.put(selector, slot);
+    }
+  }
+
+  public static EventLayout compile(SourceInfo sourceInfo, SchemaInfo schemaInfo) {
+    List<EventProperty> eventProperties = schemaInfo.getEventSchema() != null
+        && schemaInfo.getEventSchema().getEventProperties() != null
+        ? schemaInfo.getEventSchema().getEventProperties()
+        : Collections.emptyList();
+
+    return new EventLayout(sourceInfo.getSelectorPrefix(), eventProperties,
+        makeRenameRuleMap(schemaInfo.getRenameRules()));
+  }
+
+  private static Map<String, String> makeRenameRuleMap(List<PropertyRenameRule> renameRules) {
+    Map<String, String> renameRuleMap = new HashMap<>();
+    if (renameRules != null) {
+      // the first matching rule wins, as in EventFactory#getNewRuntimeName
+      renameRules.forEach(r -> renameRuleMap.putIfAbsent(r.getRuntimeId(), r.getNewRuntimeName()));
+    }
+    return renameRuleMap;
+  }
+
+  /**
+   * Creates a layout without any pre-resolved slots for a nested value which is not described
+   * by the schema.
+   */
+  public EventLayout makeDynamicLayout(String selector) {
+    return new EventLayout(selector, Collections.emptyList(), renameRules);
+  }
+
+  /**
+   * Creates an empty field map which stores the fields of this layout in their slots.
+   */
+  public Map<String, AbstractField> makeFieldMap() {
+    return new SlotFieldMap(this);
+  }
+
+  public int size() {
+    return selectors.length;
+  }
+
+  public int getSlotByRuntimeName(String runtimeName) {
+    Integer slot = slotsByRuntimeName.get(runtimeName);
+    return slot != null ? slot : -1;
+  }
+
+  public int getSlotBySelector(String selector) {
+    Integer slot = slotsBySelector.get(selector);
+    return slot != null ? slot : -1;
+  }
+
+  public String getSelector(int slot) {
+    return selectors[slot];
+  }
+
+  public String getRuntimeNameOut(int slot) {
+    return runtimeNamesOut[slot];
+  }
+
+  public EventLayout getNestedLayout(int slot) {
+    return nestedLayouts[slot];
+  }
+
+  public String makeSelector(String runtimeName) {
+    return selectorPrefix + PropertySelectorConstants.PROPERTY_DELIMITER + runtimeName;
+  }
+
+  public String getNewRuntimeName(String selector, String runtimeName) {
+    return renameRules.getOrDefault(selector, runtimeName);
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.model.runtime;
+
+import org.apache.streampipes.model.runtime.field.AbstractField;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Field map which stores all fields known by an {@link EventLayout} in a slot array. Fields not
+ * covered by the layout are kept in a lazily created overflow map.
+ */
+class SlotFieldMap extends AbstractMap<String, AbstractField> {
+
+  private final EventLayout layout;
+  private final AbstractField[] slots;
+  private Map<String, AbstractField> overflow;
+  private int slotCount;
+
+  SlotFieldMap(EventLayout layout) {
+    this.layout = layout;
+    this.slots = new AbstractField[layout.size()];
+  }
+
+  AbstractField getSlot(int slot) {
+    return slots[slot];
+  }
+
+  void setSlot(int slot, AbstractField field) {
+    if (field == null) {
+      clearSlot(slot);
+      return;
+    }
+    if (slots[slot] == null) {
+      slotCount++;
+    }
+    slots[slot] = field;
+  }
+
+  private AbstractField clearSlot(int slot) {
+    AbstractField previous = slots[slot];
+    if (previous != null) {
+      slots[slot] = null;
+      slotCount--;
+    }
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return slotCount + (overflow != null ? overflow.size() : 0);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public AbstractField get(Object key) {
+    if (key instanceof String) {
+      int slot = layout.getSlotBySelector((String) key);
+      if (slot >= 0) {
+        return slots[slot];
+      }
+    }
+    return overflow != null ? overflow.get(key) : null;
+  }
+
+  @Override
+  public AbstractField put(String key, AbstractField value) {
+    int slot = layout.getSlotBySelector(key);
+    if (slot >= 0) {
+      AbstractField previous = slots[slot];
+      setSlot(slot, value);
+      return previous;
+    }
+    if (overflow == null) {
+      overflow = new LinkedHashMap<>();
+    }
+    return overflow.put(key, value);
+  }
+
+  @Override
+  public AbstractField remove(Object key) {
+    if (key instanceof String) {
+      int slot = layout.getSlotBySelector((String) key);
+      if (slot >= 0) {
+        return clearSlot(slot);
+      }
+    }
+    return overflow != null ? overflow.remove(key) : null;
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = null;
+    }
+    slotCount = 0;
+    overflow = null;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super AbstractField> action) {
+    for (int i = 0; i < slots.length; i++) {
+      if (slots[i] != null) {
+        action.accept(layout.getSelector(i), slots[i]);
+      }
+    }
+    if (overflow != null) {
+      overflow.forEach(action);
+    }
+  }
+
+  @Override
+  public Set<Entry<String, AbstractField>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, AbstractField>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return SlotFieldMap.this.size();
+      }
+    };
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, AbstractField>> {
+
+    private int nextSlot = -1;
+    private int currentSlot = -1;
+    private Iterator<Entry<String, AbstractField>> overflowIterator;
+
+    EntryIterator() {
+      advanceSlot();
+    }
+
+    private void advanceSlot() {
+      do {
+        nextSlot++;
+      } while (nextSlot < slots.length && slots[nextSlot] == null);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextSlot < slots.length) {
+        return true;
+      }
+      if (overflowIterator == null && overflow != null) {
+        overflowIterator = overflow.entrySet().iterator();
+      }
+      return overflowIterator != null && overflowIterator.hasNext();
+    }
+
+    @Override
+    public Entry<String, AbstractField> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (nextSlot < slots.length) {
+        currentSlot = nextSlot;
+        advanceSlot();
+        return new SimpleEntry<>(layout.getSelector(currentSlot), slots[currentSlot]) {
+          private final int slot = currentSlot;
+
+          @Override
+          public AbstractField setValue(AbstractField value) {
+            // the slot may have been removed since, so its presence is maintained like in put
+            AbstractField previous = slots[slot];
+            setSlot(slot, value);
+            super.setValue(value);
+            return previous;
+          }
+        };
+      }
+      currentSlot = -1;
+      return overflowIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (currentSlot >= 0) {
+        clearSlot(currentSlot);
+        currentSlot = -1;
+      } else if (overflowIterator != null) {
+        overflowIterator.remove();
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+  }
+}
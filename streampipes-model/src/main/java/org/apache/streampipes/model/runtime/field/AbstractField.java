@@ -84,7 +84,7 @@ public abstract class AbstractField<V> {
   }
 
   public <T> T parse(FieldParser<V, T> fieldParser) {
-    return fieldParser.parseField(value);
+    return fieldParser.parseField(getRawValue());
   }
 
   public void setValue(V value) {
@@ -24,27 +24,27 @@ public class PrimitiveField extends AbstractField<Object> {
   }
 
   public String getAsString() {
-    return asString(value);
+    return asString(getRawValue());
   }
 
   public Long getAsLong() {
-    return Long.parseLong(asString(value));
+    return Long.parseLong(asString(getRawValue()));
   }
 
   public Integer getAsInt() {
-    return Integer.parseInt(asString(value));
+    return Integer.parseInt(asString(getRawValue()));
   }
 
   public Float getAsFloat() {
-    return Float.parseFloat(asString(value));
+    return Float.parseFloat(asString(getRawValue()));
   }
 
   public Boolean getAsBoolean() {
-    return Boolean.parseBoolean(asString(value));
+    return Boolean.parseBoolean(asString(getRawValue()));
   }
 
   public Double getAsDouble() {
-    return Double.parseDouble(asString(value));
+    return Double.parseDouble(asString(getRawValue()));
   }
 
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.model.runtime;
+
+import org.apache.streampipes.model.output.PropertyRenameRule;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.schema.EventPropertyNested;
+import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.vocabulary.XSD;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestEventLayout {
+
+  private static final String TIMESTAMP = "timestamp";
+  private static final String NESTED = "nested";
+  private static final String TIMESTAMP2 = "timestamp2";
+
+  @Test
+  public void testSlotAssignment() {
+    EventLayout layout = EventLayout.compile(RuntimeTestUtils.getSourceInfo(), makeSchemaInfo());
+
+    assertEquals(2, layout.size());
+    assertEquals(0, layout.getSlotByRuntimeName(TIMESTAMP));
+    assertEquals("s0::nested", layout.getSelector(1));
+    assertEquals(1, layout.getNestedLayout(1).getSlotBySelector("s0::nested::timestamp2"));
+    assertEquals(-1, layout.getSlotByRuntimeName("unknown"));
+  }
+
+  @Test
+  public void testCompiledEventMatchesDynamicEvent() {
+    SourceInfo sourceInfo = RuntimeTestUtils.getSourceInfo();
+    SchemaInfo schemaInfo = makeSchemaInfo();
+    Map<String, Object> runtimeMap = RuntimeTestUtils.nestedMap();
+    runtimeMap.put("unknown", 5);
+
+    Event compiled = EventFactory.fromMap(runtimeMap, sourceInfo, schemaInfo,
+        EventLayout.compile(sourceInfo, schemaInfo));
+    Event dynamic = EventFactory.fromMap(runtimeMap, sourceInfo, schemaInfo);
+
+    assertEquals(3, compiled.getFields().size());
+    assertEquals(Integer.valueOf(2), compiled.getFieldBySelector("s0::nested::timestamp2")
+        .getAsPrimitive()
+        .getAsInt());
+    assertEquals(Integer.valueOf(5), compiled.getFieldBySelector("s0::unknown").getAsPrimitive().getAsInt());
+    assertEquals(new EventConverter(dynamic).toMap(), new EventConverter(compiled).toMap());
+  }
+
+  @Test
+  public void testRenameRules() {
+    SourceInfo sourceInfo = RuntimeTestUtils.getSourceInfo();
+    SchemaInfo schemaInfo = new SchemaInfo(makeSchemaInfo().getEventSchema(),
+        Arrays.asList(new PropertyRenameRule("s0::timestamp", "ts"),
+            new PropertyRenameRule("s0::nested::timestamp2", "ts2")));
+
+    Event event = EventFactory.fromMap(RuntimeTestUtils.nestedMap(), sourceInfo, schemaInfo,
+        EventLayout.compile(sourceInfo, schemaInfo));
+    Map<String, Object> outMap = new EventConverter(event).toMap();
+
+    assertTrue(outMap.containsKey("ts"));
+    assertTrue(((Map<String, Object>) outMap.get(NESTED)).containsKey("ts2"));
+  }
+
+  @Test
+  public void testAddAndRemoveFields() {
+    SourceInfo sourceInfo = RuntimeTestUtils.getSourceInfo();
+    SchemaInfo schemaInfo = makeSchemaInfo();
+    Event event = EventFactory.fromMap(RuntimeTestUtils.simpleMap(), sourceInfo, schemaInfo,
+        EventLayout.compile(sourceInfo, schemaInfo));
+
+    event.addField("added", 3);
+    event.removeFieldBySelector("s0::timestamp");
+
+    assertEquals(1, event.getFields().size());
+    assertFalse(event.getFields().containsKey("s0::timestamp"));
+    assertEquals(Integer.valueOf(3), event.getFieldBySelector("added").getAsPrimitive().getAsInt());
+  }
+
+  @Test
+  public void testEntrySetValueMaintainsSize() {
+    SourceInfo sourceInfo = RuntimeTestUtils.getSourceInfo();
+    SchemaInfo schemaInfo = makeSchemaInfo();
+    Map<String, AbstractField> fields = EventFactory.fromMap(RuntimeTestUtils.simpleMap(), sourceInfo, schemaInfo,
+        EventLayout.compile(sourceInfo, schemaInfo)).getFields();
+
+    Iterator<Map.Entry<String, AbstractField>> iterator = fields.entrySet().iterator();
+    Map.Entry<String, AbstractField> entry = iterator.next();
+    AbstractField field = entry.getValue();
+    iterator.remove();
+    assertEquals(0, fields.size());
+
+    entry.setValue(field);
+    assertEquals(1, fields.size());
+    assertEquals(field, fields.get("s0::timestamp"));
+    assertTrue(fields.entrySet().iterator().hasNext());
+
+    entry.setValue(null);
+    assertEquals(0, fields.size());
+    assertFalse(fields.containsKey("s0::timestamp"));
+  }
+
+  private SchemaInfo makeSchemaInfo() {
+    EventPropertyNested nested = new EventPropertyNested(NESTED, Arrays.asList(
+        new EventPropertyPrimitive(XSD.INTEGER.toString(), TIMESTAMP, "", Collections.emptyList()),
+        new EventPropertyPrimitive(XSD.INTEGER.toString(), TIMESTAMP2, "", Collections.emptyList())));
+    EventSchema schema = new EventSchema(Arrays.asList(
+        new EventPropertyPrimitive(XSD.LONG.toString(), TIMESTAMP, "", Collections.emptyList()),
+        nested));
+    return new SchemaInfo(schema, Collections.emptyList());
+  }
+}
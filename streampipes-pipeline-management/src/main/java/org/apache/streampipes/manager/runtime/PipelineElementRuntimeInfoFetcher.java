@@ -59,7 +59,8 @@ public enum PipelineElementRuntimeInfoFetcher {
     }
     if (!converterMap.containsKey(topic)) {
       this.converterMap.put(topic,
-          new SpDataFormatConverterGenerator(getTransportFormat(spDataStream)).makeConverter());
+          new SpDataFormatConverterGenerator(getTransportFormat(spDataStream), spDataStream.getEventSchema())
+              .makeConverter());
     }
 
     var converter = converterMap.get(topic);
@@ -17,30 +17,42 @@
  */
 package org.apache.streampipes.manager.runtime;
 
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.dataformat.binary.BinaryDataFormatDefinition;
 import org.apache.streampipes.dataformat.cbor.CborDataFormatDefinition;
 import org.apache.streampipes.dataformat.fst.FstDataFormatDefinition;
 import org.apache.streampipes.dataformat.json.JsonDataFormatDefinition;
 import org.apache.streampipes.dataformat.smile.SmileDataFormatDefinition;
 import org.apache.streampipes.model.grounding.TransportFormat;
+import org.apache.streampipes.model.schema.EventSchema;
 import org.apache.streampipes.vocabulary.MessageFormat;
 
 public class SpDataFormatConverterGenerator {
 
   private TransportFormat transportFormat;
+  private EventSchema eventSchema;
 
-  public SpDataFormatConverterGenerator(TransportFormat transportFormat) {
+  public SpDataFormatConverterGenerator(TransportFormat transportFormat,
+                                        EventSchema eventSchema) {
     this.transportFormat = transportFormat;
+    this.eventSchema = eventSchema;
   }
 
   public SpDataFormatConverter makeConverter() {
+    return new SpDataFormatConverter(makeDataFormatDefinition().bindSchema(eventSchema));
+  }
+
+  private SpDataFormatDefinition makeDataFormatDefinition() {
     if (isJsonFormat(transportFormat)) {
-      return new SpDataFormatConverter(new JsonDataFormatDefinition());
+      return new JsonDataFormatDefinition();
     } else if (isCborFormat(transportFormat)) {
-      return new SpDataFormatConverter(new CborDataFormatDefinition());
+      return new CborDataFormatDefinition();
     } else if (isFstFormat(transportFormat)) {
-      return new SpDataFormatConverter(new FstDataFormatDefinition());
+      return new FstDataFormatDefinition();
     } else if (isSmileFormat(transportFormat)) {
-      return new SpDataFormatConverter(new SmileDataFormatDefinition());
+      return new SmileDataFormatDefinition();
+    } else if (isBinaryFormat(transportFormat)) {
+      return new BinaryDataFormatDefinition();
     } else {
       throw new IllegalArgumentException("Wrong transport format: " + makeError(transportFormat));
     }
@@ -54,6 +66,10 @@ public class SpDataFormatConverterGenerator {
     return isFormat(MessageFormat.FST, transportFormat);
   }
 
+  private boolean isBinaryFormat(TransportFormat transportFormat) {
+    return isFormat(MessageFormat.BINARY, transportFormat);
+  }
+
   private boolean isCborFormat(TransportFormat transportFormat) {
     return isFormat(MessageFormat.CBOR, transportFormat);
   }
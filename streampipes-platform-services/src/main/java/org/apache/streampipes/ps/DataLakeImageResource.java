@@ -18,6 +18,8 @@
 
 package org.apache.streampipes.ps;
 
+import org.apache.streampipes.commons.environment.Environments;
+import org.apache.streampipes.dataexplorer.commons.image.FileSystemImageBlobStore;
 import org.apache.streampipes.rest.core.base.impl.AbstractAuthGuardedRestResource;
 import org.apache.streampipes.storage.management.StorageDispatcher;
 
@@ -25,15 +27,28 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 
 @Path("v4/datalake/images")
 public class DataLakeImageResource extends AbstractAuthGuardedRestResource {
 
+  // images in the file system store are addressed by their content and never change, but must only
+  // be cached by the browser of the authenticated user and not by shared caches
+  private static final String IMMUTABLE_CACHE_CONTROL = "private, max-age=31536000, immutable";
+
   @GET
   @Path("{imageId}")
   @Produces("image/jpeg")
   public Response getImage(@PathParam("imageId") String imageId) {
-    return ok(StorageDispatcher.INSTANCE.getNoSqlStore().getImageStorage().getImageBytes(imageId));
+    java.nio.file.Path imageDir = FileSystemImageBlobStore.getBaseDir(Environments.getEnvironment());
+    return FileSystemImageBlobStore.findImage(imageDir, imageId)
+        // the file itself is the entity, so that the container sends it from the file system
+        // instead of the application copying it through an output stream
+        .map(file -> Response.ok(file.toFile())
+            .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL)
+            .header(HttpHeaders.ETAG, "\"" + imageId + "\"")
+            .build())
+        .orElseGet(() -> ok(StorageDispatcher.INSTANCE.getNoSqlStore().getImageStorage().getImageBytes(imageId)));
   }
 }
@@ -20,6 +20,7 @@ package org.apache.streampipes.ps;
 
 import org.apache.streampipes.dataexplorer.DataLakeManagementV4;
 import org.apache.streampipes.model.datalake.DataLakeMeasure;
+import org.apache.streampipes.model.datalake.DataLakeMeasureStatistics;
 import org.apache.streampipes.rest.core.base.impl.AbstractAuthGuardedRestResource;
 import org.apache.streampipes.rest.shared.annotation.JacksonSerialized;
 
@@ -31,6 +32,7 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -78,6 +80,25 @@ public class DataLakeMeasureResourceV4 extends AbstractAuthGuardedRestResource {
     return badRequest();
   }
 
+  @POST
+  @JacksonSerialized
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Path("statistics/{measureName}")
+  public Response updateStatistics(@PathParam("measureName") String measureName,
+                                   @QueryParam("writerId") String writerId,
+                                   @QueryParam("sequence") Long sequence,
+                                   DataLakeMeasureStatistics statistics) {
+    if (writerId == null || sequence == null) {
+      return badRequest("Missing writerId or sequence");
+    }
+    try {
+      this.dataLakeManagement.updateStatistics(measureName, writerId, sequence, statistics);
+      return ok();
+    } catch (IllegalArgumentException e) {
+      return badRequest(e.getMessage());
+    }
+  }
+
   @DELETE
   @JacksonSerialized
   @Path("{id}")
@@ -20,6 +20,7 @@ package org.apache.streampipes.ps;
 
 import org.apache.streampipes.dataexplorer.DataLakeManagementV4;
 import org.apache.streampipes.dataexplorer.v4.ProvidedQueryParams;
+import org.apache.streampipes.dataexplorer.v4.query.QueryCacheStatistics;
 import org.apache.streampipes.dataexplorer.v4.query.writer.OutputFormat;
 import org.apache.streampipes.model.StreamPipesErrorMessage;
 import org.apache.streampipes.model.datalake.DataLakeMeasure;
@@ -62,6 +63,8 @@ import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParam
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COLUMNS;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_COUNT_ONLY;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_CSV_DELIMITER;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING;
+import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_DOWNSAMPLING_POINTS;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_END_DATE;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_FILTER;
 import static org.apache.streampipes.dataexplorer.v4.SupportedDataLakeQueryParameters.QP_FORMAT;
@@ -156,6 +159,19 @@ public class DataLakeResourceV4 extends AbstractRestResource {
     return ok(allMeasurements);
   }
 
+  @GET
+  @Path("/cache")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Operation(summary = "Get hit, miss and size statistics of the data lake query cache", tags = {"Data Lake"},
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "query cache statistics",
+              content = @Content(schema = @Schema(implementation = QueryCacheStatistics.class)))})
+  public Response getQueryCacheStatistics() {
+    return ok(this.dataLakeManagement.getQueryCacheStatistics());
+  }
+
   @GET
   @Path("/measurements/{measurementId}/tags")
   @Produces(MediaType.APPLICATION_JSON)
@@ -224,6 +240,13 @@ public class DataLakeResourceV4 extends AbstractRestResource {
           description = "the maximum amount of resulting events,"
               + "when too high the query status is set to TOO_MUCH_DATA")
       @QueryParam(QP_MAXIMUM_AMOUNT_OF_EVENTS) Integer maximumAmountOfResults
+      ,
+      @Parameter(
+          in = ParameterIn.QUERY,
+          description = "shape-preserving downsampling of each series (lttb or minmax)")
+      @QueryParam(QP_DOWNSAMPLING) String downsampling
+      , @Parameter(in = ParameterIn.QUERY, description = "maximum number of points per downsampled series")
+      @QueryParam(QP_DOWNSAMPLING_POINTS) Integer downsamplingPoints
       , @Context UriInfo uriInfo) {
 
     MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
@@ -247,11 +270,11 @@ public class DataLakeResourceV4 extends AbstractRestResource {
   @Produces(MediaType.APPLICATION_JSON)
   @Consumes(MediaType.APPLICATION_JSON)
   public Response getData(List<Map<String, String>> queryParams) {
-    var results = queryParams
+    var providedParams = queryParams
         .stream()
         .map(qp -> new ProvidedQueryParams(qp.get("measureName"), qp))
-        .map(params -> this.dataLakeManagement.getData(params, true))
         .collect(Collectors.toList());
+    var results = this.dataLakeManagement.getData(providedParams, true);
 
     return ok(results);
   }
@@ -298,7 +321,7 @@ public class DataLakeResourceV4 extends AbstractRestResource {
       ,
       @Parameter(
           in = ParameterIn.QUERY,
-          description = "format specification (csv, json - default is csv) for data download")
+          description = "format specification (csv, json, parquet, arrow - default is csv) for data download")
       @QueryParam(QP_FORMAT) String format
       , @Parameter(in = ParameterIn.QUERY, description = "csv delimiter (comma or semicolon)")
       @QueryParam(QP_CSV_DELIMITER) String csvDelimiter
@@ -322,7 +345,7 @@ public class DataLakeResourceV4 extends AbstractRestResource {
         format = "csv";
       }
 
-      OutputFormat outputFormat = format.equals("csv") ? OutputFormat.CSV : OutputFormat.JSON;
+      OutputFormat outputFormat = getOutputFormat(format);
       StreamingOutput streamingOutput = output -> dataLakeManagement.getDataAsStream(
           sanitizedParams,
           outputFormat,
@@ -345,6 +368,19 @@ public class DataLakeResourceV4 extends AbstractRestResource {
     return Response.ok(isSuccess).build();
   }
 
+  private OutputFormat getOutputFormat(String format) {
+    switch (format) {
+      case "csv":
+        return OutputFormat.CSV;
+      case "parquet":
+        return OutputFormat.PARQUET;
+      case "arrow":
+        return OutputFormat.ARROW;
+      default:
+        return OutputFormat.JSON;
+    }
+  }
+
   private boolean checkProvidedQueryParams(MultivaluedMap<String, String> providedParams) {
     return SUPPORTED_PARAMS.containsAll(providedParams.keySet());
   }
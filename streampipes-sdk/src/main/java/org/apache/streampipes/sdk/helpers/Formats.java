@@ -41,6 +41,15 @@ public class Formats {
     return new TransportFormat(MessageFormat.CBOR);
   }
 
+  /**
+   * Defines the schema-bound binary transport format used by a data stream at runtime.
+   *
+   * @return The {@link org.apache.streampipes.model.grounding.TransportFormat} of type Binary.
+   */
+  public static TransportFormat binaryFormat() {
+    return new TransportFormat(MessageFormat.BINARY);
+  }
+
   /**
    * Defines the transport format Fast-Serializer used by a data stream at runtime.
    *
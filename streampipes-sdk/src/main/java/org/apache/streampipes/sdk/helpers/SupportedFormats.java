@@ -52,6 +52,16 @@ public class SupportedFormats {
     return new TransportFormat(MessageFormat.CBOR);
   }
 
+  /**
+   * Defines that a pipeline element (data processor or data sink) supports processing messaging
+   * arriving in the schema-bound binary format
+   *
+   * @return The resulting {@link org.apache.streampipes.model.grounding.TransportFormat}.
+   */
+  public static TransportFormat binaryFormat() {
+    return new TransportFormat(MessageFormat.BINARY);
+  }
+
   /**
    * Defines that a pipeline element (data processor or data sink) supports processing messaging
    * arriving in fast-serialization format
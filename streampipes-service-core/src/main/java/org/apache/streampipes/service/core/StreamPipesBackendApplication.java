@@ -18,6 +18,8 @@
 package org.apache.streampipes.service.core;
 
 import org.apache.streampipes.config.backend.BackendConfig;
+import org.apache.streampipes.dataexplorer.v4.image.DataLakeImageRetentionManager;
+import org.apache.streampipes.dataexplorer.v4.rollup.DataLakeRollupManager;
 import org.apache.streampipes.manager.health.PipelineHealthCheck;
 import org.apache.streampipes.manager.monitoring.pipeline.ExtensionsServiceLogExecutor;
 import org.apache.streampipes.manager.operations.Operations;
@@ -130,6 +132,9 @@ public class StreamPipesBackendApplication extends StreamPipesServiceBase {
         LOG_FETCH_INTERVAL,
         LOG_FETCH_UNIT);
 
+    LOG.info("Starting maintenance of data lake rollups...");
+    DataLakeRollupManager.INSTANCE.start();
+    DataLakeImageRetentionManager.INSTANCE.start();
 
   }
 
@@ -175,6 +180,9 @@ public class StreamPipesBackendApplication extends StreamPipesServiceBase {
       StorageDispatcher.INSTANCE.getNoSqlStore().getPipelineStorageAPI().updatePipeline(pipeline);
     });
 
+    DataLakeRollupManager.INSTANCE.stop();
+    DataLakeImageRetentionManager.INSTANCE.stop();
+
     LOG.info("Gracefully stopping all running pipelines...");
     List<PipelineOperationStatus> status = Operations.stopAllPipelines(true);
     status.forEach(s -> {
@@ -29,5 +29,6 @@ public class MessageFormat {
   public static final String CBOR = SEPA_NAMESPACE + "cbor";
   public static final String XML = SEPA_NAMESPACE + "xml";
   public static final String THRIFT = SEPA_NAMESPACE + "thrift";
+  public static final String BINARY = SEPA_NAMESPACE + "binary";
 
 }
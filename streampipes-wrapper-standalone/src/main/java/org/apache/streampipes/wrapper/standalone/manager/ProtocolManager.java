@@ -27,14 +27,14 @@ import org.apache.streampipes.wrapper.standalone.routing.StandaloneSpOutputColle
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ProtocolManager {
 
   private static final Logger LOG = LoggerFactory.getLogger(ProtocolManager.class);
-  public static Map<String, StandaloneSpInputCollector> consumers = new HashMap<>();
-  public static Map<String, StandaloneSpOutputCollector> producers = new HashMap<>();
+  public static Map<String, StandaloneSpInputCollector> consumers = new ConcurrentHashMap<>();
+  public static Map<String, StandaloneSpOutputCollector> producers = new ConcurrentHashMap<>();
 
   // TODO currently only the topic name is used as an identifier for a consumer/producer. Should
   // be changed by some hashCode implementation in streampipes-model, but this requires changes
@@ -85,6 +85,13 @@ public class ProtocolManager {
     return new StandaloneSpOutputCollector<>(protocol, format, resourceId);
   }
 
+  /**
+   * Returns the input collector of the given topic if it is consumed within this service.
+   */
+  public static StandaloneSpInputCollector findLocalInputCollector(String topic) {
+    return consumers.get(topic);
+  }
+
   private static String topicName(TransportProtocol protocol) {
     return protocol.getTopicDefinition().getActualTopicName();
   }
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.routing;
+
+import org.apache.streampipes.model.monitoring.InputQueueStatistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded hand-off of events from the thread which receives them to a dedicated worker thread
+ * which processes them. The {@link OverflowPolicy} decides what happens if events arrive faster
+ * than they are processed.
+ */
+public class BoundedEventQueue<E> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BoundedEventQueue.class);
+
+  private static final long POLL_TIMEOUT_MS = 100;
+  private static final long STOP_TIMEOUT_MS = 5000;
+
+  private final String name;
+  private final int capacity;
+  private final OverflowPolicy policy;
+  private final int samplingRate;
+  private final BlockingQueue<E> queue;
+  private final Consumer<E> consumer;
+
+  private final LongAdder dropped;
+  private final AtomicLong sampled;
+
+  // events can be queued before the worker is started, the queue only refuses events once stopped
+  private volatile boolean running = true;
+  private Thread worker;
+
+  public BoundedEventQueue(String name,
+                           int capacity,
+                           OverflowPolicy policy,
+                           int samplingRate,
+                           Consumer<E> consumer) {
+    this.name = name;
+    this.capacity = capacity;
+    this.policy = policy;
+    this.samplingRate = Math.max(samplingRate, 1);
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.consumer = consumer;
+    this.dropped = new LongAdder();
+    this.sampled = new AtomicLong();
+  }
+
+  public void start() {
+    this.running = true;
+    this.worker = new Thread(this::run, "event-queue-" + name);
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  public void offer(E event) {
+    switch (policy) {
+      case BLOCK:
+        put(event);
+        break;
+      case DROP_OLDEST:
+        while (!queue.offer(event)) {
+          if (queue.poll() != null) {
+            dropped.increment();
+          }
+        }
+        break;
+      case SAMPLE:
+        if (queue.size() >= capacity / 2 && sampled.incrementAndGet() % samplingRate != 0) {
+          dropped.increment();
+        } else if (!queue.offer(event)) {
+          dropped.increment();
+        }
+        break;
+      default:
+        if (!queue.offer(event)) {
+          dropped.increment();
+        }
+    }
+  }
+
+  /**
+   * Stops the worker once the event which is currently processed is finished. Producers waiting for
+   * capacity return without queueing their event. Events which are still queued are discarded and
+   * counted as dropped.
+   */
+  public void stop() {
+    this.running = false;
+    if (worker != null && worker != Thread.currentThread()) {
+      try {
+        worker.join(STOP_TIMEOUT_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    int discarded = queue.size();
+    queue.clear();
+    if (discarded > 0) {
+      dropped.add(discarded);
+      LOG.warn("Discarded {} queued events of queue {} on stop", discarded, name);
+    }
+  }
+
+  public InputQueueStatistics getStatistics() {
+    var statistics = new InputQueueStatistics();
+    statistics.setCapacity(capacity);
+    statistics.setSize(queue.size());
+    statistics.setDropped(dropped.sum());
+    statistics.setOverflowPolicy(policy.name());
+    return statistics;
+  }
+
+  private void put(E event) {
+    try {
+      while (!queue.offer(event, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        if (!running) {
+          dropped.increment();
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      dropped.increment();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        E event = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (event != null) {
+          consumer.accept(event);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        LOG.error("Could not process event from queue {}", name, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded in-memory hand-off of events between an output collector and the input collector of
+ * the same topic within this service. A full queue blocks the producing element, which
+ * propagates backpressure in the same way as a slow broker.
+ *
+ * <p>Events are still published to the broker for subscribers outside of this service. Broker
+ * messages of events which were delivered locally carry the {@link #DELIVERED_LOCALLY_HEADER}
+ * with the {@link #INSTANCE_ID} of this service, so that the input collector of this service
+ * skips them while consumers in other services process them as usual.</p>
+ */
+public class LocalEventChannel {
+
+  public static final String DELIVERED_LOCALLY_HEADER = "spDeliveredLocallyBy";
+  public static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+  private static final Logger LOG = LoggerFactory.getLogger(LocalEventChannel.class);
+
+  private static final long POLL_TIMEOUT_MS = 100;
+  private static final long STOP_TIMEOUT_MS = 5000;
+
+  private final String topic;
+  private final BlockingQueue<LocalEvent> queue;
+  private final BiConsumer<Map<String, Object>, Map<String, String>> consumer;
+
+  private volatile boolean running;
+  private Thread worker;
+
+  public LocalEventChannel(String topic,
+                           int capacity,
+                           BiConsumer<Map<String, Object>, Map<String, String>> consumer) {
+    this.topic = topic;
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    this.consumer = consumer;
+  }
+
+  public void start() {
+    this.running = true;
+    this.worker = new Thread(this::run, "local-transport-" + topic);
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Queues an event and the headers it would carry on the broker for the local consumers, waiting
+   * while the queue is full.
+   *
+   * @return false if the channel was stopped before the event could be queued
+   */
+  public boolean put(Map<String, Object> event,
+                     Map<String, String> headers) {
+    var localEvent = new LocalEvent(event, headers);
+    try {
+      while (running) {
+        if (queue.offer(localEvent, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  /**
+   * Stops the channel once the event which is currently processed is finished. Events which are
+   * still queued are discarded, since no consumer is left to process them.
+   */
+  public void stop() {
+    this.running = false;
+    if (worker != null && worker != Thread.currentThread()) {
+      try {
+        worker.join(STOP_TIMEOUT_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    int discarded = queue.size();
+    queue.clear();
+    if (discarded > 0) {
+      LOG.warn("Discarded {} events of topic {} which were queued for local delivery", discarded, topic);
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        LocalEvent localEvent = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (localEvent != null) {
+          consumer.accept(localEvent.event, localEvent.headers);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        LOG.error("Could not process event from local transport of topic {}", topic, e);
+      }
+    }
+  }
+
+  private static class LocalEvent {
+    private final Map<String, Object> event;
+    private final Map<String, String> headers;
+
+    private LocalEvent(Map<String, Object> event,
+                       Map<String, String> headers) {
+      this.event = event;
+      this.headers = headers;
+    }
+  }
+}
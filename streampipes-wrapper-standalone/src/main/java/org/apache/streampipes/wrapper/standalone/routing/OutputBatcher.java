@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.routing;
+
+import org.apache.streampipes.messaging.EventProducer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects serialized events and hands them over to the producer as a batch once either the batch
+ * size is reached or the oldest event in the batch has waited for the linger time.
+ */
+public class OutputBatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OutputBatcher.class);
+
+  private final EventProducer<?> producer;
+  private final int batchSize;
+  private final long lingerMs;
+
+  private List<byte[]> batch;
+  private List<Map<String, String>> batchHeaders;
+  private boolean batchHasHeaders;
+  private long batchStartedAt;
+  private ScheduledExecutorService scheduler;
+
+  public OutputBatcher(EventProducer<?> producer,
+                       int batchSize,
+                       long lingerMs) {
+    this.producer = producer;
+    this.batchSize = batchSize;
+    this.lingerMs = lingerMs;
+    this.batch = new ArrayList<>(batchSize);
+    this.batchHeaders = new ArrayList<>(batchSize);
+  }
+
+  public void start() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "output-batcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.scheduleAtFixedRate(this::flushIfLingerExpired, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void add(byte[] event) {
+    add(event, Collections.emptyMap());
+  }
+
+  public synchronized void add(byte[] event,
+                               Map<String, String> headers) {
+    if (batch.isEmpty()) {
+      batchStartedAt = System.currentTimeMillis();
+    }
+    batch.add(event);
+    batchHeaders.add(headers);
+    batchHasHeaders |= !headers.isEmpty();
+    if (batch.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  public synchronized void flush() {
+    if (!batch.isEmpty()) {
+      List<byte[]> events = batch;
+      List<Map<String, String>> headers = batchHeaders;
+      boolean hasHeaders = batchHasHeaders;
+      this.batch = new ArrayList<>(batchSize);
+      this.batchHeaders = new ArrayList<>(batchSize);
+      this.batchHasHeaders = false;
+      if (hasHeaders) {
+        producer.publishBatch(events, headers);
+      } else {
+        producer.publishBatch(events);
+      }
+    }
+  }
+
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    flush();
+  }
+
+  private synchronized void flushIfLingerExpired() {
+    try {
+      if (!batch.isEmpty() && System.currentTimeMillis() - batchStartedAt >= lingerMs) {
+        flush();
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Could not publish batch of events", e);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Behaviour of a {@link BoundedEventQueue} once its capacity is reached.
+ */
+public enum OverflowPolicy {
+
+  /**
+   * Blocks the delivering thread, which pauses consumption from the broker.
+   */
+  BLOCK,
+
+  /**
+   * Discards the oldest queued event in favour of the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Discards the new event.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Admits only every n-th event once the queue is half full and discards new events once it is full.
+   */
+  SAMPLE;
+
+  private static final Logger LOG = LoggerFactory.getLogger(OverflowPolicy.class);
+
+  /**
+   * Parses the policy, e.g., drop-oldest. Unknown policies fall back to {@link #BLOCK}, the default
+   * policy, so that a misconfigured service still starts.
+   */
+  public static OverflowPolicy fromString(String policy) {
+    if (policy != null) {
+      try {
+        return OverflowPolicy.valueOf(policy.trim().toUpperCase().replace('-', '_'));
+      } catch (IllegalArgumentException e) {
+        // fall through to the default policy
+      }
+    }
+    LOG.warn("Unknown input queue overflow policy {}, using {}", policy, BLOCK);
+    return BLOCK;
+  }
+}
@@ -23,6 +23,7 @@ import org.apache.streampipes.dataformat.SpDataFormatDefinition;
 import org.apache.streampipes.messaging.SpProtocolDefinition;
 import org.apache.streampipes.model.grounding.TransportFormat;
 import org.apache.streampipes.model.grounding.TransportProtocol;
+import org.apache.streampipes.model.schema.EventSchema;
 import org.apache.streampipes.wrapper.routing.PipelineElementCollector;
 import org.apache.streampipes.wrapper.standalone.manager.PManager;
 
@@ -40,6 +41,7 @@ public abstract class StandaloneSpCollector<T extends TransportProtocol, W> impl
   protected TransportFormat transportFormat;
   protected SpDataFormatDefinition dataFormatDefinition;
   protected String topic;
+  private boolean schemaBound;
 
 
   public StandaloneSpCollector(T protocol, TransportFormat format) throws SpRuntimeException {
@@ -61,4 +63,15 @@ public abstract class StandaloneSpCollector<T extends TransportProtocol, W> impl
     consumers.remove(routeId);
   }
 
+  /**
+   * Binds the data format to the schema of the events transported by this collector. Collectors
+   * are shared by all elements using the same topic, so the schema is bound only once.
+   */
+  public synchronized void bindSchema(EventSchema eventSchema) {
+    if (!schemaBound) {
+      this.dataFormatDefinition = dataFormatDefinition.bindSchema(eventSchema);
+      this.schemaBound = true;
+    }
+  }
+
 }
@@ -18,7 +18,11 @@
 
 package org.apache.streampipes.wrapper.standalone.routing;
 
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.extensions.management.monitoring.EventTracer;
+import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
 import org.apache.streampipes.messaging.InternalEventProcessor;
 import org.apache.streampipes.model.grounding.TransportFormat;
 import org.apache.streampipes.model.grounding.TransportProtocol;
@@ -26,35 +30,122 @@ import org.apache.streampipes.wrapper.routing.RawDataProcessor;
 import org.apache.streampipes.wrapper.routing.SpInputCollector;
 import org.apache.streampipes.wrapper.standalone.manager.ProtocolManager;
 
+import java.util.Map;
+
 public class StandaloneSpInputCollector<T extends TransportProtocol> extends
     StandaloneSpCollector<T, RawDataProcessor>
     implements
     InternalEventProcessor<byte[]>, SpInputCollector {
 
   private final Boolean singletonEngine;
+  private final BoundedEventQueue<ReceivedEvent> inputQueue;
+  private final LocalEventChannel localChannel;
 
   public StandaloneSpInputCollector(T protocol, TransportFormat format,
                                     Boolean singletonEngine) throws SpRuntimeException {
+    this(protocol, format, singletonEngine,
+        Environments.getEnvironment().getLocalTransportEnabled().getValueOrDefault());
+  }
+
+  StandaloneSpInputCollector(T protocol, TransportFormat format,
+                             Boolean singletonEngine,
+                             boolean localTransportEnabled) throws SpRuntimeException {
     super(protocol, format);
     this.singletonEngine = singletonEngine;
+    this.inputQueue = makeInputQueue(Environments.getEnvironment());
+    this.localChannel = makeLocalChannel(Environments.getEnvironment(), localTransportEnabled);
+  }
+
+  private LocalEventChannel makeLocalChannel(Environment env,
+                                             boolean localTransportEnabled) {
+    // without headers, broker messages of locally delivered events could not be told apart
+    return localTransportEnabled && protocolDefinition.supportsHeaders()
+        ? new LocalEventChannel(topic, env.getLocalTransportQueueSize().getValueOrDefault(), this::onLocalEvent)
+        : null;
+  }
+
+  private BoundedEventQueue<ReceivedEvent> makeInputQueue(Environment env) {
+    int queueSize = env.getInputQueueSize().getValueOrDefault();
+    return queueSize > 0
+        ? new BoundedEventQueue<>(topic,
+            queueSize,
+            OverflowPolicy.fromString(env.getInputQueueOverflowPolicy().getValueOrDefault()),
+            env.getInputQueueSamplingRate().getValueOrDefault(),
+            event -> dispatch(event.payload, event.receivedAt, event.trace))
+        : null;
+  }
+
+  @Override
+  public void onEvent(byte[] event,
+                      Map<String, String> headers) {
+    if (LocalEventChannel.INSTANCE_ID.equals(headers.get(LocalEventChannel.DELIVERED_LOCALLY_HEADER))) {
+      // the event has already been received from the local channel
+      return;
+    }
+    receive(event, headers.get(EventTracer.TRACE_HEADER));
   }
 
   @Override
   public void onEvent(byte[] event) {
+    receive(event, null);
+  }
+
+  private void receive(byte[] event, String trace) {
+    long receivedAt = EventTracer.INSTANCE.receiveTime();
+    if (inputQueue != null) {
+      inputQueue.offer(new ReceivedEvent(event, receivedAt, trace));
+    } else {
+      dispatch(event, receivedAt, trace);
+    }
+  }
+
+  private void dispatch(byte[] event, long receivedAt, String trace) {
     if (singletonEngine) {
-      send(consumers.get(consumers.keySet().toArray()[0]), event);
+      send(consumers.get(consumers.keySet().toArray()[0]), event, receivedAt, trace);
     } else {
-      consumers.forEach((key, value) -> send(value, event));
+      consumers.forEach((key, value) -> send(value, event, receivedAt, trace));
     }
   }
 
-  private void send(RawDataProcessor rawDataProcessor, byte[] event) {
-    rawDataProcessor.process(dataFormatDefinition.toMap(event), topic);
+  /**
+   * Hands an event produced within this service to the consumers of this collector.
+   *
+   * @return false if the event needs to be received from the broker, since the local transport is
+   * disabled or stopped
+   */
+  public boolean deliverLocally(Map<String, Object> event,
+                                Map<String, String> headers) {
+    return localChannel != null && localChannel.put(event, headers);
+  }
+
+  private void onLocalEvent(Map<String, Object> event,
+                            Map<String, String> headers) {
+    long receivedAt = EventTracer.INSTANCE.receiveTime();
+    String trace = headers.get(EventTracer.TRACE_HEADER);
+    if (singletonEngine) {
+      sendLocal(consumers.get(consumers.keySet().toArray()[0]), event, receivedAt, trace);
+    } else {
+      consumers.forEach((key, value) -> sendLocal(value, event, receivedAt, trace));
+    }
+  }
+
+  private void sendLocal(RawDataProcessor rawDataProcessor, Map<String, Object> event, long receivedAt, String trace) {
+    EventTracer.INSTANCE.markReceived(receivedAt, trace);
+    rawDataProcessor.process(event, topic);
+  }
+
+  private void send(RawDataProcessor rawDataProcessor, byte[] event, long receivedAt, String trace) {
+    EventTracer.INSTANCE.markReceived(receivedAt, trace);
+    rawDataProcessor.process(event, dataFormatDefinition, topic);
   }
 
   @Override
   public void connect() throws SpRuntimeException {
     if (!protocolDefinition.getConsumer().isConnected()) {
+      startQueue(topic, inputQueue);
+      if (localChannel != null) {
+        localChannel.start();
+      }
       protocolDefinition.getConsumer().connect(transportProtocol, this);
     }
   }
@@ -64,8 +155,40 @@ public class StandaloneSpInputCollector<T extends TransportProtocol> extends
     if (protocolDefinition.getConsumer().isConnected()) {
       if (consumers.size() == 0) {
         protocolDefinition.getConsumer().disconnect();
+        stopQueue(topic, inputQueue);
+        if (localChannel != null) {
+          localChannel.stop();
+        }
         ProtocolManager.removeInputCollector(transportProtocol);
       }
     }
   }
+
+  private void startQueue(String name, BoundedEventQueue<?> queue) {
+    if (queue != null) {
+      queue.start();
+      SpMonitoringManager.INSTANCE.registerInputQueue(name, queue::getStatistics);
+    }
+  }
+
+  private void stopQueue(String name, BoundedEventQueue<?> queue) {
+    if (queue != null) {
+      queue.stop();
+      SpMonitoringManager.INSTANCE.unregisterInputQueue(name);
+    }
+  }
+
+  private static class ReceivedEvent {
+    private final byte[] payload;
+    private final long receivedAt;
+    private final String trace;
+
+    private ReceivedEvent(byte[] payload,
+                          long receivedAt,
+                          String trace) {
+      this.payload = payload;
+      this.receivedAt = receivedAt;
+      this.trace = trace;
+    }
+  }
 }
@@ -18,7 +18,11 @@
 
 package org.apache.streampipes.wrapper.standalone.routing;
 
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.extensions.management.monitoring.ElementMetrics;
+import org.apache.streampipes.extensions.management.monitoring.EventTracer;
 import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
 import org.apache.streampipes.messaging.EventProducer;
 import org.apache.streampipes.messaging.InternalEventProcessor;
@@ -34,6 +38,8 @@ import org.apache.streampipes.wrapper.standalone.manager.ProtocolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 public class StandaloneSpOutputCollector<T extends TransportProtocol> extends
@@ -44,20 +50,51 @@ public class StandaloneSpOutputCollector<T extends TransportProtocol> extends
 
   private final EventProducer<T> producer;
   private final String resourceId;
+  private final ElementMetrics metrics;
+  private final OutputBatcher batcher;
+  private final boolean localTransportEnabled;
+  private final Map<String, String> deliveredLocallyHeaders;
 
   public StandaloneSpOutputCollector(T protocol,
                                      TransportFormat format,
                                      String resourceId) throws SpRuntimeException {
+    this(protocol, format, resourceId, Environments.getEnvironment().getLocalTransportEnabled().getValueOrDefault());
+  }
+
+  StandaloneSpOutputCollector(T protocol,
+                              TransportFormat format,
+                              String resourceId,
+                              boolean localTransportEnabled) throws SpRuntimeException {
     super(protocol, format);
     this.producer = protocolDefinition.getProducer();
     this.resourceId = resourceId;
+    this.metrics = SpMonitoringManager.INSTANCE.getElementMetrics(resourceId);
+    this.batcher = makeBatcher(Environments.getEnvironment());
+    this.localTransportEnabled = localTransportEnabled && protocolDefinition.supportsHeaders();
+    this.deliveredLocallyHeaders = Map.of(LocalEventChannel.DELIVERED_LOCALLY_HEADER, LocalEventChannel.INSTANCE_ID);
+  }
+
+  private OutputBatcher makeBatcher(Environment env) {
+    int batchSize = env.getOutputBatchSize().getValueOrDefault();
+    return batchSize > 1
+        ? new OutputBatcher(producer, batchSize, env.getOutputBatchLingerMs().getValueOrDefault())
+        : null;
   }
 
   public void collect(Event event) {
-    Map<String, Object> outEvent = new EventConverter(event).toMap();
     try {
-      producer.publish(dataFormatDefinition.fromMap(outEvent));
-      SpMonitoringManager.INSTANCE.increaseOutCounter(resourceId, System.currentTimeMillis());
+      Map<String, String> traceHeaders = EventTracer.INSTANCE.inject(Collections.emptyMap());
+      // the broker still serves subscribers outside of this service
+      Map<String, String> headers = deliverLocally(event, traceHeaders)
+          ? withDeliveredLocallyHeaders(traceHeaders)
+          : traceHeaders;
+      byte[] outEvent = dataFormatDefinition.fromEvent(event);
+      if (batcher != null) {
+        batcher.add(outEvent, headers);
+      } else {
+        publish(outEvent, headers);
+      }
+      metrics.increaseOutCounter();
     } catch (SpRuntimeException e) {
       var logEntry = SpLogEntry.from(System.currentTimeMillis(), StreamPipesErrorMessage.from(e));
       SpMonitoringManager.INSTANCE.addErrorMessage(resourceId, logEntry);
@@ -65,16 +102,57 @@ public class StandaloneSpOutputCollector<T extends TransportProtocol> extends
     }
   }
 
+  /**
+   * Producers such as the JMS publisher are not thread-safe, while events might be collected from
+   * several threads, e.g., by the workers of a partitioned pipeline element.
+   */
+  private synchronized void publish(byte[] event,
+                                    Map<String, String> headers) {
+    producer.publish(event, headers);
+  }
+
+  /**
+   * Hands a copy of the event to the input collector of the same topic, if the topic is consumed
+   * within this service.
+   *
+   * @return true if the event was delivered locally
+   */
+  private boolean deliverLocally(Event event,
+                                 Map<String, String> headers) {
+    if (localTransportEnabled) {
+      StandaloneSpInputCollector<?> localCollector = ProtocolManager.findLocalInputCollector(topic);
+      if (localCollector != null) {
+        return localCollector.deliverLocally(new EventConverter(event).toMap(), headers);
+      }
+    }
+    return false;
+  }
+
+  private Map<String, String> withDeliveredLocallyHeaders(Map<String, String> headers) {
+    if (headers.isEmpty()) {
+      return deliveredLocallyHeaders;
+    }
+    Map<String, String> allHeaders = new HashMap<>(headers);
+    allHeaders.putAll(deliveredLocallyHeaders);
+    return allHeaders;
+  }
+
   @Override
   public void connect() throws SpRuntimeException {
     if (!protocolDefinition.getProducer().isConnected()) {
       protocolDefinition.getProducer().connect(transportProtocol);
+      if (batcher != null) {
+        batcher.start();
+      }
     }
   }
 
   @Override
   public void disconnect() throws SpRuntimeException {
     if (protocolDefinition.getProducer().isConnected()) {
+      if (batcher != null) {
+        batcher.stop();
+      }
       protocolDefinition.getProducer().disconnect();
       ProtocolManager.removeOutputCollector(transportProtocol);
     }
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.runtime;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Distributes events to a fixed number of worker threads, each of which owns its own engine instance.
+ * Events are assigned to workers by the value of the partition field, so that all events with the
+ * same key are processed in order by the same engine. Events without the partition field are
+ * distributed round-robin. Each worker has a bounded queue, the thread which dispatches events is
+ * blocked while the queue of the assigned worker is full.
+ */
+public class PartitionedEventDispatcher<PeT> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionedEventDispatcher.class);
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+  private final String partitionSelector;
+  private final List<PeT> engines;
+  private final List<ExecutorService> workers;
+  private final AtomicInteger nextWorker;
+  private final AtomicBoolean missingKeyLogged;
+
+  private volatile boolean running;
+
+  public PartitionedEventDispatcher(PeT firstEngine,
+                                    Supplier<PeT> engineSupplier,
+                                    int parallelism,
+                                    String partitionSelector,
+                                    int queueSize) {
+    this.partitionSelector = partitionSelector;
+    this.engines = new ArrayList<>(parallelism);
+    this.workers = new ArrayList<>(parallelism);
+    this.nextWorker = new AtomicInteger();
+    this.missingKeyLogged = new AtomicBoolean();
+
+    for (int i = 0; i < parallelism; i++) {
+      engines.add(i == 0 ? firstEngine : engineSupplier.get());
+      workers.add(makeWorker(i, queueSize));
+    }
+    this.running = true;
+  }
+
+  private ExecutorService makeWorker(int index,
+                                     int queueSize) {
+    return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(queueSize, 1)),
+        r -> {
+          Thread thread = new Thread(r, "partition-worker-" + index);
+          thread.setDaemon(true);
+          return thread;
+        },
+        new BlockingRejectionHandler());
+  }
+
+  public List<PeT> getEngines() {
+    return engines;
+  }
+
+  public void dispatch(Event event, BiConsumer<PeT, Event> handler) {
+    if (!running) {
+      LOG.debug("Ignoring event dispatched after shutdown");
+      return;
+    }
+    int worker = getWorker(event);
+    workers.get(worker).execute(() -> handler.accept(engines.get(worker), event));
+  }
+
+  /**
+   * Stops accepting events and waits until the workers have processed all pending events.
+   */
+  public void shutdown() {
+    running = false;
+    workers.forEach(ExecutorService::shutdown);
+    for (ExecutorService worker : workers) {
+      try {
+        if (!worker.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          LOG.warn("Worker did not finish processing pending events in time");
+          worker.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        worker.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private int getWorker(Event event) {
+    Object key = getKey(event);
+    if (key == null) {
+      if (missingKeyLogged.compareAndSet(false, true)) {
+        LOG.warn("Events without partition field {} are distributed round-robin", partitionSelector);
+      }
+      return Math.floorMod(nextWorker.getAndIncrement(), workers.size());
+    }
+    return Math.floorMod(Objects.hashCode(key), workers.size());
+  }
+
+  private Object getKey(Event event) {
+    AbstractField field = event.getFields().get(partitionSelector);
+    if (field == null) {
+      try {
+        field = event.getFieldBySelector(partitionSelector);
+      } catch (RuntimeException e) {
+        // the field is neither a top-level nor a nested field of the event
+        return null;
+      }
+    }
+    return field != null ? field.getRawValue() : null;
+  }
+
+  /**
+   * Waits for free space in the queue of a worker instead of rejecting the event.
+   */
+  private static class BlockingRejectionHandler implements RejectedExecutionHandler {
+
+    @Override
+    public void rejectedExecution(Runnable task,
+                                  ThreadPoolExecutor executor) {
+      if (executor.isShutdown()) {
+        LOG.debug("Ignoring event dispatched after shutdown");
+        return;
+      }
+      try {
+        executor.getQueue().put(task);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
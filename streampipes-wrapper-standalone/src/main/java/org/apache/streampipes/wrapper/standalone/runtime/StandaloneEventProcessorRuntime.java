@@ -19,7 +19,11 @@
 package org.apache.streampipes.wrapper.standalone.runtime;
 
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.extensions.management.monitoring.EventTracer;
+import org.apache.streampipes.model.SpDataStream;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 import org.apache.streampipes.wrapper.params.runtime.EventProcessorRuntimeParams;
@@ -27,10 +31,12 @@ import org.apache.streampipes.wrapper.routing.SpInputCollector;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 import org.apache.streampipes.wrapper.standalone.manager.ProtocolManager;
+import org.apache.streampipes.wrapper.standalone.routing.StandaloneSpOutputCollector;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
@@ -46,24 +52,23 @@ public class StandaloneEventProcessorRuntime<T extends EventProcessorBindingPara
                                          EventProcessorRuntimeParams<T> params) {
     super(supplier, params);
     this.outputCollector = getOutputCollector();
+    enablePartitionedProcessing(supplier);
   }
 
 
   public SpOutputCollector getOutputCollector() throws SpRuntimeException {
-    return ProtocolManager.findOutputCollector(
-        params
-            .getBindingParams()
-            .getGraph()
-            .getOutputStream()
+    SpDataStream outputStream = params.getBindingParams().getGraph().getOutputStream();
+    StandaloneSpOutputCollector outputCollector = ProtocolManager.findOutputCollector(
+        outputStream
             .getEventGrounding()
             .getTransportProtocol(),
-        params.getBindingParams()
-            .getGraph()
-            .getOutputStream()
+        outputStream
             .getEventGrounding()
             .getTransportFormats()
             .get(0),
         this.resourceId);
+    outputCollector.bindSchema(outputStream.getEventSchema());
+    return outputCollector;
   }
 
   @Override
@@ -75,17 +80,50 @@ public class StandaloneEventProcessorRuntime<T extends EventProcessorBindingPara
 
   @Override
   public void process(Map<String, Object> rawEvent, String sourceInfo) {
+    process(() -> params.makeEvent(rawEvent, sourceInfo), sourceInfo);
+  }
+
+  @Override
+  public void process(byte[] rawEvent, SpDataFormatDefinition dataFormatDefinition, String sourceInfo) {
+    process(() -> params.makeEvent(rawEvent, dataFormatDefinition, sourceInfo), sourceInfo);
+  }
+
+  private void process(Supplier<Event> eventSupplier, String sourceInfo) {
     try {
-      monitoringManager.increaseInCounter(resourceId, sourceInfo, System.currentTimeMillis());
-      engine.onEvent(params.makeEvent(rawEvent, sourceInfo), outputCollector);
+      metrics.increaseInCounter(sourceInfo);
+      Event event = eventSupplier.get();
+      List<Long> trace = EventTracer.INSTANCE.extract(metrics);
+      if (dispatcher != null) {
+        dispatcher.dispatch(event, (workerEngine, e) -> onEvent(workerEngine, e, trace));
+      } else {
+        // consumers may deliver events from several threads, e.g., one per Kafka partition
+        synchronized (engine) {
+          onEvent(engine, event, trace);
+        }
+      }
     } catch (RuntimeException e) {
       LOG.error("RuntimeException while processing event in {}", engine.getClass().getCanonicalName(), e);
       addLogEntry(e);
     }
   }
 
+  private void onEvent(EventProcessor<T> workerEngine, Event event, List<Long> trace) {
+    EventTracer.INSTANCE.begin(trace);
+    try {
+      long start = System.nanoTime();
+      workerEngine.onEvent(event, outputCollector);
+      metrics.recordProcessingTime(System.nanoTime() - start);
+    } catch (RuntimeException e) {
+      LOG.error("RuntimeException while processing event in {}", workerEngine.getClass().getCanonicalName(), e);
+      addLogEntry(e);
+    } finally {
+      EventTracer.INSTANCE.end();
+    }
+  }
+
   @Override
   public void bindRuntime() throws SpRuntimeException {
+    params.compileEventLayouts();
     bindEngine();
     getInputCollectors().forEach(is -> is.registerConsumer(instanceId, this));
     prepareRuntime();
@@ -111,7 +149,9 @@ public class StandaloneEventProcessorRuntime<T extends EventProcessorBindingPara
 
   @Override
   public void bindEngine() throws SpRuntimeException {
-    engine.onInvocation(params.getBindingParams(), getOutputCollector(), params.getRuntimeContext());
+    for (EventProcessor<T> e : getEngines()) {
+      e.onInvocation(params.getBindingParams(), getOutputCollector(), params.getRuntimeContext());
+    }
   }
 
 }
@@ -19,7 +19,10 @@
 package org.apache.streampipes.wrapper.standalone.runtime;
 
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.extensions.management.monitoring.EventTracer;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
+import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.params.binding.EventSinkBindingParams;
 import org.apache.streampipes.wrapper.params.runtime.EventSinkRuntimeParams;
@@ -41,6 +44,7 @@ public class StandaloneEventSinkRuntime<T extends EventSinkBindingParams> extend
   public StandaloneEventSinkRuntime(Supplier<EventSink<T>> supplier, EventSinkRuntimeParams<T>
       params) {
     super(supplier, params);
+    enablePartitionedProcessing(supplier);
   }
 
   @Override
@@ -52,17 +56,47 @@ public class StandaloneEventSinkRuntime<T extends EventSinkBindingParams> extend
 
   @Override
   public void process(Map<String, Object> rawEvent, String sourceInfo) {
+    process(() -> params.makeEvent(rawEvent, sourceInfo), sourceInfo);
+  }
+
+  @Override
+  public void process(byte[] rawEvent, SpDataFormatDefinition dataFormatDefinition, String sourceInfo) {
+    process(() -> params.makeEvent(rawEvent, dataFormatDefinition, sourceInfo), sourceInfo);
+  }
+
+  private void process(Supplier<Event> eventSupplier, String sourceInfo) {
     try {
-      monitoringManager.increaseInCounter(resourceId, sourceInfo, System.currentTimeMillis());
-      engine.onEvent(params.makeEvent(rawEvent, sourceInfo));
+      metrics.increaseInCounter(sourceInfo);
+      Event event = eventSupplier.get();
+      EventTracer.INSTANCE.extract(metrics);
+      if (dispatcher != null) {
+        dispatcher.dispatch(event, this::onEvent);
+      } else {
+        // consumers may deliver events from several threads, e.g., one per Kafka partition
+        synchronized (engine) {
+          onEvent(engine, event);
+        }
+      }
     } catch (RuntimeException e) {
       LOG.error("RuntimeException while processing event in {}", engine.getClass().getCanonicalName(), e);
       addLogEntry(e);
     }
   }
 
+  private void onEvent(EventSink<T> workerEngine, Event event) {
+    try {
+      long start = System.nanoTime();
+      workerEngine.onEvent(event);
+      metrics.recordProcessingTime(System.nanoTime() - start);
+    } catch (RuntimeException e) {
+      LOG.error("RuntimeException while processing event in {}", workerEngine.getClass().getCanonicalName(), e);
+      addLogEntry(e);
+    }
+  }
+
   @Override
   public void bindRuntime() throws SpRuntimeException {
+    params.compileEventLayouts();
     bindEngine();
     getInputCollectors().forEach(is -> is.registerConsumer(instanceId, this));
     prepareRuntime();
@@ -84,7 +118,9 @@ public class StandaloneEventSinkRuntime<T extends EventSinkBindingParams> extend
 
   @Override
   public void bindEngine() throws SpRuntimeException {
-    engine.onInvocation(params.getBindingParams(), params.getRuntimeContext());
+    for (EventSink<T> e : getEngines()) {
+      e.onInvocation(params.getBindingParams(), params.getRuntimeContext());
+    }
   }
 
 }
@@ -17,12 +17,17 @@
  */
 package org.apache.streampipes.wrapper.standalone.runtime;
 
+import org.apache.streampipes.commons.environment.Environment;
+import org.apache.streampipes.commons.environment.Environments;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.extensions.management.monitoring.ElementMetrics;
 import org.apache.streampipes.extensions.management.monitoring.SpMonitoringManager;
 import org.apache.streampipes.model.SpDataStream;
 import org.apache.streampipes.model.StreamPipesErrorMessage;
 import org.apache.streampipes.model.base.InvocableStreamPipesEntity;
 import org.apache.streampipes.model.monitoring.SpLogEntry;
+import org.apache.streampipes.model.staticproperty.MappingPropertyUnary;
+import org.apache.streampipes.model.staticproperty.StaticProperty;
 import org.apache.streampipes.wrapper.context.RuntimeContext;
 import org.apache.streampipes.wrapper.params.binding.BindingParams;
 import org.apache.streampipes.wrapper.params.runtime.RuntimeParams;
@@ -31,9 +36,16 @@ import org.apache.streampipes.wrapper.routing.SpInputCollector;
 import org.apache.streampipes.wrapper.runtime.PipelineElement;
 import org.apache.streampipes.wrapper.runtime.PipelineElementRuntime;
 import org.apache.streampipes.wrapper.standalone.manager.ProtocolManager;
+import org.apache.streampipes.wrapper.standalone.routing.StandaloneSpInputCollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 public abstract class StandalonePipelineElementRuntime<T extends BindingParams<K>,
@@ -43,9 +55,19 @@ public abstract class StandalonePipelineElementRuntime<T extends BindingParams<K
     PeT extends PipelineElement<T, K>>
     extends PipelineElementRuntime implements RawDataProcessor {
 
+  /**
+   * Internal name of the mapping property which selects the field by which the events of an element
+   * are partitioned if a processing parallelism is configured.
+   */
+  public static final String PARTITION_BY = "partition-by";
+
+  private static final Logger LOG = LoggerFactory.getLogger(StandalonePipelineElementRuntime.class);
+
   protected final PeT engine;
+  protected PartitionedEventDispatcher<PeT> dispatcher;
   protected V params;
   protected SpMonitoringManager monitoringManager;
+  protected ElementMetrics metrics;
   protected String resourceId;
 
   public StandalonePipelineElementRuntime(Supplier<PeT> supplier, V runtimeParams) {
@@ -54,23 +76,71 @@ public abstract class StandalonePipelineElementRuntime<T extends BindingParams<K
     this.params = runtimeParams;
     this.monitoringManager = params.getRuntimeContext().getLogger();
     this.resourceId = params.getBindingParams().getGraph().getElementId();
+    this.metrics = monitoringManager.getElementMetrics(resourceId);
+  }
+
+  /**
+   * Enables partitioned processing with replicated engines if a processing parallelism is configured
+   * and the element selects its partition field with a {@link #PARTITION_BY} mapping property.
+   */
+  protected void enablePartitionedProcessing(Supplier<PeT> supplier) {
+    Environment env = Environments.getEnvironment();
+    int parallelism = env.getProcessingParallelism().getValueOrDefault();
+    if (parallelism > 1) {
+      Optional<String> partitionSelector = getPartitionSelector();
+      if (partitionSelector.isPresent()) {
+        this.dispatcher = new PartitionedEventDispatcher<>(engine, supplier, parallelism,
+            partitionSelector.get(), env.getProcessingQueueSize().getValueOrDefault());
+      } else {
+        LOG.info("Processing events of {} with a single engine since it has no {} mapping property",
+            resourceId, PARTITION_BY);
+      }
+    }
+  }
+
+  private Optional<String> getPartitionSelector() {
+    List<StaticProperty> staticProperties = params.getBindingParams().getGraph().getStaticProperties();
+    if (staticProperties == null) {
+      return Optional.empty();
+    }
+    return staticProperties
+        .stream()
+        .filter(sp -> sp instanceof MappingPropertyUnary && PARTITION_BY.equals(sp.getInternalName()))
+        .map(sp -> ((MappingPropertyUnary) sp).getSelectedProperty())
+        .filter(Objects::nonNull)
+        .findFirst();
   }
 
   public PeT getEngine() {
     return engine;
   }
 
+  /**
+   * Returns all engine instances of this runtime, which is more than one if events are processed
+   * by a partitioned worker pool.
+   */
+  protected List<PeT> getEngines() {
+    return dispatcher != null ? dispatcher.getEngines() : Collections.singletonList(engine);
+  }
+
   public void discardEngine() throws SpRuntimeException {
-    engine.onDetach();
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+    for (PeT e : getEngines()) {
+      e.onDetach();
+    }
     this.monitoringManager.resetCounter(resourceId);
   }
 
   public List<SpInputCollector> getInputCollectors() throws SpRuntimeException {
     List<SpInputCollector> inputCollectors = new ArrayList<>();
     for (SpDataStream is : params.getBindingParams().getGraph().getInputStreams()) {
-      inputCollectors.add(ProtocolManager.findInputCollector(is.getEventGrounding()
+      StandaloneSpInputCollector inputCollector = ProtocolManager.findInputCollector(is.getEventGrounding()
               .getTransportProtocol(), is.getEventGrounding().getTransportFormats().get(0),
-          params.isSingletonEngine()));
+          params.isSingletonEngine());
+      inputCollector.bindSchema(is.getEventSchema());
+      inputCollectors.add(inputCollector);
     }
     return inputCollectors;
   }
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.routing;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedEventQueueTest {
+
+  private final List<Integer> processed = new CopyOnWriteArrayList<>();
+  private BoundedEventQueue<Integer> queue;
+
+  @After
+  public void tearDown() {
+    if (queue != null) {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testDropNewestKeepsQueuedEvents() throws InterruptedException {
+    queue = makeQueue(OverflowPolicy.DROP_NEWEST, 2, 1);
+    offer(1, 2, 3, 4);
+
+    assertEquals(2, queue.getStatistics().getSize());
+    assertEquals(2, queue.getStatistics().getDropped());
+    assertEquals("DROP_NEWEST", queue.getStatistics().getOverflowPolicy());
+    assertEquals(Arrays.asList(1, 2), process(2));
+  }
+
+  @Test
+  public void testDropOldestKeepsNewEvents() throws InterruptedException {
+    queue = makeQueue(OverflowPolicy.DROP_OLDEST, 2, 1);
+    offer(1, 2, 3, 4);
+
+    assertEquals(2, queue.getStatistics().getSize());
+    assertEquals(2, queue.getStatistics().getDropped());
+    assertEquals(Arrays.asList(3, 4), process(2));
+  }
+
+  @Test
+  public void testSampleAdmitsEveryNthEventOnceHalfFull() throws InterruptedException {
+    queue = makeQueue(OverflowPolicy.SAMPLE, 4, 2);
+    offer(1, 2, 3, 4, 5, 6, 7, 8);
+
+    assertEquals(4, queue.getStatistics().getDropped());
+    assertEquals(Arrays.asList(1, 2, 4, 6), process(4));
+  }
+
+  @Test
+  public void testBlockWaitsForCapacity() throws InterruptedException {
+    queue = makeQueue(OverflowPolicy.BLOCK, 1, 1);
+    offer(1);
+
+    Thread producer = new Thread(() -> offer(2));
+    producer.start();
+    producer.join(200);
+    assertTrue(producer.isAlive());
+    assertEquals(1, queue.getStatistics().getSize());
+
+    List<Integer> events = process(2);
+    producer.join(5000);
+    assertFalse(producer.isAlive());
+    assertEquals(Arrays.asList(1, 2), events);
+    assertEquals(0, queue.getStatistics().getDropped());
+  }
+
+  @Test
+  public void testStopReleasesBlockedProducer() throws InterruptedException {
+    CountDownLatch processing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    queue = new BoundedEventQueue<>("test", 1, OverflowPolicy.BLOCK, 1, event -> {
+      processing.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      processed.add(event);
+    });
+    queue.start();
+    offer(1);
+    assertTrue(processing.await(5, TimeUnit.SECONDS));
+    offer(2);
+
+    Thread producer = new Thread(() -> offer(3));
+    producer.start();
+    producer.join(200);
+    assertTrue(producer.isAlive());
+
+    Thread stopper = new Thread(() -> queue.stop());
+    stopper.start();
+    producer.join(5000);
+    assertFalse(producer.isAlive());
+
+    release.countDown();
+    stopper.join(5000);
+    assertFalse(stopper.isAlive());
+    // the event in progress is finished, the queued and the blocked event are dropped
+    assertEquals(Arrays.asList(1), processed);
+    assertEquals(0, queue.getStatistics().getSize());
+    assertEquals(2, queue.getStatistics().getDropped());
+  }
+
+  @Test
+  public void testFailingEventDoesNotStopWorker() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    queue = new BoundedEventQueue<>("test", 4, OverflowPolicy.BLOCK, 1, event -> {
+      if (event == 1) {
+        throw new IllegalStateException("failed");
+      }
+      latch.countDown();
+    });
+    queue.start();
+    offer(1, 2);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPolicyParsing() {
+    assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.fromString(" drop-oldest "));
+    assertEquals(OverflowPolicy.SAMPLE, OverflowPolicy.fromString("SAMPLE"));
+    assertEquals(OverflowPolicy.BLOCK, OverflowPolicy.fromString("drop-everything"));
+    assertEquals(OverflowPolicy.BLOCK, OverflowPolicy.fromString(null));
+  }
+
+  private BoundedEventQueue<Integer> makeQueue(OverflowPolicy policy,
+                                               int capacity,
+                                               int samplingRate) {
+    return new BoundedEventQueue<>("test", capacity, policy, samplingRate, processed::add);
+  }
+
+  private void offer(Integer... events) {
+    for (Integer event : events) {
+      queue.offer(event);
+    }
+  }
+
+  private List<Integer> process(int expectedEvents) throws InterruptedException {
+    queue.start();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (processed.size() < expectedEvents && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    return processed;
+  }
+}
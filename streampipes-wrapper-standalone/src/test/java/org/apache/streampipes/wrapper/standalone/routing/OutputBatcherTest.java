@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.routing;
+
+import org.apache.streampipes.messaging.EventProducer;
+import org.apache.streampipes.model.grounding.TransportProtocol;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OutputBatcherTest {
+
+  private final BatchRecordingProducer producer = new BatchRecordingProducer();
+  private OutputBatcher batcher;
+
+  @After
+  public void tearDown() {
+    if (batcher != null) {
+      batcher.stop();
+    }
+  }
+
+  @Test
+  public void testBatchIsPublishedOnceFull() {
+    batcher = new OutputBatcher(producer, 3, 60000);
+    batcher.start();
+
+    for (int i = 0; i < 7; i++) {
+      batcher.add(new byte[]{(byte) i});
+    }
+
+    assertEquals(List.of(List.of(0, 1, 2), List.of(3, 4, 5)), producer.getBatches());
+  }
+
+  @Test
+  public void testPartialBatchIsPublishedAfterLingerTime() throws InterruptedException {
+    batcher = new OutputBatcher(producer, 100, 20);
+    batcher.start();
+
+    batcher.add(new byte[]{1});
+    batcher.add(new byte[]{2});
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (producer.getBatches().isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(List.of(List.of(1, 2)), producer.getBatches());
+  }
+
+  @Test
+  public void testStopPublishesRemainingEvents() {
+    batcher = new OutputBatcher(producer, 100, 60000);
+    batcher.start();
+
+    batcher.add(new byte[]{1});
+    batcher.stop();
+
+    assertEquals(List.of(List.of(1)), producer.getBatches());
+  }
+
+  @Test
+  public void testSchedulerRunsOnDaemonThread() {
+    batcher = new OutputBatcher(producer, 100, 60000);
+    batcher.start();
+
+    List<Thread> threads = Thread.getAllStackTraces().keySet()
+        .stream()
+        .filter(thread -> thread.getName().equals("output-batcher"))
+        .collect(Collectors.toList());
+    assertTrue(threads.stream().allMatch(Thread::isDaemon));
+  }
+
+  private static class BatchRecordingProducer implements EventProducer<TransportProtocol> {
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void connect(TransportProtocol protocolSettings) {
+    }
+
+    @Override
+    public void publish(byte[] event) {
+      publishBatch(List.of(event));
+    }
+
+    @Override
+    public void publishBatch(List<byte[]> events) {
+      List<Integer> batch = new ArrayList<>();
+      events.forEach(event -> batch.add((int) event[0]));
+      batches.add(batch);
+    }
+
+    @Override
+    public void disconnect() {
+    }
+
+    @Override
+    public boolean isConnected() {
+      return true;
+    }
+
+    List<List<Integer>> getBatches() {
+      return batches;
+    }
+  }
+}
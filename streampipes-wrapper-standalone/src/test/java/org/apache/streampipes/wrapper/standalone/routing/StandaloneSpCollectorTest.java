@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.routing;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+import org.apache.streampipes.dataformat.SpDataFormatFactory;
+import org.apache.streampipes.dataformat.SpDataFormatManager;
+import org.apache.streampipes.messaging.EventConsumer;
+import org.apache.streampipes.messaging.EventProducer;
+import org.apache.streampipes.messaging.InternalEventProcessor;
+import org.apache.streampipes.messaging.SpProtocolDefinition;
+import org.apache.streampipes.messaging.SpProtocolDefinitionFactory;
+import org.apache.streampipes.messaging.SpProtocolManager;
+import org.apache.streampipes.model.grounding.SimpleTopicDefinition;
+import org.apache.streampipes.model.grounding.TransportFormat;
+import org.apache.streampipes.model.grounding.TransportProtocol;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.wrapper.routing.RawDataProcessor;
+import org.apache.streampipes.wrapper.standalone.manager.ProtocolManager;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StandaloneSpCollectorTest {
+
+  private static final String TOPIC = "org.apache.streampipes.test.collector";
+  private static final String FORMAT_URI = "http://streampipes.org/test/text";
+  private static final String FIELD = "value";
+
+  private static final Map<String, List<InternalEventProcessor<byte[]>>> BROKER = new ConcurrentHashMap<>();
+  private static volatile boolean headersSupported;
+
+  private StandaloneSpOutputCollector<?> outputCollector;
+  private StandaloneSpInputCollector<?> inputCollector;
+  private final List<Object> locallyReceived = new CopyOnWriteArrayList<>();
+  private final List<String> receivingThreads = new CopyOnWriteArrayList<>();
+
+  @BeforeClass
+  public static void registerDefinitions() {
+    SpProtocolManager.INSTANCE.register(new InMemoryProtocolFactory());
+    SpDataFormatManager.INSTANCE.register(new TextFormatFactory());
+  }
+
+  @After
+  public void tearDown() {
+    inputCollector.unregisterConsumer("consumer");
+    inputCollector.disconnect();
+    outputCollector.disconnect();
+    BROKER.clear();
+  }
+
+  @Test
+  public void testEventsOfLocalAndRemoteProducersAreReceivedOnce() {
+    connect(false, true);
+
+    outputCollector.collect(EventFactory.fromMap(Map.of(FIELD, "local")));
+    new InMemoryProducer().publish(encode("remote"));
+
+    assertEquals(List.of("local", "remote"), locallyReceived);
+  }
+
+  @Test
+  public void testRemoteConsumerReceivesLocallyProducedEvents() {
+    connect(false, true);
+    List<Object> remotelyReceived = new ArrayList<>();
+    subscribe(event -> remotelyReceived.add(new String(event, StandardCharsets.UTF_8)));
+
+    outputCollector.collect(EventFactory.fromMap(Map.of(FIELD, "local")));
+
+    assertEquals(List.of("local"), remotelyReceived);
+    assertEquals(List.of("local"), locallyReceived);
+  }
+
+  @Test
+  public void testLocalTransportDeliversLocallyProducedEventsOnce() throws InterruptedException {
+    connect(true, true);
+
+    outputCollector.collect(EventFactory.fromMap(Map.of(FIELD, "local")));
+
+    waitFor(() -> !locallyReceived.isEmpty());
+    Thread.sleep(50);
+    assertEquals(List.of("local"), locallyReceived);
+    assertTrue(receivingThreads.get(0).startsWith("local-transport-"));
+  }
+
+  @Test
+  public void testLocalTransportStillPublishesToTheBroker() throws InterruptedException {
+    connect(true, true);
+    List<Object> remotelyReceived = new CopyOnWriteArrayList<>();
+    List<Map<String, String>> remoteHeaders = new CopyOnWriteArrayList<>();
+    subscribe(new InternalEventProcessor<>() {
+      @Override
+      public void onEvent(byte[] event) {
+        onEvent(event, Collections.emptyMap());
+      }
+
+      @Override
+      public void onEvent(byte[] event, Map<String, String> headers) {
+        remotelyReceived.add(new String(event, StandardCharsets.UTF_8));
+        remoteHeaders.add(headers);
+      }
+    });
+
+    outputCollector.collect(EventFactory.fromMap(Map.of(FIELD, "local")));
+
+    waitFor(() -> !locallyReceived.isEmpty());
+    assertEquals(List.of("local"), remotelyReceived);
+    assertEquals(LocalEventChannel.INSTANCE_ID,
+        remoteHeaders.get(0).get(LocalEventChannel.DELIVERED_LOCALLY_HEADER));
+  }
+
+  @Test
+  public void testLocalTransportReceivesEventsOfOtherServicesFromTheBroker() throws InterruptedException {
+    connect(true, true);
+
+    new InMemoryProducer().publish(encode("remote"));
+    new InMemoryProducer().publish(encode("other-service"),
+        Map.of(LocalEventChannel.DELIVERED_LOCALLY_HEADER, "another-instance"));
+    outputCollector.collect(EventFactory.fromMap(Map.of(FIELD, "local")));
+
+    waitFor(() -> locallyReceived.size() >= 3);
+    Thread.sleep(50);
+    assertEquals(List.of("remote", "other-service", "local"), locallyReceived);
+  }
+
+  @Test
+  public void testLocalTransportIsNotUsedWithoutHeaderSupport() {
+    connect(true, false);
+
+    outputCollector.collect(EventFactory.fromMap(Map.of(FIELD, "local")));
+
+    assertEquals(List.of("local"), locallyReceived);
+    assertEquals(Thread.currentThread().getName(), receivingThreads.get(0));
+  }
+
+  private void connect(boolean localTransportEnabled,
+                       boolean supportsHeaders) {
+    headersSupported = supportsHeaders;
+    outputCollector = new StandaloneSpOutputCollector<>(makeProtocol(), makeFormat(), "producer",
+        localTransportEnabled);
+    outputCollector.connect();
+
+    var collector = new StandaloneSpInputCollector<>(makeProtocol(), makeFormat(), false, localTransportEnabled);
+    ProtocolManager.consumers.put(TOPIC, collector);
+    inputCollector = collector;
+    inputCollector.registerConsumer("consumer", (RawDataProcessor) (event, sourceInfo) -> {
+      receivingThreads.add(Thread.currentThread().getName());
+      locallyReceived.add(event.get(FIELD));
+    });
+    inputCollector.connect();
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  private static void subscribe(InternalEventProcessor<byte[]> processor) {
+    BROKER.computeIfAbsent(TOPIC, key -> new CopyOnWriteArrayList<>()).add(processor);
+  }
+
+  private static byte[] encode(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static InMemoryProtocol makeProtocol() {
+    return new InMemoryProtocol();
+  }
+
+  private static TransportFormat makeFormat() {
+    return new TransportFormat(FORMAT_URI);
+  }
+
+  public static class InMemoryProtocol extends TransportProtocol {
+
+    public InMemoryProtocol() {
+      super("localhost", new SimpleTopicDefinition(TOPIC));
+    }
+  }
+
+  private static class InMemoryProtocolFactory extends SpProtocolDefinitionFactory<InMemoryProtocol> {
+
+    @Override
+    public TransportProtocol getTransportProtocol() {
+      return makeProtocol();
+    }
+
+    @Override
+    public String getTransportProtocolClass() {
+      return InMemoryProtocol.class.getCanonicalName();
+    }
+
+    @Override
+    public SpProtocolDefinition<InMemoryProtocol> createInstance() {
+      var consumer = new InMemoryConsumer();
+      var producer = new InMemoryProducer();
+      var supportsHeaders = headersSupported;
+      return new SpProtocolDefinition<>() {
+        @Override
+        public EventConsumer<InMemoryProtocol> getConsumer() {
+          return consumer;
+        }
+
+        @Override
+        public EventProducer<InMemoryProtocol> getProducer() {
+          return producer;
+        }
+
+        @Override
+        public boolean supportsHeaders() {
+          return supportsHeaders;
+        }
+      };
+    }
+  }
+
+  private static class InMemoryConsumer implements EventConsumer<InMemoryProtocol> {
+
+    private InternalEventProcessor<byte[]> processor;
+
+    @Override
+    public void connect(InMemoryProtocol protocolSettings,
+                        InternalEventProcessor<byte[]> eventProcessor) throws SpRuntimeException {
+      this.processor = eventProcessor;
+      subscribe(eventProcessor);
+    }
+
+    @Override
+    public void disconnect() throws SpRuntimeException {
+      BROKER.get(TOPIC).remove(processor);
+      this.processor = null;
+    }
+
+    @Override
+    public boolean isConnected() {
+      return processor != null;
+    }
+  }
+
+  private static class InMemoryProducer implements EventProducer<InMemoryProtocol> {
+
+    private boolean connected;
+
+    @Override
+    public void connect(InMemoryProtocol protocolSettings) throws SpRuntimeException {
+      this.connected = true;
+    }
+
+    @Override
+    public void publish(byte[] event) {
+      publish(event, Collections.emptyMap());
+    }
+
+    @Override
+    public void publish(byte[] event,
+                        Map<String, String> headers) {
+      BROKER.getOrDefault(TOPIC, List.of()).forEach(processor -> processor.onEvent(event, headers));
+    }
+
+    @Override
+    public void disconnect() throws SpRuntimeException {
+      this.connected = false;
+    }
+
+    @Override
+    public boolean isConnected() {
+      return connected;
+    }
+  }
+
+  private static class TextFormatFactory extends SpDataFormatFactory {
+
+    @Override
+    public String getTransportFormatRdfUri() {
+      return FORMAT_URI;
+    }
+
+    @Override
+    public SpDataFormatDefinition createInstance() {
+      return new SpDataFormatDefinition() {
+        @Override
+        public Map<String, Object> toMap(byte[] event) throws SpRuntimeException {
+          return Map.of(FIELD, new String(event, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public byte[] fromMap(Map<String, Object> event) throws SpRuntimeException {
+          return encode(event.get(FIELD).toString());
+        }
+      };
+    }
+  }
+}
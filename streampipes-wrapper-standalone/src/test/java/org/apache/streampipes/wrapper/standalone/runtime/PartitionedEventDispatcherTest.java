@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.wrapper.standalone.runtime;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedEventDispatcherTest {
+
+  private static final String PARTITION_FIELD = "sensorId";
+  private static final String VALUE_FIELD = "value";
+
+  private PartitionedEventDispatcher<List<Object>> dispatcher;
+
+  @After
+  public void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+  }
+
+  @Test
+  public void testEventsWithSameKeyAreProcessedInOrderBySameEngine() {
+    dispatcher = makeDispatcher(4, 10);
+
+    for (int i = 0; i < 100; i++) {
+      dispatcher.dispatch(makeEvent("sensor" + (i % 3), i), this::process);
+    }
+    dispatcher.shutdown();
+
+    int processed = 0;
+    for (List<Object> engine : dispatcher.getEngines()) {
+      Map<Object, Integer> lastValues = new HashMap<>();
+      for (Object entry : engine) {
+        Object[] keyAndValue = (Object[]) entry;
+        Integer last = lastValues.put(keyAndValue[0], (Integer) keyAndValue[1]);
+        assertTrue(last == null || last < (Integer) keyAndValue[1]);
+        processed++;
+      }
+      for (Object key : lastValues.keySet()) {
+        for (List<Object> other : dispatcher.getEngines()) {
+          if (other != engine) {
+            assertFalse(other.stream().anyMatch(e -> ((Object[]) e)[0].equals(key)));
+          }
+        }
+      }
+    }
+    assertEquals(100, processed);
+  }
+
+  @Test
+  public void testDispatchBlocksWhileQueueIsFull() throws InterruptedException {
+    dispatcher = makeDispatcher(1, 1);
+    CountDownLatch blockWorker = new CountDownLatch(1);
+    CountDownLatch workerStarted = new CountDownLatch(1);
+
+    dispatcher.dispatch(makeEvent("sensor", 0), (engine, event) -> {
+      workerStarted.countDown();
+      awaitQuietly(blockWorker);
+      process(engine, event);
+    });
+    assertTrue(workerStarted.await(5, TimeUnit.SECONDS));
+    // fills the queue of the only worker
+    dispatcher.dispatch(makeEvent("sensor", 1), this::process);
+
+    CountDownLatch dispatched = new CountDownLatch(1);
+    Thread producer = new Thread(() -> {
+      dispatcher.dispatch(makeEvent("sensor", 2), this::process);
+      dispatched.countDown();
+    });
+    producer.start();
+
+    assertFalse(dispatched.await(200, TimeUnit.MILLISECONDS));
+    blockWorker.countDown();
+    assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+    producer.join();
+
+    dispatcher.shutdown();
+    assertEquals(3, dispatcher.getEngines().get(0).size());
+  }
+
+  @Test
+  public void testShutdownProcessesPendingEvents() {
+    dispatcher = makeDispatcher(2, 100);
+    for (int i = 0; i < 50; i++) {
+      dispatcher.dispatch(makeEvent("sensor" + i, i), this::process);
+    }
+    dispatcher.shutdown();
+
+    assertEquals(50, dispatcher.getEngines().stream().mapToInt(List::size).sum());
+  }
+
+  @Test
+  public void testEventsWithoutPartitionFieldAreDistributedRoundRobin() {
+    dispatcher = makeDispatcher(4, 10);
+    for (int i = 0; i < 8; i++) {
+      Map<String, Object> map = new HashMap<>();
+      map.put(VALUE_FIELD, i);
+      dispatcher.dispatch(EventFactory.fromMap(map, new SourceInfo("topic", "s0"),
+          new SchemaInfo(null, new ArrayList<>())), (engine, event) -> engine.add(event));
+    }
+    dispatcher.shutdown();
+
+    for (List<Object> engine : dispatcher.getEngines()) {
+      assertEquals(2, engine.size());
+    }
+  }
+
+  @Test
+  public void testDispatchAfterShutdownIsIgnored() {
+    dispatcher = makeDispatcher(2, 10);
+    dispatcher.shutdown();
+
+    dispatcher.dispatch(makeEvent("sensor", 0), this::process);
+
+    assertEquals(0, dispatcher.getEngines().stream().mapToInt(List::size).sum());
+  }
+
+  private PartitionedEventDispatcher<List<Object>> makeDispatcher(int parallelism,
+                                                                  int queueSize) {
+    return new PartitionedEventDispatcher<>(
+        new CopyOnWriteArrayList<>(),
+        CopyOnWriteArrayList::new,
+        parallelism,
+        "s0::" + PARTITION_FIELD,
+        queueSize);
+  }
+
+  private void process(List<Object> engine,
+                       Event event) {
+    engine.add(new Object[]{
+        event.getFieldBySelector("s0::" + PARTITION_FIELD).getAsPrimitive().getAsString(),
+        event.getFieldBySelector("s0::" + VALUE_FIELD).getAsPrimitive().getAsInt()});
+  }
+
+  private Event makeEvent(String key,
+                          int value) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(PARTITION_FIELD, key);
+    map.put(VALUE_FIELD, value);
+    return EventFactory.fromMap(map, new SourceInfo("topic", "s0"), new SchemaInfo(null, new ArrayList<>()));
+  }
+
+  private void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -19,16 +19,19 @@
 package org.apache.streampipes.wrapper.params.runtime;
 
 import org.apache.streampipes.client.StreamPipesClient;
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
 import org.apache.streampipes.extensions.management.config.ConfigExtractor;
 import org.apache.streampipes.model.base.InvocableStreamPipesEntity;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.EventLayout;
 import org.apache.streampipes.model.runtime.SchemaInfo;
 import org.apache.streampipes.model.runtime.SourceInfo;
 import org.apache.streampipes.wrapper.context.RuntimeContext;
 import org.apache.streampipes.wrapper.params.binding.BindingParams;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,6 +47,7 @@ public abstract class RuntimeParams<V extends BindingParams<W>, W extends
   protected StreamPipesClient streamPipesClient;
 
   private Map<String, Integer> eventInfoMap = new HashMap<>();
+  private List<EventLayout> eventLayouts;
 
   private Boolean singletonEngine;
 
@@ -71,10 +75,35 @@ public abstract class RuntimeParams<V extends BindingParams<W>, W extends
     }
   }
 
+  /**
+   * Compiles the field layout of all input streams, which is used by {@link #makeEvent(Map, String)}
+   * to create events without resolving selectors and rename rules for every single event.
+   */
+  public void compileEventLayouts() {
+    List<EventLayout> layouts = new ArrayList<>();
+    for (int i = 0; i < bindingParams.getInputStreamParams().size(); i++) {
+      layouts.add(EventLayout.compile(getSourceInfo(i), getSchemaInfo(i)));
+    }
+    this.eventLayouts = layouts;
+  }
+
   public Event makeEvent(Map<String, Object> mapEvent, String sourceId) {
-    return EventFactory.fromMap(mapEvent, getSourceInfo(getIndex(sourceId)), getSchemaInfo
-        (getIndex(sourceId)));
+    Integer index = getIndex(sourceId);
+    if (eventLayouts != null) {
+      return EventFactory.fromMap(mapEvent, getSourceInfo(index), getSchemaInfo(index), eventLayouts.get(index));
+    } else {
+      return EventFactory.fromMap(mapEvent, getSourceInfo(index), getSchemaInfo(index));
+    }
+  }
 
+  public Event makeEvent(byte[] rawEvent, SpDataFormatDefinition dataFormatDefinition, String sourceId) {
+    Integer index = getIndex(sourceId);
+    if (eventLayouts != null) {
+      return dataFormatDefinition.toEvent(rawEvent, getSourceInfo(index), getSchemaInfo(index),
+          eventLayouts.get(index));
+    } else {
+      return makeEvent(dataFormatDefinition.toMap(rawEvent), sourceId);
+    }
   }
 
   public List<SourceInfo> getSourceInfo() {
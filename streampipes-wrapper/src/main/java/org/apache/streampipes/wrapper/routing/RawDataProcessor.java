@@ -17,9 +17,15 @@
  */
 package org.apache.streampipes.wrapper.routing;
 
+import org.apache.streampipes.dataformat.SpDataFormatDefinition;
+
 import java.util.Map;
 
 public interface RawDataProcessor {
 
   void process(Map<String, Object> rawEvent, String sourceInfo);
+
+  default void process(byte[] rawEvent, SpDataFormatDefinition dataFormatDefinition, String sourceInfo) {
+    process(dataFormatDefinition.toMap(rawEvent), sourceInfo);
+  }
 }
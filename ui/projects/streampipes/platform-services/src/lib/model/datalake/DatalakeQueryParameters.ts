@@ -34,6 +34,8 @@ export class DatalakeQueryParameters {
     public filter: string;
     public missingValueBehaviour: MissingValueBehaviour;
     public maximumAmountOfEvents: number;
+    public downsampling: 'lttb' | 'minmax';
+    public downsamplingPoints: number;
 
     // should be only used for multi-query requests
     public measureName: string;
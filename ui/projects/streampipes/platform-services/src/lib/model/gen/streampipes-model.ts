@@ -3216,6 +3216,7 @@ export class QuantitativeValue extends ValueSpecification {
 export class RemoveDuplicatesTransformationRuleDescription extends StreamTransformationRuleDescription {
     '@class': 'org.apache.streampipes.model.connect.rules.stream.RemoveDuplicatesTransformationRuleDescription';
     'filterTimeWindow': string;
+    'keyFields': string[];
 
     static 'fromData'(
         data: RemoveDuplicatesTransformationRuleDescription,
@@ -3228,6 +3229,9 @@ export class RemoveDuplicatesTransformationRuleDescription extends StreamTransfo
             target || new RemoveDuplicatesTransformationRuleDescription();
         super.fromData(data, instance);
         instance.filterTimeWindow = data.filterTimeWindow;
+        instance.keyFields = __getCopyArrayFn(__identity<string>())(
+            data.keyFields,
+        );
         return instance;
     }
 }
@@ -50,6 +50,15 @@ export class DatalakeQueryParameterBuilder {
         return this;
     }
 
+    public withDownsampling(
+        downsampling: 'lttb' | 'minmax',
+        downsamplingPoints: number,
+    ): DatalakeQueryParameterBuilder {
+        this.queryParams.downsampling = downsampling;
+        this.queryParams.downsamplingPoints = downsamplingPoints;
+        return this;
+    }
+
     public withCountOnly(): DatalakeQueryParameterBuilder {
         this.queryParams.countOnly = true;
 